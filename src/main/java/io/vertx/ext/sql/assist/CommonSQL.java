@@ -1,11 +1,20 @@
 package io.vertx.ext.sql.assist;
 
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collector;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Pool;
 import io.vertx.sqlclient.PropertyKind;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
@@ -25,7 +34,11 @@ public abstract class CommonSQL<E, C> implements CommonSQLClinet<C> {
 	/** SQL 执行器 */
 	private SQLExecute<C> execute;
 	/** SQL 命令 */
-	private SQLCommand command;
+	private SQLCommandImpl command;
+	/** 实体类,无法通过泛型获取时为null */
+	private Class<E> entityClass;
+	/** 分页查询获取总行数与数据的方式 */
+	private SqlLimitStrategy limitStrategy = SqlLimitStrategy.SEQUENTIAL;
 
 	/**
 	 * 使用以注册或默认的{@link SQLStatement}
@@ -36,10 +49,14 @@ public abstract class CommonSQL<E, C> implements CommonSQLClinet<C> {
 	 *          执行器
 	 */
 	public CommonSQL(SQLExecute<C> execute) {
-		Class<?> entityClz = (Class<?>) ((ParameterizedType) this.getClass().getGenericSuperclass()).getActualTypeArguments()[0];
-		SQLStatement statement = SQLStatement.create(entityClz);
+		this.entityClass = entityClass();
+		if (entityClass == null) {
+			throw new IllegalArgumentException("The entity class cannot be resolved from the generic type of " + getClass().getName());
+		}
+		SQLStatement statement = SQLStatement.create(entityClass);
 		this.execute = execute;
 		this.command = new SQLCommandImpl(statement, execute);
+		this.command.setEntityCache(entityCache(entityClass));
 	}
 
 	/**
@@ -51,7 +68,226 @@ public abstract class CommonSQL<E, C> implements CommonSQLClinet<C> {
 	 *          SQL执行语句
 	 */
 	public CommonSQL(SQLExecute<C> execute, SQLStatement statement) {
+		this.entityClass = entityClass();
+		this.execute = execute;
 		this.command = new SQLCommandImpl(statement, execute);
+		this.command.setEntityCache(entityCache(entityClass));
+	}
+
+	/**
+	 * 使用原对象的语句与指定的执行器,不使用缓存与批量加载,用于事务
+	 * 
+	 * @param source
+	 *          原对象
+	 * @param execute
+	 *          绑定连接的执行器
+	 */
+	CommonSQL(CommonSQL<E, C> source, SQLExecute<C> execute) {
+		this.entityClass = source.entityClass;
+		this.execute = execute;
+		this.command = source.command.bind(execute);
+		this.limitStrategy = source.limitStrategy;
+	}
+
+	/**
+	 * 创建使用指定执行器的对象
+	 * 
+	 * @param execute
+	 *          绑定连接的执行器,客户端需要与当前对象一致
+	 * @return
+	 */
+	CommonSQL<E, C> bind(SQLExecute<C> execute) {
+		if (this.execute.getClient() != execute.getClient()) {
+			throw new IllegalArgumentException("The CommonSQL does not belong to the client of the transaction");
+		}
+		return new CommonSQL<E, C>(this, execute) {
+		};
+	}
+
+	/**
+	 * 使当前对象的缓存失效
+	 */
+	void invalidateCache() {
+		command.invalidateCache();
+	}
+
+	/**
+	 * 通过泛型获取实体类
+	 * 
+	 * @return 无法获取时返回null
+	 */
+	@SuppressWarnings("unchecked")
+	private Class<E> entityClass() {
+		try {
+			Object type = ((ParameterizedType) this.getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+			return type instanceof Class ? (Class<E>) type : null;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 通过实体类的{@link Table#cacheSize()}创建实体缓存
+	 * 
+	 * @param entityClz
+	 * @return 实体类没有开启缓存时返回null
+	 */
+	private static SqlEntityCache entityCache(Class<?> entityClz) {
+		Table table = entityClz == null ? null : entityClz.getAnnotation(Table.class);
+		if (table == null || table.cacheSize() <= 0) {
+			return null;
+		}
+		return new SqlEntityCache(table.cacheTtl(), table.cacheSize(), table.cacheMisses());
+	}
+
+	/**
+	 * 获取数据总行数的缓存
+	 * 
+	 * @return 没有设置时返回null
+	 */
+	public SqlCountCache getCountCache() {
+		return command.getCountCache();
+	}
+
+	/**
+	 * 设置数据总行数的缓存,getCount与limitAll优先从缓存中获取总行数,通过当前对象执行新增/修改/删除后缓存失效<br>
+	 * 通过execute/update/batch执行的自定义SQL语句不会使缓存失效
+	 * 
+	 * @param countCache
+	 *          为null时不缓存
+	 * @return
+	 */
+	public CommonSQL<E, C> setCountCache(SqlCountCache countCache) {
+		command.setCountCache(countCache);
+		return this;
+	}
+
+	/**
+	 * 获取查询结果的缓存
+	 * 
+	 * @return 没有设置时返回null
+	 */
+	public SqlResultCache getResultCache() {
+		return command.getResultCache();
+	}
+
+	/**
+	 * 设置查询结果的缓存,selectAll/limitAll/selectById/selectByIds/selectByObj/selectSingleByObj优先从缓存中获取结果,<br>
+	 * 结果按当前表名与joinOrReference中的表名标记,通过当前对象执行新增/修改/删除后标记了当前表的结果失效,多个对象可以共用一个缓存<br>
+	 * 通过execute/update/batch执行的自定义SQL语句不会使缓存失效
+	 * 
+	 * @param resultCache
+	 *          为null时不缓存
+	 * @return
+	 */
+	public CommonSQL<E, C> setResultCache(SqlResultCache resultCache) {
+		command.setResultCache(resultCache);
+		return this;
+	}
+
+	/**
+	 * 获取按主键缓存的实体数据
+	 * 
+	 * @return 没有设置时返回null
+	 */
+	public SqlEntityCache getEntityCache() {
+		return command.getEntityCache();
+	}
+
+	/**
+	 * 设置按主键缓存的实体数据,也可以通过{@link Table#cacheSize()}开启<br>
+	 * selectById/selectByIds不指定返回列、别名与连接语句时优先从缓存中获取,只查询缓存中不存在的主键<br>
+	 * 通过当前对象按主键修改/删除/replace后对应的数据失效,通过SqlAssist修改/删除后全部失效<br>
+	 * 通过execute/update/batch执行的自定义SQL语句不会使缓存失效
+	 * 
+	 * @param entityCache
+	 *          为null时不缓存
+	 * @return
+	 */
+	public CommonSQL<E, C> setEntityCache(SqlEntityCache entityCache) {
+		command.setEntityCache(entityCache);
+		return this;
+	}
+
+	/**
+	 * 获取合并selectById的批量加载
+	 * 
+	 * @return 没有设置时返回null
+	 */
+	public SqlBatchLoader getBatchLoader() {
+		return command.getBatchLoader();
+	}
+
+	/**
+	 * 设置合并selectById的批量加载,同一个Vert.x上下文中不指定返回列的selectById在当前任务结束后(或等待指定的时间后)<br>
+	 * 合并为一个selectByIds查询,相同的主键只查询一次;一个SqlBatchLoader只能用于一个对象
+	 * 
+	 * @param batchLoader
+	 *          为null时不合并
+	 * @return
+	 */
+	public CommonSQL<E, C> setBatchLoader(SqlBatchLoader batchLoader) {
+		command.setBatchLoader(batchLoader);
+		return this;
+	}
+
+	/**
+	 * 创建延迟批量新增的写入流,写入的实体达到批次大小或等待时间后通过{@link #insertBatch(List)}批量新增
+	 * 
+	 * @param vertx
+	 *          Vert.x,用于等待时间的定时器
+	 * @param batchSize
+	 *          每个批次最多多少条数据,达到时立即新增
+	 * @param maxDelay
+	 *          第一条数据写入后最多等待多少毫秒新增
+	 * @param maxInFlight
+	 *          最多同时执行多少个批次
+	 * @return
+	 */
+	public SqlInsertBuffer<E> createInsertBuffer(Vertx vertx, int batchSize, long maxDelay, int maxInFlight) {
+		return new SqlInsertBuffer<>(vertx, list -> insertBatch(list), batchSize, maxDelay, maxInFlight);
+	}
+
+	/**
+	 * 获取执行器合并相同并发查询的{@link SqlSingleFlight}
+	 * 
+	 * @return 没有设置时返回null
+	 */
+	public SqlSingleFlight getSingleFlight() {
+		return execute.getSingleFlight();
+	}
+
+	/**
+	 * 设置执行器合并相同并发查询的{@link SqlSingleFlight},SQL语句与参数相同的查询正在执行时等待该查询的结果,只合并查询<br>
+	 * 设置在执行器上,共用执行器的对象同时生效
+	 * 
+	 * @param singleFlight
+	 *          为null时不合并
+	 * @return
+	 */
+	public CommonSQL<E, C> setSingleFlight(SqlSingleFlight singleFlight) {
+		execute.setSingleFlight(singleFlight);
+		return this;
+	}
+
+	/**
+	 * 获取分页查询获取总行数与数据的方式
+	 * 
+	 * @return
+	 */
+	public SqlLimitStrategy getLimitStrategy() {
+		return limitStrategy;
+	}
+
+	/**
+	 * 设置分页查询获取总行数与数据的方式,默认为{@link SqlLimitStrategy#SEQUENTIAL}
+	 * 
+	 * @param limitStrategy
+	 * @return
+	 */
+	public CommonSQL<E, C> setLimitStrategy(SqlLimitStrategy limitStrategy) {
+		this.limitStrategy = limitStrategy == null ? SqlLimitStrategy.SEQUENTIAL : limitStrategy;
+		return this;
 	}
 
 	/**
@@ -65,11 +301,56 @@ public abstract class CommonSQL<E, C> implements CommonSQLClinet<C> {
 		return execute.getClient();
 	}
 
+	@Override
+	public <R> void withTransaction(Function<SqlTransaction<C>, Future<R>> block, Handler<AsyncResult<R>> handler) {
+		if (execute instanceof SQLExecuteImplConnection) {
+			// 已经在事务中,使用同一个连接与事务,外层事务结束时使所有涉及的对象的缓存失效
+			SQLExecuteImplConnection<C> connection = (SQLExecuteImplConnection<C>) execute;
+			SqlTransaction<C> outer = connection.getTransaction();
+			if (outer != null) {
+				block.apply(outer).onComplete(handler);
+				return;
+			}
+			// 绑定的连接不属于SqlTransaction,由当前调用结束后使缓存失效
+			SqlTransaction<C> tx = new SqlTransaction<>(connection);
+			connection.setTransaction(tx);
+			block.apply(tx).onComplete(res -> {
+				connection.setTransaction(null);
+				tx.completed();
+				handler.handle(res);
+			});
+			return;
+		}
+		C client = execute.getClient();
+		if (!(client instanceof Pool)) {
+			handler.handle(Future.failedFuture(new UnsupportedOperationException("The client does not support transaction")));
+			return;
+		}
+		List<SqlTransaction<C>> txs = new ArrayList<>(1);
+		((Pool) client).withTransaction(conn -> {
+			SQLExecuteImplConnection<C> connection = new SQLExecuteImplConnection<>(client, conn);
+			SqlTransaction<C> tx = new SqlTransaction<>(connection);
+			connection.setTransaction(tx);
+			txs.add(tx);
+			return block.apply(tx);
+		}, res -> {
+			for (SqlTransaction<C> tx : txs) {
+				tx.completed();
+			}
+			handler.handle(res);
+		});
+	}
+
 	@Override
 	public void execute(SqlAndParams qp, Handler<AsyncResult<RowSet<Row>>> handler) {
 		execute.execute(qp, handler);
 	}
 
+	@Override
+	public void executeAll(List<SqlAndParams> qps, boolean failFast, Handler<AsyncResult<CompositeFuture>> handler) {
+		execute.executeAll(qps, failFast, handler);
+	}
+
 	@Override
 	public void queryAsObj(SqlAndParams qp, Handler<AsyncResult<JsonObject>> handler) {
 		execute.queryAsObj(qp, handler);
@@ -80,6 +361,26 @@ public abstract class CommonSQL<E, C> implements CommonSQLClinet<C> {
 		execute.queryAsList(qp, handler);
 	}
 
+	@Override
+	public <R> void queryAs(SqlAndParams qp, RowMapper<R> mapper, Handler<AsyncResult<List<R>>> handler) {
+		execute.queryAs(qp, mapper, handler);
+	}
+
+	@Override
+	public void queryAsBuffer(SqlAndParams qp, boolean ndjson, Handler<AsyncResult<Buffer>> handler) {
+		execute.queryAsBuffer(qp, ndjson, handler);
+	}
+
+	@Override
+	public <A, R> void collect(SqlAndParams qp, Collector<Row, A, R> collector, Handler<AsyncResult<R>> handler) {
+		execute.collect(qp, collector, handler);
+	}
+
+	@Override
+	public <R> void queryFirstAs(SqlAndParams qp, RowMapper<R> mapper, Handler<AsyncResult<R>> handler) {
+		execute.queryFirstAs(qp, mapper, handler);
+	}
+
 	@Override
 	public void update(SqlAndParams qp, Handler<AsyncResult<Integer>> handler) {
 		execute.update(qp, handler);
@@ -95,6 +396,11 @@ public abstract class CommonSQL<E, C> implements CommonSQLClinet<C> {
 		execute.batch(qp, handler);
 	}
 
+	@Override
+	public <R> void stream(SqlAndParams qp, int fetchSize, RowMapper<R> mapper, Handler<AsyncResult<SqlReadStream<R>>> handler) {
+		execute.stream(qp, fetchSize, mapper, handler);
+	}
+
 	@Override
 	public void getCount(SqlAssist assist, Handler<AsyncResult<Long>> handler) {
 		command.getCount(assist, handler);
@@ -105,9 +411,58 @@ public abstract class CommonSQL<E, C> implements CommonSQLClinet<C> {
 		command.selectAll(assist, handler);
 	}
 
+	/**
+	 * 通过查询工具查询所有数据,数据行直接转换为实体类
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @return 结果集
+	 */
+	public Future<List<E>> selectAllAs(SqlAssist assist) {
+		if (entityClass == null) {
+			return Future.failedFuture("Unable to get the entity class from " + getClass().getName());
+		}
+		return selectAllAs(assist, SqlEntityMapper.of(entityClass));
+	}
+
+	@Override
+	public <R> void selectAllAs(SqlAssist assist, RowMapper<R> mapper, Handler<AsyncResult<List<R>>> handler) {
+		command.selectAllAs(assist, mapper, handler);
+	}
+
+	@Override
+	public <A, R> void selectAllCollect(SqlAssist assist, Collector<Row, A, R> collector, Handler<AsyncResult<R>> handler) {
+		command.selectAllCollect(assist, collector, handler);
+	}
+
+	@Override
+	public void selectAllColumnar(SqlAssist assist, SqlResultFormat format, Handler<AsyncResult<SqlColumnarResult>> handler) {
+		command.selectAllColumnar(assist, format, handler);
+	}
+
+	@Override
+	public void selectAllBuffer(SqlAssist assist, boolean ndjson, Handler<AsyncResult<Buffer>> handler) {
+		command.selectAllBuffer(assist, ndjson, handler);
+	}
+
 	@Override
 	public void limitAll(SqlAssist assist, Handler<AsyncResult<JsonObject>> handler) {
-		command.limitAll(assist, handler);
+		command.limitAll(assist, limitStrategy, handler);
+	}
+
+	@Override
+	public void limitAll(SqlAssist assist, SqlLimitStrategy strategy, Handler<AsyncResult<JsonObject>> handler) {
+		command.limitAll(assist, strategy, handler);
+	}
+
+	@Override
+	public void limitAllColumnar(SqlAssist assist, SqlResultFormat format, Handler<AsyncResult<JsonObject>> handler) {
+		command.limitAllColumnar(assist, format, handler);
+	}
+
+	@Override
+	public void limitAllBuffer(SqlAssist assist, Handler<AsyncResult<Buffer>> handler) {
+		command.limitAllBuffer(assist, handler);
 	}
 
 	@Override
@@ -116,6 +471,32 @@ public abstract class CommonSQL<E, C> implements CommonSQLClinet<C> {
 		command.selectById(primaryValue, resultColumns, tableAlias, joinOrReference, handler);
 	}
 
+	/**
+	 * 通过ID查询出数据,数据行直接转换为实体类
+	 * 
+	 * @param primaryValue
+	 *          主键值
+	 * @return 返回结果:如果查询得到返回实体类如果查询不到返回null
+	 */
+	public <S> Future<E> selectByIdAs(S primaryValue) {
+		if (entityClass == null) {
+			return Future.failedFuture("Unable to get the entity class from " + getClass().getName());
+		}
+		return selectByIdAs(primaryValue, SqlEntityMapper.of(entityClass));
+	}
+
+	@Override
+	public <S, R> void selectByIdAs(S primaryValue, String resultColumns, String tableAlias, String joinOrReference,
+			RowMapper<R> mapper, Handler<AsyncResult<R>> handler) {
+		command.selectByIdAs(primaryValue, resultColumns, tableAlias, joinOrReference, mapper, handler);
+	}
+
+	@Override
+	public <S> void selectByIds(Collection<S> primaryValues, String resultColumns, String tableAlias, String joinOrReference,
+			Handler<AsyncResult<List<JsonObject>>> handler) {
+		command.selectByIds(primaryValues, resultColumns, tableAlias, joinOrReference, handler);
+	}
+
 	@Override
 	public <T> void selectSingleByObj(T obj, String resultColumns, String tableAlias, String joinOrReference,
 			Handler<AsyncResult<JsonObject>> handler) {
@@ -128,6 +509,24 @@ public abstract class CommonSQL<E, C> implements CommonSQLClinet<C> {
 		command.selectByObj(obj, resultColumns, tableAlias, joinOrReference, handler);
 	}
 
+	@Override
+	public <R> void selectAllStream(SqlAssist assist, int fetchSize, RowMapper<R> mapper,
+			Handler<AsyncResult<SqlReadStream<R>>> handler) {
+		command.selectAllStream(assist, fetchSize, mapper, handler);
+	}
+
+	@Override
+	public void forEachChunk(SqlAssist assist, int chunkSize, boolean prefetch, Function<List<JsonObject>, Future<Void>> consumer,
+			Handler<AsyncResult<Long>> handler) {
+		command.forEachChunk(assist, chunkSize, prefetch, consumer, handler);
+	}
+
+	@Override
+	public <T, R> void selectByObjStream(T obj, String resultColumns, String tableAlias, String joinOrReference, int fetchSize,
+			RowMapper<R> mapper, Handler<AsyncResult<SqlReadStream<R>>> handler) {
+		command.selectByObjStream(obj, resultColumns, tableAlias, joinOrReference, fetchSize, mapper, handler);
+	}
+
 	@Override
 	public <T> void insertAll(T obj, Handler<AsyncResult<Integer>> handler) {
 		command.insertAll(obj, handler);
@@ -153,16 +552,36 @@ public abstract class CommonSQL<E, C> implements CommonSQLClinet<C> {
 		command.insertBatch(columns, params, handler);
 	}
 
+	@Override
+	public <T> void insertBulk(List<T> list, boolean pipelined, Handler<AsyncResult<Integer>> handler) {
+		command.insertBulk(list, pipelined, handler);
+	}
+
+	@Override
+	public void insertBulk(List<String> columns, List<Tuple> params, boolean pipelined, Handler<AsyncResult<Integer>> handler) {
+		command.insertBulk(columns, params, pipelined, handler);
+	}
+
 	@Override
 	public <T> void replace(T obj, Handler<AsyncResult<Integer>> handler) {
 		command.replace(obj, handler);
 	}
 
+	@Override
+	public <T> void upsertBatch(List<T> list, Handler<AsyncResult<Integer>> handler) {
+		command.upsertBatch(list, handler);
+	}
+
 	@Override
 	public <T> void updateAllById(T obj, Handler<AsyncResult<Integer>> handler) {
 		command.updateAllById(obj, handler);
 	}
 
+	@Override
+	public <T> void updateAllByIdBatch(List<T> list, Handler<AsyncResult<Integer>> handler) {
+		command.updateAllByIdBatch(list, handler);
+	}
+
 	@Override
 	public <T> void updateAllByAssist(T obj, SqlAssist assist, Handler<AsyncResult<Integer>> handler) {
 		command.updateAllByAssist(obj, assist, handler);
@@ -173,6 +592,11 @@ public abstract class CommonSQL<E, C> implements CommonSQLClinet<C> {
 		command.updateNonEmptyById(obj, handler);
 	}
 
+	@Override
+	public <T> void updateNonEmptyByIdBatch(List<T> list, Handler<AsyncResult<SqlBatchResult>> handler) {
+		command.updateNonEmptyByIdBatch(list, handler);
+	}
+
 	@Override
 	public <T> void updateNonEmptyByAssist(T obj, SqlAssist assist, Handler<AsyncResult<Integer>> handler) {
 		command.updateNonEmptyByAssist(obj, assist, handler);
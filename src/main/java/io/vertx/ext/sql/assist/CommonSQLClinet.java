@@ -1,11 +1,17 @@
 package io.vertx.ext.sql.assist;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collector;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.PropertyKind;
 import io.vertx.sqlclient.Row;
@@ -52,6 +58,44 @@ public interface CommonSQLClinet<C> {
 	 */
 	void execute(SqlAndParams qp, Handler<AsyncResult<RowSet<Row>>> handler);
 
+	/**
+	 * 在同一个连接上连续发送多个互不依赖的语句(流水线),任意语句失败时立即返回失败
+	 * 
+	 * @param qps
+	 *          SQL语句与参数
+	 * @return 返回结果,通过{@link CompositeFuture#resultAt(int)}按语句的顺序获取RowSet
+	 */
+	default Future<CompositeFuture> executeAll(List<SqlAndParams> qps) {
+		return executeAll(qps, true);
+	}
+
+	/**
+	 * 在同一个连接上连续发送多个互不依赖的语句(流水线),PostgreSQL等支持流水线的客户端只需要大约一次网络往返
+	 * 
+	 * @param qps
+	 *          SQL语句与参数
+	 * @param failFast
+	 *          true=任意语句失败时立即返回失败,false=所有语句完成后返回结果,通过{@link CompositeFuture#succeeded(int)}获取每个语句是否成功
+	 * @return 返回结果,通过{@link CompositeFuture#resultAt(int)}按语句的顺序获取RowSet
+	 */
+	default Future<CompositeFuture> executeAll(List<SqlAndParams> qps, boolean failFast) {
+		Promise<CompositeFuture> promise = Promise.promise();
+		executeAll(qps, failFast, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 在同一个连接上连续发送多个互不依赖的语句(流水线),PostgreSQL等支持流水线的客户端只需要大约一次网络往返
+	 * 
+	 * @param qps
+	 *          SQL语句与参数
+	 * @param failFast
+	 *          true=任意语句失败时立即返回失败,false=所有语句完成后返回结果,通过{@link CompositeFuture#succeeded(int)}获取每个语句是否成功
+	 * @param handler
+	 *          返回结果,通过{@link CompositeFuture#resultAt(int)}按语句的顺序获取RowSet
+	 */
+	void executeAll(List<SqlAndParams> qps, boolean failFast, Handler<AsyncResult<CompositeFuture>> handler);
+
 	/**
 	 * 执行查询结果为单个对象
 	 * 
@@ -99,6 +143,125 @@ public interface CommonSQLClinet<C> {
 	 */
 	void queryAsList(SqlAndParams qp, Handler<AsyncResult<List<JsonObject>>> handler);
 
+	/**
+	 * 执行查询并将数据行直接转换为指定的类型
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param mapper
+	 *          数据行的转换器,比如{@link SqlEntityMapper#of(Class)}
+	 * @return 返回结果
+	 */
+	default <R> Future<List<R>> queryAs(SqlAndParams qp, RowMapper<R> mapper) {
+		Promise<List<R>> promise = Promise.promise();
+		queryAs(qp, mapper, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 执行查询并将数据行直接转换为指定的类型
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param mapper
+	 *          数据行的转换器,比如{@link SqlEntityMapper#of(Class)}
+	 * @param handler
+	 *          返回结果
+	 */
+	<R> void queryAs(SqlAndParams qp, RowMapper<R> mapper, Handler<AsyncResult<List<R>>> handler);
+
+	/**
+	 * 执行查询并在解码时直接将数据行写为JSON数组
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @return 返回结果
+	 */
+	default Future<Buffer> queryAsBuffer(SqlAndParams qp) {
+		return queryAsBuffer(qp, false);
+	}
+
+	/**
+	 * 执行查询并在解码时直接将数据行写为JSON,不创建RowSet与JsonObject
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param ndjson
+	 *          true=NDJSON格式(每行一个JSON对象,以换行结尾),false=JSON数组
+	 * @return 返回结果
+	 */
+	default Future<Buffer> queryAsBuffer(SqlAndParams qp, boolean ndjson) {
+		Promise<Buffer> promise = Promise.promise();
+		queryAsBuffer(qp, ndjson, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 执行查询并在解码时直接将数据行写为JSON,不创建RowSet与JsonObject
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param ndjson
+	 *          true=NDJSON格式(每行一个JSON对象,以换行结尾),false=JSON数组
+	 * @param handler
+	 *          返回结果
+	 */
+	void queryAsBuffer(SqlAndParams qp, boolean ndjson, Handler<AsyncResult<Buffer>> handler);
+
+	/**
+	 * 执行查询并通过收集器在解码数据行时直接汇总结果,不创建RowSet
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param collector
+	 *          数据行的收集器,常用的收集器见{@link SqlCollectors}
+	 * @return 收集的结果
+	 */
+	default <A, R> Future<R> collect(SqlAndParams qp, Collector<Row, A, R> collector) {
+		Promise<R> promise = Promise.promise();
+		collect(qp, collector, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 执行查询并通过收集器在解码数据行时直接汇总结果,不创建RowSet
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param collector
+	 *          数据行的收集器,常用的收集器见{@link SqlCollectors}
+	 * @param handler
+	 *          收集的结果
+	 */
+	<A, R> void collect(SqlAndParams qp, Collector<Row, A, R> collector, Handler<AsyncResult<R>> handler);
+
+	/**
+	 * 执行查询并将第一行数据直接转换为指定的类型
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param mapper
+	 *          数据行的转换器,比如{@link SqlEntityMapper#of(Class)}
+	 * @return 返回结果,查询不到结果的时候返回null
+	 */
+	default <R> Future<R> queryFirstAs(SqlAndParams qp, RowMapper<R> mapper) {
+		Promise<R> promise = Promise.promise();
+		queryFirstAs(qp, mapper, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 执行查询并将第一行数据直接转换为指定的类型
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param mapper
+	 *          数据行的转换器,比如{@link SqlEntityMapper#of(Class)}
+	 * @param handler
+	 *          返回结果,查询不到结果的时候返回null
+	 */
+	<R> void queryFirstAs(SqlAndParams qp, RowMapper<R> mapper, Handler<AsyncResult<R>> handler);
+
 	/**
 	 * 执行更新等操作得到受影响的行数
 	 * 
@@ -174,6 +337,50 @@ public interface CommonSQLClinet<C> {
 	 */
 	void batch(SqlAndParams qp, Handler<AsyncResult<Integer>> handler);
 
+	/**
+	 * 以流的方式执行查询,数据通过游标逐批读取,内存中最多保留fetchSize行数据
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @return 返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	default Future<SqlReadStream<JsonObject>> stream(SqlAndParams qp, int fetchSize) {
+		return stream(qp, fetchSize, Row::toJson);
+	}
+
+	/**
+	 * 以流的方式执行查询并转换为指定的类型,数据通过游标逐批读取,内存中最多保留fetchSize行数据
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @param mapper
+	 *          数据行的转换器
+	 * @return 返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	default <R> Future<SqlReadStream<R>> stream(SqlAndParams qp, int fetchSize, RowMapper<R> mapper) {
+		Promise<SqlReadStream<R>> promise = Promise.promise();
+		stream(qp, fetchSize, mapper, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 以流的方式执行查询并转换为指定的类型,数据通过游标逐批读取,内存中最多保留fetchSize行数据
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @param mapper
+	 *          数据行的转换器
+	 * @param handler
+	 *          返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	<R> void stream(SqlAndParams qp, int fetchSize, RowMapper<R> mapper, Handler<AsyncResult<SqlReadStream<R>>> handler);
+
 	/**
 	 * 获得数据总行数
 	 * 
@@ -261,6 +468,164 @@ public interface CommonSQLClinet<C> {
 	 */
 	void selectAll(SqlAssist assist, Handler<AsyncResult<List<JsonObject>>> handler);
 
+	/**
+	 * 通过查询工具查询所有数据,数据行直接转换为指定的类型
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param mapper
+	 *          数据行的转换器,比如{@link SqlEntityMapper#of(Class)}
+	 * @return 结果集
+	 */
+	default <R> Future<List<R>> selectAllAs(SqlAssist assist, RowMapper<R> mapper) {
+		Promise<List<R>> promise = Promise.promise();
+		selectAllAs(assist, mapper, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 通过查询工具查询所有数据,数据行直接转换为指定的类型
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param mapper
+	 *          数据行的转换器,比如{@link SqlEntityMapper#of(Class)}
+	 * @param handler
+	 *          结果集
+	 */
+	<R> void selectAllAs(SqlAssist assist, RowMapper<R> mapper, Handler<AsyncResult<List<R>>> handler);
+
+	/**
+	 * 通过查询工具查询所有数据,数据行在解码时直接交给收集器汇总,不创建RowSet
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param collector
+	 *          数据行的收集器,常用的收集器见{@link SqlCollectors}
+	 * @return 收集的结果
+	 */
+	default <A, R> Future<R> selectAllCollect(SqlAssist assist, Collector<Row, A, R> collector) {
+		Promise<R> promise = Promise.promise();
+		selectAllCollect(assist, collector, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 通过查询工具查询所有数据,数据行在解码时直接交给收集器汇总,不创建RowSet
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param collector
+	 *          数据行的收集器,常用的收集器见{@link SqlCollectors}
+	 * @param handler
+	 *          收集的结果
+	 */
+	<A, R> void selectAllCollect(SqlAssist assist, Collector<Row, A, R> collector, Handler<AsyncResult<R>> handler);
+
+	/**
+	 * 通过查询工具查询所有数据,返回列名只出现一次的紧凑结果
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param format
+	 *          结果的格式
+	 * @return 结果集,可以通过{@link SqlColumnarResult#toBuffer()}直接作为HTTP的响应
+	 */
+	default Future<SqlColumnarResult> selectAllColumnar(SqlAssist assist, SqlResultFormat format) {
+		Promise<SqlColumnarResult> promise = Promise.promise();
+		selectAllColumnar(assist, format, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 通过查询工具查询所有数据,返回列名只出现一次的紧凑结果
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param format
+	 *          结果的格式
+	 * @param handler
+	 *          结果集
+	 */
+	void selectAllColumnar(SqlAssist assist, SqlResultFormat format, Handler<AsyncResult<SqlColumnarResult>> handler);
+
+	/**
+	 * 通过查询工具查询所有数据,在解码时直接将数据行写为JSON数组
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @return 结果集
+	 */
+	default Future<Buffer> selectAllBuffer(SqlAssist assist) {
+		return selectAllBuffer(assist, false);
+	}
+
+	/**
+	 * 通过查询工具查询所有数据,在解码时直接将数据行写为JSON
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param ndjson
+	 *          true=NDJSON格式(每行一个JSON对象,以换行结尾),false=JSON数组
+	 * @return 结果集
+	 */
+	default Future<Buffer> selectAllBuffer(SqlAssist assist, boolean ndjson) {
+		Promise<Buffer> promise = Promise.promise();
+		selectAllBuffer(assist, ndjson, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 通过查询工具查询所有数据,在解码时直接将数据行写为JSON
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param ndjson
+	 *          true=NDJSON格式(每行一个JSON对象,以换行结尾),false=JSON数组
+	 * @param handler
+	 *          结果集
+	 */
+	void selectAllBuffer(SqlAssist assist, boolean ndjson, Handler<AsyncResult<Buffer>> handler);
+
+	/**
+	 * 通过查询工具查询所有数据并按指定列的值分组
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param column
+	 *          分组的列名,需要在结果集中
+	 * @return key为列的值,value为该组的数据,顺序为每组第一次出现的顺序
+	 */
+	default Future<Map<Object, List<JsonObject>>> selectAllGroupBy(SqlAssist assist, String column) {
+		return selectAllCollect(assist, SqlCollectors.groupingBy(column, Row::toJson));
+	}
+
+	/**
+	 * 通过查询工具查询所有数据并以指定列的值为key,key相同时保留最后一行
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param column
+	 *          作为key的列名,需要在结果集中,比如主键
+	 * @return key为列的值,value为数据行,顺序与数据行一致
+	 */
+	default Future<Map<Object, JsonObject>> selectAllToMap(SqlAssist assist, String column) {
+		return selectAllCollect(assist, SqlCollectors.toMap(column, Row::toJson));
+	}
+
+	/**
+	 * 通过查询工具计算指定列的值的总和,值为null时忽略
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param column
+	 *          列名,需要在结果集中
+	 * @return 总和
+	 */
+	default Future<Long> selectAllSum(SqlAssist assist, String column) {
+		return selectAllCollect(assist, SqlCollectors.summingLong(column));
+	}
+
 	/**
 	 * 页查询,默认page=1,rowSize=15(取第一页,每页取15行数据)
 	 * 
@@ -280,87 +645,279 @@ public interface CommonSQLClinet<C> {
 	 * @param assist
 	 *          查询工具(注意:startRow在该方法中无效,最后会有page转换为startRow)
 	 * @param handler
-	 *          返回结果为(JsonObject)格式为: {@link SqlLimitResult#toJson()}
+	 *          返回结果为(JsonObject)格式为: {@link SqlLimitResult#toJson()}
+	 */
+	void limitAll(final SqlAssist assist, Handler<AsyncResult<JsonObject>> handler);
+
+	/**
+	 * 分页查询,并指定获取总行数与数据的方式
+	 * 
+	 * @param assist
+	 *          查询工具(注意:startRow在该方法中无效,最后会有page转换为startRow)
+	 * @param strategy
+	 *          获取总行数与数据的方式
+	 * @return 返回结果为(JsonObject)格式为: {@link SqlLimitResult#toJson()}
+	 */
+	default Future<JsonObject> limitAll(final SqlAssist assist, SqlLimitStrategy strategy) {
+		Promise<JsonObject> promise = Promise.promise();
+		limitAll(assist, strategy, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 分页查询,并指定获取总行数与数据的方式
+	 * 
+	 * @param assist
+	 *          查询工具(注意:startRow在该方法中无效,最后会有page转换为startRow)
+	 * @param strategy
+	 *          获取总行数与数据的方式
+	 * @param handler
+	 *          返回结果为(JsonObject)格式为: {@link SqlLimitResult#toJson()}
+	 */
+	void limitAll(final SqlAssist assist, SqlLimitStrategy strategy, Handler<AsyncResult<JsonObject>> handler);
+
+	/**
+	 * 分页查询,数据为列名只出现一次的紧凑结果
+	 * 
+	 * @param assist
+	 *          查询工具(注意:startRow在该方法中无效,最后会有page转换为startRow)
+	 * @param format
+	 *          数据的格式
+	 * @return 返回结果为(JsonObject)格式为: {@link SqlLimitResult#toJson()},其中data为{@link SqlColumnarResult#toJson()}
+	 */
+	default Future<JsonObject> limitAllColumnar(final SqlAssist assist, SqlResultFormat format) {
+		Promise<JsonObject> promise = Promise.promise();
+		limitAllColumnar(assist, format, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 分页查询,数据为列名只出现一次的紧凑结果
+	 * 
+	 * @param assist
+	 *          查询工具(注意:startRow在该方法中无效,最后会有page转换为startRow)
+	 * @param format
+	 *          数据的格式
+	 * @param handler
+	 *          返回结果为(JsonObject)格式为: {@link SqlLimitResult#toJson()},其中data为{@link SqlColumnarResult#toJson()}
+	 */
+	void limitAllColumnar(final SqlAssist assist, SqlResultFormat format, Handler<AsyncResult<JsonObject>> handler);
+
+	/**
+	 * 分页查询并在解码时直接将数据写为JSON
+	 * 
+	 * @param assist
+	 *          查询工具(注意:startRow在该方法中无效,最后会有page转换为startRow)
+	 * @return 返回结果格式与{@link SqlLimitResult#toJson()}相同
+	 */
+	default Future<Buffer> limitAllBuffer(final SqlAssist assist) {
+		Promise<Buffer> promise = Promise.promise();
+		limitAllBuffer(assist, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 分页查询并在解码时直接将数据写为JSON
+	 * 
+	 * @param assist
+	 *          查询工具(注意:startRow在该方法中无效,最后会有page转换为startRow)
+	 * @param handler
+	 *          返回结果格式与{@link SqlLimitResult#toJson()}相同
+	 */
+	void limitAllBuffer(final SqlAssist assist, Handler<AsyncResult<Buffer>> handler);
+
+	/**
+	 * 通过ID查询出数据
+	 * 
+	 * @param primaryValue
+	 *          主键值
+	 * @return 返回结果:如果查询得到返回JsonObject如果查询不到返回null
+	 */
+	default <S> Future<JsonObject> selectById(S primaryValue) {
+		Promise<JsonObject> promise = Promise.promise();
+		selectById(primaryValue, null, null, null, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 通过ID查询出数据
+	 * 
+	 * @param primaryValue
+	 *          主键值
+	 * @param handler
+	 *          返回结果:如果查询得到返回JsonObject如果查询不到返回null
+	 */
+	default <S> void selectById(S primaryValue, Handler<AsyncResult<JsonObject>> handler) {
+		selectById(primaryValue, null, null, null, handler);
+	}
+
+	/**
+	 * 通过ID查询出数据
+	 * 
+	 * @param primaryValue
+	 *          主键值
+	 * @param resultColumns
+	 *          自定义返回列
+	 * @return 返回结果:如果查询得到返回JsonObject如果查询不到返回null
+	 */
+	default <S> Future<JsonObject> selectById(S primaryValue, String resultColumns) {
+		Promise<JsonObject> promise = Promise.promise();
+		selectById(primaryValue, resultColumns, null, null, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 通过ID查询出数据
+	 * 
+	 * @param primaryValue
+	 *          主键值
+	 * @param resultColumns
+	 *          自定义返回列
+	 * @param handler
+	 *          返回结果:如果查询得到返回JsonObject如果查询不到返回null
+	 */
+	default <S> void selectById(S primaryValue, String resultColumns, Handler<AsyncResult<JsonObject>> handler) {
+		selectById(primaryValue, resultColumns, null, null, handler);
+	}
+
+	/**
+	 * 通过ID查询出数据,并自定义返回列
+	 * 
+	 * @param primaryValue
+	 *          主键值
+	 * @param resultColumns
+	 *          自定义返回列
+	 * @param tableAlias
+	 *          当前表的别名
+	 * @param joinOrReference
+	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
+	 * @return 返回结果:如果查询得到返回JsonObject如果查询不到返回null
+	 */
+	default <S> Future<JsonObject> selectById(S primaryValue, String resultColumns, String tableAlias, String joinOrReference) {
+		Promise<JsonObject> promise = Promise.promise();
+		selectById(primaryValue, resultColumns, tableAlias, joinOrReference, promise);
+		return promise.future();
+	}
+	/**
+	 * 通过ID查询出数据,并自定义返回列
+	 * 
+	 * @param primaryValue
+	 *          主键值
+	 * @param resultColumns
+	 *          自定义返回列
+	 * @param tableAlias
+	 *          当前表的别名
+	 * @param joinOrReference
+	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
+	 * @param handler
+	 *          返回结果:如果查询得到返回JsonObject如果查询不到返回null
 	 */
-	void limitAll(final SqlAssist assist, Handler<AsyncResult<JsonObject>> handler);
+	<S> void selectById(S primaryValue, String resultColumns, String tableAlias, String joinOrReference,
+			Handler<AsyncResult<JsonObject>> handler);
 
 	/**
-	 * 通过ID查询出数据
+	 * 通过ID查询出数据,数据行直接转换为指定的类型
 	 * 
 	 * @param primaryValue
 	 *          主键值
-	 * @return 返回结果:如果查询得到返回JsonObject如果查询不到返回null
+	 * @param mapper
+	 *          数据行的转换器,比如{@link SqlEntityMapper#of(Class)}
+	 * @return 返回结果:如果查询得到返回转换后的对象如果查询不到返回null
 	 */
-	default <S> Future<JsonObject> selectById(S primaryValue) {
-		Promise<JsonObject> promise = Promise.promise();
-		selectById(primaryValue, null, null, null, promise);
-		return promise.future();
+	default <S, R> Future<R> selectByIdAs(S primaryValue, RowMapper<R> mapper) {
+		return selectByIdAs(primaryValue, null, null, null, mapper);
 	}
 
 	/**
-	 * 通过ID查询出数据
+	 * 通过ID查询出数据,并自定义返回列,数据行直接转换为指定的类型
 	 * 
 	 * @param primaryValue
 	 *          主键值
-	 * @param handler
-	 *          返回结果:如果查询得到返回JsonObject如果查询不到返回null
+	 * @param resultColumns
+	 *          自定义返回列
+	 * @param tableAlias
+	 *          当前表的别名
+	 * @param joinOrReference
+	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
+	 * @param mapper
+	 *          数据行的转换器,比如{@link SqlEntityMapper#of(Class)}
+	 * @return 返回结果:如果查询得到返回转换后的对象如果查询不到返回null
 	 */
-	default <S> void selectById(S primaryValue, Handler<AsyncResult<JsonObject>> handler) {
-		selectById(primaryValue, null, null, null, handler);
+	default <S, R> Future<R> selectByIdAs(S primaryValue, String resultColumns, String tableAlias, String joinOrReference,
+			RowMapper<R> mapper) {
+		Promise<R> promise = Promise.promise();
+		selectByIdAs(primaryValue, resultColumns, tableAlias, joinOrReference, mapper, promise);
+		return promise.future();
 	}
 
 	/**
-	 * 通过ID查询出数据
+	 * 通过ID查询出数据,并自定义返回列,数据行直接转换为指定的类型
 	 * 
 	 * @param primaryValue
 	 *          主键值
 	 * @param resultColumns
 	 *          自定义返回列
-	 * @return 返回结果:如果查询得到返回JsonObject如果查询不到返回null
+	 * @param tableAlias
+	 *          当前表的别名
+	 * @param joinOrReference
+	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
+	 * @param mapper
+	 *          数据行的转换器,比如{@link SqlEntityMapper#of(Class)}
+	 * @param handler
+	 *          返回结果:如果查询得到返回转换后的对象如果查询不到返回null
 	 */
-	default <S> Future<JsonObject> selectById(S primaryValue, String resultColumns) {
-		Promise<JsonObject> promise = Promise.promise();
-		selectById(primaryValue, resultColumns, null, null, promise);
-		return promise.future();
+	<S, R> void selectByIdAs(S primaryValue, String resultColumns, String tableAlias, String joinOrReference, RowMapper<R> mapper,
+			Handler<AsyncResult<R>> handler);
+
+	/**
+	 * 通过多个主键查询数据
+	 * 
+	 * @param primaryValues
+	 *          主键的值
+	 * @return 返回结果:与主键的顺序一致,查询不到的主键对应的位置为null
+	 */
+	default <S> Future<List<JsonObject>> selectByIds(Collection<S> primaryValues) {
+		return selectByIds(primaryValues, null, null, null);
 	}
 
 	/**
-	 * 通过ID查询出数据
+	 * 通过多个主键查询数据,并自定义返回列
 	 * 
-	 * @param primaryValue
-	 *          主键值
+	 * @param primaryValues
+	 *          主键的值
 	 * @param resultColumns
 	 *          自定义返回列
-	 * @param handler
-	 *          返回结果:如果查询得到返回JsonObject如果查询不到返回null
+	 * @return 返回结果:与主键的顺序一致,查询不到的主键对应的位置为null
 	 */
-	default <S> void selectById(S primaryValue, String resultColumns, Handler<AsyncResult<JsonObject>> handler) {
-		selectById(primaryValue, resultColumns, null, null, handler);
+	default <S> Future<List<JsonObject>> selectByIds(Collection<S> primaryValues, String resultColumns) {
+		return selectByIds(primaryValues, resultColumns, null, null);
 	}
 
 	/**
-	 * 通过ID查询出数据,并自定义返回列
+	 * 通过多个主键查询数据,并自定义返回列
 	 * 
-	 * @param primaryValue
-	 *          主键值
+	 * @param primaryValues
+	 *          主键的值
 	 * @param resultColumns
 	 *          自定义返回列
 	 * @param tableAlias
 	 *          当前表的别名
 	 * @param joinOrReference
 	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
-	 * @return 返回结果:如果查询得到返回JsonObject如果查询不到返回null
+	 * @return 返回结果:与主键的顺序一致,查询不到的主键对应的位置为null
 	 */
-	default <S> Future<JsonObject> selectById(S primaryValue, String resultColumns, String tableAlias, String joinOrReference) {
-		Promise<JsonObject> promise = Promise.promise();
-		selectById(primaryValue, resultColumns, tableAlias, joinOrReference, promise);
+	default <S> Future<List<JsonObject>> selectByIds(Collection<S> primaryValues, String resultColumns, String tableAlias,
+			String joinOrReference) {
+		Promise<List<JsonObject>> promise = Promise.promise();
+		selectByIds(primaryValues, resultColumns, tableAlias, joinOrReference, promise);
 		return promise.future();
 	}
+
 	/**
-	 * 通过ID查询出数据,并自定义返回列
+	 * 通过多个主键查询数据,并自定义返回列
 	 * 
-	 * @param primaryValue
-	 *          主键值
+	 * @param primaryValues
+	 *          主键的值
 	 * @param resultColumns
 	 *          自定义返回列
 	 * @param tableAlias
@@ -368,10 +925,10 @@ public interface CommonSQLClinet<C> {
 	 * @param joinOrReference
 	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
 	 * @param handler
-	 *          返回结果:如果查询得到返回JsonObject如果查询不到返回null
+	 *          返回结果:与主键的顺序一致,查询不到的主键对应的位置为null
 	 */
-	<S> void selectById(S primaryValue, String resultColumns, String tableAlias, String joinOrReference,
-			Handler<AsyncResult<JsonObject>> handler);
+	<S> void selectByIds(Collection<S> primaryValues, String resultColumns, String tableAlias, String joinOrReference,
+			Handler<AsyncResult<List<JsonObject>>> handler);
 
 	/**
 	 * 将对象属性不为null的属性作为条件查询出数据,只取查询出来的第一条数据;
@@ -561,6 +1118,171 @@ public interface CommonSQLClinet<C> {
 	<T> void selectByObj(T obj, String resultColumns, String tableAlias, String joinOrReference,
 			Handler<AsyncResult<List<JsonObject>>> handler);
 
+	/**
+	 * 通过查询工具以流的方式读取数据,每次从数据库读取{@link SqlReadStream#DEFAULT_FETCH_SIZE}行数据
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @return 返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	default Future<SqlReadStream<JsonObject>> selectAllStream(SqlAssist assist) {
+		return selectAllStream(assist, SqlReadStream.DEFAULT_FETCH_SIZE);
+	}
+
+	/**
+	 * 通过查询工具以流的方式读取数据,内存中最多保留fetchSize行数据
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @return 返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	default Future<SqlReadStream<JsonObject>> selectAllStream(SqlAssist assist, int fetchSize) {
+		return selectAllStream(assist, fetchSize, Row::toJson);
+	}
+
+	/**
+	 * 通过查询工具以流的方式读取数据并转换为指定的类型,内存中最多保留fetchSize行数据
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @param mapper
+	 *          数据行的转换器
+	 * @return 返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	default <R> Future<SqlReadStream<R>> selectAllStream(SqlAssist assist, int fetchSize, RowMapper<R> mapper) {
+		Promise<SqlReadStream<R>> promise = Promise.promise();
+		selectAllStream(assist, fetchSize, mapper, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 通过查询工具以流的方式读取数据并转换为指定的类型,内存中最多保留fetchSize行数据
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @param mapper
+	 *          数据行的转换器
+	 * @param handler
+	 *          返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	<R> void selectAllStream(SqlAssist assist, int fetchSize, RowMapper<R> mapper, Handler<AsyncResult<SqlReadStream<R>>> handler);
+
+	/**
+	 * 通过主键的游标分页逐块遍历查询结果,上一块处理完成后才读取下一块
+	 * 
+	 * @param assist
+	 *          查询工具,如果没有可以为null;遍历使用副本,不修改该对象,不能设置排序(数据按游标分页的列排序)
+	 * @param chunkSize
+	 *          每块多少行数据
+	 * @param consumer
+	 *          每块数据的处理器,返回的Future失败时停止遍历
+	 * @return 返回处理的总行数
+	 */
+	default Future<Long> forEachChunk(SqlAssist assist, int chunkSize, Function<List<JsonObject>, Future<Void>> consumer) {
+		return forEachChunk(assist, chunkSize, false, consumer);
+	}
+
+	/**
+	 * 通过主键的游标分页逐块遍历查询结果,上一块处理完成后才读取下一块
+	 * 
+	 * @param assist
+	 *          查询工具,如果没有可以为null;遍历使用副本,不修改该对象,不能设置排序(数据按游标分页的列排序)
+	 * @param chunkSize
+	 *          每块多少行数据
+	 * @param prefetch
+	 *          是否在处理当前块时预先读取下一块
+	 * @param consumer
+	 *          每块数据的处理器,返回的Future失败时停止遍历
+	 * @return 返回处理的总行数
+	 */
+	default Future<Long> forEachChunk(SqlAssist assist, int chunkSize, boolean prefetch,
+			Function<List<JsonObject>, Future<Void>> consumer) {
+		Promise<Long> promise = Promise.promise();
+		forEachChunk(assist, chunkSize, prefetch, consumer, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 通过主键的游标分页逐块遍历查询结果,上一块处理完成后才读取下一块
+	 * 
+	 * @param assist
+	 *          查询工具,如果没有可以为null,没有设置游标分页的列时使用主键;遍历使用副本,不修改该对象,不能设置排序(数据按游标分页的列排序)
+	 * @param chunkSize
+	 *          每块多少行数据
+	 * @param prefetch
+	 *          是否在处理当前块时预先读取下一块
+	 * @param consumer
+	 *          每块数据的处理器,返回的Future失败时停止遍历
+	 * @param handler
+	 *          返回处理的总行数
+	 */
+	void forEachChunk(SqlAssist assist, int chunkSize, boolean prefetch, Function<List<JsonObject>, Future<Void>> consumer,
+			Handler<AsyncResult<Long>> handler);
+
+	/**
+	 * 将对象属性不为null的属性作为条件以流的方式读取数据,内存中最多保留fetchSize行数据
+	 * 
+	 * @param obj
+	 *          对象
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @return 返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	default <T> Future<SqlReadStream<JsonObject>> selectByObjStream(T obj, int fetchSize) {
+		return selectByObjStream(obj, null, null, null, fetchSize, Row::toJson);
+	}
+
+	/**
+	 * 将对象属性不为null的属性作为条件以流的方式读取数据并转换为指定的类型,内存中最多保留fetchSize行数据
+	 * 
+	 * @param obj
+	 *          对象
+	 * @param resultColumns
+	 *          自定义返回列
+	 * @param tableAlias
+	 *          当前表的别名
+	 * @param joinOrReference
+	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @param mapper
+	 *          数据行的转换器
+	 * @return 返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	default <T, R> Future<SqlReadStream<R>> selectByObjStream(T obj, String resultColumns, String tableAlias, String joinOrReference,
+			int fetchSize, RowMapper<R> mapper) {
+		Promise<SqlReadStream<R>> promise = Promise.promise();
+		selectByObjStream(obj, resultColumns, tableAlias, joinOrReference, fetchSize, mapper, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 将对象属性不为null的属性作为条件以流的方式读取数据并转换为指定的类型,内存中最多保留fetchSize行数据
+	 * 
+	 * @param obj
+	 *          对象
+	 * @param resultColumns
+	 *          自定义返回列
+	 * @param tableAlias
+	 *          当前表的别名
+	 * @param joinOrReference
+	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @param mapper
+	 *          数据行的转换器
+	 * @param handler
+	 *          返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	<T, R> void selectByObjStream(T obj, String resultColumns, String tableAlias, String joinOrReference, int fetchSize,
+			RowMapper<R> mapper, Handler<AsyncResult<SqlReadStream<R>>> handler);
+
 	/**
 	 * 插入一个对象包括属性值为null的值
 	 * 
@@ -690,6 +1412,94 @@ public interface CommonSQLClinet<C> {
 	 */
 	void insertBatch(List<String> columns, List<Tuple> params, Handler<AsyncResult<Integer>> handler);
 
+	/**
+	 * 批量添加全部所有字段,使用多行VALUES的插入语句,数据按数据库参数数量的上限分块后按顺序执行<br>
+	 * 客户端为连接池时所有分块在同一个事务中执行,任意分块失败时全部回滚
+	 * 
+	 * @param list
+	 *          对象
+	 * @return 成功返回受影响的行数
+	 */
+	default <T> Future<Integer> insertBulk(List<T> list) {
+		return insertBulk(list, false);
+	}
+
+	/**
+	 * 批量添加全部所有字段,使用多行VALUES的插入语句,数据按数据库参数数量的上限分块执行<br>
+	 * 客户端为连接池时所有分块在同一个事务中执行,任意分块失败时全部回滚
+	 * 
+	 * @param list
+	 *          对象
+	 * @param pipelined
+	 *          true=同时执行所有分块,false=按顺序逐个执行分块
+	 * @return 成功返回受影响的行数
+	 */
+	default <T> Future<Integer> insertBulk(List<T> list, boolean pipelined) {
+		Promise<Integer> promise = Promise.promise();
+		insertBulk(list, pipelined, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 批量添加全部所有字段,使用多行VALUES的插入语句,数据按数据库参数数量的上限分块执行<br>
+	 * 客户端为连接池时所有分块在同一个事务中执行,任意分块失败时全部回滚
+	 * 
+	 * @param list
+	 *          对象
+	 * @param pipelined
+	 *          true=同时执行所有分块,false=按顺序逐个执行分块
+	 * @param handler
+	 *          成功返回受影响的行数
+	 */
+	<T> void insertBulk(List<T> list, boolean pipelined, Handler<AsyncResult<Integer>> handler);
+
+	/**
+	 * 批量添加自定字段,使用多行VALUES的插入语句,数据按数据库参数数量的上限分块后按顺序执行<br>
+	 * 客户端为连接池时所有分块在同一个事务中执行,任意分块失败时全部回滚
+	 * 
+	 * @param column
+	 *          字段的名称示例:["id","name",...]
+	 * @param params
+	 *          字段对应的参数示例:[["id","name"],["id","name"]...]
+	 * @return 成功返回受影响的行数
+	 */
+	default Future<Integer> insertBulk(List<String> columns, List<Tuple> params) {
+		return insertBulk(columns, params, false);
+	}
+
+	/**
+	 * 批量添加自定字段,使用多行VALUES的插入语句,数据按数据库参数数量的上限分块执行<br>
+	 * 客户端为连接池时所有分块在同一个事务中执行,任意分块失败时全部回滚
+	 * 
+	 * @param column
+	 *          字段的名称示例:["id","name",...]
+	 * @param params
+	 *          字段对应的参数示例:[["id","name"],["id","name"]...]
+	 * @param pipelined
+	 *          true=同时执行所有分块,false=按顺序逐个执行分块
+	 * @return 成功返回受影响的行数
+	 */
+	default Future<Integer> insertBulk(List<String> columns, List<Tuple> params, boolean pipelined) {
+		Promise<Integer> promise = Promise.promise();
+		insertBulk(columns, params, pipelined, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 批量添加自定字段,使用多行VALUES的插入语句,数据按数据库参数数量的上限分块执行<br>
+	 * 客户端为连接池时所有分块在同一个事务中执行,任意分块失败时全部回滚
+	 * 
+	 * @param column
+	 *          字段的名称示例:["id","name",...]
+	 * @param params
+	 *          字段对应的参数示例:[["id","name"],["id","name"]...]
+	 * @param pipelined
+	 *          true=同时执行所有分块,false=按顺序逐个执行分块
+	 * @param handler
+	 *          成功返回受影响的行数
+	 */
+	void insertBulk(List<String> columns, List<Tuple> params, boolean pipelined, Handler<AsyncResult<Integer>> handler);
+
 	/**
 	 * 插入一个对象,如果该对象不存在就新建如果该对象已经存在就更新
 	 * 
@@ -715,6 +1525,29 @@ public interface CommonSQLClinet<C> {
 	 */
 	<T> void replace(T obj, Handler<AsyncResult<Integer>> handler);
 
+	/**
+	 * 批量插入对象,如果对象不存在就新建如果对象已经存在就更新,包括属性值为null的值,对象的主键值不能为null
+	 * 
+	 * @param list
+	 *          对象
+	 * @return 成功返回受影响的行数
+	 */
+	default <T> Future<Integer> upsertBatch(List<T> list) {
+		Promise<Integer> promise = Promise.promise();
+		upsertBatch(list, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 批量插入对象,如果对象不存在就新建如果对象已经存在就更新,包括属性值为null的值,对象的主键值不能为null
+	 * 
+	 * @param list
+	 *          对象
+	 * @param handler
+	 *          成功返回受影响的行数
+	 */
+	<T> void upsertBatch(List<T> list, Handler<AsyncResult<Integer>> handler);
+
 	/**
 	 * 更新一个对象中所有的属性包括null值,条件为对象中的主键值
 	 * 
@@ -740,6 +1573,29 @@ public interface CommonSQLClinet<C> {
 	 */
 	<T> void updateAllById(T obj, Handler<AsyncResult<Integer>> handler);
 
+	/**
+	 * 批量更新对象中所有的属性包括null值,条件为对象中的主键值
+	 * 
+	 * @param list
+	 *          对象
+	 * @return 成功返回受影响的行数
+	 */
+	default <T> Future<Integer> updateAllByIdBatch(List<T> list) {
+		Promise<Integer> promise = Promise.promise();
+		updateAllByIdBatch(list, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 批量更新对象中所有的属性包括null值,条件为对象中的主键值
+	 * 
+	 * @param list
+	 *          对象
+	 * @param handler
+	 *          成功返回受影响的行数
+	 */
+	<T> void updateAllByIdBatch(List<T> list, Handler<AsyncResult<Integer>> handler);
+
 	/**
 	 * 更新一个对象中所有的属性包括null值,条件为SqlAssist条件集<br>
 	 * 
@@ -791,6 +1647,31 @@ public interface CommonSQLClinet<C> {
 	 */
 	<T> void updateNonEmptyById(T obj, Handler<AsyncResult<Integer>> handler);
 
+	/**
+	 * 批量更新对象中属性不为null的值,条件为对象中的主键值<br>
+	 * 不为null的属性相同的对象合并为一个语句批量执行,客户端为连接池时多个语句在同一个事务中执行
+	 * 
+	 * @param list
+	 *          对象
+	 * @return 成功返回受影响的总行数与每个语句受影响的行数
+	 */
+	default <T> Future<SqlBatchResult> updateNonEmptyByIdBatch(List<T> list) {
+		Promise<SqlBatchResult> promise = Promise.promise();
+		updateNonEmptyByIdBatch(list, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 批量更新对象中属性不为null的值,条件为对象中的主键值<br>
+	 * 不为null的属性相同的对象合并为一个语句批量执行,客户端为连接池时多个语句在同一个事务中执行
+	 * 
+	 * @param list
+	 *          对象
+	 * @param handler
+	 *          成功返回受影响的总行数与每个语句受影响的行数
+	 */
+	<T> void updateNonEmptyByIdBatch(List<T> list, Handler<AsyncResult<SqlBatchResult>> handler);
+
 	/**
 	 * 更新一个对象中属性不为null值,条件为SqlAssist条件集
 	 * 
@@ -926,4 +1807,29 @@ public interface CommonSQLClinet<C> {
 	 */
 	void deleteByAssist(SqlAssist assist, Handler<AsyncResult<Integer>> handler);
 
+	/**
+	 * 在事务中执行,事务中的所有语句都使用同一个连接(包括连接的预编译语句缓存),block返回的Future成功时提交,失败时回滚<br>
+	 * 通过{@link SqlTransaction#of(CommonSQL)}获取在事务中执行的对象,可以是其他实体类的对象,已经在事务中时使用同一个事务
+	 * 
+	 * @param block
+	 *          事务中执行的操作
+	 * @return 返回block的结果
+	 */
+	default <R> Future<R> withTransaction(Function<SqlTransaction<C>, Future<R>> block) {
+		Promise<R> promise = Promise.promise();
+		withTransaction(block, promise);
+		return promise.future();
+	}
+
+	/**
+	 * 在事务中执行,事务中的所有语句都使用同一个连接(包括连接的预编译语句缓存),block返回的Future成功时提交,失败时回滚<br>
+	 * 通过{@link SqlTransaction#of(CommonSQL)}获取在事务中执行的对象,可以是其他实体类的对象,已经在事务中时使用同一个事务
+	 * 
+	 * @param block
+	 *          事务中执行的操作
+	 * @param handler
+	 *          返回block的结果
+	 */
+	<R> void withTransaction(Function<SqlTransaction<C>, Future<R>> block, Handler<AsyncResult<R>> handler);
+
 }
@@ -0,0 +1,115 @@
+package io.vertx.ext.sql.assist;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import io.vertx.sqlclient.Row;
+
+/**
+ * 将数据库返回的行转换为对象
+ *
+ * @author <a href="https://mirrentools.org">Mirren</a>
+ *
+ * @param <T>
+ *          转换后的类型
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+	/**
+	 * 将行转换为对象
+	 *
+	 * @param row
+	 *          数据行
+	 * @return
+	 */
+	T map(Row row);
+
+	/**
+	 * 通过结果集的列名创建按下标取值的转换器,同一个结果集只调用一次,默认返回当前转换器
+	 * 
+	 * @param columnNames
+	 *          结果集的列名
+	 * @return
+	 */
+	default RowMapper<T> resolve(List<String> columnNames) {
+		return this;
+	}
+
+	/**
+	 * 获取行中指定列的值并转换为指定的类型,数字类型之间可以互相转换,其他类型不匹配时交给Row处理
+	 *
+	 * @param <T>
+	 * @param row
+	 *          数据行
+	 * @param index
+	 *          列的下标
+	 * @param type
+	 *          需要的类型,基本类型会转换为对应的包装类型
+	 * @return 值为null或无法转换时返回null
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T getValue(Row row, int index, Class<T> type) {
+		Object value = row.getValue(index);
+		if (value == null) {
+			return null;
+		}
+		Class<?> target = type.isPrimitive() ? wrapperType(type) : type;
+		if (target.isInstance(value)) {
+			return (T) value;
+		}
+		if (value instanceof Number) {
+			Number number = (Number) value;
+			if (target == Integer.class) {
+				return (T) Integer.valueOf(number.intValue());
+			} else if (target == Long.class) {
+				return (T) Long.valueOf(number.longValue());
+			} else if (target == Double.class) {
+				return (T) Double.valueOf(number.doubleValue());
+			} else if (target == Float.class) {
+				return (T) Float.valueOf(number.floatValue());
+			} else if (target == Short.class) {
+				return (T) Short.valueOf(number.shortValue());
+			} else if (target == Byte.class) {
+				return (T) Byte.valueOf(number.byteValue());
+			} else if (target == BigDecimal.class) {
+				return (T) new BigDecimal(number.toString());
+			} else if (target == BigInteger.class) {
+				return (T) new BigDecimal(number.toString()).toBigInteger();
+			} else if (target == Boolean.class) {
+				return (T) Boolean.valueOf(number.intValue() != 0);
+			}
+		}
+		if (target == String.class) {
+			return (T) value.toString();
+		}
+		return (T) row.get(target, index);
+	}
+
+	/**
+	 * 获取基本类型对应的包装类型
+	 *
+	 * @param type
+	 * @return
+	 */
+	static Class<?> wrapperType(Class<?> type) {
+		if (type == int.class) {
+			return Integer.class;
+		} else if (type == long.class) {
+			return Long.class;
+		} else if (type == double.class) {
+			return Double.class;
+		} else if (type == float.class) {
+			return Float.class;
+		} else if (type == boolean.class) {
+			return Boolean.class;
+		} else if (type == short.class) {
+			return Short.class;
+		} else if (type == byte.class) {
+			return Byte.class;
+		} else if (type == char.class) {
+			return Character.class;
+		}
+		return type;
+	}
+}
@@ -1,12 +1,18 @@
 package io.vertx.ext.sql.assist;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collector;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.PropertyKind;
+import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.Tuple;
 
 /**
@@ -37,7 +43,66 @@ public interface SQLCommand {
 	void selectAll(SqlAssist assist, Handler<AsyncResult<List<JsonObject>>> handler);
 
 	/**
-	 * 分页查询,默认page=1,rowSize=15(取第一页,每页取15行数据)
+	 * 通过查询工具查询所有数据,数据行直接转换为指定的类型
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param mapper
+	 *          数据行的转换器,比如{@link SqlEntityMapper#of(Class)}
+	 * @param handler
+	 *          结果集
+	 */
+	<R> void selectAllAs(SqlAssist assist, RowMapper<R> mapper, Handler<AsyncResult<List<R>>> handler);
+
+	/**
+	 * 通过查询工具查询所有数据,数据行在解码时直接交给收集器汇总,不创建RowSet
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param collector
+	 *          数据行的收集器,常用的收集器见{@link SqlCollectors}
+	 * @param handler
+	 *          收集的结果
+	 */
+	<A, R> void selectAllCollect(SqlAssist assist, Collector<Row, A, R> collector, Handler<AsyncResult<R>> handler);
+
+	/**
+	 * 通过查询工具查询所有数据,返回列名只出现一次的紧凑结果
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param format
+	 *          结果的格式
+	 * @param handler
+	 *          结果集
+	 */
+	default void selectAllColumnar(SqlAssist assist, SqlResultFormat format, Handler<AsyncResult<SqlColumnarResult>> handler) {
+		selectAllCollect(assist, SqlColumnarResult.collector(format), handler);
+	}
+
+	/**
+	 * 通过查询工具查询所有数据,在解码时直接将数据行写为JSON
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param ndjson
+	 *          true=NDJSON格式(每行一个JSON对象,以换行结尾),false=JSON数组
+	 * @param handler
+	 *          结果集
+	 */
+	default void selectAllBuffer(SqlAssist assist, boolean ndjson, Handler<AsyncResult<Buffer>> handler) {
+		selectAllCollect(assist, SqlJsonWriter.collector(ndjson), res -> {
+			if (res.succeeded()) {
+				handler.handle(Future.succeededFuture(res.result().getBuffer()));
+			} else {
+				handler.handle(Future.failedFuture(res.cause()));
+			}
+		});
+	}
+
+	/**
+	 * 分页查询,默认page=1,rowSize=15(取第一页,每页取15行数据)<br>
+	 * 设置了{@link SqlAssist#setSeek(String...)}时使用游标分页,返回结果中的cursor用于通过{@link SqlAssist#setSeekCursor(String)}取下一页
 	 * 
 	 * @param assist
 	 *          查询工具(注意:startRow在该方法中无效,最后会有page转换为startRow)
@@ -60,12 +125,23 @@ public interface SQLCommand {
 		} else {
 			assist.setStartRow((assist.getPage() - 1) * assist.getRowSize());
 		}
+		boolean seek = assist.getSeekColumns() != null;
 		getCount(assist, cres -> {
 			if (cres.succeeded()) {
 				Long count = cres.result();
 				SqlLimitResult<JsonObject> result = new SqlLimitResult<>(count, assist.getPage(), assist.getRowSize());
-				if (count == 0 || assist.getPage() > result.getPages()) {
+				if (count == 0 || (!seek && assist.getPage() > result.getPages())) {
 					handler.handle(Future.succeededFuture(result.toJson()));
+				} else if (seek) {
+					selectAllCollect(assist, SqlSeekResult.collector(assist, SqlCollectors.toJsonList()), dres -> {
+						if (dres.succeeded()) {
+							result.setData(dres.result().getData());
+							result.setCursor(dres.result().getCursor());
+							handler.handle(Future.succeededFuture(result.toJson()));
+						} else {
+							handler.handle(Future.failedFuture(dres.cause()));
+						}
+					});
 				} else {
 					selectAll(assist, dres -> {
 						if (dres.succeeded()) {
@@ -82,6 +158,121 @@ public interface SQLCommand {
 		});
 	};
 
+	/**
+	 * 分页查询,并指定获取总行数与数据的方式,默认实现忽略该方式依次查询
+	 * 
+	 * @param assist
+	 *          查询工具(注意:startRow在该方法中无效,最后会有page转换为startRow)
+	 * @param strategy
+	 *          获取总行数与数据的方式
+	 * @param handler
+	 *          返回结果为(JsonObject)格式为: {@link SqlLimitResult#toJson()}
+	 */
+	default void limitAll(final SqlAssist assist, SqlLimitStrategy strategy, Handler<AsyncResult<JsonObject>> handler) {
+		limitAll(assist, handler);
+	}
+
+	/**
+	 * 分页查询,数据为列名只出现一次的紧凑结果,默认page=1,rowSize=15(取第一页,每页取15行数据)
+	 * 
+	 * @param assist
+	 *          查询工具(注意:startRow在该方法中无效,最后会有page转换为startRow)
+	 * @param format
+	 *          数据的格式
+	 * @param handler
+	 *          返回结果为(JsonObject)格式为: {@link SqlLimitResult#toJson()},其中data为{@link SqlColumnarResult#toJson()}
+	 */
+	default void limitAllColumnar(final SqlAssist assist, SqlResultFormat format, Handler<AsyncResult<JsonObject>> handler) {
+		if (assist == null) {
+			handler.handle(Future.failedFuture("The SqlAssist cannot be null , you can pass in new SqlAssist()"));
+			return;
+		}
+		if (assist.getPage() == null || assist.getPage() < 1) {
+			assist.setPage(1);
+		}
+		if (assist.getRowSize() == null || assist.getRowSize() < 1) {
+			assist.setRowSize(15);
+		}
+		assist.setStartRow((assist.getPage() - 1) * assist.getRowSize());
+		boolean seek = assist.getSeekColumns() != null;
+		String dataKey = SqlLimitResult.getResultKey(SqlLimitResult.DATA);
+		getCount(assist, cres -> {
+			if (cres.failed()) {
+				handler.handle(Future.failedFuture(cres.cause()));
+				return;
+			}
+			SqlLimitResult<JsonObject> result = new SqlLimitResult<>(cres.result(), assist.getPage(), assist.getRowSize());
+			if (cres.result() == 0 || (!seek && assist.getPage() > result.getPages())) {
+				JsonObject json = result.toJson();
+				handler.handle(Future.succeededFuture(json.put(dataKey, new SqlColumnarResult(format).toJson())));
+				return;
+			}
+			selectAllCollect(assist, SqlSeekResult.collector(assist, SqlColumnarResult.collector(format)), dres -> {
+				if (dres.failed()) {
+					handler.handle(Future.failedFuture(dres.cause()));
+					return;
+				}
+				SqlColumnarResult data = dres.result().getData();
+				if (seek) {
+					result.setCursor(dres.result().getCursor());
+				}
+				handler.handle(Future.succeededFuture(result.toJson().put(dataKey, data.toJson())));
+			});
+		});
+	}
+
+	/**
+	 * 分页查询并在解码时直接将数据写为JSON,默认page=1,rowSize=15(取第一页,每页取15行数据)
+	 * 
+	 * @param assist
+	 *          查询工具(注意:startRow在该方法中无效,最后会有page转换为startRow)
+	 * @param handler
+	 *          返回结果格式与{@link SqlLimitResult#toJson()}相同
+	 */
+	default void limitAllBuffer(final SqlAssist assist, Handler<AsyncResult<Buffer>> handler) {
+		if (assist == null) {
+			handler.handle(Future.failedFuture("The SqlAssist cannot be null , you can pass in new SqlAssist()"));
+			return;
+		}
+		if (assist.getPage() == null || assist.getPage() < 1) {
+			assist.setPage(1);
+		}
+		if (assist.getRowSize() == null || assist.getRowSize() < 1) {
+			assist.setRowSize(15);
+		}
+		assist.setStartRow((assist.getPage() - 1) * assist.getRowSize());
+		boolean seek = assist.getSeekColumns() != null;
+		String dataKey = SqlLimitResult.getResultKey(SqlLimitResult.DATA);
+		getCount(assist, cres -> {
+			if (cres.failed()) {
+				handler.handle(Future.failedFuture(cres.cause()));
+				return;
+			}
+			SqlLimitResult<JsonObject> result = new SqlLimitResult<>(cres.result(), assist.getPage(), assist.getRowSize());
+			if (cres.result() == 0 || (!seek && assist.getPage() > result.getPages())) {
+				handler.handle(Future.succeededFuture(result.toJson().toBuffer()));
+				return;
+			}
+			selectAllCollect(assist, SqlSeekResult.collector(assist, SqlJsonWriter.collector(false)), dres -> {
+				if (dres.failed()) {
+					handler.handle(Future.failedFuture(dres.cause()));
+					return;
+				}
+				SqlJsonWriter data = dres.result().getData();
+				if (seek) {
+					result.setCursor(dres.result().getCursor());
+				}
+				JsonObject json = result.toJson();
+				json.remove(dataKey);
+				Buffer head = json.toBuffer();
+				Buffer buffer = Buffer.buffer(head.length() + data.getBuffer().length() + dataKey.length() + 8);
+				buffer.appendBuffer(head, 0, head.length() - 1).appendString(",").appendString(Json.encode(dataKey)).appendString(":")
+						.appendBuffer(data.getBuffer()).appendString("}");
+				handler.handle(Future.succeededFuture(buffer));
+			});
+		});
+	}
+
 	/**
 	 * 通过ID查询出数据,并自定义返回列
 	 * 
@@ -99,6 +290,42 @@ public interface SQLCommand {
 	<S> void selectById(S primaryValue, String resultColumns, String tableAlias, String joinOrReference,
 			Handler<AsyncResult<JsonObject>> handler);
 
+	/**
+	 * 通过ID查询出数据,数据行直接转换为指定的类型
+	 * 
+	 * @param primaryValue
+	 *          主键值
+	 * @param resultColumns
+	 *          自定义返回列
+	 * @param tableAlias
+	 *          当前表的别名
+	 * @param joinOrReference
+	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
+	 * @param mapper
+	 *          数据行的转换器,比如{@link SqlEntityMapper#of(Class)}
+	 * @param handler
+	 *          返回结果:如果查询得到返回转换后的对象如果查询不到返回null
+	 */
+	<S, R> void selectByIdAs(S primaryValue, String resultColumns, String tableAlias, String joinOrReference, RowMapper<R> mapper,
+			Handler<AsyncResult<R>> handler);
+
+	/**
+	 * 通过多个主键查询数据
+	 * 
+	 * @param primaryValues
+	 *          主键的值
+	 * @param resultColumns
+	 *          自定义返回列,为null时使用默认返回列
+	 * @param tableAlias
+	 *          当前表的别名
+	 * @param joinOrReference
+	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
+	 * @param handler
+	 *          返回结果:与主键的顺序一致,查询不到的主键对应的位置为null
+	 */
+	<S> void selectByIds(Collection<S> primaryValues, String resultColumns, String tableAlias, String joinOrReference,
+			Handler<AsyncResult<List<JsonObject>>> handler);
+
 	/**
 	 * 将对象属性不为null的属性作为条件查询出数据,只取查询出来的第一条数据
 	 * 
@@ -133,6 +360,58 @@ public interface SQLCommand {
 	<T> void selectByObj(T obj, String resultColumns, String tableAlias, String joinOrReference,
 			Handler<AsyncResult<List<JsonObject>>> handler);
 
+	/**
+	 * 通过查询工具以流的方式读取数据,数据通过游标逐批读取,内存中最多保留fetchSize行数据
+	 * 
+	 * @param assist
+	 *          查询工具帮助类
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @param mapper
+	 *          数据行的转换器
+	 * @param handler
+	 *          返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	<R> void selectAllStream(SqlAssist assist, int fetchSize, RowMapper<R> mapper, Handler<AsyncResult<SqlReadStream<R>>> handler);
+
+	/**
+	 * 通过主键的游标分页逐块遍历查询结果,上一块处理完成后才读取下一块
+	 * 
+	 * @param assist
+	 *          查询工具,如果没有可以为null,没有设置游标分页的列时使用主键;遍历使用副本,不修改该对象,不能设置排序(数据按游标分页的列排序)
+	 * @param chunkSize
+	 *          每块多少行数据
+	 * @param prefetch
+	 *          是否在处理当前块时预先读取下一块
+	 * @param consumer
+	 *          每块数据的处理器,返回的Future失败时停止遍历
+	 * @param handler
+	 *          返回处理的总行数
+	 */
+	void forEachChunk(SqlAssist assist, int chunkSize, boolean prefetch, Function<List<JsonObject>, Future<Void>> consumer,
+			Handler<AsyncResult<Long>> handler);
+
+	/**
+	 * 将对象属性不为null的属性作为条件以流的方式读取数据,数据通过游标逐批读取,内存中最多保留fetchSize行数据
+	 * 
+	 * @param obj
+	 *          对象
+	 * @param resultColumns
+	 *          自定义返回列
+	 * @param tableAlias
+	 *          当前表的别名
+	 * @param joinOrReference
+	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @param mapper
+	 *          数据行的转换器
+	 * @param handler
+	 *          返回数据流,流结束、出现异常或关闭后连接归还连接池
+	 */
+	<T, R> void selectByObjStream(T obj, String resultColumns, String tableAlias, String joinOrReference, int fetchSize,
+			RowMapper<R> mapper, Handler<AsyncResult<SqlReadStream<R>>> handler);
+
 	/**
 	 * 插入一个对象包括属性值为null的值
 	 * 
@@ -183,6 +462,34 @@ public interface SQLCommand {
 	 */
 	void insertBatch(List<String> columns, List<Tuple> params, Handler<AsyncResult<Integer>> handler);
 
+	/**
+	 * 批量添加全部所有字段,使用多行VALUES的插入语句,数据按数据库参数数量的上限分块执行<br>
+	 * 客户端为连接池时所有分块在同一个事务中执行,任意分块失败时全部回滚
+	 * 
+	 * @param list
+	 *          对象
+	 * @param pipelined
+	 *          true=同时执行所有分块,false=按顺序逐个执行分块
+	 * @param handler
+	 *          成功返回受影响的行数
+	 */
+	<T> void insertBulk(List<T> list, boolean pipelined, Handler<AsyncResult<Integer>> handler);
+
+	/**
+	 * 批量添加自定字段,使用多行VALUES的插入语句,数据按数据库参数数量的上限分块执行<br>
+	 * 客户端为连接池时所有分块在同一个事务中执行,任意分块失败时全部回滚
+	 * 
+	 * @param column
+	 *          字段的名称示例:["id","name",...]
+	 * @param params
+	 *          字段对应的参数示例:[["id","name"],["id","name"]...]
+	 * @param pipelined
+	 *          true=同时执行所有分块,false=按顺序逐个执行分块
+	 * @param handler
+	 *          成功返回受影响的行数
+	 */
+	void insertBulk(List<String> columns, List<Tuple> params, boolean pipelined, Handler<AsyncResult<Integer>> handler);
+
 	/**
 	 * 插入一个对象,如果该对象不存在就新建如果该对象已经存在就更新
 	 * 
@@ -194,6 +501,16 @@ public interface SQLCommand {
 	 */
 	<T> void replace(T obj, Handler<AsyncResult<Integer>> handler);
 
+	/**
+	 * 批量插入对象,如果对象不存在就新建如果对象已经存在就更新,包括属性值为null的值,对象的主键值不能为null
+	 * 
+	 * @param list
+	 *          对象
+	 * @param handler
+	 *          成功返回受影响的行数
+	 */
+	<T> void upsertBatch(List<T> list, Handler<AsyncResult<Integer>> handler);
+
 	/**
 	 * 更新一个对象中所有的属性包括null值,条件为对象中的主键值
 	 * 
@@ -205,6 +522,16 @@ public interface SQLCommand {
 	 */
 	<T> void updateAllById(T obj, Handler<AsyncResult<Integer>> handler);
 
+	/**
+	 * 批量更新对象中所有的属性包括null值,条件为对象中的主键值
+	 * 
+	 * @param list
+	 *          对象
+	 * @param handler
+	 *          成功返回受影响的行数
+	 */
+	<T> void updateAllByIdBatch(List<T> list, Handler<AsyncResult<Integer>> handler);
+
 	/**
 	 * 更新一个对象中所有的属性包括null值,条件为SqlAssist条件集<br>
 	 * 
@@ -227,6 +554,17 @@ public interface SQLCommand {
 	 */
 	<T> void updateNonEmptyById(T obj, Handler<AsyncResult<Integer>> handler);
 
+	/**
+	 * 批量更新对象中属性不为null的值,条件为对象中的主键值<br>
+	 * 不为null的属性相同的对象合并为一个语句批量执行,客户端为连接池时多个语句在同一个事务中执行
+	 * 
+	 * @param list
+	 *          对象
+	 * @param handler
+	 *          成功返回受影响的总行数与每个语句受影响的行数
+	 */
+	<T> void updateNonEmptyByIdBatch(List<T> list, Handler<AsyncResult<SqlBatchResult>> handler);
+
 	/**
 	 * 更新一个对象中属性不为null值,条件为SqlAssist条件集
 	 * 
@@ -1,11 +1,23 @@
 package io.vertx.ext.sql.assist;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Pool;
 import io.vertx.sqlclient.PropertyKind;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
@@ -21,6 +33,14 @@ public class SQLCommandImpl implements SQLCommand {
 	private SQLStatement statement;
 	/** 执行器 */
 	private SQLExecute<?> execute;
+	/** 数据总行数的缓存,为null时不缓存 */
+	private SqlCountCache countCache;
+	/** 查询结果的缓存,为null时不缓存 */
+	private SqlResultCache resultCache;
+	/** 按主键缓存的实体数据,为null时不缓存 */
+	private SqlEntityCache entityCache;
+	/** 合并selectById的批量加载,为null时不合并 */
+	private SqlBatchLoader batchLoader;
 	/**
 	 * 初始化
 	 * 
@@ -33,9 +53,119 @@ public class SQLCommandImpl implements SQLCommand {
 		this.execute = execute;
 	}
 
+	/**
+	 * 创建使用相同语句与指定执行器的命令,不使用缓存与批量加载,用于事务
+	 * 
+	 * @param execute
+	 * @return
+	 */
+	SQLCommandImpl bind(SQLExecute<?> execute) {
+		return new SQLCommandImpl(statement, execute);
+	}
+
+	/**
+	 * 获取数据总行数的缓存
+	 * 
+	 * @return 没有设置时返回null
+	 */
+	public SqlCountCache getCountCache() {
+		return countCache;
+	}
+
+	/**
+	 * 设置数据总行数的缓存,通过当前命令执行新增/修改/删除后缓存失效
+	 * 
+	 * @param countCache
+	 *          为null时不缓存
+	 * @return
+	 */
+	public SQLCommandImpl setCountCache(SqlCountCache countCache) {
+		this.countCache = countCache;
+		return this;
+	}
+
+	/**
+	 * 获取查询结果的缓存
+	 * 
+	 * @return 没有设置时返回null
+	 */
+	public SqlResultCache getResultCache() {
+		return resultCache;
+	}
+
+	/**
+	 * 设置查询结果的缓存,selectAll/limitAll/selectById/selectByIds/selectByObj/selectSingleByObj优先从缓存中获取结果,<br>
+	 * 通过当前命令执行新增/修改/删除后,标记了当前表的结果失效
+	 * 
+	 * @param resultCache
+	 *          为null时不缓存
+	 * @return
+	 */
+	public SQLCommandImpl setResultCache(SqlResultCache resultCache) {
+		this.resultCache = resultCache;
+		return this;
+	}
+
+	/**
+	 * 获取按主键缓存的实体数据
+	 * 
+	 * @return 没有设置时返回null
+	 */
+	public SqlEntityCache getEntityCache() {
+		return entityCache;
+	}
+
+	/**
+	 * 设置按主键缓存的实体数据,selectById与selectByIds不指定返回列、别名与连接语句时优先从缓存中获取,<br>
+	 * 通过当前命令按主键新增/修改/删除后对应的数据失效,通过查询工具修改/删除后全部失效
+	 * 
+	 * @param entityCache
+	 *          为null时不缓存
+	 * @return
+	 */
+	public SQLCommandImpl setEntityCache(SqlEntityCache entityCache) {
+		this.entityCache = entityCache;
+		return this;
+	}
+
+	/**
+	 * 获取合并selectById的批量加载
+	 * 
+	 * @return 没有设置时返回null
+	 */
+	public SqlBatchLoader getBatchLoader() {
+		return batchLoader;
+	}
+
+	/**
+	 * 设置合并selectById的批量加载,不指定返回列、别名与连接语句的selectById在同一个上下文中合并为一个selectByIds
+	 * 
+	 * @param batchLoader
+	 *          为null时不合并
+	 * @return
+	 */
+	public SQLCommandImpl setBatchLoader(SqlBatchLoader batchLoader) {
+		this.batchLoader = batchLoader;
+		return this;
+	}
+
 	@Override
 	public void getCount(SqlAssist assist, Handler<AsyncResult<Long>> handler) {
 		SqlAndParams qp = statement.getCountSQL(assist);
+		SqlCountCache cache = countCache;
+		String key = null;
+		long generation = 0;
+		if (cache != null && qp.succeeded()) {
+			key = SqlCountCache.key(qp);
+			Long count = cache.get(key);
+			if (count != null) {
+				handler.handle(Future.succeededFuture(count));
+				return;
+			}
+			generation = cache.generation();
+		}
+		String cacheKey = key;
+		long cacheGeneration = generation;
 		execute.execute(qp, res -> {
 			if (res.succeeded()) {
 				RowSet<Row> set = res.result();
@@ -43,6 +173,9 @@ public class SQLCommandImpl implements SQLCommand {
 					handler.handle(Future.succeededFuture(0L));
 				} else {
 					Long result = set.iterator().next().getLong(0);
+					if (cacheKey != null && result != null) {
+						cache.put(cacheKey, result, cacheGeneration);
+					}
 					handler.handle(Future.succeededFuture(result));
 				}
 			} else {
@@ -53,31 +186,353 @@ public class SQLCommandImpl implements SQLCommand {
 
 	@Override
 	public void selectAll(SqlAssist assist, Handler<AsyncResult<List<JsonObject>>> handler) {
-		SqlAndParams qp = statement.selectAllSQL(assist);
+		SqlAndParams qp = (assist != null && assist.getSeekColumns() != null) ? statement.selectSeekSQL(assist)
+				: statement.selectAllSQL(assist);
 		if (qp.succeeded()) {
-			execute.queryAsList(qp, handler);
+			queryAsList(qp, assist == null ? null : assist.getJoinOrReference(), handler);
+		} else {
+			handler.handle(Future.failedFuture(qp.getSql()));
+		}
+	}
+
+	@Override
+	public <R> void selectAllAs(SqlAssist assist, RowMapper<R> mapper, Handler<AsyncResult<List<R>>> handler) {
+		SqlAndParams qp = (assist != null && assist.getSeekColumns() != null) ? statement.selectSeekSQL(assist)
+				: statement.selectAllSQL(assist);
+		if (qp.succeeded()) {
+			execute.queryAs(qp, mapper, handler);
+		} else {
+			handler.handle(Future.failedFuture(qp.getSql()));
+		}
+	}
+
+	@Override
+	public <A, R> void selectAllCollect(SqlAssist assist, Collector<Row, A, R> collector, Handler<AsyncResult<R>> handler) {
+		SqlAndParams qp = (assist != null && assist.getSeekColumns() != null) ? statement.selectSeekSQL(assist)
+				: statement.selectAllSQL(assist);
+		if (qp.succeeded()) {
+			execute.collect(qp, collector, handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
 	}
 
+	@Override
+	public void limitAll(SqlAssist assist, SqlLimitStrategy strategy, Handler<AsyncResult<JsonObject>> handler) {
+		if (assist == null || strategy == null || strategy == SqlLimitStrategy.SEQUENTIAL) {
+			limitAll(assist, handler);
+			return;
+		}
+		if (assist.getPage() == null || assist.getPage() < 1) {
+			assist.setPage(1);
+		}
+		if (assist.getRowSize() == null || assist.getRowSize() < 1) {
+			assist.setRowSize(15);
+		}
+		assist.setStartRow((assist.getPage() - 1) * assist.getRowSize());
+		if (strategy == SqlLimitStrategy.WINDOW) {
+			SqlAndParams qp = statement.selectAllWithCountSQL(assist);
+			if (qp.succeeded()) {
+				// 窗口函数得到的总行数写入总行数的缓存,与getCount共用
+				SqlCountCache cache = countCache;
+				SqlAndParams countQp = cache == null ? null : statement.getCountSQL(assist);
+				String countKey = (countQp != null && countQp.succeeded()) ? SqlCountCache.key(countQp) : null;
+				long generation = countKey == null ? 0 : cache.generation();
+				queryAsList(qp, assist.getJoinOrReference(), res -> {
+					if (res.failed()) {
+						handler.handle(Future.failedFuture(res.cause()));
+						return;
+					}
+					List<JsonObject> data = res.result();
+					if (data == null || data.isEmpty()) {
+						// 页数超出时窗口函数没有返回行,需要单独查询总行数
+						if (assist.getPage() == 1) {
+							if (countKey != null) {
+								cache.put(countKey, 0L, generation);
+							}
+							handler.handle(Future.succeededFuture(limitResult(assist, 0L, null, null)));
+						} else {
+							getCount(assist, cres -> {
+								if (cres.succeeded()) {
+									handler.handle(Future.succeededFuture(limitResult(assist, cres.result(), null, null)));
+								} else {
+									handler.handle(Future.failedFuture(cres.cause()));
+								}
+							});
+						}
+						return;
+					}
+					long count = 0;
+					for (JsonObject row : data) {
+						Object total = row.remove(SQLStatement.LIMIT_TOTAL_KEY);
+						if (total instanceof Number) {
+							count = ((Number) total).longValue();
+						}
+					}
+					if (countKey != null) {
+						cache.put(countKey, count, generation);
+					}
+					handler.handle(Future.succeededFuture(limitResult(assist, count, data, null)));
+				});
+				return;
+			}
+		}
+		Promise<Long> count = Promise.promise();
+		Promise<SqlSeekResult<List<JsonObject>>> data = Promise.promise();
+		getCount(assist, count);
+		if (assist.getSeekColumns() != null) {
+			selectAllCollect(assist, SqlSeekResult.collector(assist, SqlCollectors.toJsonList()), data);
+		} else {
+			selectAll(assist, res -> data.handle(res.map(rows -> new SqlSeekResult<>(rows, rows == null ? 0 : rows.size(), null))));
+		}
+		CompositeFuture.all(count.future(), data.future()).onComplete(res -> {
+			if (res.succeeded()) {
+				SqlSeekResult<List<JsonObject>> page = data.future().result();
+				handler.handle(Future.succeededFuture(limitResult(assist, count.future().result(), page.getData(), page.getCursor())));
+			} else {
+				handler.handle(Future.failedFuture(res.cause()));
+			}
+		});
+	}
+
+	/**
+	 * 创建分页查询的返回结果
+	 * 
+	 * @param assist
+	 *          查询工具
+	 * @param count
+	 *          总行数
+	 * @param data
+	 *          数据
+	 * @param cursor
+	 *          游标分页下一页的游标
+	 * @return
+	 */
+	private JsonObject limitResult(SqlAssist assist, long count, List<JsonObject> data, String cursor) {
+		SqlLimitResult<JsonObject> result = new SqlLimitResult<>(count, assist.getPage(), assist.getRowSize());
+		if (count > 0 && data != null) {
+			result.setData(data);
+			result.setCursor(cursor);
+		}
+		return result.toJson();
+	}
+
 	@Override
 	public <S> void selectById(S primaryValue, String resultColumns, String tableAlias, String joinOrReference,
 			Handler<AsyncResult<JsonObject>> handler) {
 		SqlAndParams qp = statement.selectByIdSQL(primaryValue, resultColumns, tableAlias, joinOrReference);
+		if (!qp.succeeded()) {
+			handler.handle(Future.failedFuture(qp.getSql()));
+			return;
+		}
+		if (primaryValue == null || resultColumns != null || tableAlias != null || joinOrReference != null) {
+			queryAsObj(qp, joinOrReference, handler);
+			return;
+		}
+		SqlBatchLoader loader = batchLoader;
+		if (loader != null) {
+			loader.load(primaryValue, (ids, h) -> selectByIds(ids, null, null, null, h), handler);
+			return;
+		}
+		SqlEntityCache cache = entityCache;
+		if (cache == null) {
+			queryAsObj(qp, null, handler);
+			return;
+		}
+		Optional<JsonObject> cached = cache.get(primaryValue);
+		if (cached != null) {
+			handler.handle(Future.succeededFuture(cached.orElse(null)));
+			return;
+		}
+		long generation = cache.generation();
+		queryAsObj(qp, null, res -> {
+			if (res.succeeded()) {
+				cache.put(primaryValue, res.result(), generation);
+			}
+			handler.handle(res);
+		});
+	}
+
+	@Override
+	public <S, R> void selectByIdAs(S primaryValue, String resultColumns, String tableAlias, String joinOrReference,
+			RowMapper<R> mapper, Handler<AsyncResult<R>> handler) {
+		SqlAndParams qp = statement.selectByIdSQL(primaryValue, resultColumns, tableAlias, joinOrReference);
 		if (qp.succeeded()) {
-			execute.queryAsObj(qp, handler);
+			execute.queryFirstAs(qp, mapper, handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
 	}
 
+
+	@Override
+	public <S> void selectByIds(Collection<S> primaryValues, String resultColumns, String tableAlias, String joinOrReference,
+			Handler<AsyncResult<List<JsonObject>>> handler) {
+		SqlEntityCache cache = (resultColumns == null && tableAlias == null && joinOrReference == null) ? entityCache : null;
+		Map<String, JsonObject> cached = new HashMap<>();
+		List<S> missing = new ArrayList<>();
+		long generation = 0;
+		if (cache == null) {
+			missing.addAll(primaryValues);
+		} else {
+			generation = cache.generation();
+			for (S value : primaryValues) {
+				if (value == null || cached.containsKey(SqlEntityCache.key(value))) {
+					continue;
+				}
+				Optional<JsonObject> row = cache.get(value);
+				if (row == null) {
+					missing.add(value);
+				} else {
+					cached.put(SqlEntityCache.key(value), row.orElse(null));
+				}
+			}
+			if (missing.isEmpty()) {
+				handler.handle(Future.succeededFuture(byIdsResult(primaryValues, cached)));
+				return;
+			}
+		}
+		long cacheGeneration = generation;
+		queryByIds(missing, resultColumns, tableAlias, joinOrReference, res -> {
+			if (res.failed()) {
+				handler.handle(Future.failedFuture(res.cause()));
+				return;
+			}
+			Map<String, JsonObject> rows = res.result();
+			if (cache != null) {
+				for (S value : missing) {
+					cache.put(value, rows.get(SqlEntityCache.key(value)), cacheGeneration);
+				}
+			}
+			rows.putAll(cached);
+			handler.handle(Future.succeededFuture(byIdsResult(primaryValues, rows)));
+		});
+	}
+
+	/**
+	 * 通过多个主键查询数据
+	 * 
+	 * @param primaryValues
+	 * @param resultColumns
+	 * @param tableAlias
+	 * @param joinOrReference
+	 * @param handler
+	 *          返回结果,key为{@link SqlEntityCache#key(Object)}
+	 */
+	private <S> void queryByIds(Collection<S> primaryValues, String resultColumns, String tableAlias, String joinOrReference,
+			Handler<AsyncResult<Map<String, JsonObject>>> handler) {
+		List<SqlAndParams> qps = statement.selectByIdsSQL(primaryValues, resultColumns, tableAlias, joinOrReference);
+		@SuppressWarnings("rawtypes")
+		List<Future> futures = new ArrayList<>(qps.size());
+		for (SqlAndParams qp : qps) {
+			if (!qp.succeeded()) {
+				handler.handle(Future.failedFuture(qp.getSql()));
+				return;
+			}
+			Promise<List<JsonObject>> promise = Promise.promise();
+			queryAsList(qp, joinOrReference, promise);
+			futures.add(promise.future());
+		}
+		CompositeFuture.all(futures).onComplete(res -> {
+			if (res.succeeded()) {
+				Map<String, JsonObject> rows = new HashMap<>();
+				for (int i = 0; i < futures.size(); i++) {
+					List<JsonObject> list = res.result().resultAt(i);
+					for (JsonObject row : list) {
+						Object key = row.remove(SQLStatement.SELECT_BY_IDS_KEY);
+						if (key != null) {
+							rows.putIfAbsent(SqlEntityCache.key(key), row);
+						}
+					}
+				}
+				handler.handle(Future.succeededFuture(rows));
+			} else {
+				handler.handle(Future.failedFuture(res.cause()));
+			}
+		});
+	}
+
+	/**
+	 * 按主键的顺序返回数据,不存在的主键为null
+	 * 
+	 * @param primaryValues
+	 * @param rows
+	 *          key为{@link SqlEntityCache#key(Object)}
+	 * @return
+	 */
+	private <S> List<JsonObject> byIdsResult(Collection<S> primaryValues, Map<String, JsonObject> rows) {
+		List<JsonObject> result = new ArrayList<>(primaryValues.size());
+		for (S value : primaryValues) {
+			result.add(value == null ? null : rows.get(SqlEntityCache.key(value)));
+		}
+		return result;
+	}
+
+	/**
+	 * 查询多行数据,设置了查询结果的缓存时优先从缓存中获取
+	 * 
+	 * @param qp
+	 * @param joinOrReference
+	 *          连接语句,用于标记结果涉及的表
+	 * @param handler
+	 */
+	private void queryAsList(SqlAndParams qp, String joinOrReference, Handler<AsyncResult<List<JsonObject>>> handler) {
+		SqlResultCache cache = resultCache;
+		if (cache == null) {
+			execute.queryAsList(qp, handler);
+			return;
+		}
+		String key = SqlResultCache.key(qp);
+		List<JsonObject> rows = cache.get(key);
+		if (rows != null) {
+			handler.handle(Future.succeededFuture(rows));
+			return;
+		}
+		long generation = cache.generation();
+		execute.queryAsList(qp, res -> {
+			if (res.succeeded() && res.result() != null) {
+				cache.put(key, res.result(), SqlResultCache.tags(statement.tableName(), joinOrReference), generation);
+			}
+			handler.handle(res);
+		});
+	}
+
+	/**
+	 * 查询一行数据,设置了查询结果的缓存时优先从缓存中获取,没有数据的结果也会缓存
+	 * 
+	 * @param qp
+	 * @param joinOrReference
+	 *          连接语句,用于标记结果涉及的表
+	 * @param handler
+	 */
+	private void queryAsObj(SqlAndParams qp, String joinOrReference, Handler<AsyncResult<JsonObject>> handler) {
+		SqlResultCache cache = resultCache;
+		if (cache == null) {
+			execute.queryAsObj(qp, handler);
+			return;
+		}
+		String key = SqlResultCache.key(qp);
+		List<JsonObject> rows = cache.get(key);
+		if (rows != null) {
+			handler.handle(Future.succeededFuture(rows.isEmpty() ? null : rows.get(0)));
+			return;
+		}
+		long generation = cache.generation();
+		execute.queryAsObj(qp, res -> {
+			if (res.succeeded()) {
+				List<JsonObject> result = res.result() == null ? new ArrayList<>() : Collections.singletonList(res.result());
+				cache.put(key, result, SqlResultCache.tags(statement.tableName(), joinOrReference), generation);
+			}
+			handler.handle(res);
+		});
+	}
+
 	@Override
 	public <T> void selectSingleByObj(T obj, String resultColumns, String tableAlias, String joinOrReference,
 			Handler<AsyncResult<JsonObject>> handler) {
 		SqlAndParams qp = statement.selectByObjSQL(obj, resultColumns, tableAlias, joinOrReference, true);
 		if (qp.succeeded()) {
-			execute.queryAsObj(qp, handler);
+			queryAsObj(qp, joinOrReference, handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
@@ -88,17 +543,121 @@ public class SQLCommandImpl implements SQLCommand {
 			Handler<AsyncResult<List<JsonObject>>> handler) {
 		SqlAndParams qp = statement.selectByObjSQL(obj, resultColumns, tableAlias, joinOrReference, false);
 		if (qp.succeeded()) {
-			execute.queryAsList(qp, handler);
+			queryAsList(qp, joinOrReference, handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
 	}
 
+	@Override
+	public <R> void selectAllStream(SqlAssist assist, int fetchSize, RowMapper<R> mapper,
+			Handler<AsyncResult<SqlReadStream<R>>> handler) {
+		SqlAndParams qp = (assist != null && assist.getSeekColumns() != null) ? statement.selectSeekSQL(assist)
+				: statement.selectAllSQL(assist);
+		execute.stream(qp, fetchSize, mapper, handler);
+	}
+
+	@Override
+	public void forEachChunk(SqlAssist assist, int chunkSize, boolean prefetch, Function<List<JsonObject>, Future<Void>> consumer,
+			Handler<AsyncResult<Long>> handler) {
+		if (chunkSize < 1) {
+			handler.handle(Future.failedFuture("The chunkSize must be greater than 0"));
+			return;
+		}
+		if (assist != null && assist.getOrder() != null) {
+			handler.handle(Future.failedFuture("The order cannot be used with forEachChunk , the chunks are sorted by the seek columns"));
+			return;
+		}
+		SqlAssist chunkAssist = assist == null ? new SqlAssist() : assist.copy();
+		if (chunkAssist.getSeekColumns() == null) {
+			if (statement.primaryId() == null) {
+				handler.handle(Future.failedFuture("there is no primary key in your SQL statement"));
+				return;
+			}
+			String table = statement.tableName();
+			chunkAssist.setSeek((table == null ? "" : (table + ".")) + statement.primaryId());
+		}
+		chunkAssist.setRowSize(chunkSize).setStartRow(null).setSeekCursor(null);
+		nextChunk(chunkAssist, fetchChunk(chunkAssist), prefetch, consumer, 0L, handler);
+	}
+
+	/**
+	 * 读取一块数据
+	 * 
+	 * @param assist
+	 * @return
+	 */
+	private Future<SqlSeekResult<List<JsonObject>>> fetchChunk(SqlAssist assist) {
+		Promise<SqlSeekResult<List<JsonObject>>> promise = Promise.promise();
+		selectAllCollect(assist, SqlSeekResult.collector(assist, SqlCollectors.toJsonList()), promise);
+		return promise.future();
+	}
+
+	/**
+	 * 处理当前块,处理完成后读取下一块,预先读取时下一块与当前块的处理同时进行
+	 * 
+	 * @param assist
+	 *          查询工具
+	 * @param current
+	 *          当前块
+	 * @param prefetch
+	 *          是否预先读取下一块
+	 * @param consumer
+	 *          每块数据的处理器
+	 * @param total
+	 *          已经处理的总行数
+	 * @param handler
+	 */
+	private void nextChunk(SqlAssist assist, Future<SqlSeekResult<List<JsonObject>>> current, boolean prefetch,
+			Function<List<JsonObject>, Future<Void>> consumer, long total, Handler<AsyncResult<Long>> handler) {
+		current.onComplete(res -> {
+			if (res.failed()) {
+				handler.handle(Future.failedFuture(res.cause()));
+				return;
+			}
+			List<JsonObject> data = res.result().getData();
+			if (data == null || data.isEmpty()) {
+				handler.handle(Future.succeededFuture(total));
+				return;
+			}
+			String nextCursor = res.result().getCursor();
+			if (nextCursor == null && data.size() >= assist.getRowSize()) {
+				handler.handle(
+						Future.failedFuture("The seek columns " + assist.getSeekColumns() + " must be included in the result columns"));
+				return;
+			}
+			Future<SqlSeekResult<List<JsonObject>>> prefetched = (prefetch && nextCursor != null) ? fetchChunk(assist.setSeekCursor(nextCursor)) : null;
+			Future<Void> processed;
+			try {
+				processed = consumer.apply(data);
+			} catch (Throwable e) {
+				processed = Future.failedFuture(e);
+			}
+			(processed == null ? Future.<Void>succeededFuture() : processed).onComplete(pres -> {
+				if (pres.failed()) {
+					handler.handle(Future.failedFuture(pres.cause()));
+				} else if (nextCursor == null) {
+					handler.handle(Future.succeededFuture(total + data.size()));
+				} else {
+					Future<SqlSeekResult<List<JsonObject>>> next = prefetched != null ? prefetched : fetchChunk(assist.setSeekCursor(nextCursor));
+					nextChunk(assist, next, prefetch, consumer, total + data.size(), handler);
+				}
+			});
+		});
+	}
+
+	@Override
+	public <T, R> void selectByObjStream(T obj, String resultColumns, String tableAlias, String joinOrReference, int fetchSize,
+			RowMapper<R> mapper, Handler<AsyncResult<SqlReadStream<R>>> handler) {
+		SqlAndParams qp = statement.selectByObjSQL(obj, resultColumns, tableAlias, joinOrReference, false);
+		execute.stream(qp, fetchSize, mapper, handler);
+	}
+
 	@Override
 	public <T> void insertAll(T obj, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.insertAllSQL(obj);
 		if (qp.succeeded()) {
-			execute.update(qp, handler);
+			executeUpdate(qp, evictInserted(null), handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
@@ -108,7 +667,7 @@ public class SQLCommandImpl implements SQLCommand {
 	public <T> void insertNonEmpty(T obj, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.insertNonEmptySQL(obj);
 		if (qp.succeeded()) {
-			execute.update(qp, handler);
+			executeUpdate(qp, evictInserted(null), handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
@@ -118,7 +677,7 @@ public class SQLCommandImpl implements SQLCommand {
 	public <T, R> void insertNonEmptyGeneratedKeys(T obj, PropertyKind<R> property, Handler<AsyncResult<R>> handler) {
 		SqlAndParams qp = statement.insertNonEmptySQL(obj);
 		if (qp.succeeded()) {
-			execute.updateResult(qp, property, handler);
+			executeUpdateResult(qp, property, evictInserted(null), handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
@@ -128,7 +687,7 @@ public class SQLCommandImpl implements SQLCommand {
 	public <T> void insertBatch(List<T> list, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.insertBatchSQL(list);
 		if (qp.succeeded()) {
-			execute.batch(qp, res -> {
+			executeBatch(qp, evictInserted(null), res -> {
 				if (res.succeeded()) {
 					handler.handle(Future.succeededFuture(res.result()));
 				} else {
@@ -144,7 +703,7 @@ public class SQLCommandImpl implements SQLCommand {
 	public void insertBatch(List<String> columns, List<Tuple> params, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.insertBatchSQL(columns, params);
 		if (qp.succeeded()) {
-			execute.batch(qp, res -> {
+			executeBatch(qp, evictInserted(null), res -> {
 				if (res.succeeded()) {
 					handler.handle(Future.succeededFuture(res.result()));
 				} else {
@@ -156,11 +715,125 @@ public class SQLCommandImpl implements SQLCommand {
 		}
 	}
 
+	@Override
+	public <T> void insertBulk(List<T> list, boolean pipelined, Handler<AsyncResult<Integer>> handler) {
+		executeAll(statement.insertBulkSQL(list), pipelined, evictInserted(null), res -> {
+			if (res.succeeded()) {
+				handler.handle(Future.succeededFuture(res.result().getTotal()));
+			} else {
+				handler.handle(Future.failedFuture(res.cause()));
+			}
+		});
+	}
+
+	@Override
+	public void insertBulk(List<String> columns, List<Tuple> params, boolean pipelined, Handler<AsyncResult<Integer>> handler) {
+		executeAll(statement.insertBulkSQL(columns, params), pipelined, evictInserted(null), res -> {
+			if (res.succeeded()) {
+				handler.handle(Future.succeededFuture(res.result().getTotal()));
+			} else {
+				handler.handle(Future.failedFuture(res.cause()));
+			}
+		});
+	}
+
+	/**
+	 * 执行多个语句并返回每个语句受影响的行数,包含批量参数的语句使用batch执行,其他语句使用update执行<br>
+	 * 客户端为连接池时多个语句在同一个连接的事务中执行,任意语句失败时全部回滚;<br>
+	 * 已经绑定连接(比如在事务中)时使用该连接,其他客户端逐个执行,失败时已经执行成功的语句不会回滚
+	 * 
+	 * @param qps
+	 *          语句
+	 * @param pipelined
+	 *          true=同时执行所有语句,false=按顺序逐个执行,出现失败时不再执行后面的语句
+	 * @param eviction
+	 *          每个语句执行完成后需要失效的实体缓存
+	 * @param handler
+	 */
+	private void executeAll(List<SqlAndParams> qps, boolean pipelined, Consumer<SqlEntityCache> eviction,
+			Handler<AsyncResult<SqlBatchResult>> handler) {
+		for (SqlAndParams qp : qps) {
+			if (!qp.succeeded()) {
+				handler.handle(Future.failedFuture(qp.getSql()));
+				return;
+			}
+		}
+		Object client = execute.getClient();
+		if (qps.size() > 1 && client instanceof Pool && !(execute instanceof SQLExecuteImplConnection)) {
+			((Pool) client).withTransaction(conn -> {
+				Promise<SqlBatchResult> promise = Promise.promise();
+				bind(new SQLExecuteImplConnection<>(client, conn)).executeAll(qps, pipelined, eviction, promise);
+				return promise.future();
+			}, res -> {
+				invalidateCache(eviction);
+				handler.handle(res);
+			});
+			return;
+		}
+		if (pipelined) {
+			@SuppressWarnings("rawtypes")
+			List<Future> futures = new ArrayList<>(qps.size());
+			for (SqlAndParams qp : qps) {
+				Promise<Integer> promise = Promise.promise();
+				executeOne(qp, eviction, promise);
+				futures.add(promise.future());
+			}
+			CompositeFuture.all(futures).onComplete(res -> {
+				if (res.succeeded()) {
+					SqlBatchResult result = new SqlBatchResult();
+					for (int i = 0; i < futures.size(); i++) {
+						Integer rows = res.result().resultAt(i);
+						result.add(qps.get(i).getSql(), rows == null ? 0 : rows);
+					}
+					handler.handle(Future.succeededFuture(result));
+				} else {
+					handler.handle(Future.failedFuture(res.cause()));
+				}
+			});
+		} else {
+			executeSequential(qps, 0, eviction, new SqlBatchResult(), handler);
+		}
+	}
+
+	private void executeSequential(List<SqlAndParams> qps, int index, Consumer<SqlEntityCache> eviction,
+			SqlBatchResult result, Handler<AsyncResult<SqlBatchResult>> handler) {
+		if (index >= qps.size()) {
+			handler.handle(Future.succeededFuture(result));
+			return;
+		}
+		executeOne(qps.get(index), eviction, res -> {
+			if (res.succeeded()) {
+				result.add(qps.get(index).getSql(), res.result() == null ? 0 : res.result());
+				executeSequential(qps, index + 1, eviction, result, handler);
+			} else {
+				handler.handle(Future.failedFuture(res.cause()));
+			}
+		});
+	}
+
+	private void executeOne(SqlAndParams qp, Consumer<SqlEntityCache> eviction, Handler<AsyncResult<Integer>> handler) {
+		if (qp.getBatchParams() != null) {
+			executeBatch(qp, eviction, handler);
+		} else {
+			executeUpdate(qp, eviction, handler);
+		}
+	}
+
 	@Override
 	public <T> void replace(T obj, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.replaceSQL(obj);
 		if (qp.succeeded()) {
-			execute.update(qp, handler);
+			executeUpdate(qp, evictInserted(Collections.singletonList(obj)), handler);
+		} else {
+			handler.handle(Future.failedFuture(qp.getSql()));
+		}
+	}
+
+	@Override
+	public <T> void upsertBatch(List<T> list, Handler<AsyncResult<Integer>> handler) {
+		SqlAndParams qp = statement.upsertBatchSQL(list);
+		if (qp.succeeded()) {
+			executeOne(qp, evictInserted(list), handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
@@ -170,7 +843,17 @@ public class SQLCommandImpl implements SQLCommand {
 	public <T> void updateAllById(T obj, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.updateAllByIdSQL(obj);
 		if (qp.succeeded()) {
-			execute.update(qp, handler);
+			executeUpdate(qp, evictObjs(Collections.singletonList(obj)), handler);
+		} else {
+			handler.handle(Future.failedFuture(qp.getSql()));
+		}
+	}
+
+	@Override
+	public <T> void updateAllByIdBatch(List<T> list, Handler<AsyncResult<Integer>> handler) {
+		SqlAndParams qp = statement.updateAllByIdBatchSQL(list);
+		if (qp.succeeded()) {
+			executeOne(qp, evictObjs(list), handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
@@ -180,7 +863,7 @@ public class SQLCommandImpl implements SQLCommand {
 	public <T> void updateAllByAssist(T obj, SqlAssist assist, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.updateAllByAssistSQL(obj, assist);
 		if (qp.succeeded()) {
-			execute.update(qp, handler);
+			executeUpdate(qp, SqlEntityCache::invalidateAll, handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
@@ -190,17 +873,22 @@ public class SQLCommandImpl implements SQLCommand {
 	public <T> void updateNonEmptyById(T obj, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.updateNonEmptyByIdSQL(obj);
 		if (qp.succeeded()) {
-			execute.update(qp, handler);
+			executeUpdate(qp, evictObjs(Collections.singletonList(obj)), handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
 	}
 
+	@Override
+	public <T> void updateNonEmptyByIdBatch(List<T> list, Handler<AsyncResult<SqlBatchResult>> handler) {
+		executeAll(statement.updateNonEmptyByIdBatchSQL(list), false, evictObjs(list), handler);
+	}
+
 	@Override
 	public <T> void updateNonEmptyByAssist(T obj, SqlAssist assist, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.updateNonEmptyByAssistSQL(obj, assist);
 		if (qp.succeeded()) {
-			execute.update(qp, handler);
+			executeUpdate(qp, SqlEntityCache::invalidateAll, handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
@@ -210,7 +898,7 @@ public class SQLCommandImpl implements SQLCommand {
 	public <S> void updateSetNullById(S primaryValue, List<String> columns, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.updateSetNullByIdSQL(primaryValue, columns);
 		if (qp.succeeded()) {
-			execute.update(qp, handler);
+			executeUpdate(qp, evictIds(Collections.singletonList(primaryValue)), handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
@@ -220,7 +908,7 @@ public class SQLCommandImpl implements SQLCommand {
 	public <T> void updateSetNullByAssist(SqlAssist assist, List<String> columns, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.updateSetNullByAssistSQL(assist, columns);
 		if (qp.succeeded()) {
-			execute.update(qp, handler);
+			executeUpdate(qp, SqlEntityCache::invalidateAll, handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
@@ -230,7 +918,7 @@ public class SQLCommandImpl implements SQLCommand {
 	public <S> void deleteById(S primaryValue, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.deleteByIdSQL(primaryValue);
 		if (qp.succeeded()) {
-			execute.update(qp, handler);
+			executeUpdate(qp, evictIds(Collections.singletonList(primaryValue)), handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
@@ -240,10 +928,150 @@ public class SQLCommandImpl implements SQLCommand {
 	public void deleteByAssist(SqlAssist assist, Handler<AsyncResult<Integer>> handler) {
 		SqlAndParams qp = statement.deleteByAssistSQL(assist);
 		if (qp.succeeded()) {
-			execute.update(qp, handler);
+			executeUpdate(qp, SqlEntityCache::invalidateAll, handler);
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
 	}
 
+	/**
+	 * 执行更新,完成后使缓存失效
+	 * 
+	 * @param qp
+	 * @param eviction
+	 *          需要失效的实体缓存
+	 * @param handler
+	 */
+	private void executeUpdate(SqlAndParams qp, Consumer<SqlEntityCache> eviction, Handler<AsyncResult<Integer>> handler) {
+		execute.update(qp, invalidateCache(eviction, handler));
+	}
+
+	/**
+	 * 执行更新并获取结果,完成后使缓存失效
+	 * 
+	 * @param qp
+	 * @param property
+	 * @param eviction
+	 *          需要失效的实体缓存
+	 * @param handler
+	 */
+	private <R> void executeUpdateResult(SqlAndParams qp, PropertyKind<R> property, Consumer<SqlEntityCache> eviction,
+			Handler<AsyncResult<R>> handler) {
+		execute.updateResult(qp, property, invalidateCache(eviction, handler));
+	}
+
+	/**
+	 * 执行批量更新,完成后使缓存失效
+	 * 
+	 * @param qp
+	 * @param eviction
+	 *          需要失效的实体缓存
+	 * @param handler
+	 */
+	private void executeBatch(SqlAndParams qp, Consumer<SqlEntityCache> eviction, Handler<AsyncResult<Integer>> handler) {
+		execute.batch(qp, invalidateCache(eviction, handler));
+	}
+
+	/**
+	 * 执行完成后使数据总行数的缓存、标记了当前表的查询结果与受影响的实体缓存失效,执行失败时数据也可能已经部分修改
+	 * 
+	 * @param eviction
+	 *          需要失效的实体缓存
+	 * @param handler
+	 * @return
+	 */
+	private <R> Handler<AsyncResult<R>> invalidateCache(Consumer<SqlEntityCache> eviction, Handler<AsyncResult<R>> handler) {
+		if (countCache == null && resultCache == null && entityCache == null) {
+			return handler;
+		}
+		return res -> {
+			invalidateCache(eviction);
+			handler.handle(res);
+		};
+	}
+
+	/**
+	 * 使当前表的所有缓存失效,用于通过其他命令(比如事务)修改数据后
+	 */
+	void invalidateCache() {
+		invalidateCache(SqlEntityCache::invalidateAll);
+	}
+
+	/**
+	 * 使数据总行数的缓存、标记了当前表的查询结果与受影响的实体缓存失效
+	 * 
+	 * @param eviction
+	 *          需要失效的实体缓存
+	 */
+	private void invalidateCache(Consumer<SqlEntityCache> eviction) {
+		SqlCountCache cache = countCache;
+		if (cache != null) {
+			cache.invalidate();
+		}
+		SqlResultCache results = resultCache;
+		if (results != null) {
+			if (statement.tableName() == null) {
+				results.invalidateAll();
+			} else {
+				results.invalidate(statement.tableName());
+			}
+		}
+		SqlEntityCache entities = entityCache;
+		if (entities != null) {
+			eviction.accept(entities);
+		}
+	}
+
+	/**
+	 * 新增数据后需要失效的实体缓存:缓存的不存在的主键,以及replace/upsert可能覆盖的已有数据
+	 * 
+	 * @param objs
+	 *          可能覆盖已有数据的实体,只新增时为null
+	 * @return
+	 */
+	private <T> Consumer<SqlEntityCache> evictInserted(Collection<T> objs) {
+		return cache -> {
+			cache.invalidateMisses();
+			if (objs != null) {
+				evictObjs(objs).accept(cache);
+			}
+		};
+	}
+
+	/**
+	 * 按实体的主键值使实体缓存失效
+	 * 
+	 * @param objs
+	 * @return
+	 */
+	private <T> Consumer<SqlEntityCache> evictObjs(Collection<T> objs) {
+		return cache -> {
+			List<Object> ids = new ArrayList<>(objs.size());
+			for (T obj : objs) {
+				ids.add(statement.primaryValue(obj));
+			}
+			evictIds(ids).accept(cache);
+		};
+	}
+
+	/**
+	 * 按主键值使实体缓存失效,存在无法获取的主键值时全部失效
+	 * 
+	 * @param ids
+	 * @return
+	 */
+	private Consumer<SqlEntityCache> evictIds(Collection<?> ids) {
+		return cache -> {
+			for (Object id : ids) {
+				if (id == null) {
+					cache.invalidateAll();
+					return;
+				}
+			}
+			for (Object id : ids) {
+				cache.invalidate(id);
+			}
+		};
+	}
+
 }
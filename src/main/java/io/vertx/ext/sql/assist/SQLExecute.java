@@ -1,9 +1,16 @@
 package io.vertx.ext.sql.assist;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.db2client.DB2Pool;
 import io.vertx.jdbcclient.JDBCPool;
@@ -59,6 +66,22 @@ public interface SQLExecute<T> {
 		return new SQLExecuteImplDB2(pool);
 	}
 
+	/**
+	 * 创建读写分离的实例,查询发送到只读库,新增/修改/删除发送到主库
+	 * 
+	 * @param primary
+	 *          主库
+	 * @param replicas
+	 *          只读库
+	 * @param strategy
+	 *          选择只读库的方式
+	 * @return
+	 */
+	static <T> SQLExecuteImplRouting<T> createRouting(SQLExecute<T> primary, List<SQLExecute<T>> replicas,
+			SqlReplicaStrategy strategy) {
+		return new SQLExecuteImplRouting<>(primary, replicas, strategy);
+	}
+
 	/**
 	 * 获取客户端
 	 * 
@@ -66,6 +89,26 @@ public interface SQLExecute<T> {
 	 */
 	T getClient();
 
+	/**
+	 * 获取合并相同并发查询的{@link SqlSingleFlight}
+	 * 
+	 * @return 没有设置时返回null
+	 */
+	default SqlSingleFlight getSingleFlight() {
+		return null;
+	}
+
+	/**
+	 * 设置合并相同并发查询的{@link SqlSingleFlight},queryAsObj与queryAsList在SQL语句与参数相同的查询正在执行时等待该查询的结果,<br>
+	 * 其他查询与新增/修改/删除不合并<br>
+	 * 默认实现不支持合并,忽略设置的值,{@link #getSingleFlight()}始终返回null
+	 * 
+	 * @param singleFlight
+	 *          为null时不合并
+	 */
+	default void setSingleFlight(SqlSingleFlight singleFlight) {
+	}
+
 	/**
 	 * 执行查询
 	 * 
@@ -76,6 +119,36 @@ public interface SQLExecute<T> {
 	 */
 	void execute(SqlAndParams qp, Handler<AsyncResult<RowSet<Row>>> handler);
 
+	/**
+	 * 执行多个互不依赖的语句,结果的顺序与语句一致,通过{@link CompositeFuture#resultAt(int)}获取每个语句的RowSet<br>
+	 * 默认实现逐个通过{@link #execute(SqlAndParams, Handler)}执行,连接池的实现在同一个连接上连续发送所有语句(流水线)
+	 * 
+	 * @param qps
+	 *          SQL语句与参数,包含批量参数的语句使用batch执行
+	 * @param failFast
+	 *          true=任意语句失败时立即返回失败,false=所有语句完成后返回结果,通过{@link CompositeFuture#succeeded(int)}与
+	 *          {@link CompositeFuture#cause(int)}获取每个语句的结果
+	 * @param handler
+	 *          返回结果
+	 */
+	@SuppressWarnings("rawtypes")
+	default void executeAll(List<SqlAndParams> qps, boolean failFast, Handler<AsyncResult<CompositeFuture>> handler) {
+		List<Future> futures = new ArrayList<>(qps.size());
+		for (SqlAndParams qp : qps) {
+			Promise<RowSet<Row>> promise = Promise.promise();
+			execute(qp, promise);
+			futures.add(promise.future());
+		}
+		CompositeFuture all = failFast ? CompositeFuture.all(futures) : CompositeFuture.join(futures);
+		all.onComplete(res -> {
+			if (failFast && res.failed()) {
+				handler.handle(Future.failedFuture(res.cause()));
+			} else {
+				handler.handle(Future.succeededFuture(all));
+			}
+		});
+	}
+
 	/**
 	 * 执行查询
 	 * 
@@ -96,6 +169,125 @@ public interface SQLExecute<T> {
 	 */
 	void queryAsList(SqlAndParams qp, Handler<AsyncResult<List<JsonObject>>> handler);
 
+	/**
+	 * 执行查询并将数据行直接转换为指定的类型,每个结果集只调用一次{@link RowMapper#resolve(List)}
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param mapper
+	 *          数据行的转换器
+	 * @param handler
+	 *          返回结果 查询不到结果的时候返回不为null的空List
+	 */
+	default <R> void queryAs(SqlAndParams qp, RowMapper<R> mapper, Handler<AsyncResult<List<R>>> handler) {
+		execute(qp, res -> {
+			if (res.failed()) {
+				handler.handle(Future.failedFuture(res.cause()));
+				return;
+			}
+			RowSet<Row> rowSet = res.result();
+			List<R> list = new ArrayList<>(rowSet == null ? 0 : rowSet.size());
+			if (rowSet != null && rowSet.size() > 0) {
+				try {
+					RowMapper<R> resolved = mapper.resolve(rowSet.columnsNames());
+					for (Row row : rowSet) {
+						list.add(resolved.map(row));
+					}
+				} catch (Exception e) {
+					handler.handle(Future.failedFuture(e));
+					return;
+				}
+			}
+			handler.handle(Future.succeededFuture(list));
+		});
+	}
+
+	/**
+	 * 执行查询并将第一行数据直接转换为指定的类型
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param mapper
+	 *          数据行的转换器
+	 * @param handler
+	 *          返回结果 查询不到结果的时候返回null
+	 */
+	default <R> void queryFirstAs(SqlAndParams qp, RowMapper<R> mapper, Handler<AsyncResult<R>> handler) {
+		execute(qp, res -> {
+			if (res.failed()) {
+				handler.handle(Future.failedFuture(res.cause()));
+				return;
+			}
+			RowSet<Row> rowSet = res.result();
+			if (rowSet == null || !rowSet.iterator().hasNext()) {
+				handler.handle(Future.succeededFuture());
+				return;
+			}
+			R result;
+			try {
+				result = mapper.resolve(rowSet.columnsNames()).map(rowSet.iterator().next());
+			} catch (Exception e) {
+				handler.handle(Future.failedFuture(e));
+				return;
+			}
+			handler.handle(Future.succeededFuture(result));
+		});
+	}
+
+	/**
+	 * 执行查询并通过收集器在解码数据行时直接汇总结果,不创建RowSet,常用的收集器见{@link SqlCollectors}
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param collector
+	 *          数据行的收集器
+	 * @param handler
+	 *          返回结果
+	 */
+	default <A, R> void collect(SqlAndParams qp, Collector<Row, A, R> collector, Handler<AsyncResult<R>> handler) {
+		execute(qp, res -> {
+			if (res.failed()) {
+				handler.handle(Future.failedFuture(res.cause()));
+				return;
+			}
+			R result;
+			try {
+				A container = collector.supplier().get();
+				BiConsumer<A, Row> accumulator = collector.accumulator();
+				if (res.result() != null) {
+					for (Row row : res.result()) {
+						accumulator.accept(container, row);
+					}
+				}
+				result = collector.finisher().apply(container);
+			} catch (Exception e) {
+				handler.handle(Future.failedFuture(e));
+				return;
+			}
+			handler.handle(Future.succeededFuture(result));
+		});
+	}
+
+	/**
+	 * 执行查询并在解码时直接将数据行写为JSON,不创建RowSet与JsonObject
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param ndjson
+	 *          true=NDJSON格式(每行一个JSON对象,以换行结尾),false=JSON数组
+	 * @param handler
+	 *          返回结果
+	 */
+	default void queryAsBuffer(SqlAndParams qp, boolean ndjson, Handler<AsyncResult<Buffer>> handler) {
+		collect(qp, SqlJsonWriter.collector(ndjson), res -> {
+			if (res.succeeded()) {
+				handler.handle(Future.succeededFuture(res.result().getBuffer()));
+			} else {
+				handler.handle(Future.failedFuture(res.cause()));
+			}
+		});
+	}
+
 	/**
 	 * 执行更新等操作得到受影响的行数
 	 * 
@@ -127,4 +319,20 @@ public interface SQLExecute<T> {
 	 *          返回结果
 	 */
 	void batch(SqlAndParams qp, Handler<AsyncResult<Integer>> handler);
+
+	/**
+	 * 通过游标逐批读取查询结果,游标使用一个单独的连接,流结束、出现异常或关闭后将连接归还连接池
+	 * 
+	 * @param qp
+	 *          SQL语句与参数
+	 * @param fetchSize
+	 *          每次从数据库读取多少行数据
+	 * @param mapper
+	 *          数据行的转换器
+	 * @param handler
+	 *          返回结果
+	 */
+	default <R> void stream(SqlAndParams qp, int fetchSize, RowMapper<R> mapper, Handler<AsyncResult<SqlReadStream<R>>> handler) {
+		handler.handle(Future.failedFuture("stream is not supported by " + getClass().getName()));
+	}
 }
@@ -2,15 +2,25 @@ package io.vertx.ext.sql.assist;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collector;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Pool;
 import io.vertx.sqlclient.PropertyKind;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.RowStream;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.SqlResult;
+import io.vertx.sqlclient.Tuple;
 
 /**
  * SQL操作的默认实现
@@ -19,27 +29,128 @@ import io.vertx.sqlclient.RowSet;
  *
  */
 public abstract class SQLExecuteBase {
-	/** JDBC客户端 */
+	/** 执行语句的客户端,连接池或事务中的连接 */
+	private SqlClient client;
+	/** 连接池,绑定连接时为null */
 	private Pool pool;
+	/** 绑定的连接,使用连接池时为null */
+	private SqlConnection connection;
+	/** 合并相同的并发查询,为null时不合并 */
+	private SqlSingleFlight singleFlight;
 
 	public SQLExecuteBase(Pool pool) {
 		super();
+		this.client = pool;
 		this.pool = pool;
 	}
 
+	/**
+	 * 绑定连接,所有语句都通过该连接执行,用于事务
+	 * 
+	 * @param connection
+	 */
+	public SQLExecuteBase(SqlConnection connection) {
+		super();
+		this.client = connection;
+		this.connection = connection;
+	}
+
+	public SqlSingleFlight getSingleFlight() {
+		return singleFlight;
+	}
+
+	public void setSingleFlight(SqlSingleFlight singleFlight) {
+		this.singleFlight = singleFlight;
+	}
+
 	public void execute(SqlAndParams qp, Handler<AsyncResult<RowSet<Row>>> handler) {
 		if (qp.succeeded()) {
 			if (qp.getParams() == null) {
-				pool.query(qp.getSql()).execute(handler);
+				client.query(qp.getSql()).execute(handler);
 			} else {
-				pool.preparedQuery(qp.getSql()).execute(qp.getParams(), handler);
+				client.preparedQuery(qp.getSql()).execute(qp.getParams(), handler);
 			}
 		} else {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
 	}
 
+	@SuppressWarnings("rawtypes")
+	public void executeAll(List<SqlAndParams> qps, boolean failFast, Handler<AsyncResult<CompositeFuture>> handler) {
+		for (SqlAndParams qp : qps) {
+			if (!qp.succeeded()) {
+				handler.handle(Future.failedFuture(qp.getSql()));
+				return;
+			}
+		}
+		if (qps.isEmpty()) {
+			handler.handle(Future.succeededFuture(CompositeFuture.all(new ArrayList<>())));
+			return;
+		}
+		if (connection != null) {
+			pipeline(connection, qps, failFast, handler);
+			return;
+		}
+		pool.getConnection(cres -> {
+			if (cres.failed()) {
+				handler.handle(Future.failedFuture(cres.cause()));
+				return;
+			}
+			SqlConnection conn = cres.result();
+			// 所有语句完成后才将连接归还连接池,快速失败时可能仍有语句在执行
+			pipeline(conn, qps, failFast, handler).onComplete(v -> conn.close());
+		});
+	}
+
+	/**
+	 * 在同一个连接上连续发送所有语句,不等待前一个语句的结果
+	 * 
+	 * @param conn
+	 * @param qps
+	 * @param failFast
+	 * @param handler
+	 * @return 所有语句完成时完成
+	 */
+	@SuppressWarnings("rawtypes")
+	private CompositeFuture pipeline(SqlConnection conn, List<SqlAndParams> qps, boolean failFast,
+			Handler<AsyncResult<CompositeFuture>> handler) {
+		List<Future> futures = new ArrayList<>(qps.size());
+		for (SqlAndParams qp : qps) {
+			Promise<RowSet<Row>> promise = Promise.promise();
+			if (qp.getBatchParams() != null) {
+				conn.preparedQuery(qp.getSql()).executeBatch(qp.getBatchParams(), promise);
+			} else if (qp.getParams() == null) {
+				conn.query(qp.getSql()).execute(promise);
+			} else {
+				conn.preparedQuery(qp.getSql()).execute(qp.getParams(), promise);
+			}
+			futures.add(promise.future());
+		}
+		CompositeFuture joined = CompositeFuture.join(futures);
+		if (failFast) {
+			CompositeFuture.all(futures).onComplete(res -> {
+				if (res.succeeded()) {
+					handler.handle(Future.succeededFuture(res.result()));
+				} else {
+					handler.handle(Future.failedFuture(res.cause()));
+				}
+			});
+		} else {
+			joined.onComplete(res -> handler.handle(Future.succeededFuture(joined)));
+		}
+		return joined;
+	}
+
 	public void queryAsObj(SqlAndParams qp, Handler<AsyncResult<JsonObject>> handler) {
+		SqlSingleFlight flight = singleFlight;
+		if (flight != null && qp.succeeded()) {
+			flight.execute(SqlSingleFlight.key("obj", qp), h -> queryFirst(qp, h), SqlSingleFlight::copy, handler);
+		} else {
+			queryFirst(qp, handler);
+		}
+	}
+
+	private void queryFirst(SqlAndParams qp, Handler<AsyncResult<JsonObject>> handler) {
 		execute(qp, res -> {
 			if (res.succeeded()) {
 				RowSet<Row> rowSet = res.result();
@@ -56,24 +167,92 @@ public abstract class SQLExecuteBase {
 	}
 
 	public void queryAsList(SqlAndParams qp, Handler<AsyncResult<List<JsonObject>>> handler) {
-		execute(qp, res -> {
-			if (res.succeeded()) {
-				RowSet<Row> rowSet = res.result();
-				if (rowSet == null || rowSet.size() <= 0) {
-					handler.handle(Future.succeededFuture(new ArrayList<>()));
-				} else {
-					List<JsonObject> list = new ArrayList<>();
-					for (Row row : rowSet) {
-						list.add(row.toJson());
-					}
-					handler.handle(Future.succeededFuture(list));
-				}
-			} else {
+		SqlSingleFlight flight = singleFlight;
+		if (flight != null && qp.succeeded()) {
+			flight.execute(SqlSingleFlight.key("list", qp), h -> collect(qp, SqlCollectors.toJsonList(), h),
+					SqlSingleFlight::copy, handler);
+		} else {
+			collect(qp, SqlCollectors.toJsonList(), handler);
+		}
+	}
+
+	public <R> void queryAs(SqlAndParams qp, RowMapper<R> mapper, Handler<AsyncResult<List<R>>> handler) {
+		collect(qp, SqlCollectors.toList(mapper), handler);
+	}
+
+	public <A, R> void collect(SqlAndParams qp, Collector<Row, A, R> collector, Handler<AsyncResult<R>> handler) {
+		if (!qp.succeeded()) {
+			handler.handle(Future.failedFuture(qp.getSql()));
+			return;
+		}
+		Handler<AsyncResult<SqlResult<Collecting<A, R>>>> resultHandler = res -> {
+			if (res.failed()) {
 				handler.handle(Future.failedFuture(res.cause()));
+			} else if (res.result().value().error != null) {
+				handler.handle(Future.failedFuture(res.result().value().error));
+			} else {
+				handler.handle(Future.succeededFuture(res.result().value().result));
+			}
+		};
+		if (qp.getParams() == null) {
+			client.query(qp.getSql()).collecting(guard(collector)).execute(resultHandler);
+		} else {
+			client.preparedQuery(qp.getSql()).collecting(guard(collector)).execute(qp.getParams(), resultHandler);
+		}
+	}
+
+	/**
+	 * 包装收集器,收集器抛出的异常保存在结果中,JDBC客户端在解码时出现异常不会释放连接
+	 * 
+	 * @param collector
+	 * @return
+	 */
+	private static <A, R> Collector<Row, Collecting<A, R>, Collecting<A, R>> guard(Collector<Row, A, R> collector) {
+		BiConsumer<A, Row> accumulator = collector.accumulator();
+		BinaryOperator<A> combiner = collector.combiner();
+		return Collector.of(() -> new Collecting<>(collector.supplier().get()), (c, row) -> {
+			if (c.error == null) {
+				try {
+					accumulator.accept(c.container, row);
+				} catch (Throwable e) {
+					c.error = e;
+				}
+			}
+		}, (a, b) -> {
+			a.error = a.error != null ? a.error : b.error;
+			if (a.error == null) {
+				a.container = combiner.apply(a.container, b.container);
 			}
+			return a;
+		}, c -> {
+			if (c.error == null) {
+				try {
+					c.result = collector.finisher().apply(c.container);
+				} catch (Throwable e) {
+					c.error = e;
+				}
+			}
+			return c;
 		});
 	}
 
+	/**
+	 * 收集的中间结果与异常
+	 * 
+	 * @author <a href="http://mirrentools.org">Mirren</a>
+	 *
+	 */
+	private static class Collecting<A, R> {
+		private A container;
+		private R result;
+		private Throwable error;
+
+		public Collecting(A container) {
+			super();
+			this.container = container;
+		}
+	}
+
 	public void update(SqlAndParams qp, Handler<AsyncResult<Integer>> handler) {
 		execute(qp, res -> {
 			if (res.succeeded()) {
@@ -104,7 +283,7 @@ public abstract class SQLExecuteBase {
 
 	public void batch(SqlAndParams qp, Handler<AsyncResult<Integer>> handler) {
 		if (qp.succeeded()) {
-			pool.preparedQuery(qp.getSql()).executeBatch(qp.getBatchParams(), res -> {
+			client.preparedQuery(qp.getSql()).executeBatch(qp.getBatchParams(), res -> {
 				if (res.succeeded()) {
 					RowSet<Row> rowSet = res.result();
 					if (rowSet == null) {
@@ -126,4 +305,39 @@ public abstract class SQLExecuteBase {
 			handler.handle(Future.failedFuture(qp.getSql()));
 		}
 	}
+
+	public <R> void stream(SqlAndParams qp, int fetchSize, RowMapper<R> mapper, Handler<AsyncResult<SqlReadStream<R>>> handler) {
+		if (!qp.succeeded()) {
+			handler.handle(Future.failedFuture(qp.getSql()));
+			return;
+		}
+		Tuple params = qp.getParams() == null ? Tuple.tuple() : qp.getParams();
+		if (connection != null) {
+			// 绑定的连接已经在事务中,流结束后只关闭预编译语句,不结束事务也不关闭连接
+			connection.prepare(qp.getSql()).<SqlReadStream<R>>map(statement -> {
+				RowStream<Row> stream = statement.createStream(fetchSize < 1 ? 1 : fetchSize, params);
+				return new SqlReadStream<>(stream, statement, null, null, mapper);
+			}).onComplete(handler);
+			return;
+		}
+		pool.getConnection(cres -> {
+			if (cres.failed()) {
+				handler.handle(Future.failedFuture(cres.cause()));
+				return;
+			}
+			SqlConnection conn = cres.result();
+			// PostgreSQL的游标需要在事务中使用
+			conn.begin().compose(tx -> conn.prepare(qp.getSql()).<SqlReadStream<R>>map(statement -> {
+				RowStream<Row> stream = statement.createStream(fetchSize < 1 ? 1 : fetchSize, params);
+				return new SqlReadStream<>(stream, statement, tx, conn, mapper);
+			}).onFailure(err -> tx.rollback())).onComplete(res -> {
+				if (res.succeeded()) {
+					handler.handle(Future.succeededFuture(res.result()));
+				} else {
+					conn.close();
+					handler.handle(Future.failedFuture(res.cause()));
+				}
+			});
+		});
+	}
 }
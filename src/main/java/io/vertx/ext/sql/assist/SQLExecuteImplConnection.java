@@ -0,0 +1,63 @@
+package io.vertx.ext.sql.assist;
+
+import io.vertx.sqlclient.SqlConnection;
+
+/**
+ * SQL操作绑定连接的实现,所有语句都通过同一个连接执行,用于事务
+ * 
+ * @author <a href="https://mirrentools.org">Mirren</a>
+ *
+ */
+public class SQLExecuteImplConnection<T> extends SQLExecuteBase implements SQLExecute<T> {
+	private T client;
+	private SqlConnection connection;
+	/** 连接所在的事务,不在{@link SqlTransaction}中时为null */
+	private SqlTransaction<T> transaction;
+
+	/**
+	 * 初始化
+	 * 
+	 * @param client
+	 *          连接所属的客户端
+	 * @param connection
+	 *          绑定的连接
+	 */
+	public SQLExecuteImplConnection(T client, SqlConnection connection) {
+		super(connection);
+		this.client = client;
+		this.connection = connection;
+	}
+
+	@Override
+	public T getClient() {
+		return client;
+	}
+
+	/**
+	 * 获取绑定的连接
+	 * 
+	 * @return
+	 */
+	public SqlConnection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * 获取连接所在的事务,嵌套的事务使用同一个{@link SqlTransaction}
+	 * 
+	 * @return 不在事务中时返回null
+	 */
+	SqlTransaction<T> getTransaction() {
+		return transaction;
+	}
+
+	/**
+	 * 设置连接所在的事务
+	 * 
+	 * @param transaction
+	 */
+	void setTransaction(SqlTransaction<T> transaction) {
+		this.transaction = transaction;
+	}
+
+}
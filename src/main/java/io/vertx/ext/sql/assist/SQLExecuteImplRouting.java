@@ -0,0 +1,383 @@
+package io.vertx.ext.sql.assist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collector;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.PropertyKind;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+
+/**
+ * 读写分离的SQL执行器,查询发送到只读库,新增/修改/删除发送到主库<br>
+ * execute与executeAll只有在所有语句都是只读的查询时才发送到只读库(判断方式见{@link #isRead(SqlAndParams)});事务与getClient使用主库<br>
+ * 可以设置写入后(从发出写入到写入完成后)的一段时间内同一个Vert.x上下文中的查询使用主库,以读取到刚写入的数据
+ * 
+ * @author <a href="https://mirrentools.org">Mirren</a>
+ *
+ * @param <T>
+ *          客户端的类型
+ */
+public class SQLExecuteImplRouting<T> implements SQLExecute<T> {
+	/** 判断语句是否为查询 */
+	private static final Pattern READ_PATTERN = Pattern.compile("^\\s*(?:/\\*.*?\\*/\\s*)*\\(?\\s*(?:select|with)\\b",
+			Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+	/** 查询中需要使用主库的关键字:修改数据的CTE、select into、for update/for share/lock in share mode与SQL Server的锁提示 */
+	private static final Pattern WRITE_PATTERN = Pattern.compile(
+			"\\b(?:insert|update|delete|merge|into|share|updlock|xlock|holdlock)\\b", Pattern.CASE_INSENSITIVE);
+	/** 主库 */
+	private final SQLExecute<T> primary;
+	/** 只读库 */
+	private final List<SQLExecute<T>> replicas;
+	/** 选择只读库的方式 */
+	private final SqlReplicaStrategy strategy;
+	/** 每个只读库正在执行的请求数量,包含未结束的流 */
+	private final AtomicInteger[] outstanding;
+	/** 每个只读库执行的请求数量 */
+	private final AtomicLong[] routed;
+	/** 轮流选择的下标 */
+	private final AtomicInteger next = new AtomicInteger();
+	/** 发送到主库的查询数量 */
+	private final AtomicLong primaryReads = new AtomicLong();
+	/** 发送到主库的写入数量 */
+	private final AtomicLong writes = new AtomicLong();
+	/** 上下文最后一次发出或完成写入的时间,不在上下文中时key为null */
+	private final Map<Context, Long> lastWrites = new WeakHashMap<>();
+	/** 写入后多少毫秒内同一个上下文中的查询使用主库,小于等于0时不使用 */
+	private long readYourWritesWindow;
+
+	/**
+	 * 初始化
+	 * 
+	 * @param primary
+	 *          主库
+	 * @param replicas
+	 *          只读库,为空时所有请求都发送到主库
+	 * @param strategy
+	 *          选择只读库的方式,为null时为{@link SqlReplicaStrategy#ROUND_ROBIN}
+	 */
+	public SQLExecuteImplRouting(SQLExecute<T> primary, List<SQLExecute<T>> replicas, SqlReplicaStrategy strategy) {
+		super();
+		if (primary == null) {
+			throw new IllegalArgumentException("The primary can not be null");
+		}
+		this.primary = primary;
+		this.replicas = replicas == null ? new ArrayList<>() : new ArrayList<>(replicas);
+		this.strategy = strategy == null ? SqlReplicaStrategy.ROUND_ROBIN : strategy;
+		this.outstanding = new AtomicInteger[this.replicas.size()];
+		this.routed = new AtomicLong[this.replicas.size()];
+		for (int i = 0; i < this.replicas.size(); i++) {
+			outstanding[i] = new AtomicInteger();
+			routed[i] = new AtomicLong();
+		}
+	}
+
+	/**
+	 * 获取写入后同一个上下文中的查询使用主库的时间
+	 * 
+	 * @return
+	 */
+	public long getReadYourWritesWindow() {
+		return readYourWritesWindow;
+	}
+
+	/**
+	 * 设置写入后多少毫秒内同一个Vert.x上下文中的查询使用主库,时间从写入完成时开始计算,写入执行中的查询也使用主库
+	 * 
+	 * @param readYourWritesWindow
+	 *          单位毫秒,小于等于0时不使用
+	 * @return
+	 */
+	public SQLExecuteImplRouting<T> setReadYourWritesWindow(long readYourWritesWindow) {
+		this.readYourWritesWindow = readYourWritesWindow;
+		return this;
+	}
+
+	/**
+	 * 获取主库
+	 * 
+	 * @return
+	 */
+	public SQLExecute<T> getPrimary() {
+		return primary;
+	}
+
+	/**
+	 * 获取只读库
+	 * 
+	 * @return
+	 */
+	public List<SQLExecute<T>> getReplicas() {
+		return replicas;
+	}
+
+	@Override
+	public T getClient() {
+		return primary.getClient();
+	}
+
+	@Override
+	public SqlSingleFlight getSingleFlight() {
+		return primary.getSingleFlight();
+	}
+
+	/**
+	 * 主库使用指定的对象,每个只读库各自使用新的{@link SqlSingleFlight},<br>
+	 * 合并的key不包含执行的库,共用时主库的查询可能合并到只读库正在执行的查询并读取到过期的数据
+	 */
+	@Override
+	public void setSingleFlight(SqlSingleFlight singleFlight) {
+		primary.setSingleFlight(singleFlight);
+		for (SQLExecute<T> replica : replicas) {
+			replica.setSingleFlight(singleFlight == null ? null : new SqlSingleFlight());
+		}
+	}
+
+	@Override
+	public void execute(SqlAndParams qp, Handler<AsyncResult<RowSet<Row>>> handler) {
+		if (isRead(qp)) {
+			read((execute, h) -> execute.execute(qp, h), handler);
+		} else {
+			write((execute, h) -> execute.execute(qp, h), handler);
+		}
+	}
+
+	@Override
+	public void executeAll(List<SqlAndParams> qps, boolean failFast, Handler<AsyncResult<CompositeFuture>> handler) {
+		for (SqlAndParams qp : qps) {
+			if (!isRead(qp)) {
+				write((execute, h) -> execute.executeAll(qps, failFast, h), handler);
+				return;
+			}
+		}
+		read((execute, h) -> execute.executeAll(qps, failFast, h), handler);
+	}
+
+	@Override
+	public void queryAsObj(SqlAndParams qp, Handler<AsyncResult<JsonObject>> handler) {
+		read((execute, h) -> execute.queryAsObj(qp, h), handler);
+	}
+
+	@Override
+	public void queryAsList(SqlAndParams qp, Handler<AsyncResult<List<JsonObject>>> handler) {
+		read((execute, h) -> execute.queryAsList(qp, h), handler);
+	}
+
+	@Override
+	public <R> void queryAs(SqlAndParams qp, RowMapper<R> mapper, Handler<AsyncResult<List<R>>> handler) {
+		read((execute, h) -> execute.queryAs(qp, mapper, h), handler);
+	}
+
+	@Override
+	public <R> void queryFirstAs(SqlAndParams qp, RowMapper<R> mapper, Handler<AsyncResult<R>> handler) {
+		read((execute, h) -> execute.queryFirstAs(qp, mapper, h), handler);
+	}
+
+	@Override
+	public <A, R> void collect(SqlAndParams qp, Collector<Row, A, R> collector, Handler<AsyncResult<R>> handler) {
+		read((execute, h) -> execute.collect(qp, collector, h), handler);
+	}
+
+	@Override
+	public void queryAsBuffer(SqlAndParams qp, boolean ndjson, Handler<AsyncResult<Buffer>> handler) {
+		read((execute, h) -> execute.queryAsBuffer(qp, ndjson, h), handler);
+	}
+
+	@Override
+	public <R> void stream(SqlAndParams qp, int fetchSize, RowMapper<R> mapper, Handler<AsyncResult<SqlReadStream<R>>> handler) {
+		int index = route();
+		if (index < 0) {
+			primary.stream(qp, fetchSize, mapper, handler);
+			return;
+		}
+		// 流在读取结束、出现异常或关闭并释放连接后才减少只读库正在执行的数量
+		replicas.get(index).stream(qp, fetchSize, mapper, res -> {
+			if (res.succeeded() && res.result() != null) {
+				res.result().released().onComplete(v -> outstanding[index].decrementAndGet());
+			} else {
+				outstanding[index].decrementAndGet();
+			}
+			handler.handle(res);
+		});
+	}
+
+	@Override
+	public void update(SqlAndParams qp, Handler<AsyncResult<Integer>> handler) {
+		write((execute, h) -> execute.update(qp, h), handler);
+	}
+
+	@Override
+	public <R> void updateResult(SqlAndParams qp, PropertyKind<R> property, Handler<AsyncResult<R>> handler) {
+		write((execute, h) -> execute.updateResult(qp, property, h), handler);
+	}
+
+	@Override
+	public void batch(SqlAndParams qp, Handler<AsyncResult<Integer>> handler) {
+		write((execute, h) -> execute.batch(qp, h), handler);
+	}
+
+	/**
+	 * 判断语句是否为可以发送到只读库的查询,通过关键字判断,不解析SQL语句:<br>
+	 * 1. 以select或with开头(可以有注释与括号),并且没有批量参数<br>
+	 * 2. 不包含insert/update/delete/merge/into,比如with x as (delete ... returning *) select ...、select ... into<br>
+	 * 3. 不包含share与SQL Server的锁提示,比如select ... for update、for share、lock in share mode、with (updlock)<br>
+	 * 列名、字符串或注释中包含这些单词时也使用主库
+	 * 
+	 * @param qp
+	 * @return
+	 */
+	static boolean isRead(SqlAndParams qp) {
+		return qp.getBatchParams() == null && qp.getSql() != null && READ_PATTERN.matcher(qp.getSql()).find()
+				&& !WRITE_PATTERN.matcher(qp.getSql()).find();
+	}
+
+	/**
+	 * 在只读库执行查询,没有只读库或在写入后的时间内时使用主库
+	 * 
+	 * @param query
+	 * @param handler
+	 */
+	private <R> void read(Query<T, R> query, Handler<AsyncResult<R>> handler) {
+		int index = route();
+		if (index < 0) {
+			query.execute(primary, handler);
+			return;
+		}
+		query.execute(replicas.get(index), res -> {
+			outstanding[index].decrementAndGet();
+			handler.handle(res);
+		});
+	}
+
+	/**
+	 * 选择执行查询的只读库并增加正在执行的数量,没有只读库或在写入后的时间内时记录为主库的查询
+	 * 
+	 * @return 只读库的下标,使用主库时返回-1
+	 */
+	private int route() {
+		if (replicas.isEmpty() || recentlyWritten()) {
+			primaryReads.incrementAndGet();
+			return -1;
+		}
+		int index = choose();
+		outstanding[index].incrementAndGet();
+		routed[index].incrementAndGet();
+		return index;
+	}
+
+	/**
+	 * 在主库执行写入,发出写入与写入完成时记录当前上下文的写入时间,<br>
+	 * 写入执行的时间超过设置的时间时,完成后的查询仍然使用主库
+	 * 
+	 * @param update
+	 * @param handler
+	 */
+	private <R> void write(Query<T, R> update, Handler<AsyncResult<R>> handler) {
+		writes.incrementAndGet();
+		if (readYourWritesWindow <= 0) {
+			update.execute(primary, handler);
+			return;
+		}
+		Context context = Vertx.currentContext();
+		written(context);
+		update.execute(primary, res -> {
+			written(context);
+			handler.handle(res);
+		});
+	}
+
+	/**
+	 * 记录上下文的写入时间
+	 * 
+	 * @param context
+	 */
+	private void written(Context context) {
+		synchronized (lastWrites) {
+			lastWrites.put(context, System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * 当前上下文是否在写入后的时间内
+	 * 
+	 * @return
+	 */
+	private boolean recentlyWritten() {
+		long window = readYourWritesWindow;
+		if (window <= 0) {
+			return false;
+		}
+		Context context = Vertx.currentContext();
+		Long time;
+		synchronized (lastWrites) {
+			time = lastWrites.get(context);
+			if (time != null && time + window <= System.currentTimeMillis()) {
+				lastWrites.remove(context);
+				time = null;
+			}
+		}
+		return time != null;
+	}
+
+	/**
+	 * 选择只读库
+	 * 
+	 * @return 只读库的下标
+	 */
+	private int choose() {
+		if (strategy == SqlReplicaStrategy.LEAST_OUTSTANDING) {
+			int index = 0;
+			for (int i = 1; i < outstanding.length; i++) {
+				if (outstanding[i].get() < outstanding[index].get()) {
+					index = i;
+				}
+			}
+			return index;
+		}
+		return Math.floorMod(next.getAndIncrement(), replicas.size());
+	}
+
+	/**
+	 * 获取统计信息,格式:{"writes":写入数量,"primaryReads":主库的查询数量,"replicas":[{"routed":查询数量,"outstanding":正在执行的数量(包含未结束的流)}]}
+	 * 
+	 * @return
+	 */
+	public JsonObject stats() {
+		JsonArray array = new JsonArray();
+		for (int i = 0; i < replicas.size(); i++) {
+			array.add(new JsonObject().put("routed", routed[i].get()).put("outstanding", outstanding[i].get()));
+		}
+		return new JsonObject().put("writes", writes.get()).put("primaryReads", primaryReads.get()).put("replicas", array);
+	}
+
+	@Override
+	public String toString() {
+		return "SQLExecuteImplRouting [strategy=" + strategy + ", replicas=" + replicas.size() + ", readYourWritesWindow="
+				+ readYourWritesWindow + ", stats=" + stats() + "]";
+	}
+
+	/**
+	 * 在指定执行器上执行的查询
+	 * 
+	 * @author <a href="https://mirrentools.org">Mirren</a>
+	 *
+	 */
+	@FunctionalInterface
+	private interface Query<T, R> {
+		void execute(SQLExecute<T> execute, Handler<AsyncResult<R>> handler);
+	}
+
+}
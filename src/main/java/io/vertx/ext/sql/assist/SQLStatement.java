@@ -1,7 +1,12 @@
 package io.vertx.ext.sql.assist;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import io.vertx.ext.sql.assist.sql.MySQLStatementSQL;
 import io.vertx.sqlclient.Tuple;
@@ -15,6 +20,10 @@ import io.vertx.sqlclient.Tuple;
 public interface SQLStatement {
 	/** SQLStatement的使用哪个类的key */
 	final static String PROVIDER_CLASS_KEY = "VQA_SQL_STATEMENT_PROVIDER_CLASS_NAME";
+	/** 通过多个主键查询时,用于标记数据行主键值的列别名 */
+	final static String SELECT_BY_IDS_KEY = "vsa_id";
+	/** 分页查询同时返回总行数时,用于标记总行数的列别名 */
+	final static String LIMIT_TOTAL_KEY = "vsa_total";
 
 	/**
 	 * 设置SQL语句使用哪个类实现
@@ -87,6 +96,58 @@ public interface SQLStatement {
 	 */
 	SqlAndParams selectAllSQL(SqlAssist assist);
 
+	/**
+	 * 获取表名称
+	 * 
+	 * @return 不支持时返回null
+	 */
+	default String tableName() {
+		return null;
+	}
+
+	/**
+	 * 获取主键名称
+	 * 
+	 * @return 不支持或没有主键时返回null
+	 */
+	default String primaryId() {
+		return null;
+	}
+
+	/**
+	 * 获取对象主键的值
+	 * 
+	 * @param obj
+	 *          对象
+	 * @return 不支持或没有主键时返回null
+	 */
+	default <T> Object primaryValue(T obj) {
+		return null;
+	}
+
+	/**
+	 * 获得游标分页(keyset)查询数据的SQL语句与参数,格式:<br>
+	 * select 返回列 from 表名 where 条件 and (列1,列2) > (?,?) order by 列1,列2 limit ?
+	 * 
+	 * @param assist
+	 *          查询工具,需要设置{@link SqlAssist#setSeek(String...)}与rowSize
+	 * @return 返回:sql or sql与params
+	 */
+	default SqlAndParams selectSeekSQL(SqlAssist assist) {
+		return new SqlAndParams(false, "selectSeekSQL is not supported by " + getClass().getName());
+	}
+
+	/**
+	 * 获得查询数据并通过COUNT(*) OVER()同时返回总行数的SQL语句与参数,每行数据中列{@link #LIMIT_TOTAL_KEY}的值为总行数
+	 * 
+	 * @param assist
+	 *          查询工具
+	 * @return 返回:sql or sql与params,不支持时返回失败的结果
+	 */
+	default SqlAndParams selectAllWithCountSQL(SqlAssist assist) {
+		return new SqlAndParams(false, "selectAllWithCountSQL is not supported by " + getClass().getName());
+	}
+
 	/**
 	 * 通过主键查询一个对象<br>
 	 * 返回:sql or sql与params
@@ -103,6 +164,25 @@ public interface SQLStatement {
 	 * @return
 	 */
 	<S> SqlAndParams selectByIdSQL(S primaryValue, String resultColumns, String tableAlias, String joinOrReference);
+	/**
+	 * 通过多个主键查询数据,主键按数据库参数数量的上限分块,每块的参数数量补齐为2的次方以减少不同SQL语句的数量<br>
+	 * 每行数据会额外返回列{@link #SELECT_BY_IDS_KEY}作为主键的值
+	 * 
+	 * @param <S>
+	 * @param primaryValues
+	 *          主键的值
+	 * @param resultColumns
+	 *          指定返回列 格式 [table.]列名 [as 类的属性名字],...
+	 * @param tableAlias
+	 *          当前表的别名
+	 * @param joinOrReference
+	 *          多表查询或表连接的语句,示例 inner join table2 as t2 on t.id=t2.id
+	 * @return 每块对应一个sql与params,生成失败时只包含一个失败的结果
+	 */
+	default <S> List<SqlAndParams> selectByIdsSQL(Collection<S> primaryValues, String resultColumns, String tableAlias,
+			String joinOrReference) {
+		return Collections.singletonList(new SqlAndParams(false, "selectByIdsSQL is not supported by " + getClass().getName()));
+	}
 	/**
 	 * 将对象属性不为null的属性作为条件查询出数据
 	 * 
@@ -153,6 +233,32 @@ public interface SQLStatement {
 	 */
 	SqlAndParams insertBatchSQL(List<String> columns, List<Tuple> params);
 
+	/**
+	 * 批量添加全部所有字段,生成多行VALUES的插入语句,语句按数据库参数数量的上限自动分块<br>
+	 * 默认使用{@link #insertBatchSQL(List)}的批量执行语句,数据库支持多行插入时需要重写该方法
+	 * 
+	 * @param list
+	 *          对象
+	 * @return 每个分块对应一个sql与params,生成失败时只包含一个失败的结果
+	 */
+	default <T> List<SqlAndParams> insertBulkSQL(List<T> list) {
+		return Collections.singletonList(insertBatchSQL(list));
+	}
+
+	/**
+	 * 批量添加自定字段,生成多行VALUES的插入语句,语句按数据库参数数量的上限自动分块<br>
+	 * 默认使用{@link #insertBatchSQL(List, List)}的批量执行语句,数据库支持多行插入时需要重写该方法
+	 * 
+	 * @param column
+	 *          字段的名称示例:["id","name",...]
+	 * @param params
+	 *          字段对应的参数示例:[["id","name"],["id","name"]...]
+	 * @return 每个分块对应一个sql与params,生成失败时只包含一个失败的结果
+	 */
+	default List<SqlAndParams> insertBulkSQL(List<String> columns, List<Tuple> params) {
+		return Collections.singletonList(insertBatchSQL(columns, params));
+	}
+
 	/**
 	 * 插入一个对象,如果该对象不存在就新建如果该对象已经存在就更新
 	 * 
@@ -161,6 +267,36 @@ public interface SQLStatement {
 	 * @return 返回:sql 或 sql与params
 	 */
 	<T> SqlAndParams replaceSQL(T obj);
+
+	/**
+	 * 批量插入对象,如果对象不存在就新建如果对象已经存在就更新<br>
+	 * 默认将每个对象的{@link #replaceSQL(Object)}合并为批量执行的语句,只包含属性值不为null的列,所有对象不为null的属性需要相同;<br>
+	 * {@link io.vertx.ext.sql.assist.sql.AbstractStatementSQL}重写了该方法,包括属性值为null的值,数据库支持单个语句批量操作时可以重写该方法
+	 * 
+	 * @param list
+	 *          对象
+	 * @return 返回:sql与batchParams 或 sql与params
+	 */
+	default <T> SqlAndParams upsertBatchSQL(List<T> list) {
+		if (list == null || list.isEmpty()) {
+			return new SqlAndParams(false, "The param can not be null or empty");
+		}
+		String sql = null;
+		List<Tuple> params = new ArrayList<>(list.size());
+		for (T obj : list) {
+			SqlAndParams qp = replaceSQL(obj);
+			if (!qp.succeeded()) {
+				return qp;
+			}
+			if (sql == null) {
+				sql = qp.getSql();
+			} else if (!sql.equals(qp.getSql())) {
+				return new SqlAndParams(false, "The objects in the list must generate the same SQL statement");
+			}
+			params.add(qp.getParams());
+		}
+		return new SqlAndParams(sql, params);
+	}
 	/**
 	 * 更新一个对象中所有的属性包括null值,条件为对象中的主键值
 	 * 
@@ -169,6 +305,35 @@ public interface SQLStatement {
 	 *         in your SQL statement"
 	 */
 	<T> SqlAndParams updateAllByIdSQL(T obj);
+	/**
+	 * 批量更新对象中所有的属性包括null值,条件为对象中的主键值<br>
+	 * 默认将每个对象的{@link #updateAllByIdSQL(Object)}合并为批量执行的语句,数据库支持单个语句批量更新时可以重写该方法
+	 * 
+	 * @param list
+	 *          对象
+	 * @return 返回:sql与batchParams 或 sql与params, 如果对象中的id为null将会返回SQL:"there is no primary key
+	 *         in your SQL statement"
+	 */
+	default <T> SqlAndParams updateAllByIdBatchSQL(List<T> list) {
+		if (list == null || list.isEmpty()) {
+			return new SqlAndParams(false, "The param can not be null or empty");
+		}
+		String sql = null;
+		List<Tuple> params = new ArrayList<>(list.size());
+		for (T obj : list) {
+			SqlAndParams qp = updateAllByIdSQL(obj);
+			if (!qp.succeeded()) {
+				return qp;
+			}
+			if (sql == null) {
+				sql = qp.getSql();
+			} else if (!sql.equals(qp.getSql())) {
+				return new SqlAndParams(false, "The objects in the list must generate the same SQL statement");
+			}
+			params.add(qp.getParams());
+		}
+		return new SqlAndParams(sql, params);
+	}
 	/**
 	 * 更新一个对象中所有的属性包括null值,条件为SqlAssist条件集<br>
 	 * 
@@ -188,6 +353,30 @@ public interface SQLStatement {
 	 *         primary key in your SQL statement"
 	 */
 	<T> SqlAndParams updateNonEmptyByIdSQL(T obj);
+	/**
+	 * 批量更新对象中属性不为null值,条件为对象中的主键值<br>
+	 * 默认按每个对象{@link #updateNonEmptyByIdSQL(Object)}的语句分组,每组为一个批量执行的语句
+	 * 
+	 * @param list
+	 *          对象
+	 * @return 每组对应一个sql与batchParams 或 sql与params,生成失败时只包含一个失败的结果
+	 */
+	default <T> List<SqlAndParams> updateNonEmptyByIdBatchSQL(List<T> list) {
+		if (list == null || list.isEmpty()) {
+			return Collections.singletonList(new SqlAndParams(false, "The param can not be null or empty"));
+		}
+		Map<String, List<Tuple>> groups = new LinkedHashMap<>();
+		for (T obj : list) {
+			SqlAndParams qp = updateNonEmptyByIdSQL(obj);
+			if (!qp.succeeded()) {
+				return Collections.singletonList(qp);
+			}
+			groups.computeIfAbsent(qp.getSql(), k -> new ArrayList<>()).add(qp.getParams());
+		}
+		List<SqlAndParams> result = new ArrayList<>(groups.size());
+		groups.forEach((sql, params) -> result.add(new SqlAndParams(sql, params)));
+		return result;
+	}
 
 	/**
 	 * 将对象中属性值不为null的进行更新,条件为SqlAssist条件集
@@ -1,10 +1,25 @@
 package io.vertx.ext.sql.assist;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.data.Numeric;
 
 /**
  * SQL查询帮助类
@@ -37,6 +52,12 @@ public class SqlAssist {
 	private List<SqlWhereCondition<?>> condition = null;
 	/** 自定义属性 */
 	private Object custom;
+	/** 游标分页的列 */
+	private List<String> seekColumns;
+	/** 游标分页的排序方式,true=asc,false=desc */
+	private boolean seekAsc = true;
+	/** 游标分页的游标,为上一页最后一行游标分页列的值 */
+	private String seekCursor;
 
 	public SqlAssist() {
 		super();
@@ -102,6 +123,13 @@ public class SqlAssist {
 		if (custom != null) {
 			json.put("custom", custom);
 		}
+		if (seekColumns != null) {
+			json.put("seekColumns", new JsonArray(new ArrayList<>(seekColumns)));
+			json.put("seekAsc", seekAsc);
+		}
+		if (seekCursor != null) {
+			json.put("seekCursor", seekCursor);
+		}
 		if (condition != null) {
 			JsonArray array = new JsonArray();
 			condition.forEach(va -> {
@@ -133,6 +161,12 @@ public class SqlAssist {
 		assist.setResultColumn(obj.getString("resultColumn"));
 		assist.setJoinOrReference(obj.getString("joinOrReference"));
 		assist.setCustom(obj.getValue("custom"));
+		if (obj.getValue("seekColumns") instanceof JsonArray) {
+			List<String> columns = new ArrayList<>();
+			obj.getJsonArray("seekColumns").forEach(va -> columns.add(va.toString()));
+			assist.setSeek(obj.getBoolean("seekAsc", true), columns.toArray(new String[0]));
+		}
+		assist.setSeekCursor(obj.getString("seekCursor"));
 		if (obj.getValue("condition") instanceof JsonArray) {
 			List<SqlWhereCondition<?>> list = new ArrayList<>();
 			obj.getJsonArray("condition").forEach(va -> {
@@ -143,6 +177,31 @@ public class SqlAssist {
 		return assist;
 	}
 
+	/**
+	 * 复制当前对象,条件集与游标分页的列为新的List,条件与自定义属性等值直接引用
+	 * 
+	 * @return
+	 */
+	public SqlAssist copy() {
+		SqlAssist assist = new SqlAssist();
+		assist.distinct = distinct;
+		assist.groupBy = groupBy;
+		assist.having = having;
+		assist.havingValue = havingValue;
+		assist.order = order;
+		assist.page = page;
+		assist.startRow = startRow;
+		assist.rowSize = rowSize;
+		assist.resultColumn = resultColumn;
+		assist.joinOrReference = joinOrReference;
+		assist.condition = condition == null ? null : new ArrayList<>(condition);
+		assist.custom = custom;
+		assist.seekColumns = seekColumns == null ? null : new ArrayList<>(seekColumns);
+		assist.seekAsc = seekAsc;
+		assist.seekCursor = seekCursor;
+		return assist;
+	}
+
 	/**
 	 * 添加单个查询条件,参数为{@link SqlWhereCondition} ,推荐使用SqlWhereCondition的静态条件方法添加条件;
 	 * 
@@ -851,9 +910,267 @@ public class SqlAssist {
 		this.custom = custom;
 	}
 
+	/**
+	 * 设置游标分页(keyset)的列,按列升序排序,示例:assist.setSeek("id")<br>
+	 * 设置后selectAll与limitAll使用 where (列1,列2) > (?,?) order by 列1,列2 取数据,startRow与order无效<br>
+	 * 游标分页的列的组合需要唯一并且不为null,并且需要包含在返回列中
+	 * 
+	 * @param columns
+	 *          列名,如果表中存在相同列名使用表名.列名
+	 * @return
+	 */
+	public SqlAssist setSeek(String... columns) {
+		return setSeek(true, columns);
+	}
+
+	/**
+	 * 设置游标分页(keyset)的列与排序方式
+	 * 
+	 * @param asc
+	 *          排序方式,true=asc,false=desc
+	 * @param columns
+	 *          列名,如果表中存在相同列名使用表名.列名
+	 * @return
+	 */
+	public SqlAssist setSeek(boolean asc, String... columns) {
+		this.seekColumns = (columns == null || columns.length == 0) ? null : Arrays.asList(columns);
+		this.seekAsc = asc;
+		return this;
+	}
+
+	/**
+	 * 获取游标分页的列
+	 * 
+	 * @return 没有设置时返回null
+	 */
+	public List<String> getSeekColumns() {
+		return seekColumns;
+	}
+
+	/**
+	 * 获取游标分页的排序方式
+	 * 
+	 * @return true=asc,false=desc
+	 */
+	public boolean isSeekAsc() {
+		return seekAsc;
+	}
+
+	/**
+	 * 获取游标分页的游标
+	 * 
+	 * @return
+	 */
+	public String getSeekCursor() {
+		return seekCursor;
+	}
+
+	/**
+	 * 设置游标分页的游标,值为上一次limitAll返回结果中的cursor,为null时取第一页
+	 * 
+	 * @param seekCursor
+	 * @return
+	 */
+	public SqlAssist setSeekCursor(String seekCursor) {
+		this.seekCursor = seekCursor;
+		return this;
+	}
+
+	/**
+	 * 解析游标中游标分页列的值,值为创建游标时的Java类型,比如时间类型的列为LocalDateTime,numeric的列为BigDecimal或Numeric
+	 * 
+	 * @return 没有游标时返回null
+	 * @throws IllegalArgumentException
+	 *           游标无效或与游标分页的列不匹配
+	 */
+	public List<Object> getSeekValues() {
+		if (seekCursor == null) {
+			return null;
+		}
+		List<Object> values = new ArrayList<>();
+		try {
+			JsonArray array = new JsonArray(new String(Base64.getUrlDecoder().decode(seekCursor), StandardCharsets.UTF_8));
+			for (int i = 0; i < array.size(); i++) {
+				values.add(decodeSeekValue(array.getValue(i)));
+			}
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid seek cursor: " + seekCursor, e);
+		}
+		if (seekColumns == null || values.size() != seekColumns.size() || values.contains(null)) {
+			throw new IllegalArgumentException("The seek cursor does not match the seek columns: " + seekCursor);
+		}
+		return values;
+	}
+
+	/**
+	 * 通过一行数据创建游标,游标分页列的值通过列名(不包含表名)获取,不区分大小写<br>
+	 * 游标保存每个值的类型,下一页绑定的参数与数据库返回的类型一致
+	 * 
+	 * @param row
+	 *          数据,一般为当前页的最后一行
+	 * @return 没有设置游标分页的列或数据中不存在列的值时返回null
+	 */
+	public String createSeekCursor(Row row) {
+		if (seekColumns == null || row == null) {
+			return null;
+		}
+		JsonArray values = new JsonArray();
+		for (String column : seekColumns) {
+			String label = column.trim().substring(column.trim().lastIndexOf('.') + 1);
+			int index = row.getColumnIndex(label);
+			if (index < 0) {
+				for (int i = 0; i < row.size(); i++) {
+					if (label.equalsIgnoreCase(row.getColumnName(i))) {
+						index = i;
+						break;
+					}
+				}
+			}
+			Object value = index < 0 ? null : row.getValue(index);
+			if (value == null) {
+				return null;
+			}
+			values.add(encodeSeekValue(value));
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(values.encode().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 通过一行数据创建游标,游标分页列的值通过列名(不包含表名)获取,不区分大小写<br>
+	 * 游标保存值的Java类型,Row.toJson已将时间类型转换为字符串,数据来自数据库时使用{@link #createSeekCursor(Row)}
+	 * 
+	 * @param row
+	 *          数据,一般为当前页的最后一行
+	 * @return 没有设置游标分页的列或数据中不存在列的值时返回null
+	 */
+	public String createSeekCursor(JsonObject row) {
+		if (seekColumns == null || row == null) {
+			return null;
+		}
+		JsonArray values = new JsonArray();
+		for (String column : seekColumns) {
+			String label = column.trim().substring(column.trim().lastIndexOf('.') + 1);
+			Object value = row.getValue(label);
+			if (value == null) {
+				for (Map.Entry<String, Object> entry : row) {
+					if (entry.getKey().equalsIgnoreCase(label)) {
+						value = entry.getValue();
+						break;
+					}
+				}
+			}
+			if (value == null) {
+				return null;
+			}
+			values.add(encodeSeekValue(value));
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(values.encode().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 将游标的值编码为[类型,值],不支持的类型保存为字符串
+	 * 
+	 * @param value
+	 * @return
+	 */
+	private static JsonArray encodeSeekValue(Object value) {
+		if (value instanceof String) {
+			return new JsonArray().add("string").add(value);
+		} else if (value instanceof Boolean) {
+			return new JsonArray().add("boolean").add(value);
+		} else if (value instanceof Short) {
+			return new JsonArray().add("short").add(value);
+		} else if (value instanceof Integer) {
+			return new JsonArray().add("int").add(value);
+		} else if (value instanceof Long) {
+			return new JsonArray().add("long").add(value);
+		} else if (value instanceof Float) {
+			return new JsonArray().add("float").add(value.toString());
+		} else if (value instanceof Double) {
+			return new JsonArray().add("double").add(value.toString());
+		} else if (value instanceof BigDecimal) {
+			return new JsonArray().add("decimal").add(value.toString());
+		} else if (value instanceof BigInteger) {
+			return new JsonArray().add("bigint").add(value.toString());
+		} else if (value instanceof Numeric) {
+			return new JsonArray().add("numeric").add(value.toString());
+		} else if (value instanceof LocalDate) {
+			return new JsonArray().add("date").add(value.toString());
+		} else if (value instanceof LocalTime) {
+			return new JsonArray().add("time").add(value.toString());
+		} else if (value instanceof LocalDateTime) {
+			return new JsonArray().add("datetime").add(value.toString());
+		} else if (value instanceof OffsetDateTime) {
+			return new JsonArray().add("offsetdatetime").add(value.toString());
+		} else if (value instanceof OffsetTime) {
+			return new JsonArray().add("offsettime").add(value.toString());
+		} else if (value instanceof Instant) {
+			return new JsonArray().add("instant").add(value.toString());
+		} else if (value instanceof UUID) {
+			return new JsonArray().add("uuid").add(value.toString());
+		}
+		return new JsonArray().add("string").add(value.toString());
+	}
+
+	/**
+	 * 将[类型,值]解码为游标的值
+	 * 
+	 * @param value
+	 * @return
+	 */
+	private static Object decodeSeekValue(Object value) {
+		if (!(value instanceof JsonArray) || ((JsonArray) value).size() != 2) {
+			throw new IllegalArgumentException("Invalid seek value: " + value);
+		}
+		JsonArray typed = (JsonArray) value;
+		String type = typed.getString(0);
+		Object data = typed.getValue(1);
+		if (data == null) {
+			return null;
+		}
+		switch (type) {
+			case "string":
+				return data.toString();
+			case "boolean":
+				return (Boolean) data;
+			case "short":
+				return ((Number) data).shortValue();
+			case "int":
+				return ((Number) data).intValue();
+			case "long":
+				return ((Number) data).longValue();
+			case "float":
+				return Float.valueOf(data.toString());
+			case "double":
+				return Double.valueOf(data.toString());
+			case "decimal":
+				return new BigDecimal(data.toString());
+			case "bigint":
+				return new BigInteger(data.toString());
+			case "numeric":
+				return Numeric.parse(data.toString());
+			case "date":
+				return LocalDate.parse(data.toString());
+			case "time":
+				return LocalTime.parse(data.toString());
+			case "datetime":
+				return LocalDateTime.parse(data.toString());
+			case "offsetdatetime":
+				return OffsetDateTime.parse(data.toString());
+			case "offsettime":
+				return OffsetTime.parse(data.toString());
+			case "instant":
+				return Instant.parse(data.toString());
+			case "uuid":
+				return UUID.fromString(data.toString());
+			default:
+				throw new IllegalArgumentException("Unsupported seek value type: " + type);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "SqlAssist [distinct=" + distinct + ", order=" + order + ", startRow=" + startRow + ", rowSize=" + rowSize + ", resultColumn="
-				+ resultColumn + ", condition=" + condition + ", custom=" + custom + "]";
+				+ resultColumn + ", condition=" + condition + ", custom=" + custom + ", seekColumns=" + seekColumns + ", seekCursor=" + seekCursor + "]";
 	}
 }
@@ -0,0 +1,301 @@
+package io.vertx.ext.sql.assist;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * 合并同一个Vert.x上下文中的selectById,在当前任务结束后(或等待指定的时间后)通过一个selectByIds查询,相同的主键只查询一次<br>
+ * 不在Vert.x上下文中调用时直接查询;一个对象只能用于一个{@link SQLCommandImpl},线程安全
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ */
+public class SqlBatchLoader {
+	/** 批次大小统计的区间上限,最后一个区间包含更大的批次 */
+	private static final int[] BUCKETS = { 1, 2, 4, 8, 16, 32, 64, 128, 256, 512 };
+	/** 等待合并的时间,单位毫秒,小于等于0时在当前任务结束后查询 */
+	private final long window;
+	/** 每个批次最多多少个主键,达到时立即查询 */
+	private final int maxBatchSize;
+	/** 每个上下文正在等待的批次 */
+	private final Map<Context, Batch> pending = new HashMap<>();
+	/** 批次大小的统计,下标与{@link #BUCKETS}对应,最后一个为更大的批次 */
+	private final long[] histogram = new long[BUCKETS.length + 1];
+	/** 调用的次数 */
+	private long loads;
+	/** 主键重复被合并的次数 */
+	private long deduplicated;
+	/** 执行的批次数量 */
+	private long batches;
+
+	/**
+	 * 初始化,在当前任务结束后查询,每个批次最多1000个主键
+	 */
+	public SqlBatchLoader() {
+		this(0, 1000);
+	}
+
+	/**
+	 * 初始化
+	 *
+	 * @param window
+	 *          等待合并的时间,单位毫秒,小于等于0时在当前任务结束后查询
+	 * @param maxBatchSize
+	 *          每个批次最多多少个主键,达到时立即查询
+	 */
+	public SqlBatchLoader(long window, int maxBatchSize) {
+		super();
+		if (maxBatchSize <= 0) {
+			throw new IllegalArgumentException("The maxBatchSize must be greater than 0");
+		}
+		this.window = window;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * 加入当前上下文的批次
+	 *
+	 * @param primaryValue
+	 *          主键值
+	 * @param batch
+	 *          通过多个主键查询,结果与主键的顺序一致,不存在的主键为null
+	 * @param handler
+	 *          返回结果,不存在时为null
+	 */
+	public void load(Object primaryValue, BiConsumer<List<Object>, Handler<AsyncResult<List<JsonObject>>>> batch,
+			Handler<AsyncResult<JsonObject>> handler) {
+		Context context = Vertx.currentContext();
+		if (context == null) {
+			Batch single = new Batch(batch);
+			single.add(primaryValue, handler);
+			synchronized (this) {
+				loads++;
+			}
+			dispatch(single);
+			return;
+		}
+		Batch current;
+		boolean created = false;
+		boolean full = false;
+		synchronized (this) {
+			loads++;
+			current = pending.get(context);
+			if (current == null) {
+				current = new Batch(batch);
+				pending.put(context, current);
+				created = true;
+			}
+			if (!current.add(primaryValue, handler)) {
+				deduplicated++;
+			}
+			if (current.size() >= maxBatchSize) {
+				pending.remove(context);
+				full = true;
+			}
+		}
+		if (full) {
+			dispatch(current);
+		} else if (created) {
+			Batch scheduled = current;
+			if (window > 0) {
+				context.owner().setTimer(window, id -> flush(context, scheduled));
+			} else {
+				context.runOnContext(v -> flush(context, scheduled));
+			}
+		}
+	}
+
+	/**
+	 * 查询等待的批次,批次已经因为达到最大数量查询时不处理
+	 *
+	 * @param context
+	 * @param batch
+	 */
+	private void flush(Context context, Batch batch) {
+		synchronized (this) {
+			if (pending.get(context) != batch) {
+				return;
+			}
+			pending.remove(context);
+		}
+		dispatch(batch);
+	}
+
+	/**
+	 * 执行批次并通知所有调用者,相同主键的其他调用者获得结果的副本
+	 *
+	 * @param batch
+	 */
+	private void dispatch(Batch batch) {
+		List<Object> primaryValues = new ArrayList<>(batch.waiters.size());
+		for (Waiters waiters : batch.waiters.values()) {
+			primaryValues.add(waiters.primaryValue);
+		}
+		synchronized (this) {
+			batches++;
+			histogram[bucket(primaryValues.size())]++;
+		}
+		batch.function.accept(primaryValues, res -> {
+			int index = 0;
+			for (Waiters waiters : batch.waiters.values()) {
+				JsonObject row = null;
+				if (res.succeeded() && res.result() != null && index < res.result().size()) {
+					row = res.result().get(index);
+				}
+				index++;
+				for (int i = 0; i < waiters.handlers.size(); i++) {
+					if (res.failed()) {
+						waiters.handlers.get(i).handle(Future.failedFuture(res.cause()));
+					} else {
+						JsonObject result = (i == 0 || row == null) ? row : row.copy(value -> value);
+						waiters.handlers.get(i).handle(Future.succeededFuture(result));
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * 获取批次大小所在的区间
+	 *
+	 * @param size
+	 * @return
+	 */
+	private static int bucket(int size) {
+		for (int i = 0; i < BUCKETS.length; i++) {
+			if (size <= BUCKETS[i]) {
+				return i;
+			}
+		}
+		return BUCKETS.length;
+	}
+
+	/**
+	 * 获取调用的次数
+	 *
+	 * @return
+	 */
+	public synchronized long getLoads() {
+		return loads;
+	}
+
+	/**
+	 * 获取主键重复被合并的次数
+	 *
+	 * @return
+	 */
+	public synchronized long getDeduplicated() {
+		return deduplicated;
+	}
+
+	/**
+	 * 获取执行的批次数量
+	 *
+	 * @return
+	 */
+	public synchronized long getBatches() {
+		return batches;
+	}
+
+	/**
+	 * 获取批次大小的统计,key为区间的上限(最后一个区间为"&gt;512"),value为批次数量,只包含数量大于0的区间
+	 *
+	 * @return
+	 */
+	public synchronized Map<String, Long> getHistogram() {
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (int i = 0; i < histogram.length; i++) {
+			if (histogram[i] > 0) {
+				result.put(i < BUCKETS.length ? String.valueOf(BUCKETS[i]) : (">" + BUCKETS[BUCKETS.length - 1]), histogram[i]);
+			}
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * 获取统计信息,格式:{"loads":调用次数,"deduplicated":合并次数,"batches":批次数量,"histogram":{"区间上限":批次数量}}
+	 *
+	 * @return
+	 */
+	public synchronized JsonObject stats() {
+		return new JsonObject().put("loads", loads).put("deduplicated", deduplicated).put("batches", batches)
+				.put("histogram", new JsonObject(new LinkedHashMap<>(getHistogram())));
+	}
+
+	@Override
+	public String toString() {
+		return "SqlBatchLoader [window=" + window + ", maxBatchSize=" + maxBatchSize + ", stats=" + stats() + "]";
+	}
+
+	/**
+	 * 等待查询的批次
+	 *
+	 * @author <a href="https://mirrentools.org/">Mirren</a>
+	 *
+	 */
+	private static class Batch {
+		/** 执行查询的方法 */
+		private final BiConsumer<List<Object>, Handler<AsyncResult<List<JsonObject>>>> function;
+		/** 主键的key与等待的调用者,按加入的顺序排列 */
+		private final Map<String, Waiters> waiters = new LinkedHashMap<>();
+
+		public Batch(BiConsumer<List<Object>, Handler<AsyncResult<List<JsonObject>>>> function) {
+			super();
+			this.function = function;
+		}
+
+		/**
+		 * 加入调用者
+		 *
+		 * @param primaryValue
+		 * @param handler
+		 * @return 是否为新的主键
+		 */
+		public boolean add(Object primaryValue, Handler<AsyncResult<JsonObject>> handler) {
+			String key = SqlEntityCache.key(primaryValue);
+			Waiters current = waiters.get(key);
+			boolean created = current == null;
+			if (created) {
+				current = new Waiters(primaryValue);
+				waiters.put(key, current);
+			}
+			current.handlers.add(handler);
+			return created;
+		}
+
+		public int size() {
+			return waiters.size();
+		}
+	}
+
+	/**
+	 * 同一个主键的调用者
+	 *
+	 * @author <a href="https://mirrentools.org/">Mirren</a>
+	 *
+	 */
+	private static class Waiters {
+		/** 主键值 */
+		private final Object primaryValue;
+		/** 等待的调用者 */
+		private final List<Handler<AsyncResult<JsonObject>>> handlers = new ArrayList<>();
+
+		public Waiters(Object primaryValue) {
+			super();
+			this.primaryValue = primaryValue;
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+package io.vertx.ext.sql.assist;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * 执行多个语句的返回结果
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ */
+public class SqlBatchResult {
+	/** 受影响的总行数 */
+	private int total;
+	/** 每个语句的SQL */
+	private List<String> sqls = new ArrayList<>();
+	/** 每个语句受影响的行数 */
+	private List<Integer> counts = new ArrayList<>();
+
+	/**
+	 * 添加一个语句的执行结果
+	 *
+	 * @param sql
+	 *          语句
+	 * @param count
+	 *          受影响的行数
+	 * @return
+	 */
+	public SqlBatchResult add(String sql, int count) {
+		this.sqls.add(sql);
+		this.counts.add(count);
+		this.total += count;
+		return this;
+	}
+
+	/**
+	 * 获取受影响的总行数
+	 *
+	 * @return
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * 获取语句的数量
+	 *
+	 * @return
+	 */
+	public int size() {
+		return counts.size();
+	}
+
+	/**
+	 * 获取每个语句的SQL,顺序与{@link #getCounts()}一致
+	 *
+	 * @return
+	 */
+	public List<String> getSqls() {
+		return sqls;
+	}
+
+	/**
+	 * 获取每个语句受影响的行数
+	 *
+	 * @return
+	 */
+	public List<Integer> getCounts() {
+		return counts;
+	}
+
+	/**
+	 * 转换为JsonObject,格式:{"total":总行数,"groups":[{"sql":语句,"count":行数}]}
+	 *
+	 * @return
+	 */
+	public JsonObject toJson() {
+		JsonArray groups = new JsonArray();
+		for (int i = 0; i < counts.size(); i++) {
+			groups.add(new JsonObject().put("sql", sqls.get(i)).put("count", counts.get(i)));
+		}
+		return new JsonObject().put("total", total).put("groups", groups);
+	}
+
+	@Override
+	public String toString() {
+		return "SqlBatchResult [total=" + total + ", counts=" + counts + "]";
+	}
+
+}
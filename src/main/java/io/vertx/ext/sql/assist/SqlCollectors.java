@@ -0,0 +1,239 @@
+package io.vertx.ext.sql.assist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+
+/**
+ * 数据行的收集器,用于{@link SQLExecute#collect(SqlAndParams, Collector, io.vertx.core.Handler)}在解码时直接汇总数据,不创建RowSet与JsonObject列表<br>
+ * 列的下标与{@link RowMapper#resolve(List)}在每次查询的第一行时确定
+ *
+ * @author <a href="https://mirrentools.org">Mirren</a>
+ *
+ */
+public final class SqlCollectors {
+	private SqlCollectors() {
+	}
+
+	/**
+	 * 将数据行转换为JsonObject并收集为List
+	 *
+	 * @return
+	 */
+	public static Collector<Row, ?, List<JsonObject>> toJsonList() {
+		return Collectors.mapping(Row::toJson, Collectors.toList());
+	}
+
+	/**
+	 * 将数据行转换为指定的类型并收集为List
+	 *
+	 * @param mapper
+	 *          数据行的转换器
+	 * @return
+	 */
+	public static <T> Collector<Row, ?, List<T>> toList(RowMapper<T> mapper) {
+		return mapping(mapper, Collectors.toList());
+	}
+
+	/**
+	 * 将数据行转换为指定的类型后交给下游收集器
+	 *
+	 * @param mapper
+	 *          数据行的转换器
+	 * @param downstream
+	 *          下游收集器
+	 * @return
+	 */
+	public static <T, A, R> Collector<Row, ?, R> mapping(RowMapper<T> mapper, Collector<T, A, R> downstream) {
+		BiConsumer<A, T> accumulator = downstream.accumulator();
+		BinaryOperator<A> combiner = downstream.combiner();
+		return Collector.<Row, RowContainer<A, T>, R>of(() -> new RowContainer<>(downstream.supplier().get(), mapper),
+				(c, row) -> accumulator.accept(c.value, c.map(row)), (a, b) -> {
+					a.value = combiner.apply(a.value, b.value);
+					return a;
+				}, c -> downstream.finisher().apply(c.value));
+	}
+
+	/**
+	 * 将数据行转换为指定的类型并收集为Map,key为指定列的值,key相同时保留最后一行,Map的顺序与数据行一致
+	 *
+	 * @param column
+	 *          作为key的列名
+	 * @param mapper
+	 *          数据行的转换器
+	 * @return
+	 */
+	public static <T> Collector<Row, ?, Map<Object, T>> toMap(String column, RowMapper<T> mapper) {
+		return Collector.<Row, RowContainer<Map<Object, T>, T>, Map<Object, T>>of(
+				() -> new RowContainer<>(new LinkedHashMap<>(), mapper),
+				(c, row) -> c.value.put(row.getValue(c.index(row, column)), c.map(row)), (a, b) -> {
+					a.value.putAll(b.value);
+					return a;
+				}, c -> c.value);
+	}
+
+	/**
+	 * 将数据行转换为指定的类型并按指定列的值分组,Map的顺序为每组第一次出现的顺序
+	 *
+	 * @param column
+	 *          分组的列名
+	 * @param mapper
+	 *          数据行的转换器
+	 * @return
+	 */
+	public static <T> Collector<Row, ?, Map<Object, List<T>>> groupingBy(String column, RowMapper<T> mapper) {
+		return Collector.<Row, RowContainer<Map<Object, List<T>>, T>, Map<Object, List<T>>>of(
+				() -> new RowContainer<>(new LinkedHashMap<>(), mapper),
+				(c, row) -> c.value.computeIfAbsent(row.getValue(c.index(row, column)), k -> new ArrayList<>()).add(c.map(row)),
+				(a, b) -> {
+					b.value.forEach((k, v) -> a.value.computeIfAbsent(k, key -> new ArrayList<>()).addAll(v));
+					return a;
+				}, c -> c.value);
+	}
+
+	/**
+	 * 计算指定列的值的总和,值为null时忽略
+	 *
+	 * @param column
+	 *          列名
+	 * @return
+	 */
+	public static Collector<Row, ?, Long> summingLong(String column) {
+		return Collector.<Row, RowContainer<long[], Void>, Long>of(() -> new RowContainer<>(new long[1], null), (c, row) -> {
+			Long value = RowMapper.getValue(row, c.index(row, column), Long.class);
+			if (value != null) {
+				c.value[0] += value;
+			}
+		}, (a, b) -> {
+			a.value[0] += b.value[0];
+			return a;
+		}, c -> c.value[0]);
+	}
+
+	/**
+	 * 计算指定列的值的总和,值为null时忽略
+	 *
+	 * @param column
+	 *          列名
+	 * @return
+	 */
+	public static Collector<Row, ?, Double> summingDouble(String column) {
+		return Collector.<Row, RowContainer<double[], Void>, Double>of(() -> new RowContainer<>(new double[1], null), (c, row) -> {
+			Double value = RowMapper.getValue(row, c.index(row, column), Double.class);
+			if (value != null) {
+				c.value[0] += value;
+			}
+		}, (a, b) -> {
+			a.value[0] += b.value[0];
+			return a;
+		}, c -> c.value[0]);
+	}
+
+	/**
+	 * 将指定列的值收集为long数组,值为null时为0
+	 *
+	 * @param column
+	 *          列名
+	 * @return
+	 */
+	public static Collector<Row, ?, long[]> toLongArray(String column) {
+		return Collector.<Row, RowContainer<LongArray, Void>, long[]>of(() -> new RowContainer<>(new LongArray(), null),
+				(c, row) -> {
+					Long value = RowMapper.getValue(row, c.index(row, column), Long.class);
+					c.value.add(value == null ? 0L : value);
+				}, (a, b) -> {
+					for (int i = 0; i < b.value.size; i++) {
+						a.value.add(b.value.values[i]);
+					}
+					return a;
+				}, c -> Arrays.copyOf(c.value.values, c.value.size));
+	}
+
+	/**
+	 * 收集的中间结果,同时保存第一行确定的转换器与列的下标
+	 *
+	 * @author <a href="https://mirrentools.org">Mirren</a>
+	 *
+	 * @param <A>
+	 *          中间结果的类型
+	 * @param <T>
+	 *          数据行转换后的类型
+	 */
+	private static class RowContainer<A, T> {
+		/** 中间结果 */
+		private A value;
+		/** 数据行的转换器 */
+		private final RowMapper<T> mapper;
+		/** 通过第一行的列名创建的转换器 */
+		private RowMapper<T> resolved;
+		/** 列的下标 */
+		private int index = -1;
+
+		public RowContainer(A value, RowMapper<T> mapper) {
+			super();
+			this.value = value;
+			this.mapper = mapper;
+		}
+
+		/**
+		 * 转换数据行
+		 *
+		 * @param row
+		 * @return
+		 */
+		public T map(Row row) {
+			if (resolved == null) {
+				List<String> columnNames = new ArrayList<>(row.size());
+				for (int i = 0; i < row.size(); i++) {
+					columnNames.add(row.getColumnName(i));
+				}
+				resolved = mapper.resolve(columnNames);
+			}
+			return resolved.map(row);
+		}
+
+		/**
+		 * 获取列的下标
+		 *
+		 * @param row
+		 * @param column
+		 * @return
+		 */
+		public int index(Row row, String column) {
+			if (index < 0) {
+				index = row.getColumnIndex(column);
+				if (index < 0) {
+					throw new IllegalArgumentException("The column " + column + " does not exist in the result");
+				}
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * 可以扩容的long数组
+	 *
+	 * @author <a href="https://mirrentools.org">Mirren</a>
+	 *
+	 */
+	private static class LongArray {
+		private long[] values = new long[16];
+		private int size;
+
+		public void add(long value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size << 1);
+			}
+			values[size++] = value;
+		}
+	}
+}
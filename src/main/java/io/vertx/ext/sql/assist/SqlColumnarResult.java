@@ -0,0 +1,195 @@
+package io.vertx.ext.sql.assist;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collector;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * 紧凑的查询结果,列名只保存一次,数据按行或按列保存为JsonArray,通过{@link #collector(SqlResultFormat)}在解码时直接创建
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ */
+public class SqlColumnarResult {
+	/** 列名的key */
+	public static final String COLUMNS = "columns";
+	/** {@link SqlResultFormat#ROWS}格式数据的key */
+	public static final String ROWS = "rows";
+	/** {@link SqlResultFormat#COLUMNS}格式数据的key */
+	public static final String VALUES = "values";
+
+	/**
+	 * 获取将数据行收集为紧凑结果的收集器
+	 *
+	 * @param format
+	 *          结果的格式,为null时为{@link SqlResultFormat#ROWS}
+	 * @return
+	 */
+	public static Collector<Row, ?, SqlColumnarResult> collector(SqlResultFormat format) {
+		SqlResultFormat fmt = format == null ? SqlResultFormat.ROWS : format;
+		return Collector.of(() -> new SqlColumnarResult(fmt), SqlColumnarResult::add, (a, b) -> {
+			throw new UnsupportedOperationException("SqlColumnarResult does not support parallel collection");
+		});
+	}
+
+	/** 结果的格式 */
+	private final SqlResultFormat format;
+	/** 列名 */
+	private List<String> columns = Collections.emptyList();
+	/** 数据,ROWS格式时每行一个数组,COLUMNS格式时每列一个数组 */
+	private final List<JsonArray> values = new ArrayList<>();
+	/** 数据的行数 */
+	private int size;
+
+	/**
+	 * 初始化
+	 *
+	 * @param format
+	 *          结果的格式
+	 */
+	public SqlColumnarResult(SqlResultFormat format) {
+		super();
+		this.format = format == null ? SqlResultFormat.ROWS : format;
+	}
+
+	/**
+	 * 添加一行数据,第一行时确定列名
+	 *
+	 * @param row
+	 */
+	public void add(Row row) {
+		int width = row.size();
+		if (size == 0) {
+			columns = new ArrayList<>(width);
+			for (int i = 0; i < width; i++) {
+				columns.add(row.getColumnName(i));
+			}
+			if (format == SqlResultFormat.COLUMNS) {
+				for (int i = 0; i < width; i++) {
+					values.add(new JsonArray());
+				}
+			}
+		}
+		if (format == SqlResultFormat.COLUMNS) {
+			for (int i = 0; i < width; i++) {
+				values.get(i).add(jsonValue(row.getValue(i)));
+			}
+		} else {
+			List<Object> list = new ArrayList<>(width);
+			for (int i = 0; i < width; i++) {
+				list.add(jsonValue(row.getValue(i)));
+			}
+			values.add(new JsonArray(list));
+		}
+		size++;
+	}
+
+	/**
+	 * 获取结果的格式
+	 *
+	 * @return
+	 */
+	public SqlResultFormat getFormat() {
+		return format;
+	}
+
+	/**
+	 * 获取列名,没有数据时为空
+	 *
+	 * @return
+	 */
+	public List<String> getColumns() {
+		return columns;
+	}
+
+	/**
+	 * 获取数据,ROWS格式时每行一个数组,COLUMNS格式时每列一个数组,顺序与{@link #getColumns()}一致
+	 *
+	 * @return
+	 */
+	public List<JsonArray> getValues() {
+		return values;
+	}
+
+	/**
+	 * 获取数据的行数
+	 *
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 获取指定行的数据
+	 *
+	 * @param index
+	 *          行的下标
+	 * @return
+	 */
+	public JsonObject getRow(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		JsonObject row = new JsonObject();
+		for (int i = 0; i < columns.size(); i++) {
+			Object value = format == SqlResultFormat.COLUMNS ? values.get(i).getValue(index) : values.get(index).getValue(i);
+			row.put(columns.get(i), value);
+		}
+		return row;
+	}
+
+	/**
+	 * 转换为JsonObject,格式见{@link SqlResultFormat}
+	 *
+	 * @return
+	 */
+	public JsonObject toJson() {
+		return new JsonObject().put(COLUMNS, new JsonArray(new ArrayList<>(columns)))
+				.put(format == SqlResultFormat.COLUMNS ? VALUES : ROWS, new JsonArray(new ArrayList<>(values)));
+	}
+
+	/**
+	 * 转换为JSON格式的Buffer,可以直接作为HTTP的响应
+	 *
+	 * @return
+	 */
+	public Buffer toBuffer() {
+		return toJson().toBuffer();
+	}
+
+	/**
+	 * 将数据库返回的值转换为JSON支持的值,数组转换为JsonArray
+	 *
+	 * @param value
+	 * @return
+	 */
+	static Object jsonValue(Object value) {
+		if (value == null || value == Tuple.JSON_NULL) {
+			return null;
+		}
+		if (value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			JsonArray array = new JsonArray(new ArrayList<>(length));
+			for (int i = 0; i < length; i++) {
+				array.add(jsonValue(Array.get(value, i)));
+			}
+			return array;
+		}
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return "SqlColumnarResult [format=" + format + ", columns=" + columns + ", size=" + size + "]";
+	}
+
+}
@@ -0,0 +1,199 @@
+package io.vertx.ext.sql.assist;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * 数据总行数的缓存,key为获取总行数的SQL语句与参数,缓存在有效期过后或同一个命令执行新增/修改/删除后失效
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ */
+public class SqlCountCache {
+	/** 缓存的有效期,单位毫秒 */
+	private final long ttl;
+	/** 最多缓存多少个结果 */
+	private final int maxSize;
+	/** 缓存,按最近使用的顺序排列 */
+	private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+	/** 缓存的版本,每次失效加1,用于丢弃失效前开始查询的结果 */
+	private long generation;
+	/** 命中次数 */
+	private long hits;
+	/** 未命中次数 */
+	private long misses;
+	/** 因超出最大数量被移除的次数 */
+	private long evictions;
+	/** 失效次数 */
+	private long invalidations;
+
+	/**
+	 * 初始化
+	 *
+	 * @param ttl
+	 *          缓存的有效期,单位毫秒
+	 * @param maxSize
+	 *          最多缓存多少个结果
+	 */
+	public SqlCountCache(long ttl, int maxSize) {
+		super();
+		if (ttl <= 0 || maxSize <= 0) {
+			throw new IllegalArgumentException("The ttl and maxSize must be greater than 0");
+		}
+		this.ttl = ttl;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * 获取缓存的key
+	 *
+	 * @param qp
+	 *          获取总行数的SQL语句与参数
+	 * @return
+	 */
+	public static String key(SqlAndParams qp) {
+		return qp.getParams() == null ? qp.getSql() : (qp.getSql() + "\n" + qp.getParams().deepToString());
+	}
+
+	/**
+	 * 获取缓存的总行数
+	 *
+	 * @param key
+	 * @return 不存在或已过期时返回null
+	 */
+	public synchronized Long get(String key) {
+		Entry entry = cache.get(key);
+		if (entry != null && entry.expireAt > System.currentTimeMillis()) {
+			hits++;
+			return entry.count;
+		}
+		if (entry != null) {
+			cache.remove(key);
+		}
+		misses++;
+		return null;
+	}
+
+	/**
+	 * 获取缓存当前的版本,查询前获取,查询完成后通过{@link #put(String, long, long)}写入缓存
+	 *
+	 * @return
+	 */
+	public synchronized long generation() {
+		return generation;
+	}
+
+	/**
+	 * 添加缓存,如果查询期间缓存已经失效则不添加
+	 *
+	 * @param key
+	 * @param count
+	 *          总行数
+	 * @param generation
+	 *          查询前通过{@link #generation()}获取的版本
+	 */
+	public synchronized void put(String key, long count, long generation) {
+		if (generation != this.generation) {
+			return;
+		}
+		cache.put(key, new Entry(count, System.currentTimeMillis() + ttl));
+		Iterator<Map.Entry<String, Entry>> iter = cache.entrySet().iterator();
+		while (cache.size() > maxSize && iter.hasNext()) {
+			iter.next();
+			iter.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * 使所有缓存失效
+	 */
+	public synchronized void invalidate() {
+		generation++;
+		invalidations++;
+		cache.clear();
+	}
+
+	/**
+	 * 获取当前缓存的数量
+	 *
+	 * @return
+	 */
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	/**
+	 * 获取命中次数
+	 *
+	 * @return
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * 获取未命中次数
+	 *
+	 * @return
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * 获取因超出最大数量被移除的次数
+	 *
+	 * @return
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * 获取失效次数
+	 *
+	 * @return
+	 */
+	public synchronized long getInvalidations() {
+		return invalidations;
+	}
+
+	/**
+	 * 获取统计信息,格式:{"size":数量,"hits":命中次数,"misses":未命中次数,"evictions":移除次数,"invalidations":失效次数}
+	 *
+	 * @return
+	 */
+	public synchronized JsonObject stats() {
+		return new JsonObject().put("size", cache.size()).put("hits", hits).put("misses", misses).put("evictions", evictions)
+				.put("invalidations", invalidations);
+	}
+
+	@Override
+	public String toString() {
+		return "SqlCountCache [ttl=" + ttl + ", maxSize=" + maxSize + ", stats=" + stats() + "]";
+	}
+
+	/**
+	 * 缓存的总行数
+	 *
+	 * @author <a href="https://mirrentools.org/">Mirren</a>
+	 *
+	 */
+	private static class Entry {
+		/** 总行数 */
+		private final long count;
+		/** 过期的时间 */
+		private final long expireAt;
+
+		public Entry(long count, long expireAt) {
+			super();
+			this.count = count;
+			this.expireAt = expireAt;
+		}
+	}
+
+}
@@ -0,0 +1,262 @@
+package io.vertx.ext.sql.assist;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * 按主键缓存的实体数据,用于selectById与selectByIds的默认查询(不指定返回列、别名与连接语句)<br>
+ * 通过同一个命令按主键修改/删除后对应的数据失效,通过查询工具修改/删除后全部失效;可以缓存不存在的主键<br>
+ * 按最近使用的顺序淘汰,线程安全,缓存的数据在写入与读取时复制
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ */
+public class SqlEntityCache {
+	/** 缓存的有效期,单位毫秒,小于等于0时不过期 */
+	private final long ttl;
+	/** 最多缓存多少条数据 */
+	private final int maxSize;
+	/** 是否缓存不存在的主键 */
+	private final boolean cacheMisses;
+	/** 缓存,按最近使用的顺序排列 */
+	private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+	/** 缓存的版本,每次失效加1,用于丢弃失效前开始查询的结果 */
+	private long generation;
+	/** 命中次数,包含命中不存在的主键 */
+	private long hits;
+	/** 未命中次数 */
+	private long misses;
+	/** 因超出最大数量被移除的次数 */
+	private long evictions;
+	/** 失效的次数 */
+	private long invalidations;
+
+	/**
+	 * 初始化,数据不过期,不缓存不存在的主键
+	 *
+	 * @param maxSize
+	 *          最多缓存多少条数据
+	 */
+	public SqlEntityCache(int maxSize) {
+		this(0, maxSize, false);
+	}
+
+	/**
+	 * 初始化
+	 *
+	 * @param ttl
+	 *          缓存的有效期,单位毫秒,小于等于0时不过期
+	 * @param maxSize
+	 *          最多缓存多少条数据
+	 * @param cacheMisses
+	 *          是否缓存不存在的主键
+	 */
+	public SqlEntityCache(long ttl, int maxSize, boolean cacheMisses) {
+		super();
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("The maxSize must be greater than 0");
+		}
+		this.ttl = ttl;
+		this.maxSize = maxSize;
+		this.cacheMisses = cacheMisses;
+	}
+
+	/**
+	 * 获取主键值的key,数据库返回的数字类型可能与传入的类型不一致,数字统一转换为字符串
+	 *
+	 * @param primaryValue
+	 *          主键值
+	 * @return
+	 */
+	public static String key(Object primaryValue) {
+		if (primaryValue instanceof Number) {
+			try {
+				return new BigDecimal(primaryValue.toString()).stripTrailingZeros().toPlainString();
+			} catch (NumberFormatException e) {
+				return primaryValue.toString();
+			}
+		}
+		return String.valueOf(primaryValue);
+	}
+
+	/**
+	 * 获取缓存的数据
+	 *
+	 * @param primaryValue
+	 *          主键值
+	 * @return 未缓存或已过期时返回null,缓存了不存在的主键时返回{@link Optional#empty()},否则返回数据的副本
+	 */
+	public synchronized Optional<JsonObject> get(Object primaryValue) {
+		String key = key(primaryValue);
+		Entry entry = cache.get(key);
+		if (entry != null && (ttl <= 0 || entry.expireAt > System.currentTimeMillis())) {
+			hits++;
+			return entry.row == null ? Optional.empty() : Optional.of(entry.row.copy(value -> value));
+		}
+		if (entry != null) {
+			cache.remove(key);
+		}
+		misses++;
+		return null;
+	}
+
+	/**
+	 * 获取缓存当前的版本,查询前获取,查询完成后通过{@link #put(Object, JsonObject, long)}写入缓存
+	 *
+	 * @return
+	 */
+	public synchronized long generation() {
+		return generation;
+	}
+
+	/**
+	 * 添加缓存,如果查询期间缓存已经失效则不添加
+	 *
+	 * @param primaryValue
+	 *          主键值
+	 * @param row
+	 *          数据,为null时表示主键不存在,不缓存不存在的主键时忽略
+	 * @param generation
+	 *          查询前通过{@link #generation()}获取的版本
+	 */
+	public synchronized void put(Object primaryValue, JsonObject row, long generation) {
+		if (generation != this.generation || (row == null && !cacheMisses)) {
+			return;
+		}
+		long expireAt = ttl <= 0 ? 0 : System.currentTimeMillis() + ttl;
+		cache.put(key(primaryValue), new Entry(row == null ? null : row.copy(value -> value), expireAt));
+		Iterator<Map.Entry<String, Entry>> iter = cache.entrySet().iterator();
+		while (cache.size() > maxSize && iter.hasNext()) {
+			iter.next();
+			iter.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * 使指定主键的数据失效
+	 *
+	 * @param primaryValue
+	 *          主键值
+	 */
+	public synchronized void invalidate(Object primaryValue) {
+		generation++;
+		invalidations++;
+		cache.remove(key(primaryValue));
+	}
+
+	/**
+	 * 使缓存的不存在的主键失效,用于新增数据后
+	 */
+	public synchronized void invalidateMisses() {
+		generation++;
+		if (!cacheMisses) {
+			return;
+		}
+		invalidations++;
+		cache.values().removeIf(entry -> entry.row == null);
+	}
+
+	/**
+	 * 使所有缓存失效
+	 */
+	public synchronized void invalidateAll() {
+		generation++;
+		invalidations++;
+		cache.clear();
+	}
+
+	/**
+	 * 是否缓存不存在的主键
+	 *
+	 * @return
+	 */
+	public boolean isCacheMisses() {
+		return cacheMisses;
+	}
+
+	/**
+	 * 获取当前缓存的数量
+	 *
+	 * @return
+	 */
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	/**
+	 * 获取命中次数
+	 *
+	 * @return
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * 获取未命中次数
+	 *
+	 * @return
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * 获取因超出最大数量被移除的次数
+	 *
+	 * @return
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * 获取失效的次数
+	 *
+	 * @return
+	 */
+	public synchronized long getInvalidations() {
+		return invalidations;
+	}
+
+	/**
+	 * 获取统计信息,格式:{"size":数量,"hits":命中次数,"misses":未命中次数,"evictions":移除次数,"invalidations":失效次数}
+	 *
+	 * @return
+	 */
+	public synchronized JsonObject stats() {
+		return new JsonObject().put("size", cache.size()).put("hits", hits).put("misses", misses).put("evictions", evictions)
+				.put("invalidations", invalidations);
+	}
+
+	@Override
+	public String toString() {
+		return "SqlEntityCache [ttl=" + ttl + ", maxSize=" + maxSize + ", cacheMisses=" + cacheMisses + ", stats=" + stats() + "]";
+	}
+
+	/**
+	 * 缓存的数据
+	 *
+	 * @author <a href="https://mirrentools.org/">Mirren</a>
+	 *
+	 */
+	private static class Entry {
+		/** 数据,为null时表示主键不存在 */
+		private final JsonObject row;
+		/** 过期的时间 */
+		private final long expireAt;
+
+		public Entry(JsonObject row, long expireAt) {
+			super();
+			this.row = row;
+			this.expireAt = expireAt;
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+package io.vertx.ext.sql.assist;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.vertx.sqlclient.Row;
+
+/**
+ * 将数据行直接转换为实体类,不经过JsonObject,每个类只解析一次{@link TableId} {@link TableColumn}注解<br>
+ * 列名为注解的别名,没有别名时为列名;通过{@link #resolve(List)}每个结果集只查找一次列的下标
+ *
+ * @author <a href="https://mirrentools.org">Mirren</a>
+ *
+ * @param <T>
+ *          实体类的类型
+ */
+public class SqlEntityMapper<T> implements RowMapper<T> {
+	/** 已经解析的实体类转换器 */
+	private static final Map<Class<?>, SqlEntityMapper<?>> CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * 获取实体类的转换器,每个类只解析一次
+	 *
+	 * @param entityClass
+	 *          实体类,需要有无参构造器
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> SqlEntityMapper<T> of(Class<T> entityClass) {
+		SqlEntityMapper<?> mapper = CACHE.get(entityClass);
+		if (mapper == null) {
+			mapper = new SqlEntityMapper<>(entityClass);
+			SqlEntityMapper<?> old = CACHE.putIfAbsent(entityClass, mapper);
+			if (old != null) {
+				mapper = old;
+			}
+		}
+		return (SqlEntityMapper<T>) mapper;
+	}
+
+	/** 实体类 */
+	private final Class<T> entityClass;
+	/** 无参构造器 */
+	private final MethodHandle constructor;
+	/** 属性在结果集中的列名 */
+	private final String[] labels;
+	/** 属性的类型 */
+	private final Class<?>[] types;
+	/** 属性的赋值器 */
+	private final MethodHandle[] setters;
+
+	private SqlEntityMapper(Class<T> entityClass) {
+		super();
+		this.entityClass = entityClass;
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		try {
+			Constructor<T> ctor = entityClass.getDeclaredConstructor();
+			ctor.setAccessible(true);
+			this.constructor = lookup.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+		} catch (Exception e) {
+			throw new IllegalStateException(entityClass.getName() + " must have a no-arg constructor", e);
+		}
+		List<String> labels = new ArrayList<>();
+		List<Class<?>> types = new ArrayList<>();
+		List<MethodHandle> setters = new ArrayList<>();
+		for (Field field : entityClass.getDeclaredFields()) {
+			TableId tableId = field.getAnnotation(TableId.class);
+			TableColumn tableCol = field.getAnnotation(TableColumn.class);
+			if ((tableId == null && tableCol == null) || Modifier.isFinal(field.getModifiers())) {
+				continue;
+			}
+			String column = tableId != null ? tableId.value() : tableCol.value();
+			String alias = tableId != null ? tableId.alias() : tableCol.alias();
+			String label = (alias == null || alias.isEmpty()) ? column : alias;
+			if (label == null || label.isEmpty()) {
+				continue;
+			}
+			try {
+				field.setAccessible(true);
+				setters.add(lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class)));
+			} catch (Exception e) {
+				throw new IllegalStateException(entityClass.getName() + " unable to access field " + field.getName(), e);
+			}
+			labels.add(label);
+			types.add(field.getType());
+		}
+		this.labels = labels.toArray(new String[0]);
+		this.types = types.toArray(new Class<?>[0]);
+		this.setters = setters.toArray(new MethodHandle[0]);
+	}
+
+	/**
+	 * 获取实体类
+	 *
+	 * @return
+	 */
+	public Class<T> getEntityClass() {
+		return entityClass;
+	}
+
+	/**
+	 * 通过列名逐行查找下标并转换,同一个结果集建议使用{@link #resolve(List)}
+	 */
+	@Override
+	public T map(Row row) {
+		int[] indexes = new int[labels.length];
+		for (int i = 0; i < labels.length; i++) {
+			indexes[i] = row.getColumnIndex(labels[i]);
+		}
+		return map(row, indexes);
+	}
+
+	/**
+	 * 通过结果集的列名查找每个属性的下标,返回的转换器直接按下标取值,列名先区分大小写匹配再不区分大小写匹配
+	 */
+	@Override
+	public RowMapper<T> resolve(List<String> columnNames) {
+		int[] indexes = new int[labels.length];
+		for (int i = 0; i < labels.length; i++) {
+			indexes[i] = columnNames.indexOf(labels[i]);
+			for (int j = 0; indexes[i] < 0 && j < columnNames.size(); j++) {
+				if (labels[i].equalsIgnoreCase(columnNames.get(j))) {
+					indexes[i] = j;
+				}
+			}
+		}
+		return row -> map(row, indexes);
+	}
+
+	/**
+	 * 将数据行转换为实体类
+	 *
+	 * @param row
+	 *          数据行
+	 * @param indexes
+	 *          每个属性在数据行中的下标,小于0时不赋值
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private T map(Row row, int[] indexes) {
+		try {
+			Object obj = (Object) constructor.invokeExact();
+			for (int i = 0; i < indexes.length; i++) {
+				if (indexes[i] < 0) {
+					continue;
+				}
+				Object value = RowMapper.getValue(row, indexes[i], types[i]);
+				if (value != null) {
+					setters[i].invokeExact(obj, value);
+				}
+			}
+			return (T) obj;
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SqlEntityMapper [entityClass=" + entityClass.getName() + "]";
+	}
+
+}
@@ -0,0 +1,418 @@
+package io.vertx.ext.sql.assist;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * 实体类的元数据,每个类只解析一次{@link Table} {@link TableId} {@link TableColumn}注解,<br>
+ * 属性的值通过预先生成的MethodHandle读取,避免每次生成SQL语句时都进行反射
+ *
+ * @author <a href="https://mirrentools.org">Mirren</a>
+ *
+ */
+public class SqlEntityMeta {
+	/** 已经解析的实体类元数据 */
+	private static final Map<Class<?>, SqlEntityMeta> CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * 获取实体类的元数据,每个类只解析一次
+	 *
+	 * @param entityClass
+	 *          实体类
+	 * @return
+	 */
+	public static SqlEntityMeta of(Class<?> entityClass) {
+		SqlEntityMeta meta = CACHE.get(entityClass);
+		if (meta == null) {
+			meta = resolve(entityClass);
+			SqlEntityMeta old = CACHE.putIfAbsent(entityClass, meta);
+			if (old != null) {
+				meta = old;
+			}
+		}
+		return meta;
+	}
+
+	/**
+	 * 注册实体类的元数据,注册后{@link #of(Class)}直接返回该元数据,不再进行反射解析
+	 *
+	 * @param meta
+	 */
+	public static void register(SqlEntityMeta meta) {
+		CACHE.put(meta.getEntityClass(), meta);
+	}
+
+	/**
+	 * 创建实体类元数据的构建器,用于不通过反射创建元数据,比如{@link io.vertx.ext.sql.assist.processor.SQLStatementProcessor}生成的代码
+	 *
+	 * @param entityClass
+	 *          实体类
+	 * @return
+	 */
+	public static Builder builder(Class<?> entityClass) {
+		return new Builder(entityClass);
+	}
+
+	/**
+	 * 通过反射解析实体类的元数据
+	 *
+	 * @param entityClass
+	 * @return
+	 */
+	private static SqlEntityMeta resolve(Class<?> entityClass) {
+		Table table = entityClass.getAnnotation(Table.class);
+		Builder builder = builder(entityClass).table((table == null || table.value().isEmpty()) ? null : table.value());
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		for (Field field : entityClass.getDeclaredFields()) {
+			TableId tableId = field.getAnnotation(TableId.class);
+			TableColumn tableCol = field.getAnnotation(TableColumn.class);
+			if (tableId == null && tableCol == null) {
+				continue;
+			}
+			Function<Object, Object> getter;
+			try {
+				field.setAccessible(true);
+				getter = new HandleGetter(lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class)));
+			} catch (Exception e) {
+				throw new IllegalStateException(entityClass.getName() + " unable to access field " + field.getName(), e);
+			}
+			if (tableId != null) {
+				builder.id(tableId.value(), tableId.alias(), field.getType(), getter);
+			} else {
+				builder.column(tableCol.value(), tableCol.alias(), field.getType(), getter);
+			}
+		}
+		return builder.build();
+	}
+
+	/** 实体类 */
+	private final Class<?> entityClass;
+	/** 表的名称 */
+	private final String tableName;
+	/** 主键的名称 */
+	private final String primaryId;
+	/** 返回列 */
+	private final String resultColumns;
+	/** 列的名称,主键排在第一位 */
+	private final String[] columns;
+	/** 列的别名,没有别名时为null */
+	private final String[] aliases;
+	/** 属性的类型 */
+	private final Class<?>[] types;
+	/** 属性值的读取器 */
+	private final Function<Object, Object>[] getters;
+	/** 主键在列中的下标,没有主键时为-1 */
+	private final int idIndex;
+
+	/**
+	 * 创建实体类的元数据
+	 *
+	 * @param entityClass
+	 *          实体类
+	 * @param tableName
+	 *          表的名称
+	 * @param primaryId
+	 *          主键的名称
+	 * @param resultColumns
+	 *          返回列
+	 * @param columns
+	 *          列的名称,主键排在第一位
+	 * @param aliases
+	 *          列的别名,没有别名时为null
+	 * @param types
+	 *          属性的类型
+	 * @param getters
+	 *          属性值的读取器
+	 */
+	protected SqlEntityMeta(Class<?> entityClass, String tableName, String primaryId, String resultColumns, List<String> columns,
+			List<String> aliases, List<Class<?>> types, List<Function<Object, Object>> getters) {
+		super();
+		this.entityClass = entityClass;
+		this.tableName = tableName;
+		this.primaryId = primaryId;
+		this.resultColumns = resultColumns;
+		this.columns = columns.toArray(new String[0]);
+		this.aliases = aliases.toArray(new String[0]);
+		this.types = types.toArray(new Class<?>[0]);
+		@SuppressWarnings("unchecked")
+		Function<Object, Object>[] array = (Function<Object, Object>[]) new Function<?, ?>[getters.size()];
+		this.getters = getters.toArray(array);
+		this.idIndex = primaryId == null ? -1 : columns.indexOf(primaryId);
+	}
+
+	/**
+	 * 获取实体类
+	 *
+	 * @return
+	 */
+	public Class<?> getEntityClass() {
+		return entityClass;
+	}
+
+	/**
+	 * 获取表的名称,没有{@link Table}注解时为null
+	 *
+	 * @return
+	 */
+	public String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * 获取主键的名称,没有{@link TableId}注解时为null
+	 *
+	 * @return
+	 */
+	public String getPrimaryId() {
+		return primaryId;
+	}
+
+	/**
+	 * 获取返回列,格式:列名 [AS "别名"],...
+	 *
+	 * @return
+	 */
+	public String getResultColumns() {
+		return resultColumns;
+	}
+
+	/**
+	 * 获取列的数量
+	 *
+	 * @return
+	 */
+	public int size() {
+		return columns.length;
+	}
+
+	/**
+	 * 获取列的名称,下标0为主键
+	 *
+	 * @param index
+	 * @return
+	 */
+	public String getColumn(int index) {
+		return columns[index];
+	}
+
+	/**
+	 * 获取列的别名,没有别名时返回null
+	 *
+	 * @param index
+	 * @return
+	 */
+	public String getAlias(int index) {
+		return aliases[index];
+	}
+
+	/**
+	 * 获取列在查询结果中的名称,有别名时为别名,否则为列名
+	 *
+	 * @param index
+	 * @return
+	 */
+	public String getLabel(int index) {
+		return aliases[index] == null ? columns[index] : aliases[index];
+	}
+
+	/**
+	 * 获取属性的类型
+	 *
+	 * @param index
+	 * @return
+	 */
+	public Class<?> getType(int index) {
+		return types[index];
+	}
+
+	/**
+	 * 获取主键在列中的下标,没有主键时返回-1
+	 *
+	 * @return
+	 */
+	public int getIdIndex() {
+		return idIndex;
+	}
+
+	/**
+	 * 获取对象属性的值
+	 *
+	 * @param obj
+	 *          对象
+	 * @param index
+	 *          列的下标
+	 * @return
+	 */
+	public Object getValue(Object obj, int index) {
+		return getters[index].apply(obj);
+	}
+
+	/**
+	 * 获取对象主键的值,没有主键时返回null
+	 *
+	 * @param obj
+	 * @return
+	 */
+	public Object getIdValue(Object obj) {
+		return idIndex < 0 ? null : getters[idIndex].apply(obj);
+	}
+
+	/**
+	 * 将对象所有属性的值按列的顺序添加到参数中
+	 *
+	 * @param obj
+	 *          对象
+	 * @param params
+	 *          参数
+	 * @return
+	 */
+	public Tuple addValues(Object obj, Tuple params) {
+		for (int i = 0; i < getters.length; i++) {
+			params.addValue(getters[i].apply(obj));
+		}
+		return params;
+	}
+
+	@Override
+	public String toString() {
+		return "SqlEntityMeta [entityClass=" + entityClass.getName() + ", tableName=" + tableName + ", primaryId=" + primaryId
+				+ ", resultColumns=" + resultColumns + "]";
+	}
+
+	/**
+	 * 实体类元数据的构建器,列的添加顺序需要与实体类属性的声明顺序一致
+	 *
+	 * @author <a href="https://mirrentools.org">Mirren</a>
+	 *
+	 */
+	public static class Builder {
+		private final Class<?> entityClass;
+		private String tableName;
+		private String primaryId;
+		private final StringBuilder resultColumns = new StringBuilder();
+		private final List<String> columns = new ArrayList<>();
+		private final List<String> aliases = new ArrayList<>();
+		private final List<Class<?>> types = new ArrayList<>();
+		private final List<Function<Object, Object>> getters = new ArrayList<>();
+
+		private Builder(Class<?> entityClass) {
+			super();
+			this.entityClass = entityClass;
+		}
+
+		/**
+		 * 设置表的名称
+		 *
+		 * @param tableName
+		 * @return
+		 */
+		public Builder table(String tableName) {
+			this.tableName = tableName;
+			return this;
+		}
+
+		/**
+		 * 添加主键列
+		 *
+		 * @param column
+		 *          列名
+		 * @param alias
+		 *          别名,没有别名时可以为null或空字符串
+		 * @param type
+		 *          属性的类型
+		 * @param getter
+		 *          属性值的读取器
+		 * @return
+		 */
+		public Builder id(String column, String alias, Class<?> type, Function<Object, Object> getter) {
+			alias = (alias == null || alias.isEmpty()) ? null : alias;
+			// 与原来的属性值顺序保持一致,主键始终排在第一位
+			columns.add(0, column);
+			aliases.add(0, alias);
+			types.add(0, type);
+			getters.add(0, getter);
+			if (column == null || column.isEmpty()) {
+				return this;
+			}
+			primaryId = primaryId == null ? column : (primaryId + column);
+			appendResultColumn(column, alias);
+			return this;
+		}
+
+		/**
+		 * 添加普通列
+		 *
+		 * @param column
+		 *          列名
+		 * @param alias
+		 *          别名,没有别名时可以为null或空字符串
+		 * @param type
+		 *          属性的类型
+		 * @param getter
+		 *          属性值的读取器
+		 * @return
+		 */
+		public Builder column(String column, String alias, Class<?> type, Function<Object, Object> getter) {
+			alias = (alias == null || alias.isEmpty()) ? null : alias;
+			columns.add(column);
+			aliases.add(alias);
+			types.add(type);
+			getters.add(getter);
+			appendResultColumn(column, alias);
+			return this;
+		}
+
+		private void appendResultColumn(String column, String alias) {
+			resultColumns.append("," + column);
+			if (alias != null) {
+				resultColumns.append(" AS \"" + alias + "\"");
+			}
+		}
+
+		/**
+		 * 创建元数据
+		 *
+		 * @return
+		 */
+		public SqlEntityMeta build() {
+			return new SqlEntityMeta(entityClass, tableName, primaryId, resultColumns.length() == 0 ? null : resultColumns.substring(1),
+					columns, aliases, types, getters);
+		}
+	}
+
+	/**
+	 * 通过MethodHandle读取属性的值
+	 *
+	 * @author <a href="https://mirrentools.org">Mirren</a>
+	 *
+	 */
+	private static class HandleGetter implements Function<Object, Object> {
+		private final MethodHandle handle;
+
+		public HandleGetter(MethodHandle handle) {
+			super();
+			this.handle = handle;
+		}
+
+		@Override
+		public Object apply(Object obj) {
+			try {
+				return (Object) handle.invokeExact(obj);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,352 @@
+package io.vertx.ext.sql.assist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+
+/**
+ * 延迟批量新增的写入流,写入的数据先放入队列,达到批次大小或等待时间后通过insertBatch批量新增<br>
+ * write返回的Future在所在批次新增完成后完成;队列已满时{@link #writeQueueFull()}返回true,继续写入会失败,<br>
+ * 队列降到一半以下时调用drainHandler;调用end后新增队列中剩余的数据,全部完成后结束
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ * @param <T>
+ *          实体类的类型
+ */
+public class SqlInsertBuffer<T> implements WriteStream<T> {
+	/** Vert.x,用于等待时间的定时器 */
+	private final Vertx vertx;
+	/** 批量新增的方法,返回受影响的行数 */
+	private final Function<List<T>, Future<Integer>> insert;
+	/** 每个批次最多多少条数据,达到时立即新增 */
+	private final int batchSize;
+	/** 第一条数据写入后最多等待多少毫秒新增 */
+	private final long maxDelay;
+	/** 最多同时执行多少个批次 */
+	private final int maxInFlight;
+	/** 队列最多多少条数据 */
+	private int maxQueueSize;
+	/** 等待新增的数据 */
+	private List<T> queue = new ArrayList<>();
+	/** 等待新增的数据的结果 */
+	private List<Promise<Void>> promises = new ArrayList<>();
+	/** 等待时间的定时器,为-1时没有定时器 */
+	private long timerId = -1;
+	/** 等待时间已到,需要在有空闲时新增 */
+	private boolean due;
+	/** 正在执行的批次数量 */
+	private int inFlight;
+	/** 是否已经达到队列的上限,用于判断是否调用drainHandler */
+	private boolean full;
+	/** 结束的结果,为null时未结束 */
+	private Promise<Void> ended;
+	/** 异常处理器 */
+	private Handler<Throwable> exceptionHandler;
+	/** 队列可以继续写入时的处理器 */
+	private Handler<Void> drainHandler;
+	/** 执行的批次数量 */
+	private long flushes;
+	/** 新增成功的数据数量 */
+	private long inserted;
+	/** 新增失败的数据数量 */
+	private long failed;
+
+	/**
+	 * 初始化,队列最多为批次大小的4倍
+	 *
+	 * @param vertx
+	 *          Vert.x
+	 * @param insert
+	 *          批量新增的方法,比如list -&gt; sql.insertBatch(list)
+	 * @param batchSize
+	 *          每个批次最多多少条数据,达到时立即新增
+	 * @param maxDelay
+	 *          第一条数据写入后最多等待多少毫秒新增
+	 * @param maxInFlight
+	 *          最多同时执行多少个批次
+	 */
+	public SqlInsertBuffer(Vertx vertx, Function<List<T>, Future<Integer>> insert, int batchSize, long maxDelay,
+			int maxInFlight) {
+		super();
+		if (batchSize <= 0 || maxDelay <= 0 || maxInFlight <= 0) {
+			throw new IllegalArgumentException("The batchSize, maxDelay and maxInFlight must be greater than 0");
+		}
+		this.vertx = vertx;
+		this.insert = insert;
+		this.batchSize = batchSize;
+		this.maxDelay = maxDelay;
+		this.maxInFlight = maxInFlight;
+		this.maxQueueSize = batchSize * 4;
+	}
+
+	@Override
+	public synchronized SqlInsertBuffer<T> exceptionHandler(Handler<Throwable> handler) {
+		this.exceptionHandler = handler;
+		return this;
+	}
+
+	@Override
+	public Future<Void> write(T data) {
+		Promise<Void> promise = Promise.promise();
+		write(data, promise);
+		return promise.future();
+	}
+
+	@Override
+	public void write(T data, Handler<AsyncResult<Void>> handler) {
+		Promise<Void> promise = Promise.promise();
+		promise.future().onComplete(handler);
+		String error;
+		synchronized (this) {
+			error = ended != null ? "The SqlInsertBuffer has ended" : "The write queue is full";
+			if (ended == null && queue.size() < maxQueueSize) {
+				queue.add(data);
+				promises.add(promise);
+				if (queue.size() >= maxQueueSize) {
+					full = true;
+				}
+				if (queue.size() >= batchSize) {
+					due = true;
+				} else if (timerId == -1) {
+					timerId = vertx.setTimer(maxDelay, id -> timeout(id));
+				}
+				promise = null;
+			}
+		}
+		if (promise != null) {
+			promise.fail(new IllegalStateException(error));
+			return;
+		}
+		flush();
+	}
+
+	@Override
+	public void end(Handler<AsyncResult<Void>> handler) {
+		Promise<Void> promise;
+		synchronized (this) {
+			if (ended == null) {
+				ended = Promise.promise();
+				due = true;
+				cancelTimer();
+			}
+			promise = ended;
+		}
+		promise.future().onComplete(handler);
+		flush();
+	}
+
+	/**
+	 * 立即新增队列中的数据,不等待批次大小或等待时间
+	 */
+	public void flushNow() {
+		synchronized (this) {
+			if (queue.isEmpty()) {
+				return;
+			}
+			due = true;
+			cancelTimer();
+		}
+		flush();
+	}
+
+	@Override
+	public synchronized SqlInsertBuffer<T> setWriteQueueMaxSize(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("The maxSize must be greater than 0");
+		}
+		this.maxQueueSize = maxSize;
+		return this;
+	}
+
+	@Override
+	public synchronized boolean writeQueueFull() {
+		return queue.size() >= maxQueueSize;
+	}
+
+	@Override
+	public synchronized SqlInsertBuffer<T> drainHandler(Handler<Void> handler) {
+		this.drainHandler = handler;
+		return this;
+	}
+
+	/**
+	 * 等待时间已到
+	 *
+	 * @param id
+	 */
+	private void timeout(long id) {
+		synchronized (this) {
+			if (timerId != id) {
+				return;
+			}
+			timerId = -1;
+			due = true;
+		}
+		flush();
+	}
+
+	/**
+	 * 取消等待时间的定时器
+	 */
+	private void cancelTimer() {
+		if (timerId != -1) {
+			vertx.cancelTimer(timerId);
+			timerId = -1;
+		}
+	}
+
+	/**
+	 * 在有空闲时新增到期的数据,每次最多一个批次,没有数据且已经结束时完成结束的结果
+	 */
+	private void flush() {
+		while (true) {
+			List<T> batch;
+			List<Promise<Void>> batchPromises;
+			Handler<Void> drain = null;
+			Promise<Void> done = null;
+			synchronized (this) {
+				if (queue.isEmpty() || !due || inFlight >= maxInFlight) {
+					done = queue.isEmpty() && inFlight == 0 ? ended : null;
+					batch = null;
+					batchPromises = null;
+				} else {
+					int size = Math.min(batchSize, queue.size());
+					batch = new ArrayList<>(queue.subList(0, size));
+					batchPromises = new ArrayList<>(promises.subList(0, size));
+					queue = new ArrayList<>(queue.subList(size, queue.size()));
+					promises = new ArrayList<>(promises.subList(size, promises.size()));
+					inFlight++;
+					flushes++;
+					if (queue.size() < batchSize && ended == null) {
+						due = false;
+						cancelTimer();
+						if (!queue.isEmpty()) {
+							timerId = vertx.setTimer(maxDelay, id -> timeout(id));
+						}
+					}
+					if (full && queue.size() <= maxQueueSize / 2) {
+						full = false;
+						drain = drainHandler;
+					}
+				}
+			}
+			if (batch == null) {
+				if (done != null) {
+					done.tryComplete();
+				}
+				return;
+			}
+			if (drain != null) {
+				drain.handle(null);
+			}
+			Future<Integer> future;
+			try {
+				future = insert.apply(batch);
+			} catch (RuntimeException e) {
+				future = Future.failedFuture(e);
+			}
+			future.onComplete(res -> completed(batchPromises, res));
+		}
+	}
+
+	/**
+	 * 批次新增完成,通知写入的调用者并继续新增
+	 *
+	 * @param batchPromises
+	 * @param res
+	 */
+	private void completed(List<Promise<Void>> batchPromises, AsyncResult<Integer> res) {
+		Handler<Throwable> handler;
+		synchronized (this) {
+			inFlight--;
+			if (res.succeeded()) {
+				inserted += batchPromises.size();
+			} else {
+				failed += batchPromises.size();
+			}
+			handler = exceptionHandler;
+		}
+		for (Promise<Void> promise : batchPromises) {
+			if (res.succeeded()) {
+				promise.tryComplete();
+			} else {
+				promise.tryFail(res.cause());
+			}
+		}
+		if (res.failed() && handler != null) {
+			handler.handle(res.cause());
+		}
+		flush();
+	}
+
+	/**
+	 * 获取队列中等待新增的数据数量
+	 *
+	 * @return
+	 */
+	public synchronized int size() {
+		return queue.size();
+	}
+
+	/**
+	 * 获取正在执行的批次数量
+	 *
+	 * @return
+	 */
+	public synchronized int inFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * 获取执行的批次数量
+	 *
+	 * @return
+	 */
+	public synchronized long getFlushes() {
+		return flushes;
+	}
+
+	/**
+	 * 获取新增成功的数据数量
+	 *
+	 * @return
+	 */
+	public synchronized long getInserted() {
+		return inserted;
+	}
+
+	/**
+	 * 获取新增失败的数据数量
+	 *
+	 * @return
+	 */
+	public synchronized long getFailed() {
+		return failed;
+	}
+
+	/**
+	 * 获取统计信息,格式:{"queued":队列数量,"inFlight":正在执行的批次,"flushes":批次数量,"inserted":成功数量,"failed":失败数量}
+	 *
+	 * @return
+	 */
+	public synchronized JsonObject stats() {
+		return new JsonObject().put("queued", queue.size()).put("inFlight", inFlight).put("flushes", flushes)
+				.put("inserted", inserted).put("failed", failed);
+	}
+
+	@Override
+	public String toString() {
+		return "SqlInsertBuffer [batchSize=" + batchSize + ", maxDelay=" + maxDelay + ", maxInFlight=" + maxInFlight
+				+ ", stats=" + stats() + "]";
+	}
+
+}
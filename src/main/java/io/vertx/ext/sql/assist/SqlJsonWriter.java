@@ -0,0 +1,230 @@
+package io.vertx.ext.sql.assist;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.TemporalAccessor;
+import java.util.UUID;
+import java.util.stream.Collector;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import io.vertx.sqlclient.Row;
+
+/**
+ * 在解码时将数据行直接写入Buffer的JSON编码器,不创建RowSet与JsonObject<br>
+ * 每个结果只编码一次列名,格式为JSON数组[{...},{...}]或NDJSON(每行一个JSON对象,以换行结尾)<br>
+ * 时间类型与UUID写为toString()的字符串,其他类型交给{@link Json#encode(Object)}
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ */
+public class SqlJsonWriter {
+	private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/**
+	 * 获取将数据行写为JSON的收集器
+	 *
+	 * @param ndjson
+	 *          true=NDJSON格式,false=JSON数组
+	 * @return
+	 */
+	public static Collector<Row, ?, SqlJsonWriter> collector(boolean ndjson) {
+		return Collector.of(() -> new SqlJsonWriter(ndjson), SqlJsonWriter::write, (a, b) -> {
+			throw new UnsupportedOperationException("SqlJsonWriter does not support parallel collection");
+		}, SqlJsonWriter::end);
+	}
+
+	/** 是否为NDJSON格式 */
+	private final boolean ndjson;
+	/** 写入的Buffer */
+	private final Buffer buffer = Buffer.buffer();
+	/** 编码后的列名,第一列为{"name":,其他列为,"name": */
+	private byte[][] names;
+	/** 写入的行数 */
+	private int size;
+	/** 是否已经结束 */
+	private boolean ended;
+
+	/**
+	 * 初始化
+	 *
+	 * @param ndjson
+	 *          true=NDJSON格式,false=JSON数组
+	 */
+	public SqlJsonWriter(boolean ndjson) {
+		super();
+		this.ndjson = ndjson;
+		if (!ndjson) {
+			buffer.appendByte((byte) '[');
+		}
+	}
+
+	/**
+	 * 写入一行数据,第一行时编码列名
+	 *
+	 * @param row
+	 */
+	public void write(Row row) {
+		if (ended) {
+			throw new IllegalStateException("The SqlJsonWriter has ended");
+		}
+		int width = row.size();
+		if (names == null) {
+			names = new byte[width][];
+			for (int i = 0; i < width; i++) {
+				StringBuilder name = new StringBuilder().append(i == 0 ? '{' : ',');
+				quote(name, row.getColumnName(i));
+				names[i] = name.append(':').toString().getBytes(StandardCharsets.UTF_8);
+			}
+		}
+		if (!ndjson && size > 0) {
+			buffer.appendByte((byte) ',');
+		}
+		if (width == 0) {
+			buffer.appendByte((byte) '{');
+		}
+		for (int i = 0; i < width; i++) {
+			buffer.appendBytes(names[i]);
+			writeValue(row.getValue(i));
+		}
+		buffer.appendByte((byte) '}');
+		if (ndjson) {
+			buffer.appendByte((byte) '\n');
+		}
+		size++;
+	}
+
+	/**
+	 * 结束写入,JSON数组格式时写入结尾的],可以重复调用
+	 *
+	 * @return
+	 */
+	public SqlJsonWriter end() {
+		if (!ended) {
+			ended = true;
+			if (!ndjson) {
+				buffer.appendByte((byte) ']');
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * 获取写入的Buffer
+	 *
+	 * @return
+	 */
+	public Buffer getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * 获取写入的行数
+	 *
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 写入一个值
+	 *
+	 * @param value
+	 */
+	private void writeValue(Object value) {
+		value = SqlColumnarResult.jsonValue(value);
+		if (value == null) {
+			buffer.appendBytes(NULL);
+		} else if (value instanceof String) {
+			writeString((String) value);
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+				|| value instanceof BigInteger || value instanceof BigDecimal) {
+			buffer.appendString(value.toString());
+		} else if (value instanceof Double || value instanceof Float) {
+			double number = ((Number) value).doubleValue();
+			if (Double.isNaN(number) || Double.isInfinite(number)) {
+				writeString(value.toString());
+			} else {
+				buffer.appendString(value.toString());
+			}
+		} else if (value instanceof Boolean) {
+			buffer.appendBytes((Boolean) value ? TRUE : FALSE);
+		} else if (value instanceof TemporalAccessor || value instanceof UUID) {
+			writeString(value.toString());
+		} else {
+			buffer.appendBuffer(Json.encodeToBuffer(value));
+		}
+	}
+
+	/**
+	 * 写入字符串,不需要转义时直接写入
+	 *
+	 * @param value
+	 */
+	private void writeString(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < 0x20 || c == '"' || c == '\\') {
+				StringBuilder builder = new StringBuilder(value.length() + 8);
+				quote(builder, value);
+				buffer.appendString(builder.toString());
+				return;
+			}
+		}
+		buffer.appendByte((byte) '"').appendString(value).appendByte((byte) '"');
+	}
+
+	/**
+	 * 将字符串转义并加上双引号
+	 *
+	 * @param builder
+	 * @param value
+	 */
+	private static void quote(StringBuilder builder, String value) {
+		builder.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				builder.append("\\\"");
+				break;
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			case '\b':
+				builder.append("\\b");
+				break;
+			case '\f':
+				builder.append("\\f");
+				break;
+			default:
+				if (c < 0x20) {
+					builder.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+				} else {
+					builder.append(c);
+				}
+			}
+		}
+		builder.append('"');
+	}
+
+	@Override
+	public String toString() {
+		return "SqlJsonWriter [ndjson=" + ndjson + ", size=" + size + ", bytes=" + buffer.length() + "]";
+	}
+
+}
@@ -27,12 +27,15 @@ public class SqlLimitResult<T> {
 	public static final String SIZE = "size";
 	/** 数据的默认key与value */
 	public static final String DATA = "data";
+	/** 游标分页下一页游标的默认key与value */
+	public static final String CURSOR = "cursor";
 	static {
 		JSON_NAME_KEY_MAPS.put(TOTALS, TOTALS);
 		JSON_NAME_KEY_MAPS.put(PAGES, PAGES);
 		JSON_NAME_KEY_MAPS.put(PAGE, PAGE);
 		JSON_NAME_KEY_MAPS.put(SIZE, SIZE);
 		JSON_NAME_KEY_MAPS.put(DATA, DATA);
+		JSON_NAME_KEY_MAPS.put(CURSOR, CURSOR);
 	}
 
 	/**
@@ -43,18 +46,30 @@ public class SqlLimitResult<T> {
 	 *          pages=数据总页数 <br>
 	 *          page=当前是第几页<br>
 	 *          size=每页显示多少行数据<br>
-	 *          data=数据
+	 *          data=数据<br>
+	 *          cursor=游标分页下一页的游标
 	 * @param newName
 	 *          新的名称
 	 */
 	public static void registerResultKey(String oldName, String newName) {
 		if (JSON_NAME_KEY_MAPS.get(oldName) == null) {
-			throw new IllegalArgumentException("Failed to return result name, invalid old name, only totals、pages、page、size、data are supported");
+			throw new IllegalArgumentException("Failed to return result name, invalid old name, only totals、pages、page、size、data、cursor are supported");
 		}
 		Objects.requireNonNull(newName, "Failed to set return result name, new name can not be null");
 		JSON_NAME_KEY_MAPS.put(oldName, newName);
 	}
 
+	/**
+	 * 获取返回结果数据键的名称
+	 * 
+	 * @param name
+	 *          默认的名称,比如{@link #DATA}
+	 * @return 通过{@link #registerResultKey(String, String)}设置的名称,没有设置时返回默认的名称
+	 */
+	public static String getResultKey(String name) {
+		return JSON_NAME_KEY_MAPS.getOrDefault(name, name);
+	}
+
 	/** 数据总行数 */
 	private long totals;
 	/** 数据总页数 */
@@ -65,6 +80,8 @@ public class SqlLimitResult<T> {
 	private int size;
 	/** 数据 */
 	private List<T> data;
+	/** 游标分页下一页的游标 */
+	private String cursor;
 
 	/**
 	 * 初始化
@@ -89,7 +106,8 @@ public class SqlLimitResult<T> {
 	 * pages(int):数据总页数<br>
 	 * page(int):当前是第几页<br>
 	 * size(int):每页显示多少行数据<br>
-	 * data(List<T>):数据
+	 * data(List<T>):数据<br>
+	 * cursor(String):游标分页下一页的游标,没有下一页或不是游标分页时不存在
 	 * 
 	 * @return
 	 */
@@ -105,6 +123,9 @@ public class SqlLimitResult<T> {
 		} else {
 			result.put(dataKey, getData());
 		}
+		if (getCursor() != null) {
+			result.put(getResultKey(CURSOR), getCursor());
+		}
 		return result;
 	}
 
@@ -183,9 +204,30 @@ public class SqlLimitResult<T> {
 		return this;
 	}
 
+	/**
+	 * 获取游标分页下一页的游标
+	 * 
+	 * @return 没有下一页或不是游标分页时返回null
+	 */
+	public String getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * 设置游标分页下一页的游标
+	 * 
+	 * @param cursor
+	 * @return
+	 */
+	public SqlLimitResult<T> setCursor(String cursor) {
+		this.cursor = cursor;
+		return this;
+	}
+
 	@Override
 	public String toString() {
-		return "SqlLimitResult [totals=" + totals + ", pages=" + pages + ", page=" + page + ", size=" + size + ", data=" + data + "]";
+		return "SqlLimitResult [totals=" + totals + ", pages=" + pages + ", page=" + page + ", size=" + size + ", cursor=" + cursor
+				+ ", data=" + data + "]";
 	}
 
 }
@@ -0,0 +1,16 @@
+package io.vertx.ext.sql.assist;
+
+/**
+ * 分页查询获取总行数与数据的方式
+ * 
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ */
+public enum SqlLimitStrategy {
+	/** 先查询总行数再查询数据,两次请求依次执行,总行数为0或页数超出时不查询数据 */
+	SEQUENTIAL,
+	/** 通过COUNT(*) OVER()在一个查询中同时获取总行数与数据,总行数写入总行数的缓存,不支持时使用{@link #CONCURRENT} */
+	WINDOW,
+	/** 总行数与数据的查询同时执行,各自使用连接池中的连接 */
+	CONCURRENT;
+}
@@ -0,0 +1,200 @@
+package io.vertx.ext.sql.assist;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.sqlclient.PreparedStatement;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowStream;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Transaction;
+
+/**
+ * 通过游标逐批读取查询结果的流,内存中最多保留fetchSize行数据,支持pause/resume背压<br>
+ * 流结束、出现异常或调用{@link #close()}后关闭游标与预编译语句、结束事务并将连接归还连接池
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ * @param <T>
+ *          数据行转换后的类型
+ */
+public class SqlReadStream<T> implements ReadStream<T> {
+	/** 默认每次从数据库读取多少行数据 */
+	public static final int DEFAULT_FETCH_SIZE = 100;
+	/** 游标 */
+	private final RowStream<Row> stream;
+	/** 游标所属的预编译语句 */
+	private final PreparedStatement statement;
+	/** 游标所在的事务 */
+	private final Transaction transaction;
+	/** 游标所在的连接 */
+	private final SqlConnection connection;
+	/** 数据行的转换器 */
+	private final RowMapper<T> mapper;
+	/** 通过第一行数据的列名创建的转换器 */
+	private RowMapper<T> resolved;
+	/** 异常处理器 */
+	private Handler<Throwable> exceptionHandler;
+	/** 结束处理器 */
+	private Handler<Void> endHandler;
+	/** 关闭的结果,为null时未关闭 */
+	private Future<Void> closed;
+	/** 流结束、出现异常或调用close后,游标与连接释放完成时完成 */
+	private final Promise<Void> released = Promise.promise();
+
+	/**
+	 * 初始化
+	 *
+	 * @param stream
+	 *          游标
+	 * @param statement
+	 *          游标所属的预编译语句,为null时由调用者关闭
+	 * @param transaction
+	 *          游标所在的事务,为null时由调用者结束事务
+	 * @param connection
+	 *          游标所在的连接,为null时由调用者关闭连接
+	 * @param mapper
+	 *          数据行的转换器
+	 */
+	public SqlReadStream(RowStream<Row> stream, PreparedStatement statement, Transaction transaction, SqlConnection connection,
+			RowMapper<T> mapper) {
+		super();
+		this.stream = stream;
+		this.statement = statement;
+		this.transaction = transaction;
+		this.connection = connection;
+		this.mapper = mapper;
+		stream.exceptionHandler(err -> fail(err));
+		stream.endHandler(v -> close().onComplete(res -> {
+			if (res.succeeded()) {
+				Handler<Void> handler = endHandler;
+				if (handler != null) {
+					handler.handle(null);
+				}
+			} else {
+				notifyException(res.cause());
+			}
+		}));
+	}
+
+	@Override
+	public synchronized SqlReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+		this.exceptionHandler = handler;
+		return this;
+	}
+
+	@Override
+	public SqlReadStream<T> handler(Handler<T> handler) {
+		if (handler == null) {
+			stream.handler(null);
+		} else {
+			stream.handler(row -> {
+				T value;
+				try {
+					if (resolved == null) {
+						List<String> columnNames = new ArrayList<>(row.size());
+						for (int i = 0; i < row.size(); i++) {
+							columnNames.add(row.getColumnName(i));
+						}
+						resolved = mapper.resolve(columnNames);
+					}
+					value = resolved.map(row);
+				} catch (Throwable e) {
+					fail(e);
+					return;
+				}
+				handler.handle(value);
+			});
+		}
+		return this;
+	}
+
+	@Override
+	public SqlReadStream<T> pause() {
+		stream.pause();
+		return this;
+	}
+
+	@Override
+	public SqlReadStream<T> resume() {
+		stream.resume();
+		return this;
+	}
+
+	@Override
+	public SqlReadStream<T> fetch(long amount) {
+		stream.fetch(amount);
+		return this;
+	}
+
+	@Override
+	public synchronized SqlReadStream<T> endHandler(Handler<Void> endHandler) {
+		this.endHandler = endHandler;
+		return this;
+	}
+
+	/**
+	 * 关闭游标与预编译语句并将连接归还连接池,用于提前取消读取,可以重复调用
+	 *
+	 * @return
+	 */
+	public synchronized Future<Void> close() {
+		if (closed == null) {
+			closed = stream.close().eventually(v -> statement == null ? Future.succeededFuture() : statement.close())
+					.eventually(v -> transaction == null ? Future.succeededFuture() : transaction.commit())
+					.eventually(v -> connection == null ? Future.succeededFuture() : connection.close());
+			closed.onComplete(res -> released.tryComplete());
+		}
+		return closed;
+	}
+
+	/**
+	 * 获取流释放的结果,流结束、出现异常或调用{@link #close()}后游标与连接释放完成时完成,不论释放是否成功都不会失败
+	 *
+	 * @return
+	 */
+	public Future<Void> released() {
+		return released.future();
+	}
+
+	/**
+	 * 读取失败,关闭预编译语句、回滚事务并将连接归还连接池后通知异常处理器
+	 *
+	 * @param err
+	 */
+	private void fail(Throwable err) {
+		Future<Void> future;
+		synchronized (this) {
+			if (closed == null) {
+				stream.handler(null);
+				closed = stream.close().eventually(v -> statement == null ? Future.succeededFuture() : statement.close())
+						.eventually(v -> transaction == null ? Future.succeededFuture() : transaction.rollback())
+						.eventually(v -> connection == null ? Future.succeededFuture() : connection.close());
+				closed.onComplete(res -> released.tryComplete());
+				future = closed;
+			} else {
+				future = null;
+			}
+		}
+		if (future == null) {
+			notifyException(err);
+		} else {
+			future.onComplete(v -> notifyException(err));
+		}
+	}
+
+	private void notifyException(Throwable err) {
+		Handler<Throwable> handler;
+		synchronized (this) {
+			handler = exceptionHandler;
+		}
+		if (handler != null) {
+			handler.handle(err);
+		}
+	}
+
+}
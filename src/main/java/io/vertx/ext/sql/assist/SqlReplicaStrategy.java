@@ -0,0 +1,14 @@
+package io.vertx.ext.sql.assist;
+
+/**
+ * 读写分离时选择只读库的方式,见{@link SQLExecuteImplRouting}
+ * 
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ */
+public enum SqlReplicaStrategy {
+	/** 按顺序轮流选择 */
+	ROUND_ROBIN,
+	/** 选择正在执行的请求最少的只读库,相同时选择靠前的 */
+	LEAST_OUTSTANDING;
+}
@@ -0,0 +1,398 @@
+package io.vertx.ext.sql.assist;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * 查询结果的缓存,key为查询的SQL语句与参数,每个结果标记涉及的表名(实体类的表名与joinOrReference中的表名)<br>
+ * 通过{@link SQLCommandImpl}新增/修改/删除后,标记了该表的结果全部失效;多个命令可以共用一个缓存<br>
+ * 缓存的数据在写入与读取时复制,调用者修改返回的数据不影响缓存
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ */
+public class SqlResultCache {
+	/** 匹配joinOrReference中的表名 */
+	private static final Pattern TABLE_PATTERN = Pattern.compile("(?:\\b(?:join|from)\\s+|,\\s*)([\\w.`\"\\[\\]]+)",
+			Pattern.CASE_INSENSITIVE);
+	/** 缓存的有效期,单位毫秒 */
+	private final long ttl;
+	/** 最多缓存多少个结果 */
+	private final int maxSize;
+	/** 缓存的结果最多占用多少字节,估算值 */
+	private final long maxBytes;
+	/** 缓存,按最近使用的顺序排列 */
+	private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+	/** 表名与标记了该表的key */
+	private final Map<String, Set<String>> tagKeys = new HashMap<>();
+	/** 表名最后一次失效时的版本 */
+	private final Map<String, Long> tagGenerations = new HashMap<>();
+	/** 缓存的版本,每次失效加1,用于丢弃失效前开始查询的结果 */
+	private long generation;
+	/** 最后一次使所有缓存失效时的版本 */
+	private long clearedGeneration;
+	/** 当前缓存的结果占用的字节数,估算值 */
+	private long bytes;
+	/** 命中次数 */
+	private long hits;
+	/** 未命中次数 */
+	private long misses;
+	/** 因超出最大数量或字节数被移除的次数 */
+	private long evictions;
+	/** 因表的数据修改被移除的结果数量 */
+	private long invalidations;
+
+	/**
+	 * 初始化
+	 *
+	 * @param ttl
+	 *          缓存的有效期,单位毫秒
+	 * @param maxSize
+	 *          最多缓存多少个结果
+	 * @param maxBytes
+	 *          缓存的结果最多占用多少字节,按数据的大小估算
+	 */
+	public SqlResultCache(long ttl, int maxSize, long maxBytes) {
+		super();
+		if (ttl <= 0 || maxSize <= 0 || maxBytes <= 0) {
+			throw new IllegalArgumentException("The ttl, maxSize and maxBytes must be greater than 0");
+		}
+		this.ttl = ttl;
+		this.maxSize = maxSize;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * 获取缓存的key
+	 *
+	 * @param qp
+	 *          查询的SQL语句与参数
+	 * @return
+	 */
+	public static String key(SqlAndParams qp) {
+		return SqlCountCache.key(qp);
+	}
+
+	/**
+	 * 获取查询涉及的表名
+	 *
+	 * @param tableName
+	 *          实体类的表名
+	 * @param joinOrReference
+	 *          连接语句,比如inner join classes t2 on ...或, classes t2,可以为null
+	 * @return
+	 */
+	public static Set<String> tags(String tableName, String joinOrReference) {
+		Set<String> tags = new LinkedHashSet<>();
+		if (tableName != null) {
+			tags.add(tag(tableName));
+		}
+		if (joinOrReference != null) {
+			Matcher matcher = TABLE_PATTERN.matcher(joinOrReference);
+			while (matcher.find()) {
+				tags.add(tag(matcher.group(1)));
+			}
+		}
+		return tags;
+	}
+
+	/**
+	 * 获取表名的标记,去掉引号与库名并转换为小写
+	 *
+	 * @param tableName
+	 * @return
+	 */
+	public static String tag(String tableName) {
+		String name = tableName.replaceAll("[`\"\\[\\]]", "").trim();
+		int index = name.lastIndexOf('.');
+		return (index >= 0 ? name.substring(index + 1) : name).toLowerCase();
+	}
+
+	/**
+	 * 获取缓存的结果
+	 *
+	 * @param key
+	 * @return 不存在或已过期时返回null,存在时返回结果的副本
+	 */
+	public synchronized List<JsonObject> get(String key) {
+		Entry entry = cache.get(key);
+		if (entry != null && entry.expireAt > System.currentTimeMillis()) {
+			hits++;
+			return copy(entry.rows);
+		}
+		if (entry != null) {
+			remove(key);
+		}
+		misses++;
+		return null;
+	}
+
+	/**
+	 * 获取缓存当前的版本,查询前获取,查询完成后通过{@link #put(String, List, Set, long)}写入缓存
+	 *
+	 * @return
+	 */
+	public synchronized long generation() {
+		return generation;
+	}
+
+	/**
+	 * 添加缓存,如果查询期间涉及的表已经失效则不添加
+	 *
+	 * @param key
+	 * @param rows
+	 *          查询的结果,没有数据时为空List
+	 * @param tags
+	 *          涉及的表名,通过{@link #tags(String, String)}获取
+	 * @param generation
+	 *          查询前通过{@link #generation()}获取的版本
+	 */
+	public synchronized void put(String key, List<JsonObject> rows, Set<String> tags, long generation) {
+		if (clearedGeneration > generation) {
+			return;
+		}
+		for (String tag : tags) {
+			if (tagGenerations.getOrDefault(tag, 0L) > generation) {
+				return;
+			}
+		}
+		long size = 64 + key.length() * 2L;
+		for (JsonObject row : rows) {
+			size += estimate(row);
+		}
+		if (size > maxBytes) {
+			return;
+		}
+		remove(key);
+		cache.put(key, new Entry(copy(rows), new HashSet<>(tags), size, System.currentTimeMillis() + ttl));
+		bytes += size;
+		for (String tag : tags) {
+			tagKeys.computeIfAbsent(tag, k -> new HashSet<>()).add(key);
+		}
+		Iterator<Map.Entry<String, Entry>> iter = cache.entrySet().iterator();
+		while ((cache.size() > maxSize || bytes > maxBytes) && iter.hasNext()) {
+			Map.Entry<String, Entry> eldest = iter.next();
+			iter.remove();
+			unlink(eldest.getKey(), eldest.getValue());
+			evictions++;
+		}
+	}
+
+	/**
+	 * 使标记了指定表的结果失效
+	 *
+	 * @param tableName
+	 *          表名
+	 */
+	public synchronized void invalidate(String tableName) {
+		String tag = tag(tableName);
+		generation++;
+		tagGenerations.put(tag, generation);
+		Set<String> keys = tagKeys.remove(tag);
+		if (keys != null) {
+			for (String key : new ArrayList<>(keys)) {
+				if (remove(key)) {
+					invalidations++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 使所有缓存失效
+	 */
+	public synchronized void invalidateAll() {
+		generation++;
+		clearedGeneration = generation;
+		invalidations += cache.size();
+		cache.clear();
+		tagKeys.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * 获取当前缓存的数量
+	 *
+	 * @return
+	 */
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	/**
+	 * 获取当前缓存的结果占用的字节数,估算值
+	 *
+	 * @return
+	 */
+	public synchronized long bytes() {
+		return bytes;
+	}
+
+	/**
+	 * 获取命中次数
+	 *
+	 * @return
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * 获取未命中次数
+	 *
+	 * @return
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * 获取因超出最大数量或字节数被移除的次数
+	 *
+	 * @return
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * 获取因表的数据修改被移除的结果数量
+	 *
+	 * @return
+	 */
+	public synchronized long getInvalidations() {
+		return invalidations;
+	}
+
+	/**
+	 * 获取统计信息,格式:{"size":数量,"bytes":字节数,"hits":命中次数,"misses":未命中次数,"evictions":移除次数,"invalidations":失效数量}
+	 *
+	 * @return
+	 */
+	public synchronized JsonObject stats() {
+		return new JsonObject().put("size", cache.size()).put("bytes", bytes).put("hits", hits).put("misses", misses)
+				.put("evictions", evictions).put("invalidations", invalidations);
+	}
+
+	/**
+	 * 移除缓存
+	 *
+	 * @param key
+	 * @return 是否存在
+	 */
+	private boolean remove(String key) {
+		Entry entry = cache.remove(key);
+		if (entry == null) {
+			return false;
+		}
+		unlink(key, entry);
+		return true;
+	}
+
+	/**
+	 * 移除缓存的标记并减去占用的字节数
+	 *
+	 * @param key
+	 * @param entry
+	 */
+	private void unlink(String key, Entry entry) {
+		bytes -= entry.bytes;
+		for (String tag : entry.tags) {
+			Set<String> keys = tagKeys.get(tag);
+			if (keys != null) {
+				keys.remove(key);
+				if (keys.isEmpty()) {
+					tagKeys.remove(tag);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 复制结果,不支持复制的值(比如时间类型)直接引用
+	 *
+	 * @param rows
+	 * @return
+	 */
+	private static List<JsonObject> copy(List<JsonObject> rows) {
+		List<JsonObject> result = new ArrayList<>(rows.size());
+		for (JsonObject row : rows) {
+			result.add(row == null ? null : row.copy(value -> value));
+		}
+		return result;
+	}
+
+	/**
+	 * 估算值占用的字节数
+	 *
+	 * @param value
+	 * @return
+	 */
+	private static long estimate(Object value) {
+		if (value == null) {
+			return 8;
+		}
+		if (value instanceof CharSequence) {
+			return 40 + ((CharSequence) value).length() * 2L;
+		}
+		if (value instanceof JsonObject) {
+			long size = 48;
+			for (Map.Entry<String, Object> entry : (JsonObject) value) {
+				size += 32 + estimate(entry.getKey()) + estimate(entry.getValue());
+			}
+			return size;
+		}
+		if (value instanceof JsonArray) {
+			long size = 40;
+			for (Object item : (JsonArray) value) {
+				size += 8 + estimate(item);
+			}
+			return size;
+		}
+		return 24;
+	}
+
+	@Override
+	public String toString() {
+		return "SqlResultCache [ttl=" + ttl + ", maxSize=" + maxSize + ", maxBytes=" + maxBytes + ", stats=" + stats() + "]";
+	}
+
+	/**
+	 * 缓存的结果
+	 *
+	 * @author <a href="https://mirrentools.org/">Mirren</a>
+	 *
+	 */
+	private static class Entry {
+		/** 结果 */
+		private final List<JsonObject> rows;
+		/** 涉及的表名 */
+		private final Set<String> tags;
+		/** 占用的字节数 */
+		private final long bytes;
+		/** 过期的时间 */
+		private final long expireAt;
+
+		public Entry(List<JsonObject> rows, Set<String> tags, long bytes, long expireAt) {
+			super();
+			this.rows = Collections.unmodifiableList(rows);
+			this.tags = tags;
+			this.bytes = bytes;
+			this.expireAt = expireAt;
+		}
+	}
+
+}
@@ -0,0 +1,14 @@
+package io.vertx.ext.sql.assist;
+
+/**
+ * 紧凑结果的格式,见{@link SqlColumnarResult}
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ */
+public enum SqlResultFormat {
+	/** 列名数组加每行一个数组,格式:{"columns":[列名],"rows":[[行的值]]} */
+	ROWS,
+	/** 列名数组加每列一个数组,格式:{"columns":[列名],"values":[[列的值]]} */
+	COLUMNS;
+}
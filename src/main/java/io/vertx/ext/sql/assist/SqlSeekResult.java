@@ -0,0 +1,117 @@
+package io.vertx.ext.sql.assist;
+
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+
+import io.vertx.sqlclient.Row;
+
+/**
+ * 游标分页的查询结果,包含下游收集器的结果与通过最后一行{@link Row}创建的游标<br>
+ * 游标直接读取数据行的值,时间与numeric等类型不经过JSON转换,通过{@link #collector(SqlAssist, Collector)}在解码时创建
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ * @param <R>
+ *          下游收集器的结果
+ */
+public class SqlSeekResult<R> {
+	/**
+	 * 获取收集游标分页结果的收集器,行数不小于assist的rowSize时(没有设置rowSize时有数据即可)通过最后一行创建游标
+	 *
+	 * @param assist
+	 *          查询工具,需要设置游标分页的列
+	 * @param downstream
+	 *          数据的收集器
+	 * @return
+	 */
+	public static <A, R> Collector<Row, ?, SqlSeekResult<R>> collector(SqlAssist assist, Collector<Row, A, R> downstream) {
+		BiConsumer<A, Row> accumulator = downstream.accumulator();
+		Integer rowSize = assist.getRowSize();
+		return Collector.<Row, Container<A>, SqlSeekResult<R>>of(() -> new Container<>(downstream.supplier().get()), (c, row) -> {
+			accumulator.accept(c.value, row);
+			c.last = row;
+			c.size++;
+		}, (a, b) -> {
+			throw new UnsupportedOperationException("SqlSeekResult does not support parallel collection");
+		}, c -> {
+			String cursor = (c.size > 0 && (rowSize == null || c.size >= rowSize)) ? assist.createSeekCursor(c.last) : null;
+			return new SqlSeekResult<>(downstream.finisher().apply(c.value), c.size, cursor);
+		});
+	}
+
+	/** 下游收集器的结果 */
+	private final R data;
+	/** 数据的行数 */
+	private final int size;
+	/** 下一页的游标 */
+	private final String cursor;
+
+	/**
+	 * 初始化
+	 *
+	 * @param data
+	 *          下游收集器的结果
+	 * @param size
+	 *          数据的行数
+	 * @param cursor
+	 *          下一页的游标
+	 */
+	public SqlSeekResult(R data, int size, String cursor) {
+		super();
+		this.data = data;
+		this.size = size;
+		this.cursor = cursor;
+	}
+
+	/**
+	 * 获取下游收集器的结果
+	 *
+	 * @return
+	 */
+	public R getData() {
+		return data;
+	}
+
+	/**
+	 * 获取数据的行数
+	 *
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 获取下一页的游标
+	 *
+	 * @return 行数小于rowSize或数据中不存在游标分页列的值时返回null
+	 */
+	public String getCursor() {
+		return cursor;
+	}
+
+	@Override
+	public String toString() {
+		return "SqlSeekResult [size=" + size + ", cursor=" + cursor + "]";
+	}
+
+	/**
+	 * 收集的中间结果
+	 *
+	 * @param <A>
+	 */
+	private static class Container<A> {
+		/** 下游收集器的中间结果 */
+		private final A value;
+		/** 最后一行 */
+		private Row last;
+		/** 行数 */
+		private int size;
+
+		public Container(A value) {
+			super();
+			this.value = value;
+		}
+	}
+
+}
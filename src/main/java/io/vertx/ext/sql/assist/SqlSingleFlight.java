@@ -0,0 +1,198 @@
+package io.vertx.ext.sql.assist;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * 合并相同的并发查询,SQL语句与参数相同的查询正在执行时,后来的调用者等待同一个查询的结果而不再执行查询<br>
+ * 只用于查询,查询完成后立即移除,不缓存结果;等待的调用者获得结果的副本,线程安全<br>
+ * 每个调用者的结果在其调用时所在的Context中返回,不同Verticle或EventLoop的调用者不会在别人的线程中收到结果
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ */
+public class SqlSingleFlight {
+	/** 正在执行的查询,key为查询的类型与SQL语句及参数 */
+	private final Map<String, List<Waiter>> flights = new HashMap<>();
+	/** 实际执行的查询次数 */
+	private long executions;
+	/** 合并到正在执行的查询的次数 */
+	private long coalesced;
+
+	/**
+	 * 获取查询的key
+	 *
+	 * @param type
+	 *          查询的类型,不同类型的结果不能共用,比如obj与list
+	 * @param qp
+	 *          查询的SQL语句与参数
+	 * @return
+	 */
+	public static String key(String type, SqlAndParams qp) {
+		return type + "\n" + SqlCountCache.key(qp);
+	}
+
+	/**
+	 * 执行查询,相同key的查询正在执行时等待该查询的结果
+	 *
+	 * @param key
+	 *          通过{@link #key(String, SqlAndParams)}获取
+	 * @param query
+	 *          执行查询
+	 * @param share
+	 *          复制结果给等待的调用者,结果为null时不调用
+	 * @param handler
+	 *          返回结果
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> void execute(String key, Handler<Handler<AsyncResult<R>>> query, UnaryOperator<R> share,
+			Handler<AsyncResult<R>> handler) {
+		Context context = Vertx.currentContext();
+		synchronized (this) {
+			List<Waiter> waiters = flights.get(key);
+			if (waiters != null) {
+				coalesced++;
+				waiters.add(new Waiter(context, (Handler<AsyncResult<Object>>) (Handler<?>) handler));
+				return;
+			}
+			flights.put(key, new ArrayList<>());
+			executions++;
+		}
+		query.handle(res -> complete(key, res, share, context, handler));
+	}
+
+	/**
+	 * 查询完成,移除正在执行的查询并通知所有调用者
+	 *
+	 * @param key
+	 * @param res
+	 * @param share
+	 * @param context
+	 *          执行查询的调用者所在的Context
+	 * @param handler
+	 */
+	private <R> void complete(String key, AsyncResult<R> res, UnaryOperator<R> share, Context context,
+			Handler<AsyncResult<R>> handler) {
+		List<Waiter> waiters;
+		synchronized (this) {
+			waiters = flights.remove(key);
+		}
+		if (waiters != null) {
+			for (Waiter waiter : waiters) {
+				if (res.succeeded()) {
+					Object result = res.result() == null ? null : share.apply(res.result());
+					deliver(waiter.context, waiter.handler, Future.succeededFuture(result));
+				} else {
+					deliver(waiter.context, waiter.handler, Future.failedFuture(res.cause()));
+				}
+			}
+		}
+		deliver(context, handler, res);
+	}
+
+	/**
+	 * 在调用者所在的Context中返回结果,调用者不在Context中或已在该Context中时直接返回
+	 *
+	 * @param context
+	 * @param handler
+	 * @param res
+	 */
+	private static <R> void deliver(Context context, Handler<AsyncResult<R>> handler, AsyncResult<R> res) {
+		if (context == null || context == Vertx.currentContext()) {
+			handler.handle(res);
+		} else {
+			context.runOnContext(v -> handler.handle(res));
+		}
+	}
+
+	/**
+	 * 复制一行数据,不支持复制的值(比如时间类型)直接引用
+	 *
+	 * @param row
+	 * @return
+	 */
+	public static JsonObject copy(JsonObject row) {
+		return row.copy(value -> value);
+	}
+
+	/**
+	 * 复制多行数据,不支持复制的值(比如时间类型)直接引用
+	 *
+	 * @param rows
+	 * @return
+	 */
+	public static List<JsonObject> copy(List<JsonObject> rows) {
+		List<JsonObject> result = new ArrayList<>(rows.size());
+		for (JsonObject row : rows) {
+			result.add(row == null ? null : copy(row));
+		}
+		return result;
+	}
+
+	/**
+	 * 获取正在执行的查询数量
+	 *
+	 * @return
+	 */
+	public synchronized int inFlight() {
+		return flights.size();
+	}
+
+	/**
+	 * 获取实际执行的查询次数
+	 *
+	 * @return
+	 */
+	public synchronized long getExecutions() {
+		return executions;
+	}
+
+	/**
+	 * 获取合并到正在执行的查询的次数
+	 *
+	 * @return
+	 */
+	public synchronized long getCoalesced() {
+		return coalesced;
+	}
+
+	/**
+	 * 获取统计信息,格式:{"inFlight":正在执行的数量,"executions":执行次数,"coalesced":合并次数}
+	 *
+	 * @return
+	 */
+	public synchronized JsonObject stats() {
+		return new JsonObject().put("inFlight", flights.size()).put("executions", executions).put("coalesced", coalesced);
+	}
+
+	/**
+	 * 等待结果的调用者
+	 */
+	private static class Waiter {
+		/** 调用者所在的Context,不在Context中调用时为null */
+		private final Context context;
+		/** 返回结果 */
+		private final Handler<AsyncResult<Object>> handler;
+
+		private Waiter(Context context, Handler<AsyncResult<Object>> handler) {
+			this.context = context;
+			this.handler = handler;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SqlSingleFlight [stats=" + stats() + "]";
+	}
+
+}
@@ -0,0 +1,84 @@
+package io.vertx.ext.sql.assist;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.vertx.sqlclient.SqlConnection;
+
+/**
+ * 事务中的操作,通过{@link #of(CommonSQL)}获取的对象所有语句都使用事务绑定的同一个连接<br>
+ * 事务中不使用查询缓存与批量加载,事务结束(提交或回滚)后使涉及的对象的缓存失效
+ *
+ * @author <a href="https://mirrentools.org/">Mirren</a>
+ *
+ * @param <C>
+ *          SQL执行器的客户端类型,比如JDBCPool
+ */
+public class SqlTransaction<C> {
+	/** 绑定连接的执行器 */
+	private final SQLExecuteImplConnection<C> execute;
+	/** 原对象与绑定连接的对象 */
+	private final Map<CommonSQL<?, C>, CommonSQL<?, C>> bound = new IdentityHashMap<>();
+
+	/**
+	 * 初始化
+	 *
+	 * @param execute
+	 *          绑定连接的执行器
+	 */
+	public SqlTransaction(SQLExecuteImplConnection<C> execute) {
+		super();
+		this.execute = execute;
+	}
+
+	/**
+	 * 获取在事务中执行的对象,同一个对象多次获取返回同一个结果
+	 *
+	 * @param sql
+	 *          需要与事务使用同一个客户端
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <E> CommonSQL<E, C> of(CommonSQL<E, C> sql) {
+		CommonSQL<?, C> result = bound.get(sql);
+		if (result == null) {
+			result = sql.bind(execute);
+			bound.put(sql, result);
+		}
+		return (CommonSQL<E, C>) result;
+	}
+
+	/**
+	 * 获取绑定连接的执行器,用于执行自定义的SQL语句
+	 *
+	 * @return
+	 */
+	public SQLExecute<C> getExecute() {
+		return execute;
+	}
+
+	/**
+	 * 获取事务绑定的连接
+	 *
+	 * @return
+	 */
+	public SqlConnection getConnection() {
+		return execute.getConnection();
+	}
+
+	/**
+	 * 事务结束,使涉及的对象的缓存失效
+	 */
+	void completed() {
+		List<CommonSQL<?, C>> sources;
+		synchronized (this) {
+			sources = new ArrayList<>(bound.keySet());
+		}
+		for (CommonSQL<?, C> sql : sources) {
+			sql.invalidateCache();
+		}
+	}
+
+}
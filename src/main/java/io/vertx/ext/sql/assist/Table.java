@@ -14,4 +14,25 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Table {
 	String value();
+
+	/**
+	 * 按主键缓存的实体数据最多缓存多少条,大于0时开启{@link SqlEntityCache},默认不开启
+	 * 
+	 * @return
+	 */
+	int cacheSize() default 0;
+
+	/**
+	 * 实体缓存的有效期,单位毫秒,小于等于0时不过期
+	 * 
+	 * @return
+	 */
+	long cacheTtl() default 0;
+
+	/**
+	 * 实体缓存是否缓存不存在的主键
+	 * 
+	 * @return
+	 */
+	boolean cacheMisses() default false;
 }
@@ -0,0 +1,314 @@
+package io.vertx.ext.sql.assist.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import io.vertx.ext.sql.assist.Table;
+import io.vertx.ext.sql.assist.TableColumn;
+import io.vertx.ext.sql.assist.TableId;
+
+/**
+ * 编译期注解处理器,读取{@link Table} {@link TableId} {@link TableColumn}注解,为每个实体类生成不需要反射的代码:<br>
+ * 1. 实体类名+StatementSQL: 包含实体类的元数据META与各个数据库的SQLStatement实现,比如StudentStatementSQL.PostgreSQL<br>
+ * 2. 实体类名+RowMapper: 将数据行转换为实体类<br>
+ * 处理器默认不启用,需要在编译参数中添加 -processor io.vertx.ext.sql.assist.processor.SQLStatementProcessor
+ *
+ * @author <a href="http://mirrentools.org">Mirren</a>
+ *
+ */
+public class SQLStatementProcessor extends AbstractProcessor {
+	/** 生成的数据库实现类名称与父类 */
+	private static final String[][] DIALECTS = {{"MySQL", "MySQLStatementSQL"}, {"PostgreSQL", "PostgreSQLStatementSQL"},
+			{"Oracle", "OracleStatementSQL"}, {"DB2", "DB2StatementSQL"}, {"SqlServer", "SqlServerStatementSQL"},
+			{"SQLite", "SQLiteStatementSQL"}};
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(Table.class.getName());
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getElementsAnnotatedWith(Table.class)) {
+			if (element.getKind() != ElementKind.CLASS) {
+				continue;
+			}
+			TypeElement type = (TypeElement) element;
+			if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+				warn(type, "inner class is not supported, skip generate SQLStatement");
+				continue;
+			}
+			List<Property> props = properties(type);
+			if (props == null) {
+				continue;
+			}
+			try {
+				writeStatement(type, props);
+				writeRowMapper(type, props);
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "generate SQLStatement failed: " + e.getMessage(), type);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 获取实体类需要处理的属性,按声明顺序排列,与{@link io.vertx.ext.sql.assist.SqlEntityMeta}反射解析的顺序一致
+	 *
+	 * @param type
+	 * @return 存在无法访问的属性时返回null
+	 */
+	private List<Property> properties(TypeElement type) {
+		List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+		List<Property> result = new ArrayList<>();
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			TableId tableId = field.getAnnotation(TableId.class);
+			TableColumn tableCol = field.getAnnotation(TableColumn.class);
+			if (tableId == null && tableCol == null) {
+				continue;
+			}
+			Property prop = new Property();
+			prop.id = tableId != null;
+			prop.column = tableId != null ? tableId.value() : tableCol.value();
+			prop.alias = tableId != null ? tableId.alias() : tableCol.alias();
+			prop.field = field.getSimpleName().toString();
+			prop.type = field.asType();
+			prop.directAccess = !field.getModifiers().contains(Modifier.PRIVATE);
+			prop.getter = findGetter(methods, prop);
+			prop.setter = findSetter(methods, prop);
+			if (prop.getter == null && !prop.directAccess) {
+				warn(field, "no accessible getter for field " + prop.field + ", skip generate SQLStatement");
+				return null;
+			}
+			result.add(prop);
+		}
+		return result;
+	}
+
+	private String findGetter(List<ExecutableElement> methods, Property prop) {
+		String suffix = capitalize(prop.field);
+		for (ExecutableElement method : methods) {
+			String name = method.getSimpleName().toString();
+			if (!method.getParameters().isEmpty() || method.getModifiers().contains(Modifier.PRIVATE)
+					|| method.getModifiers().contains(Modifier.STATIC)) {
+				continue;
+			}
+			if (name.equals("get" + suffix) || (name.equals("is" + suffix) && prop.type.getKind() == TypeKind.BOOLEAN)) {
+				return name;
+			}
+		}
+		return null;
+	}
+
+	private String findSetter(List<ExecutableElement> methods, Property prop) {
+		String name = "set" + capitalize(prop.field);
+		for (ExecutableElement method : methods) {
+			if (method.getSimpleName().contentEquals(name) && method.getParameters().size() == 1
+					&& !method.getModifiers().contains(Modifier.PRIVATE) && !method.getModifiers().contains(Modifier.STATIC)
+					&& processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), prop.type)) {
+				return name;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 生成元数据与各个数据库的SQLStatement实现
+	 *
+	 * @param type
+	 * @param props
+	 * @throws IOException
+	 */
+	private void writeStatement(TypeElement type, List<Property> props) throws IOException {
+		String pkg = packageName(type);
+		String entity = type.getQualifiedName().toString();
+		String name = generatedName(type) + "StatementSQL";
+		Table table = type.getAnnotation(Table.class);
+		StringBuilder code = new StringBuilder();
+		header(code, pkg);
+		code.append("import io.vertx.ext.sql.assist.SqlEntityMeta;\n\n");
+		code.append("/**\n * " + entity + "的SQLStatement实现,由SQLStatementProcessor生成,请勿修改\n */\n");
+		code.append("public final class " + name + " {\n");
+		code.append("\t/** 实体类的元数据 */\n");
+		code.append("\tpublic static final SqlEntityMeta META = SqlEntityMeta.builder(" + entity + ".class)\n");
+		code.append("\t\t\t.table(" + literal(table.value().isEmpty() ? null : table.value()) + ")\n");
+		for (Property prop : props) {
+			String getter = prop.getter != null ? prop.getter + "()" : prop.field;
+			code.append("\t\t\t." + (prop.id ? "id" : "column") + "(" + literal(prop.column) + ", " + literal(prop.alias) + ", "
+					+ erasure(prop.type) + ".class, obj -> ((" + entity + ") obj)." + getter + ")\n");
+		}
+		code.append("\t\t\t.build();\n\n");
+		code.append("\tstatic {\n\t\tSqlEntityMeta.register(META);\n\t}\n\n");
+		code.append("\tprivate " + name + "() {\n\t}\n");
+		for (String[] dialect : DIALECTS) {
+			code.append("\n\tpublic static class " + dialect[0] + " extends io.vertx.ext.sql.assist.sql." + dialect[1] + " {\n");
+			code.append("\t\tpublic " + dialect[0] + "() {\n\t\t\tsuper(META);\n\t\t}\n\t}\n");
+		}
+		code.append("}\n");
+		write(type, pkg, name, code);
+	}
+
+	/**
+	 * 生成数据行转换为实体类的RowMapper,实体类没有可访问的无参构造器或属性无法赋值时不生成
+	 *
+	 * @param type
+	 * @param props
+	 * @throws IOException
+	 */
+	private void writeRowMapper(TypeElement type, List<Property> props) throws IOException {
+		if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+			return;
+		}
+		boolean constructor = false;
+		for (ExecutableElement method : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+			if (method.getParameters().isEmpty() && !method.getModifiers().contains(Modifier.PRIVATE)) {
+				constructor = true;
+			}
+		}
+		if (!constructor) {
+			warn(type, "no accessible no-arg constructor, skip generate RowMapper");
+			return;
+		}
+		for (Property prop : props) {
+			if (!prop.column.isEmpty() && prop.setter == null && !prop.directAccess) {
+				warn(type, "no accessible setter for field " + prop.field + ", skip generate RowMapper");
+				return;
+			}
+		}
+		String pkg = packageName(type);
+		String entity = type.getQualifiedName().toString();
+		String name = generatedName(type) + "RowMapper";
+		StringBuilder code = new StringBuilder();
+		header(code, pkg);
+		code.append("import io.vertx.ext.sql.assist.RowMapper;\nimport io.vertx.sqlclient.Row;\n\n");
+		code.append("/**\n * 将数据行转换为" + entity + ",由SQLStatementProcessor生成,请勿修改\n */\n");
+		code.append("public final class " + name + " implements RowMapper<" + entity + "> {\n");
+		code.append("\tpublic static final " + name + " INSTANCE = new " + name + "();\n\n");
+		code.append("\t@Override\n\t@SuppressWarnings(\"unchecked\")\n\tpublic " + entity + " map(Row row) {\n");
+		code.append("\t\t" + entity + " result = new " + entity + "();\n");
+		code.append("\t\tint index;\n");
+		for (Property prop : props) {
+			if (prop.column.isEmpty()) {
+				continue;
+			}
+			String label = prop.alias.isEmpty() ? prop.column : prop.alias;
+			String value = "RowMapper.getValue(row, index, " + erasure(prop.type) + ".class)";
+			if (!prop.type.getKind().isPrimitive() && !erasure(prop.type).equals(prop.type.toString())) {
+				value = "(" + prop.type + ") " + value;
+			}
+			code.append("\t\tif ((index = row.getColumnIndex(" + literal(label) + ")) >= 0 && row.getValue(index) != null) {\n");
+			if (prop.setter != null) {
+				code.append("\t\t\tresult." + prop.setter + "(" + value + ");\n");
+			} else {
+				code.append("\t\t\tresult." + prop.field + " = " + value + ";\n");
+			}
+			code.append("\t\t}\n");
+		}
+		code.append("\t\treturn result;\n\t}\n}\n");
+		write(type, pkg, name, code);
+	}
+
+	private void header(StringBuilder code, String pkg) {
+		if (!pkg.isEmpty()) {
+			code.append("package " + pkg + ";\n\n");
+		}
+	}
+
+	private void write(TypeElement type, String pkg, String name, StringBuilder code) throws IOException {
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(pkg.isEmpty() ? name : pkg + "." + name, type);
+		try (Writer writer = file.openWriter()) {
+			writer.write(code.toString());
+		}
+	}
+
+	private String packageName(TypeElement type) {
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+		return pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+	}
+
+	/**
+	 * 生成类的名称,嵌套类使用外部类名称_类名称
+	 *
+	 * @param type
+	 * @return
+	 */
+	private String generatedName(TypeElement type) {
+		String name = type.getSimpleName().toString();
+		Element parent = type.getEnclosingElement();
+		while (parent instanceof TypeElement) {
+			name = parent.getSimpleName() + "_" + name;
+			parent = parent.getEnclosingElement();
+		}
+		return name;
+	}
+
+	private String erasure(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	private String capitalize(String name) {
+		return name.substring(0, 1).toUpperCase() + name.substring(1);
+	}
+
+	private String literal(String value) {
+		if (value == null) {
+			return "null";
+		}
+		return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	private void warn(Element element, String msg) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, msg, element);
+	}
+
+	/**
+	 * 实体类的属性
+	 *
+	 * @author <a href="http://mirrentools.org">Mirren</a>
+	 *
+	 */
+	private static class Property {
+		/** 是否为主键 */
+		boolean id;
+		/** 列名 */
+		String column;
+		/** 别名 */
+		String alias;
+		/** 属性名 */
+		String field;
+		/** 属性类型 */
+		TypeMirror type;
+		/** 属性是否可以直接访问 */
+		boolean directAccess;
+		/** get方法名称 */
+		String getter;
+		/** set方法名称 */
+		String setter;
+	}
+}
@@ -1,19 +1,23 @@
 package io.vertx.ext.sql.assist.sql;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.ext.sql.assist.SQLStatement;
 import io.vertx.ext.sql.assist.SqlAndParams;
 import io.vertx.ext.sql.assist.SqlAssist;
+import io.vertx.ext.sql.assist.SqlEntityMeta;
 import io.vertx.ext.sql.assist.SqlPropertyValue;
 import io.vertx.ext.sql.assist.SqlWhereCondition;
-import io.vertx.ext.sql.assist.Table;
-import io.vertx.ext.sql.assist.TableColumn;
-import io.vertx.ext.sql.assist.TableId;
 import io.vertx.sqlclient.Tuple;
 
 /**
@@ -32,62 +36,171 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 	private String sqlPrimaryId;
 	/** 返回列 */
 	private String sqlResultColumns;
+	/** SQL语句模板缓存的最大数量 */
+	private static final int SQL_CACHE_MAX_SIZE = 1024;
+	/** 实体类的类型 */
+	private Class<?> entityClass;
+	/** 实体类的元数据 */
+	private SqlEntityMeta entityMeta;
+	/** 子类是否重写了{@link #getPropertyValue(Object)},重写时列与值通过该方法获取 */
+	private boolean propertyValueOverridden;
+	/** 查询全部数据的SQL语句模板 */
+	private String sqlSelectAll;
+	/** 通过主键查询的SQL语句模板(默认返回列,无别名与连接语句) */
+	private String sqlSelectById;
+	/** 新增全部属性的SQL语句模板 */
+	private String sqlInsertAll;
+	/** 通过主键更新全部属性的SQL语句模板 */
+	private String sqlUpdateAllById;
+	/** 通过主键删除的SQL语句模板 */
+	private String sqlDeleteById;
+	/** 查询语句前缀的缓存,key为返回列+表别名+连接语句 */
+	private final Map<String, String> selectFromCache = new ConcurrentHashMap<>();
+	/** 通过主键查询的SQL语句缓存,key为返回列+表别名+连接语句 */
+	private final Map<String, String> selectByIdCache = new ConcurrentHashMap<>();
+	/** 多个主键查询的in条件缓存,key为参数的数量 */
+	private final Map<Integer, String> inPlaceholderCache = new ConcurrentHashMap<>();
 
 	public AbstractStatementSQL(Class<?> entity) {
+		this(SqlEntityMeta.of(entity));
+	}
+
+	/**
+	 * 通过实体类的元数据创建,元数据可以由{@link SqlEntityMeta#builder(Class)}或者编译期生成的代码提供,不需要反射
+	 *
+	 * @param meta
+	 *          实体类的元数据
+	 */
+	public AbstractStatementSQL(SqlEntityMeta meta) {
 		super();
+		this.entityClass = meta.getEntityClass();
+		this.entityMeta = meta;
+		try {
+			this.propertyValueOverridden = getClass().getMethod("getPropertyValue", Object.class)
+					.getDeclaringClass() != AbstractStatementSQL.class;
+		} catch (NoSuchMethodException e) {
+			this.propertyValueOverridden = false;
+		}
+		Class<?> entity = entityClass;
 		if (tableName() == null) {
-			Table table = entity.getAnnotation(Table.class);
-			if (table == null || table.value().isEmpty()) {
+			if (entityMeta.getTableName() == null) {
 				throw new NullPointerException(entity.getName() + " no Table annotation ,you need to set @Table on the class");
 			}
-			this.sqlTableName = table.value();
+			this.sqlTableName = entityMeta.getTableName();
 		}
 		if (primaryId() == null || resultColumns() == null) {
-			boolean hasId = false;
-			boolean hasCol = false;
-			Field[] fields = entity.getDeclaredFields();
-			StringBuilder column = new StringBuilder();
-			for (Field field : fields) {
-				field.setAccessible(true);
-				TableId tableId = field.getAnnotation(TableId.class);
-				TableColumn tableCol = field.getAnnotation(TableColumn.class);
-				if (tableId == null && tableCol == null) {
+			if (entityMeta.getPrimaryId() == null) {
+				throw new NullPointerException(entity.getName() + " no TableId annotation ,you need to set @TableId on the field");
+			}
+			this.sqlPrimaryId = entityMeta.getPrimaryId();
+			this.sqlResultColumns = entityMeta.getResultColumns();
+		}
+		initTemplateSQL();
+	}
+
+	/**
+	 * 初始化固定格式的SQL语句模板,实体类的表名,主键与列在创建后不会再改变,所以这些语句只需要生成一次
+	 */
+	private void initTemplateSQL() {
+		this.sqlSelectAll = String.format("select %s from %s ", resultColumns(), tableName());
+		this.sqlSelectById = createSelectByIdSQL(null, null, null);
+		List<String> columns = new ArrayList<>();
+		for (int i = 0; i < entityMeta.size(); i++) {
+			columns.add(entityMeta.getColumn(i));
+		}
+		if (!columns.isEmpty()) {
+			StringBuilder tempColumn = new StringBuilder(columns.get(0));
+			StringBuilder tempValues = new StringBuilder("?");
+			StringBuilder tempSet = null;
+			for (int i = 1; i < columns.size(); i++) {
+				tempColumn.append("," + columns.get(i));
+				tempValues.append(",?");
+			}
+			for (String col : columns) {
+				if (col.equals(primaryId())) {
 					continue;
 				}
-				if (tableId != null) {
-					if (tableId.value() == null || tableId.value().isEmpty()) {
-						continue;
-					}
-					if (this.sqlPrimaryId != null) {
-						this.sqlPrimaryId += tableId.value();
-					} else {
-						this.sqlPrimaryId = tableId.value();
-					}
-					hasId = true;
-					column.append("," + tableId.value());
-					if (tableId.alias() != null && !tableId.alias().isEmpty()) {
-						column.append(" AS \"" + tableId.alias() + "\"");
-					}
+				if (tempSet == null) {
+					tempSet = new StringBuilder(col + " = ? ");
 				} else {
-					if (tableCol == null) {
-						continue;
-					}
-					column.append("," + tableCol.value());
-					if (tableCol.alias() != null && !tableCol.alias().isEmpty()) {
-						column.append(" AS \"" + tableCol.alias() + "\"");
-					}
-					hasCol = true;
+					tempSet.append(", " + col + " = ? ");
 				}
 			}
-			if (!hasId) {
-				throw new NullPointerException(entity.getName() + " no TableId annotation ,you need to set @TableId on the field");
-			}
-			if (!hasCol && !hasId) {
-				throw new NullPointerException(entity.getName() + " no TableColumn annotation ,you need to set @TableColumn on the field");
+			this.sqlInsertAll = String.format("insert into %s (%s) values (%s) ", tableName(), tempColumn, tempValues);
+			if (primaryId() != null) {
+				this.sqlUpdateAllById = String.format("update %s set %s where %s = ? ", tableName(), tempSet, primaryId());
 			}
-			this.sqlResultColumns = column.substring(1);
 		}
+		if (primaryId() != null) {
+			this.sqlDeleteById = String.format("delete from %s where %s = ? ", tableName(), primaryId());
+		}
+	}
+
+	/**
+	 * 获取缓存的key
+	 * 
+	 * @param resultColumns
+	 * @param tableAlias
+	 * @param joinOrReference
+	 * @return
+	 */
+	private String templateCacheKey(String resultColumns, String tableAlias, String joinOrReference) {
+		return resultColumns + '\u0001' + tableAlias + '\u0001' + joinOrReference;
+	}
+
+	/**
+	 * 将SQL语句添加到缓存,超过缓存的最大数量时不再缓存
+	 * 
+	 * @param cache
+	 * @param key
+	 * @param sql
+	 * @return
+	 */
+	private String cacheTemplateSQL(Map<String, String> cache, String key, String sql) {
+		if (cache.size() < SQL_CACHE_MAX_SIZE) {
+			cache.putIfAbsent(key, sql);
+		}
+		return sql;
+	}
 
+	/**
+	 * 生成通过主键查询的SQL语句
+	 * 
+	 * @param resultColumns
+	 * @param tableAlias
+	 * @param joinOrReference
+	 * @return
+	 */
+	private String createSelectByIdSQL(String resultColumns, String tableAlias, String joinOrReference) {
+		return String.format("select %s from %s %s where %s = ? ", 
+				(resultColumns == null ? resultColumns() : resultColumns),
+				(tableName() + (tableAlias == null ? "" : (" AS " + tableAlias))), 
+				(joinOrReference == null ? "" : joinOrReference),
+				(tableAlias == null ? "" : (tableAlias + ".")) + primaryId());
+	}
+
+	/**
+	 * 获取查询语句的前缀,格式为:select 返回列 from 表名 [AS 别名] [连接语句] ,相同的参数只会生成一次
+	 * 
+	 * @param resultColumns
+	 *          自定义返回列,为null时使用默认返回列
+	 * @param tableAlias
+	 *          当前表的别名
+	 * @param joinOrReference
+	 *          多表查询或表连接的语句
+	 * @return
+	 */
+	protected String selectFromSQL(String resultColumns, String tableAlias, String joinOrReference) {
+		String key = templateCacheKey(resultColumns, tableAlias, joinOrReference);
+		String sql = selectFromCache.get(key);
+		if (sql != null) {
+			return sql;
+		}
+		sql = String.format("select %s from %s %s ", 
+				(resultColumns == null ? resultColumns() : resultColumns),
+				(tableName() + (tableAlias == null ? "" : (" AS " + tableAlias))), 
+				(joinOrReference == null ? "" : joinOrReference));
+		return cacheTemplateSQL(selectFromCache, key, sql);
 	}
 
 	/**
@@ -108,6 +221,27 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		return sqlPrimaryId;
 	}
 
+	@Override
+	public <T> Object primaryValue(T obj) {
+		if (obj == null) {
+			return null;
+		}
+		try {
+			SqlEntityMeta meta = entityMeta(obj);
+			if (meta.getIdIndex() >= 0) {
+				return meta.getIdValue(obj);
+			}
+			for (int i = 0; i < meta.size(); i++) {
+				if (meta.getColumn(i).equals(primaryId())) {
+					return meta.getValue(obj, i);
+				}
+			}
+			return null;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
 	/**
 	 * 获取表返回列
 	 * 
@@ -124,24 +258,77 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 	 * @throws Exception
 	 */
 	public <T> List<SqlPropertyValue<?>> getPropertyValue(T obj) throws Exception {
-		Field[] fields = obj.getClass().getDeclaredFields();
-		List<SqlPropertyValue<?>> result = new ArrayList<>();;
-		for (Field field : fields) {
-			field.setAccessible(true);
-			TableId tableId = field.getAnnotation(TableId.class);
-			TableColumn tableCol = field.getAnnotation(TableColumn.class);
-			if (tableId == null && tableCol == null) {
-				continue;
-			}
-			if (tableId != null) {
-				result.add(0, new SqlPropertyValue<>(tableId.value(), field.get(obj)));
-			} else {
-				result.add(new SqlPropertyValue<>(tableCol.value(), field.get(obj)));
-			}
+		SqlEntityMeta meta = classMeta(obj);
+		List<SqlPropertyValue<?>> result = new ArrayList<>(meta.size());
+		for (int i = 0; i < meta.size(); i++) {
+			result.add(new SqlPropertyValue<>(meta.getColumn(i), meta.getValue(obj, i)));
 		}
 		return result;
 	}
 
+	/**
+	 * 获取实体类的元数据
+	 * 
+	 * @return
+	 */
+	protected SqlEntityMeta entityMeta() {
+		return entityMeta;
+	}
+
+	/**
+	 * 获取对象的元数据,对象的类型为实体类时直接使用创建时解析的元数据<br>
+	 * 子类重写了{@link #getPropertyValue(Object)}时,列与值通过该方法获取
+	 * 
+	 * @param obj
+	 *          对象
+	 * @return
+	 * @throws Exception
+	 */
+	protected SqlEntityMeta entityMeta(Object obj) throws Exception {
+		return propertyValueOverridden ? propertyValueMeta(obj) : classMeta(obj);
+	}
+
+	/**
+	 * 子类是否重写了{@link #getPropertyValue(Object)},重写时{@link #entityMeta()}不能用于读取属性的值
+	 * 
+	 * @return
+	 */
+	protected boolean isPropertyValueOverridden() {
+		return propertyValueOverridden;
+	}
+
+	/**
+	 * 获取对象的类型的元数据
+	 * 
+	 * @param obj
+	 * @return
+	 */
+	private SqlEntityMeta classMeta(Object obj) {
+		Class<?> clz = obj.getClass();
+		return clz == entityClass ? entityMeta : SqlEntityMeta.of(clz);
+	}
+
+	/**
+	 * 通过{@link #getPropertyValue(Object)}创建对象的元数据,列的顺序与该方法返回的顺序一致,<br>
+	 * 读取同类型的其他对象时再次调用该方法并按列名取值
+	 * 
+	 * @param obj
+	 * @return
+	 * @throws Exception
+	 */
+	private SqlEntityMeta propertyValueMeta(Object obj) throws Exception {
+		List<SqlPropertyValue<?>> values = getPropertyValue(obj);
+		PropertyValues current = new PropertyValues(obj, values);
+		SqlEntityMeta.Builder builder = SqlEntityMeta.builder(obj.getClass());
+		for (int i = 0; i < values.size(); i++) {
+			String column = values.get(i).getName();
+			Object value = values.get(i).getValue();
+			int index = i;
+			builder.column(column, null, value == null ? Object.class : value.getClass(), o -> current.get(o, column, index));
+		}
+		return builder.build();
+	}
+
 	@Override
 	public SqlAndParams getCountSQL(SqlAssist assist) {
 		StringBuilder sql = new StringBuilder(String.format("select count(*) from %s ", tableName()));
@@ -187,16 +374,29 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 
 	@Override
 	public SqlAndParams selectAllSQL(SqlAssist assist) {
+		return selectAllSQL(assist, assist == null ? null : assist.getResultColumn());
+	}
+
+	/**
+	 * 获取查询语句,返回列使用指定的列而不是assist中的返回列,不修改assist
+	 * 
+	 * @param assist
+	 *          查询工具
+	 * @param resultColumn
+	 *          返回列,为null时为表的所有列
+	 * @return
+	 */
+	protected SqlAndParams selectAllSQL(SqlAssist assist, String resultColumn) {
 		// 如果Assist为空返回默认默认查询语句,反则根据Assist生成语句sql语句
 		if (assist == null) {
-			SqlAndParams result = new SqlAndParams(String.format("select %s from %s ", resultColumns(), tableName()));
+			SqlAndParams result = new SqlAndParams(sqlSelectAll);
 			if (LOG.isDebugEnabled()) {
 				LOG.debug("SelectAllSQL : " + result.toString());
 			}
 			return result;
 		} else {
 			String distinct = assist.getDistinct() == null ? "" : assist.getDistinct();// 去重语句
-			String column = assist.getResultColumn() == null ? resultColumns() : assist.getResultColumn();// 表的列名
+			String column = resultColumn == null ? resultColumns() : resultColumn;// 表的列名
 			// 初始化SQL语句
 			StringBuilder sql = new StringBuilder(String.format("select %s %s from %s", distinct, column, tableName()));
 			Tuple params = Tuple.tuple();// 参数
@@ -258,13 +458,168 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		}
 	}
 
+	@Override
+	public SqlAndParams selectSeekSQL(SqlAssist assist) {
+		if (assist == null || assist.getSeekColumns() == null || assist.getSeekColumns().isEmpty()) {
+			return new SqlAndParams(false, "The seek columns cannot be empty , you can use SqlAssist.setSeek(String...)");
+		}
+		List<Object> values;
+		try {
+			values = assist.getSeekValues();
+		} catch (IllegalArgumentException e) {
+			return new SqlAndParams(false, e.getMessage());
+		}
+		String distinct = assist.getDistinct() == null ? "" : assist.getDistinct();// 去重语句
+		String column = assist.getResultColumn() == null ? resultColumns() : assist.getResultColumn();// 表的列名
+		StringBuilder sql = new StringBuilder(String.format("select %s %s from %s", distinct, column, tableName()));
+		Tuple params = Tuple.tuple();// 参数
+		if (assist.getJoinOrReference() != null) {
+			sql.append(assist.getJoinOrReference());
+		}
+		List<SqlWhereCondition<?>> where = assist.getCondition();
+		boolean hasWhere = where != null && where.size() > 0;
+		if (hasWhere) {
+			sql.append(" where ( ");
+			for (int i = 0; i < where.size(); i++) {
+				sql.append(where.get(i).getRequire());
+				if (where.get(i).getValue() != null) {
+					params.addValue(where.get(i).getValue());
+				}
+				if (where.get(i).getValues() != null) {
+					for (Object value : where.get(i).getValues()) {
+						params.addValue(value);
+					}
+				}
+			}
+			sql.append(" ) ");
+		}
+		if (values != null) {
+			sql.append(hasWhere ? " and " : " where ");
+			sql.append(seekPredicateSQL(assist.getSeekColumns(), assist.isSeekAsc(), values, params));
+		}
+		if (assist.getGroupBy() != null) {
+			sql.append(" group by " + assist.getGroupBy() + " ");
+		}
+		if (assist.getHaving() != null) {
+			sql.append(" having " + assist.getHaving() + " ");
+			if (assist.getHavingValue() != null) {
+				for (Object value : assist.getHavingValue()) {
+					params.addValue(value);
+				}
+			}
+		}
+		sql.append(" order by ");
+		for (int i = 0; i < assist.getSeekColumns().size(); i++) {
+			sql.append(i == 0 ? "" : ", ").append(assist.getSeekColumns().get(i)).append(assist.isSeekAsc() ? " asc" : " desc");
+		}
+		String seekSQL = sql.append(" ").toString();
+		if (assist.getRowSize() != null) {
+			seekSQL = seekLimitSQL(seekSQL, assist.getRowSize(), params);
+		}
+		SqlAndParams result = new SqlAndParams(seekSQL, (params.size() <= 0 ? null : params));
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("selectSeekSQL : " + result.toString());
+		}
+		return result;
+	}
+
+	/**
+	 * 在返回列中添加COUNT(*) OVER(),去重与游标分页时窗口函数的结果不是总行数,返回失败的结果
+	 */
+	@Override
+	public SqlAndParams selectAllWithCountSQL(SqlAssist assist) {
+		if (assist == null || assist.getDistinct() != null || assist.getSeekColumns() != null) {
+			return new SqlAndParams(false, "COUNT(*) OVER() does not support distinct or seek");
+		}
+		String column = assist.getResultColumn() == null ? resultColumns() : assist.getResultColumn();
+		return selectAllSQL(assist, column + ", COUNT(*) OVER() AS \"" + LIMIT_TOTAL_KEY + "\"");
+	}
+
+	/**
+	 * 游标分页的条件,默认使用行值比较:(列1,列2) > (?,?)
+	 * 
+	 * @param columns
+	 *          游标分页的列
+	 * @param asc
+	 *          排序方式,true=asc,false=desc
+	 * @param values
+	 *          游标中列的值
+	 * @param params
+	 *          参数
+	 * @return
+	 */
+	protected String seekPredicateSQL(List<String> columns, boolean asc, List<Object> values, Tuple params) {
+		if (columns.size() == 1) {
+			params.addValue(values.get(0));
+			return columns.get(0) + (asc ? " > ? " : " < ? ");
+		}
+		StringBuilder left = new StringBuilder("(");
+		StringBuilder right = new StringBuilder("(");
+		for (int i = 0; i < columns.size(); i++) {
+			left.append(i == 0 ? "" : ",").append(columns.get(i));
+			right.append(i == 0 ? "?" : ",?");
+			params.addValue(values.get(i));
+		}
+		return left + ")" + (asc ? " > " : " < ") + right + ") ";
+	}
+
+	/**
+	 * 不支持行值比较的数据库使用的游标分页条件:(列1 > ? or (列1 = ? and 列2 > ?))
+	 * 
+	 * @param columns
+	 *          游标分页的列
+	 * @param asc
+	 *          排序方式,true=asc,false=desc
+	 * @param values
+	 *          游标中列的值
+	 * @param params
+	 *          参数
+	 * @return
+	 */
+	protected String expandedSeekPredicateSQL(List<String> columns, boolean asc, List<Object> values, Tuple params) {
+		StringBuilder sql = new StringBuilder("(");
+		for (int i = 0; i < columns.size(); i++) {
+			sql.append(i == 0 ? "" : " or ");
+			sql.append(i == 0 ? "" : "(");
+			for (int j = 0; j < i; j++) {
+				sql.append(columns.get(j)).append(" = ? and ");
+				params.addValue(values.get(j));
+			}
+			sql.append(columns.get(i)).append(asc ? " > ?" : " < ?");
+			params.addValue(values.get(i));
+			sql.append(i == 0 ? "" : ")");
+		}
+		return sql.append(") ").toString();
+	}
+
+	/**
+	 * 游标分页限制返回的行数,默认为 LIMIT ?
+	 * 
+	 * @param sql
+	 *          已经排序的查询语句
+	 * @param rowSize
+	 *          取多少行数据
+	 * @param params
+	 *          参数
+	 * @return
+	 */
+	protected String seekLimitSQL(String sql, int rowSize, Tuple params) {
+		params.addValue(rowSize);
+		return sql + "LIMIT ? ";
+	}
+
 	@Override
 	public <S> SqlAndParams selectByIdSQL(S primaryValue, String resultColumns, String tableAlias, String joinOrReference) {
-		String sql = String.format("select %s from %s %s where %s = ? ", 
-				(resultColumns == null ? resultColumns() : resultColumns),
-				(tableName() + (tableAlias == null ? "" : (" AS " + tableAlias))), 
-				(joinOrReference == null ? "" : joinOrReference),
-				(tableAlias == null ? "" : (tableAlias + ".")) + primaryId());
+		String sql;
+		if (resultColumns == null && tableAlias == null && joinOrReference == null) {
+			sql = sqlSelectById;
+		} else {
+			String key = templateCacheKey(resultColumns, tableAlias, joinOrReference);
+			sql = selectByIdCache.get(key);
+			if (sql == null) {
+				sql = cacheTemplateSQL(selectByIdCache, key, createSelectByIdSQL(resultColumns, tableAlias, joinOrReference));
+			}
+		}
 		SqlAndParams result = new SqlAndParams(sql, Tuple.of(primaryValue));
 		if (LOG.isDebugEnabled()) {
 			LOG.debug("selectByIdSQL : " + result.toString());
@@ -272,30 +627,80 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		return result;
 	}
 
+	@Override
+	public <S> List<SqlAndParams> selectByIdsSQL(Collection<S> primaryValues, String resultColumns, String tableAlias,
+			String joinOrReference) {
+		if (primaryValues == null || primaryValues.isEmpty()) {
+			return Collections.singletonList(new SqlAndParams(false, "The primary values cannot be empty"));
+		}
+		if (primaryId() == null) {
+			return Collections.singletonList(new SqlAndParams(false, "there is no primary key in your SQL statement"));
+		}
+		List<Object> ids = new ArrayList<>(new LinkedHashSet<Object>(primaryValues));
+		ids.remove(null);
+		if (ids.isEmpty()) {
+			return Collections.singletonList(new SqlAndParams(false, "The primary values cannot be empty"));
+		}
+		String idColumn = (tableAlias == null ? "" : (tableAlias + ".")) + primaryId();
+		String prefix = selectFromSQL((resultColumns == null ? resultColumns() : resultColumns) + ", " + idColumn + " AS \""
+				+ SELECT_BY_IDS_KEY + "\"", tableAlias, joinOrReference) + "where " + idColumn + " in ";
+		int chunk = Integer.highestOneBit(Math.max(1, Math.min(maxParameters(), maxInListSize())));
+		List<SqlAndParams> result = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += chunk) {
+			List<Object> sub = ids.subList(from, Math.min(ids.size(), from + chunk));
+			// 参数的数量补齐为2的次方,不足的部分重复最后一个主键,使同一个表只会生成少量不同的SQL语句
+			int bucket = Math.min(chunk, sub.size() == 1 ? 1 : Integer.highestOneBit(sub.size() - 1) << 1);
+			Tuple params = Tuple.tuple();
+			for (int i = 0; i < bucket; i++) {
+				params.addValue(sub.get(Math.min(i, sub.size() - 1)));
+			}
+			String in = inPlaceholderCache.get(bucket);
+			if (in == null) {
+				StringBuilder placeholders = new StringBuilder("(");
+				for (int i = 0; i < bucket; i++) {
+					placeholders.append(i == 0 ? "?" : ",?");
+				}
+				in = placeholders.append(") ").toString();
+				inPlaceholderCache.put(bucket, in);
+			}
+			result.add(new SqlAndParams(prefix + in, params));
+		}
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("selectByIdsSQL : " + result.size() + " statements of " + ids.size() + " ids");
+		}
+		return result;
+	}
+
+	/**
+	 * 通过多个主键查询时in条件中最多可以有多少个值
+	 * 
+	 * @return
+	 */
+	protected int maxInListSize() {
+		return maxParameters();
+	}
+
 	@Override
 	public <T> SqlAndParams selectByObjSQL(T obj, String resultColumns, String tableAlias, String joinOrReference, boolean single) {
-		StringBuilder sql = new StringBuilder(String.format("select %s from %s %s ", 
-				(resultColumns == null ? resultColumns() : resultColumns),
-				(tableName() + (tableAlias == null ? "" : (" AS " + tableAlias))), 
-				(joinOrReference == null ? "" : joinOrReference)));
+		StringBuilder sql = new StringBuilder(selectFromSQL(resultColumns, tableAlias, joinOrReference));
 		Tuple params = Tuple.tuple();
 		boolean isFrist = true;
-		List<SqlPropertyValue<?>> propertyValue;
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(obj);
+			meta = entityMeta(obj);
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (int i = propertyValue.size() - 1; i >= 0; i--) {
-			SqlPropertyValue<?> pv = propertyValue.get(i);
-			if (pv.getValue() != null) {
+		for (int i = meta.size() - 1; i >= 0; i--) {
+			Object value = meta.getValue(obj, i);
+			if (value != null) {
 				if (isFrist) {
-					sql.append(String.format("where %s = ? ", (tableAlias == null ? "" : (tableAlias + ".")) + pv.getName()));
+					sql.append(String.format("where %s = ? ", (tableAlias == null ? "" : (tableAlias + ".")) + meta.getColumn(i)));
 					isFrist = false;
 				} else {
-					sql.append(String.format("and %s = ? ", (tableAlias == null ? "" : (tableAlias + ".")) + pv.getName()));
+					sql.append(String.format("and %s = ? ", (tableAlias == null ? "" : (tableAlias + ".")) + meta.getColumn(i)));
 				}
-				params.addValue(pv.getValue());
+				params.addValue(value);
 			}
 		}
 		if (single) {
@@ -313,24 +718,31 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		Tuple params = Tuple.tuple();
 		StringBuilder tempColumn = null;
 		StringBuilder tempValues = null;
-		List<SqlPropertyValue<?>> propertyValue;
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(obj);
+			meta = entityMeta(obj);
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (SqlPropertyValue<?> pv : propertyValue) {
-			if (tempColumn == null) {
-				tempColumn = new StringBuilder(pv.getName());
-				tempValues = new StringBuilder("?");
-			} else {
-				tempColumn.append("," + pv.getName());
-				tempValues.append(",?");
+		String sql;
+		if (sqlInsertAll != null && meta == entityMeta) {
+			meta.addValues(obj, params);
+			sql = sqlInsertAll;
+		} else {
+			for (int i = 0; i < meta.size(); i++) {
+				Object value = meta.getValue(obj, i);
+				if (tempColumn == null) {
+					tempColumn = new StringBuilder(meta.getColumn(i));
+					tempValues = new StringBuilder("?");
+				} else {
+					tempColumn.append("," + meta.getColumn(i));
+					tempValues.append(",?");
+				}
+				params.addValue(value);
 			}
-			params.addValue(pv.getValue());
+			sql = String.format("insert into %s (%s) values (%s) ", tableName(), tempColumn, tempValues);
 		}
-		String sql = String.format("insert into %s (%s) values (%s) ", tableName(), tempColumn, tempValues);
-		SqlAndParams result = new SqlAndParams(sql.toString(), (params.size() <= 0 ? null : params));
+		SqlAndParams result = new SqlAndParams(sql, (params.size() <= 0 ? null : params));
 		if (LOG.isDebugEnabled()) {
 			LOG.debug("insertAllSQL : " + result.toString());
 		}
@@ -342,22 +754,23 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		Tuple params = Tuple.tuple();
 		StringBuilder tempColumn = null;
 		StringBuilder tempValues = null;
-		List<SqlPropertyValue<?>> propertyValue;
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(obj);
+			meta = entityMeta(obj);
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (SqlPropertyValue<?> pv : propertyValue) {
-			if (pv.getValue() != null) {
+		for (int i = 0; i < meta.size(); i++) {
+			Object value = meta.getValue(obj, i);
+			if (value != null) {
 				if (tempColumn == null) {
-					tempColumn = new StringBuilder(pv.getName());
+					tempColumn = new StringBuilder(meta.getColumn(i));
 					tempValues = new StringBuilder("?");
 				} else {
-					tempColumn.append("," + pv.getName());
+					tempColumn.append("," + meta.getColumn(i));
 					tempValues.append(",?");
 				}
-				params.addValue(pv.getValue());
+				params.addValue(value);
 			}
 		}
 		if (tempColumn == null || tempValues == null) {
@@ -376,41 +789,35 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		if (list == null || list.isEmpty()) {
 			return new SqlAndParams(false, "The param can not be null or empty");
 		}
-		StringBuilder tempColumn = null;
-		StringBuilder tempValues = null;
-		Tuple param0 = Tuple.tuple();
-		List<SqlPropertyValue<?>> propertyValue;
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(list.get(0));
+			meta = entityMeta(list.get(0));
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (SqlPropertyValue<?> pv : propertyValue) {
-			if (tempColumn == null) {
-				tempColumn = new StringBuilder(pv.getName());
-				tempValues = new StringBuilder("?");
-			} else {
-				tempColumn.append("," + pv.getName());
-				tempValues.append(",?");
+		String sql;
+		if (sqlInsertAll != null && meta == entityMeta) {
+			sql = sqlInsertAll;
+		} else {
+			StringBuilder tempColumn = new StringBuilder();
+			StringBuilder tempValues = new StringBuilder();
+			for (int i = 0; i < meta.size(); i++) {
+				tempColumn.append(i == 0 ? "" : ",").append(meta.getColumn(i));
+				tempValues.append(i == 0 ? "?" : ",?");
 			}
-			param0.addValue(pv.getValue());
+			sql = String.format("insert into %s (%s) values (%s) ", tableName(), tempColumn, tempValues);
 		}
-		List<Tuple> params = new ArrayList<>();
-		params.add(param0);
-		for (int i = 1; i < list.size(); i++) {
-			Tuple paramx = Tuple.tuple();
-			List<SqlPropertyValue<?>> propertyValue1;
+		List<Tuple> params = new ArrayList<>(list.size());
+		for (T obj : list) {
+			if (obj == null) {
+				return new SqlAndParams(false, " Get SqlPropertyValue failed: the object in the list can not be null");
+			}
 			try {
-				propertyValue1 = getPropertyValue(list.get(i));
+				params.add((obj.getClass() == meta.getEntityClass() ? meta : entityMeta(obj)).addValues(obj, Tuple.tuple()));
 			} catch (Exception e) {
 				return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 			}
-			for (SqlPropertyValue<?> pv : propertyValue1) {
-				paramx.addValue(pv.getValue());
-			}
-			params.add(paramx);
 		}
-		String sql = String.format("insert into %s (%s) values (%s) ", tableName(), tempColumn, tempValues);
 		SqlAndParams qp = new SqlAndParams(sql, params);
 		if (LOG.isDebugEnabled()) {
 			LOG.debug("insertBatch : " + qp.toString());
@@ -442,40 +849,317 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		return qp;
 	}
 
+	@Override
+	public <T> List<SqlAndParams> insertBulkSQL(List<T> list) {
+		if (list == null || list.isEmpty()) {
+			return Collections.singletonList(new SqlAndParams(false, "The param can not be null or empty"));
+		}
+		SqlEntityMeta meta;
+		try {
+			meta = entityMeta(list.get(0));
+		} catch (Exception e) {
+			return Collections.singletonList(new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage()));
+		}
+		List<String> columns = new ArrayList<>(meta.size());
+		for (int i = 0; i < meta.size(); i++) {
+			columns.add(meta.getColumn(i));
+		}
+		List<Tuple> params = new ArrayList<>(list.size());
+		for (T obj : list) {
+			if (obj == null) {
+				return Collections.singletonList(new SqlAndParams(false, " Get SqlPropertyValue failed: the object in the list can not be null"));
+			}
+			try {
+				params.add((obj.getClass() == meta.getEntityClass() ? meta : entityMeta(obj)).addValues(obj, Tuple.tuple()));
+			} catch (Exception e) {
+				return Collections.singletonList(new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage()));
+			}
+		}
+		return insertBulkSQL(columns, params);
+	}
+
+	@Override
+	public List<SqlAndParams> insertBulkSQL(List<String> columns, List<Tuple> params) {
+		if ((columns == null || columns.isEmpty()) || (params == null || params.isEmpty())) {
+			return Collections.singletonList(new SqlAndParams(false, "The columns and params can not be null or empty"));
+		}
+		String tempColumn = String.join(",", columns);
+		int size = columns.size();
+		int chunk = Math.max(1, Math.min(maxBulkRows(), maxParameters() / size));
+		List<SqlAndParams> result = new ArrayList<>(params.size() / chunk + 1);
+		String chunkSQL = null;
+		for (int start = 0; start < params.size(); start += chunk) {
+			int rows = Math.min(chunk, params.size() - start);
+			Tuple tuple = Tuple.tuple();
+			for (int i = start; i < start + rows; i++) {
+				Tuple row = params.get(i);
+				if (row == null || row.size() != size) {
+					return Collections.singletonList(new SqlAndParams(false, "The params size must be equal to the columns size"));
+				}
+				for (int j = 0; j < size; j++) {
+					tuple.addValue(row.getValue(j));
+				}
+			}
+			String sql;
+			if (rows == chunk) {
+				if (chunkSQL == null) {
+					chunkSQL = insertBulkSQL(tempColumn, size, rows);
+				}
+				sql = chunkSQL;
+			} else {
+				sql = insertBulkSQL(tempColumn, size, rows);
+			}
+			result.add(new SqlAndParams(sql, tuple));
+		}
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("insertBulk : " + result.size() + " statements of " + params.size() + " rows");
+		}
+		return result;
+	}
+
+	/**
+	 * 生成多行插入的SQL语句,默认格式:insert into 表名 (列) values (?,...),(?,...)
+	 * 
+	 * @param columns
+	 *          列名,多个以逗号隔开
+	 * @param columnSize
+	 *          列的数量
+	 * @param rows
+	 *          行数
+	 * @return
+	 */
+	protected String insertBulkSQL(String columns, int columnSize, int rows) {
+		StringBuilder values = new StringBuilder(columnSize * 2 + 2);
+		values.append("(?");
+		for (int i = 1; i < columnSize; i++) {
+			values.append(",?");
+		}
+		values.append(")");
+		StringBuilder sql = new StringBuilder(32 + columns.length() + (values.length() + 1) * rows);
+		sql.append("insert into ").append(tableName()).append(" (").append(columns).append(") values ");
+		for (int i = 0; i < rows; i++) {
+			if (i > 0) {
+				sql.append(",");
+			}
+			sql.append(values);
+		}
+		return sql.append(" ").toString();
+	}
+
+	/**
+	 * 单个语句中最多可以使用多少个参数,多行插入时按该值分块
+	 * 
+	 * @return
+	 */
+	protected int maxParameters() {
+		return 65535;
+	}
+
+	/**
+	 * 多行插入时单个语句最多包含多少行
+	 * 
+	 * @return
+	 */
+	protected int maxBulkRows() {
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * 插入一个对象,如果该对象不存在就新建如果该对象已经存在就更新,只操作对象中值不为null的属性<br>
+	 * 主键的值为null时直接新增,否则使用{@link #upsertSQL(List)}生成的数据库原生语句
+	 */
 	@Override
 	public <T> SqlAndParams replaceSQL(T obj) {
 		Tuple params = Tuple.tuple();
-		StringBuilder tempColumn = null;
-		StringBuilder tempValues = null;
-		List<SqlPropertyValue<?>> propertyValue;
+		List<String> columns = new ArrayList<>();
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(obj);
+			meta = entityMeta(obj);
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (SqlPropertyValue<?> pv : propertyValue) {
-			if (pv.getValue() != null) {
-				if (tempColumn == null) {
-					tempColumn = new StringBuilder(pv.getName());
-					tempValues = new StringBuilder("?");
-				} else {
-					tempColumn.append("," + pv.getName());
-					tempValues.append(",?");
+		boolean hasId = false;
+		for (int i = 0; i < meta.size(); i++) {
+			Object value = meta.getValue(obj, i);
+			if (value != null) {
+				columns.add(meta.getColumn(i));
+				params.addValue(value);
+				if (meta.getColumn(i).equals(primaryId())) {
+					hasId = true;
 				}
-				params.addValue(pv.getValue());
 			}
 		}
-		if (tempColumn == null || tempValues == null) {
+		if (columns.isEmpty()) {
 			return new SqlAndParams(false, "The column or value is null");
 		}
-		String sql = String.format("replace into %s (%s) values (%s) ", tableName(), tempColumn, tempValues);
-		SqlAndParams result = new SqlAndParams(sql.toString(), (params.size() <= 0 ? null : params));
+		String sql;
+		if (hasId) {
+			sql = upsertSQL(columns);
+		} else {
+			StringBuilder tempValues = new StringBuilder("?");
+			for (int i = 1; i < columns.size(); i++) {
+				tempValues.append(",?");
+			}
+			sql = String.format("insert into %s (%s) values (%s) ", tableName(), String.join(",", columns), tempValues);
+		}
+		SqlAndParams result = new SqlAndParams(sql, params);
 		if (LOG.isDebugEnabled()) {
 			LOG.debug("replaceSQL : " + result.toString());
 		}
 		return result;
 	}
 
+	/**
+	 * 批量插入对象,如果对象不存在就新建如果对象已经存在就更新,操作所有的属性包括null值,对象的主键值不能为null
+	 */
+	@Override
+	public <T> SqlAndParams upsertBatchSQL(List<T> list) {
+		if (list == null || list.isEmpty()) {
+			return new SqlAndParams(false, "The param can not be null or empty");
+		}
+		SqlEntityMeta meta;
+		try {
+			meta = entityMeta(list.get(0));
+		} catch (Exception e) {
+			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
+		}
+		if (primaryId() == null) {
+			return new SqlAndParams(false, "there is no primary key in your SQL statement");
+		}
+		List<String> columns = new ArrayList<>(meta.size());
+		int idIndex = -1;
+		for (int i = 0; i < meta.size(); i++) {
+			columns.add(meta.getColumn(i));
+			if (meta.getColumn(i).equals(primaryId())) {
+				idIndex = i;
+			}
+		}
+		if (idIndex < 0) {
+			return new SqlAndParams(false, "there is no primary key in your SQL statement");
+		}
+		List<Tuple> params = new ArrayList<>(list.size());
+		for (T obj : list) {
+			if (obj == null) {
+				return new SqlAndParams(false, " Get SqlPropertyValue failed: the object in the list can not be null");
+			}
+			if (obj.getClass() != meta.getEntityClass()) {
+				return new SqlAndParams(false, "The objects in the list must be the same class");
+			}
+			Tuple tuple = meta.addValues(obj, Tuple.tuple());
+			if (tuple.getValue(idIndex) == null) {
+				return new SqlAndParams(false, "there is no primary key in your SQL statement");
+			}
+			params.add(tuple);
+		}
+		SqlAndParams result = new SqlAndParams(upsertSQL(columns), params);
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("upsertBatchSQL : " + result.toString());
+		}
+		return result;
+	}
+
+	/**
+	 * 生成数据库原生的新增或更新语句,参数的顺序与列的顺序一致,主键存在时更新主键以外的列<br>
+	 * 默认为MySQL格式:insert into 表名 (列) values (?,...) on duplicate key update 列 = values(列),...
+	 * 
+	 * @param columns
+	 *          列名,包含主键
+	 * @return
+	 */
+	protected String upsertSQL(List<String> columns) {
+		StringBuilder tempValues = new StringBuilder("?");
+		for (int i = 1; i < columns.size(); i++) {
+			tempValues.append(",?");
+		}
+		StringBuilder tempSet = new StringBuilder();
+		for (String column : columns) {
+			if (!column.equals(primaryId())) {
+				tempSet.append(tempSet.length() == 0 ? "" : ", ").append(column).append(" = values(").append(column).append(")");
+			}
+		}
+		if (tempSet.length() == 0) {
+			tempSet.append(primaryId()).append(" = ").append(primaryId());
+		}
+		return String.format("insert into %s (%s) values (%s) on duplicate key update %s ", tableName(), String.join(",", columns),
+				tempValues, tempSet);
+	}
+
+	/**
+	 * 生成insert ... on conflict (主键) do update set 列 = excluded.列 格式的新增或更新语句,用于PostgreSQL与SQLite
+	 * 
+	 * @param columns
+	 *          列名,包含主键
+	 * @return
+	 */
+	protected String onConflictUpsertSQL(List<String> columns) {
+		StringBuilder tempValues = new StringBuilder("?");
+		for (int i = 1; i < columns.size(); i++) {
+			tempValues.append(",?");
+		}
+		return String.format("insert into %s (%s) values (%s) %s", tableName(), String.join(",", columns), tempValues,
+				onConflictClause(columns));
+	}
+
+	/**
+	 * 生成on conflict (主键) do update set 列 = excluded.列,...
+	 * 
+	 * @param columns
+	 *          列名,包含主键
+	 * @return
+	 */
+	protected String onConflictClause(List<String> columns) {
+		StringBuilder tempSet = new StringBuilder();
+		for (String column : columns) {
+			if (!column.equals(primaryId())) {
+				tempSet.append(tempSet.length() == 0 ? "" : ", ").append(column).append(" = excluded.").append(column);
+			}
+		}
+		String action = tempSet.length() == 0 ? "do nothing" : ("do update set " + tempSet);
+		return String.format("on conflict (%s) %s ", primaryId(), action);
+	}
+
+	/**
+	 * 生成merge格式的新增或更新语句,用于Oracle,DB2与SQL Server
+	 * 
+	 * @param columns
+	 *          列名,包含主键
+	 * @param source
+	 *          数据来源,别名需要为s,比如:(values (?,?)) as s (id,name)
+	 * @return merge into 表名 t using 数据来源 on (t.主键 = s.主键) when matched then update set ... when not matched then
+	 *         insert ...
+	 */
+	protected String mergeUpsertSQL(List<String> columns, String source) {
+		StringBuilder tempSet = new StringBuilder();
+		StringBuilder tempValues = new StringBuilder();
+		for (String column : columns) {
+			tempValues.append(tempValues.length() == 0 ? "" : ",").append("s.").append(column);
+			if (!column.equals(primaryId())) {
+				tempSet.append(tempSet.length() == 0 ? "" : ", ").append("t.").append(column).append(" = s.").append(column);
+			}
+		}
+		StringBuilder sql = new StringBuilder();
+		sql.append(String.format("merge into %s t using %s on (t.%s = s.%s) ", tableName(), source, primaryId(), primaryId()));
+		if (tempSet.length() > 0) {
+			sql.append("when matched then update set ").append(tempSet).append(" ");
+		}
+		sql.append(String.format("when not matched then insert (%s) values (%s) ", String.join(",", columns), tempValues));
+		return sql.toString();
+	}
+
+	/**
+	 * 生成merge语句的数据来源:(values (?,...)) as s (列,...)
+	 * 
+	 * @param columns
+	 * @return
+	 */
+	protected String mergeValuesSource(List<String> columns) {
+		StringBuilder tempValues = new StringBuilder("?");
+		for (int i = 1; i < columns.size(); i++) {
+			tempValues.append(",?");
+		}
+		return String.format("(values (%s)) as s (%s)", tempValues, String.join(",", columns));
+	}
+
 	@Override
 	public <T> SqlAndParams updateAllByIdSQL(T obj) {
 		if (primaryId() == null) {
@@ -484,29 +1168,33 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		Tuple params = Tuple.tuple();
 		StringBuilder tempColumn = null;
 		Object tempIdValue = null;
-		List<SqlPropertyValue<?>> propertyValue;
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(obj);
+			meta = entityMeta(obj);
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (SqlPropertyValue<?> pv : propertyValue) {
-			if (pv.getName().equals(primaryId())) {
-				tempIdValue = pv.getValue();
+		boolean template = sqlUpdateAllById != null && meta == entityMeta;
+		for (int i = 0; i < meta.size(); i++) {
+			Object value = meta.getValue(obj, i);
+			if (meta.getColumn(i).equals(primaryId())) {
+				tempIdValue = value;
 				continue;
 			}
-			if (tempColumn == null) {
-				tempColumn = new StringBuilder(pv.getName() + " = ? ");
-			} else {
-				tempColumn.append(", " + pv.getName() + " = ? ");
+			if (!template) {
+				if (tempColumn == null) {
+					tempColumn = new StringBuilder(meta.getColumn(i) + " = ? ");
+				} else {
+					tempColumn.append(", " + meta.getColumn(i) + " = ? ");
+				}
 			}
-			params.addValue(pv.getValue());
+			params.addValue(value);
 		}
 		if (tempIdValue == null) {
 			return new SqlAndParams(false, "there is no primary key in your SQL statement");
 		}
 		params.addValue(tempIdValue);
-		String sql = String.format("update %s set %s where %s = ? ", tableName(), tempColumn, primaryId());
+		String sql = template ? sqlUpdateAllById : String.format("update %s set %s where %s = ? ", tableName(), tempColumn, primaryId());
 		SqlAndParams result = new SqlAndParams(sql, params);
 		if (LOG.isDebugEnabled()) {
 			LOG.debug("updateAllByIdSQL : " + result.toString());
@@ -514,6 +1202,46 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		return result;
 	}
 
+	@Override
+	public <T> SqlAndParams updateAllByIdBatchSQL(List<T> list) {
+		if (list == null || list.isEmpty()) {
+			return new SqlAndParams(false, "The param can not be null or empty");
+		}
+		SqlEntityMeta meta;
+		try {
+			meta = entityMeta(list.get(0));
+		} catch (Exception e) {
+			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
+		}
+		if (meta != entityMeta || sqlUpdateAllById == null) {
+			return SQLStatement.super.updateAllByIdBatchSQL(list);
+		}
+		List<Tuple> params = new ArrayList<>(list.size());
+		for (T obj : list) {
+			if (obj == null || obj.getClass() != meta.getEntityClass()) {
+				return SQLStatement.super.updateAllByIdBatchSQL(list);
+			}
+			Tuple tuple = Tuple.tuple();
+			Object tempIdValue = null;
+			for (int i = 0; i < meta.size(); i++) {
+				if (meta.getColumn(i).equals(primaryId())) {
+					tempIdValue = meta.getValue(obj, i);
+				} else {
+					tuple.addValue(meta.getValue(obj, i));
+				}
+			}
+			if (tempIdValue == null) {
+				return new SqlAndParams(false, "there is no primary key in your SQL statement");
+			}
+			params.add(tuple.addValue(tempIdValue));
+		}
+		SqlAndParams result = new SqlAndParams(sqlUpdateAllById, params);
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("updateAllByIdBatchSQL : " + result.toString());
+		}
+		return result;
+	}
+
 	@Override
 	public <T> SqlAndParams updateAllByAssistSQL(T obj, SqlAssist assist) {
 		if (assist == null || assist.getCondition() == null || assist.getCondition().size() < 1) {
@@ -521,19 +1249,20 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		}
 		Tuple params = Tuple.tuple();
 		StringBuilder tempColumn = null;
-		List<SqlPropertyValue<?>> propertyValue;
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(obj);
+			meta = entityMeta(obj);
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (SqlPropertyValue<?> pv : propertyValue) {
+		for (int i = 0; i < meta.size(); i++) {
+			Object value = meta.getValue(obj, i);
 			if (tempColumn == null) {
-				tempColumn = new StringBuilder(pv.getName() + " = ? ");
+				tempColumn = new StringBuilder(meta.getColumn(i) + " = ? ");
 			} else {
-				tempColumn.append(", " + pv.getName() + " = ? ");
+				tempColumn.append(", " + meta.getColumn(i) + " = ? ");
 			}
-			params.addValue(pv.getValue());
+			params.addValue(value);
 		}
 		List<SqlWhereCondition<?>> where = assist.getCondition();
 		StringBuilder whereStr = new StringBuilder(" where " + where.get(0).getRequire());
@@ -575,24 +1304,25 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		Tuple params = Tuple.tuple();
 		StringBuilder tempColumn = null;
 		Object tempIdValue = null;
-		List<SqlPropertyValue<?>> propertyValue;
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(obj);
+			meta = entityMeta(obj);
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (SqlPropertyValue<?> pv : propertyValue) {
-			if (pv.getName().equals(primaryId())) {
-				tempIdValue = pv.getValue();
+		for (int i = 0; i < meta.size(); i++) {
+			Object value = meta.getValue(obj, i);
+			if (meta.getColumn(i).equals(primaryId())) {
+				tempIdValue = value;
 				continue;
 			}
-			if (pv.getValue() != null) {
+			if (value != null) {
 				if (tempColumn == null) {
-					tempColumn = new StringBuilder(pv.getName() + " = ? ");
+					tempColumn = new StringBuilder(meta.getColumn(i) + " = ? ");
 				} else {
-					tempColumn.append(", " + pv.getName() + " = ? ");
+					tempColumn.append(", " + meta.getColumn(i) + " = ? ");
 				}
-				params.addValue(pv.getValue());
+				params.addValue(value);
 			}
 		}
 		if (tempColumn == null || tempIdValue == null) {
@@ -610,6 +1340,97 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		return result;
 	}
 
+	/**
+	 * 批量更新对象中属性不为null值,不为null的属性相同的对象为一组,每组通过{@link #updateByIdBatchSQL(SqlEntityMeta, int[], List)}生成语句
+	 */
+	@Override
+	public <T> List<SqlAndParams> updateNonEmptyByIdBatchSQL(List<T> list) {
+		if (list == null || list.isEmpty()) {
+			return Collections.singletonList(new SqlAndParams(false, "The param can not be null or empty"));
+		}
+		if (primaryId() == null) {
+			return Collections.singletonList(new SqlAndParams(false, "there is no primary key in your SQL statement"));
+		}
+		SqlEntityMeta meta;
+		try {
+			meta = entityMeta(list.get(0));
+		} catch (Exception e) {
+			return Collections.singletonList(new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage()));
+		}
+		int idIndex = -1;
+		for (int i = 0; i < meta.size(); i++) {
+			if (meta.getColumn(i).equals(primaryId())) {
+				idIndex = i;
+			}
+		}
+		if (idIndex < 0) {
+			return SQLStatement.super.updateNonEmptyByIdBatchSQL(list);
+		}
+		// 按不为null的列分组,保持每组第一次出现的顺序
+		Map<BitSet, List<T>> groups = new LinkedHashMap<>();
+		for (T obj : list) {
+			if (obj == null || obj.getClass() != meta.getEntityClass()) {
+				return SQLStatement.super.updateNonEmptyByIdBatchSQL(list);
+			}
+			if (meta.getValue(obj, idIndex) == null) {
+				return Collections.singletonList(new SqlAndParams(false, "there is no set update value or no primary key in your SQL statement"));
+			}
+			BitSet shape = new BitSet(meta.size());
+			for (int i = 0; i < meta.size(); i++) {
+				if (i != idIndex && meta.getValue(obj, i) != null) {
+					shape.set(i);
+				}
+			}
+			if (shape.isEmpty()) {
+				return Collections.singletonList(new SqlAndParams(false, "there is no set update value or no primary key in your SQL statement"));
+			}
+			groups.computeIfAbsent(shape, k -> new ArrayList<>()).add(obj);
+		}
+		List<SqlAndParams> result = new ArrayList<>(groups.size());
+		for (Map.Entry<BitSet, List<T>> entry : groups.entrySet()) {
+			BitSet shape = entry.getKey();
+			int[] indexes = new int[shape.cardinality() + 1];
+			int index = 0;
+			for (int i = shape.nextSetBit(0); i >= 0; i = shape.nextSetBit(i + 1)) {
+				indexes[index++] = i;
+			}
+			indexes[index] = idIndex;
+			result.add(updateByIdBatchSQL(meta, indexes, entry.getValue()));
+		}
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("updateNonEmptyByIdBatchSQL : " + result.size() + " statements of " + list.size() + " rows");
+		}
+		return result;
+	}
+
+	/**
+	 * 生成批量更新一组对象的语句,格式:update 表名 set 列 = ? ,... where 主键 = ?
+	 * 
+	 * @param meta
+	 *          实体类的元数据
+	 * @param indexes
+	 *          需要更新的列的下标,最后一个为主键
+	 * @param list
+	 *          对象,对象中这些列的值都不为null
+	 * @return sql与batchParams
+	 */
+	protected <T> SqlAndParams updateByIdBatchSQL(SqlEntityMeta meta, int[] indexes, List<T> list) {
+		StringBuilder tempColumn = new StringBuilder();
+		for (int i = 0; i < indexes.length - 1; i++) {
+			tempColumn.append(i == 0 ? "" : ", ").append(meta.getColumn(indexes[i])).append(" = ? ");
+		}
+		String sql = String.format("update %s set %s where %s = ? ", tableName(), tempColumn, primaryId());
+		List<Tuple> params = new ArrayList<>(list.size());
+		for (T obj : list) {
+			Tuple tuple = Tuple.tuple();
+			for (int index : indexes) {
+				tuple.addValue(meta.getValue(obj, index));
+			}
+			params.add(tuple);
+		}
+		return new SqlAndParams(sql, params);
+	}
+
 	@Override
 	public <T> SqlAndParams updateNonEmptyByAssistSQL(T obj, SqlAssist assist) {
 		if (assist == null || assist.getCondition() == null || assist.getCondition().size() < 1) {
@@ -617,20 +1438,21 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		}
 		Tuple params = Tuple.tuple();
 		StringBuilder tempColumn = null;
-		List<SqlPropertyValue<?>> propertyValue;
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(obj);
+			meta = entityMeta(obj);
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (SqlPropertyValue<?> pv : propertyValue) {
-			if (pv.getValue() != null) {
+		for (int i = 0; i < meta.size(); i++) {
+			Object value = meta.getValue(obj, i);
+			if (value != null) {
 				if (tempColumn == null) {
-					tempColumn = new StringBuilder(pv.getName() + " = ? ");
+					tempColumn = new StringBuilder(meta.getColumn(i) + " = ? ");
 				} else {
-					tempColumn.append(", " + pv.getName() + " = ? ");
+					tempColumn.append(", " + meta.getColumn(i) + " = ? ");
 				}
-				params.addValue(pv.getValue());
+				params.addValue(value);
 			}
 		}
 
@@ -737,8 +1559,7 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		if (primaryId() == null) {
 			return new SqlAndParams(false, "there is no primary key in your SQL statement");
 		}
-		String sql = String.format("delete from %s where %s = ? ", tableName(), primaryId());
-		SqlAndParams result = new SqlAndParams(sql, Tuple.of(primaryValue));
+		SqlAndParams result = new SqlAndParams(sqlDeleteById, Tuple.of(primaryValue));
 		if (LOG.isDebugEnabled()) {
 			LOG.debug("deleteByIdSQL : " + result.toString());
 		}
@@ -780,4 +1601,54 @@ public abstract class AbstractStatementSQL implements SQLStatement {
 		return result;
 	}
 
+	/**
+	 * 最近一次通过{@link #getPropertyValue(Object)}读取的对象与值,只在生成一个语句时使用
+	 * 
+	 * @author <a href="http://mirrentools.org">Mirren</a>
+	 *
+	 */
+	private class PropertyValues {
+		/** 对象 */
+		private Object obj;
+		/** 对象的列与值 */
+		private List<SqlPropertyValue<?>> values;
+
+		public PropertyValues(Object obj, List<SqlPropertyValue<?>> values) {
+			super();
+			this.obj = obj;
+			this.values = values;
+		}
+
+		/**
+		 * 获取对象的列的值,对象不存在该列时返回null
+		 * 
+		 * @param target
+		 *          对象
+		 * @param column
+		 *          列名
+		 * @param index
+		 *          创建元数据时列的下标
+		 * @return
+		 */
+		public Object get(Object target, String column, int index) {
+			if (target != obj) {
+				try {
+					values = getPropertyValue(target);
+				} catch (Exception e) {
+					throw new IllegalStateException(e.getMessage(), e);
+				}
+				obj = target;
+			}
+			if (index < values.size() && column.equals(values.get(index).getName())) {
+				return values.get(index).getValue();
+			}
+			for (SqlPropertyValue<?> value : values) {
+				if (column.equals(value.getName())) {
+					return value.getValue();
+				}
+			}
+			return null;
+		}
+	}
+
 }
@@ -6,7 +6,7 @@ import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.ext.sql.assist.SqlAndParams;
 import io.vertx.ext.sql.assist.SqlAssist;
-import io.vertx.ext.sql.assist.SqlPropertyValue;
+import io.vertx.ext.sql.assist.SqlEntityMeta;
 import io.vertx.ext.sql.assist.SqlWhereCondition;
 import io.vertx.sqlclient.Tuple;
 
@@ -22,14 +22,18 @@ public class DB2StatementSQL extends AbstractStatementSQL {
 		super(entity);
 	}
 
+	public DB2StatementSQL(SqlEntityMeta meta) {
+		super(meta);
+	}
+
 	/** 日志工具 */
 	private final Logger LOG = LoggerFactory.getLogger(DB2StatementSQL.class);
 
 	@Override
-	public SqlAndParams selectAllSQL(SqlAssist assist) {
+	protected SqlAndParams selectAllSQL(SqlAssist assist, String resultColumn) {
 		if (assist != null && assist.getRowSize() != null) {
 			String distinct = assist.getDistinct() == null ? "" : assist.getDistinct();// 去重语句
-			String column = assist.getResultColumn() == null ? resultColumns() : assist.getResultColumn();// 表的列名
+			String column = resultColumn == null ? resultColumns() : resultColumn;// 表的列名
 			StringBuilder sql = new StringBuilder();
 			// SQL语句添加分页
 			sql.append("select * from ( select temp_table.*, rownumber () over () as tt_row_index from (");
@@ -89,34 +93,31 @@ public class DB2StatementSQL extends AbstractStatementSQL {
 			}
 			return result;
 		} else {
-			return super.selectAllSQL(assist);
+			return super.selectAllSQL(assist, resultColumn);
 		}
 	}
 
 	@Override
 	public <T> SqlAndParams selectByObjSQL(T obj, String resultColumns, String tableAlias,  String joinOrReference, boolean single) {
-		StringBuilder sql = new StringBuilder(
-				String.format("select %s from %s %s ",(resultColumns == null ? resultColumns() : resultColumns),
-																							(tableName() + (tableAlias == null ? "" : (" AS " + tableAlias))), 
-																							(joinOrReference == null ? "" : joinOrReference)));
+		StringBuilder sql = new StringBuilder(selectFromSQL(resultColumns, tableAlias, joinOrReference));
 		Tuple params = null;
 		boolean isFrist = true;
-		List<SqlPropertyValue<?>> propertyValue;
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(obj);
+			meta = entityMeta(obj);
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (int i = propertyValue.size() - 1; i >= 0; i--) {
-			SqlPropertyValue<?> pv = propertyValue.get(i);
-			if (pv.getValue() != null) {
+		for (int i = meta.size() - 1; i >= 0; i--) {
+			Object value = meta.getValue(obj, i);
+			if (value != null) {
 				if (isFrist) {
-					sql.append(String.format("where %s = ? ", (tableAlias == null ? "" : (tableAlias+"."))+pv.getName()));
-					params = Tuple.of(pv.getValue());
+					sql.append(String.format("where %s = ? ", (tableAlias == null ? "" : (tableAlias+"."))+meta.getColumn(i)));
+					params = Tuple.of(value);
 					isFrist = false;
 				} else {
-					sql.append(String.format("and %s = ? ", (tableAlias == null ? "" : (tableAlias+"."))+pv.getName()));
-					params.addValue(pv.getValue());
+					sql.append(String.format("and %s = ? ", (tableAlias == null ? "" : (tableAlias+"."))+meta.getColumn(i)));
+					params.addValue(value);
 				}
 			}
 		}
@@ -130,4 +131,20 @@ public class DB2StatementSQL extends AbstractStatementSQL {
 		return result;
 	}
 
+	/** DB2的行数使用常量,兼容不支持参数的版本 */
+	@Override
+	protected String seekLimitSQL(String sql, int rowSize, Tuple params) {
+		return sql + "FETCH FIRST " + rowSize + " ROWS ONLY ";
+	}
+
+	@Override
+	protected int maxParameters() {
+		return 32767;
+	}
+
+	@Override
+	protected String upsertSQL(List<String> columns) {
+		return mergeUpsertSQL(columns, mergeValuesSource(columns));
+	}
+
 }
@@ -1,5 +1,7 @@
 package io.vertx.ext.sql.assist.sql;
 
+import io.vertx.ext.sql.assist.SqlEntityMeta;
+
 /**
  * MySQL通用SQL操作
  * 
@@ -13,4 +15,8 @@ public class MySQLStatementSQL extends AbstractStatementSQL {
 		super(entity);
 	}
 
+	public MySQLStatementSQL(SqlEntityMeta meta) {
+		super(meta);
+	}
+
 }
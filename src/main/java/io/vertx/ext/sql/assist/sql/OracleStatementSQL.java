@@ -6,7 +6,7 @@ import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.ext.sql.assist.SqlAndParams;
 import io.vertx.ext.sql.assist.SqlAssist;
-import io.vertx.ext.sql.assist.SqlPropertyValue;
+import io.vertx.ext.sql.assist.SqlEntityMeta;
 import io.vertx.ext.sql.assist.SqlWhereCondition;
 import io.vertx.sqlclient.Tuple;
 
@@ -22,14 +22,36 @@ public class OracleStatementSQL extends AbstractStatementSQL {
 		super(entity);
 	}
 
+	public OracleStatementSQL(SqlEntityMeta meta) {
+		super(meta);
+	}
+
 	/** 日志工具 */
 	private final Logger LOG = LoggerFactory.getLogger(OracleStatementSQL.class);
 
+	/** Oracle不支持行值比较 */
+	@Override
+	protected String seekPredicateSQL(List<String> columns, boolean asc, List<Object> values, Tuple params) {
+		return expandedSeekPredicateSQL(columns, asc, values, params);
+	}
+
+	@Override
+	protected String seekLimitSQL(String sql, int rowSize, Tuple params) {
+		params.addValue(rowSize);
+		return "select * from (" + sql + ") tt_seek_table where ROWNUM <= ? ";
+	}
+
+	/** Oracle的in条件最多1000个值 */
+	@Override
+	protected int maxInListSize() {
+		return 1000;
+	}
+
 	@Override
-	public SqlAndParams selectAllSQL(SqlAssist assist) {
+	protected SqlAndParams selectAllSQL(SqlAssist assist, String resultColumn) {
 		if (assist != null && assist.getRowSize() != null) {
 			String distinct = assist.getDistinct() == null ? "" : assist.getDistinct();// 去重语句
-			String column = assist.getResultColumn() == null ? resultColumns() : assist.getResultColumn();// 表的列名
+			String column = resultColumn == null ? resultColumns() : resultColumn;// 表的列名
 			StringBuilder sql = new StringBuilder();
 			// SQL语句添加分页
 			sql.append("select * from ( select temp_table.*, ROWNUM AS tt_row_index from (");
@@ -88,34 +110,31 @@ public class OracleStatementSQL extends AbstractStatementSQL {
 			}
 			return result;
 		} else {
-			return super.selectAllSQL(assist);
+			return super.selectAllSQL(assist, resultColumn);
 		}
 	}
 
 	@Override
 	public <T> SqlAndParams selectByObjSQL(T obj, String resultColumns, String tableAlias,String joinOrReference, boolean single) {
-		StringBuilder sql = new StringBuilder(
-				String.format("select %s from %s %s ", (resultColumns == null ? resultColumns() : resultColumns), 
-																							 (tableName() + (tableAlias == null ? "" : (" AS " + tableAlias))), 
-																							 (joinOrReference == null ? "" : joinOrReference)));
+		StringBuilder sql = new StringBuilder(selectFromSQL(resultColumns, tableAlias, joinOrReference));
 		Tuple params = Tuple.tuple();
 		boolean isFrist = true;
-		List<SqlPropertyValue<?>> propertyValue;
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(obj);
+			meta = entityMeta(obj);
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (int i = propertyValue.size() - 1; i >= 0; i--) {
-			SqlPropertyValue<?> pv = propertyValue.get(i);
-			if (pv.getValue() != null) {
+		for (int i = meta.size() - 1; i >= 0; i--) {
+			Object value = meta.getValue(obj, i);
+			if (value != null) {
 				if (isFrist) {
-					sql.append(String.format("where %s = ? ",  (tableAlias == null ? "" : (tableAlias+"."))+pv.getName()));
+					sql.append(String.format("where %s = ? ",  (tableAlias == null ? "" : (tableAlias+"."))+meta.getColumn(i)));
 					isFrist = false;
 				} else {
-					sql.append(String.format("and %s = ? ",  (tableAlias == null ? "" : (tableAlias+"."))+pv.getName()));
+					sql.append(String.format("and %s = ? ",  (tableAlias == null ? "" : (tableAlias+"."))+meta.getColumn(i)));
 				}
-				params.addValue(pv.getValue());
+				params.addValue(value);
 			}
 		}
 		if (single) {
@@ -131,4 +150,37 @@ public class OracleStatementSQL extends AbstractStatementSQL {
 		return result;
 	}
 
+	/**
+	 * Oracle不支持多行VALUES,使用insert all into 表名 (列) values (?,...) ... select 1 from dual
+	 */
+	@Override
+	protected String insertBulkSQL(String columns, int columnSize, int rows) {
+		StringBuilder values = new StringBuilder(columnSize * 2 + 2);
+		values.append("(?");
+		for (int i = 1; i < columnSize; i++) {
+			values.append(",?");
+		}
+		values.append(")");
+		String into = " into " + tableName() + " (" + columns + ") values " + values;
+		StringBuilder sql = new StringBuilder(32 + into.length() * rows);
+		sql.append("insert all");
+		for (int i = 0; i < rows; i++) {
+			sql.append(into);
+		}
+		return sql.append(" select 1 from dual ").toString();
+	}
+
+	/**
+	 * Oracle的merge语句数据来源为:(select ? as 列,... from dual) s
+	 */
+	@Override
+	protected String upsertSQL(List<String> columns) {
+		StringBuilder source = new StringBuilder("(select ");
+		for (int i = 0; i < columns.size(); i++) {
+			source.append(i == 0 ? "" : ", ").append("? as ").append(columns.get(i));
+		}
+		source.append(" from dual) s");
+		return mergeUpsertSQL(columns, source.toString());
+	}
+
 }
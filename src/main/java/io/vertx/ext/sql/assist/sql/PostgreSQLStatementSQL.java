@@ -1,16 +1,337 @@
 package io.vertx.ext.sql.assist.sql;
 
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.ext.sql.assist.RowMapper;
+import io.vertx.ext.sql.assist.SqlAndParams;
+import io.vertx.ext.sql.assist.SqlEntityMeta;
+import io.vertx.sqlclient.Tuple;
+
 /**
  * SQLite通用SQL操作
- * 
+ *
  * @author <a href="http://mirrentools.org">Mirren</a>
  *
  * @param <T>
  */
 public class PostgreSQLStatementSQL extends AbstractStatementSQL {
+	/** Java类型对应的PostgreSQL数组元素类型 */
+	private static final Map<Class<?>, String> ARRAY_TYPES = new HashMap<>();
+	static {
+		ARRAY_TYPES.put(Short.class, "int2");
+		ARRAY_TYPES.put(Integer.class, "int4");
+		ARRAY_TYPES.put(Long.class, "int8");
+		ARRAY_TYPES.put(Float.class, "float4");
+		ARRAY_TYPES.put(Double.class, "float8");
+		ARRAY_TYPES.put(BigDecimal.class, "numeric");
+		ARRAY_TYPES.put(Boolean.class, "bool");
+		ARRAY_TYPES.put(String.class, "text");
+		ARRAY_TYPES.put(LocalDate.class, "date");
+		ARRAY_TYPES.put(LocalTime.class, "time");
+		ARRAY_TYPES.put(OffsetTime.class, "timetz");
+		ARRAY_TYPES.put(LocalDateTime.class, "timestamp");
+		ARRAY_TYPES.put(OffsetDateTime.class, "timestamptz");
+		ARRAY_TYPES.put(UUID.class, "uuid");
+	}
+
+	/** 日志工具 */
+	private final Logger LOG = LoggerFactory.getLogger(PostgreSQLStatementSQL.class);
 
 	public PostgreSQLStatementSQL(Class<?> entity) {
 		super(entity);
 	}
 
+	public PostgreSQLStatementSQL(SqlEntityMeta meta) {
+		super(meta);
+	}
+
+	/**
+	 * 使用一个数组参数查询所有主键,SQL语句不随主键的数量变化,格式:<br>
+	 * select 返回列 from 表名 where 主键 = any(?::类型[])<br>
+	 * 主键的类型不一致或不支持转换为数组时使用in条件
+	 */
+	@Override
+	public <S> List<SqlAndParams> selectByIdsSQL(Collection<S> primaryValues, String resultColumns, String tableAlias,
+			String joinOrReference) {
+		if (primaryValues == null || primaryId() == null) {
+			return super.selectByIdsSQL(primaryValues, resultColumns, tableAlias, joinOrReference);
+		}
+		Set<Object> ids = new LinkedHashSet<>(primaryValues);
+		ids.remove(null);
+		Class<?> type = null;
+		for (Object id : ids) {
+			if (type == null) {
+				type = id.getClass();
+			} else if (type != id.getClass()) {
+				return super.selectByIdsSQL(primaryValues, resultColumns, tableAlias, joinOrReference);
+			}
+		}
+		String arrayType = type == null ? null : ARRAY_TYPES.get(type);
+		if (arrayType == null) {
+			return super.selectByIdsSQL(primaryValues, resultColumns, tableAlias, joinOrReference);
+		}
+		Object[] array = ids.toArray((Object[]) Array.newInstance(type, ids.size()));
+		String idColumn = (tableAlias == null ? "" : (tableAlias + ".")) + primaryId();
+		String sql = selectFromSQL((resultColumns == null ? resultColumns() : resultColumns) + ", " + idColumn + " AS \""
+				+ SELECT_BY_IDS_KEY + "\"", tableAlias, joinOrReference) + "where " + idColumn + " = any(?::" + arrayType + "[]) ";
+		SqlAndParams qp = new SqlAndParams(sql, Tuple.tuple().addValue(array));
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("selectByIdsSQL : " + qp.getSql() + " ids: " + array.length);
+		}
+		return Collections.singletonList(qp);
+	}
+
+	/**
+	 * 使用unnest一次插入所有数据,每个列绑定一个数组参数,SQL语句不随数据行数变化,格式:<br>
+	 * insert into 表名 (列) select * from unnest(?::类型[],...)<br>
+	 * 属性的类型不支持转换为数组时使用多行VALUES插入
+	 */
+	@Override
+	public <T> List<SqlAndParams> insertBulkSQL(List<T> list) {
+		if (list == null || list.isEmpty() || list.contains(null) || isPropertyValueOverridden()) {
+			return super.insertBulkSQL(list);
+		}
+		SqlEntityMeta meta = entityMeta();
+		int[] indexes = new int[meta.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = i;
+		}
+		SqlAndParams qp = unnestSQL(meta, list, indexes);
+		if (qp == null) {
+			return super.insertBulkSQL(list);
+		}
+		StringBuilder tempColumn = new StringBuilder();
+		for (int i = 0; i < meta.size(); i++) {
+			tempColumn.append(i == 0 ? "" : ",").append(meta.getColumn(i));
+		}
+		qp.setSql(String.format("insert into %s (%s) select * from %s ", tableName(), tempColumn, qp.getSql()));
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("insertBulkSQL : " + qp.getSql() + " rows: " + list.size());
+		}
+		return Collections.singletonList(qp);
+	}
+
+	/**
+	 * 使用unnest一次插入所有数据,数组元素的类型通过每列第一个不为null的值确定,无法确定类型时使用多行VALUES插入
+	 */
+	@Override
+	public List<SqlAndParams> insertBulkSQL(List<String> columns, List<Tuple> params) {
+		if ((columns == null || columns.isEmpty()) || (params == null || params.isEmpty())) {
+			return super.insertBulkSQL(columns, params);
+		}
+		int size = columns.size();
+		Class<?>[] types = new Class<?>[size];
+		for (Tuple row : params) {
+			if (row == null || row.size() != size) {
+				return super.insertBulkSQL(columns, params);
+			}
+			for (int j = 0; j < size; j++) {
+				if (types[j] == null && row.getValue(j) != null) {
+					types[j] = row.getValue(j).getClass();
+				}
+			}
+		}
+		Object[][] arrays = new Object[size][];
+		StringBuilder unnest = new StringBuilder("unnest(");
+		for (int j = 0; j < size; j++) {
+			String arrayType = types[j] == null ? null : ARRAY_TYPES.get(types[j]);
+			if (arrayType == null) {
+				return super.insertBulkSQL(columns, params);
+			}
+			arrays[j] = (Object[]) Array.newInstance(types[j], params.size());
+			unnest.append(j == 0 ? "?::" : ", ?::").append(arrayType).append("[]");
+		}
+		unnest.append(")");
+		for (int i = 0; i < params.size(); i++) {
+			Tuple row = params.get(i);
+			for (int j = 0; j < size; j++) {
+				Object value = row.getValue(j);
+				if (value != null && !types[j].isInstance(value)) {
+					return super.insertBulkSQL(columns, params);
+				}
+				arrays[j][i] = value;
+			}
+		}
+		Tuple tuple = Tuple.tuple();
+		for (Object[] array : arrays) {
+			tuple.addValue(array);
+		}
+		String sql = String.format("insert into %s (%s) select * from %s ", tableName(), String.join(",", columns), unnest);
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("insertBulkSQL : " + sql + " rows: " + params.size());
+		}
+		return Collections.singletonList(new SqlAndParams(sql, tuple));
+	}
+
+	/**
+	 * 使用unnest一次更新所有数据,每个列绑定一个数组参数,SQL语句不随数据行数变化,格式:<br>
+	 * update 表名 set 列 = v.列,... from unnest(?::类型[],...) as v(列,...) where 表名.主键 = v.主键<br>
+	 * 属性的类型不支持转换为数组时使用批量执行
+	 */
+	@Override
+	public <T> SqlAndParams updateAllByIdBatchSQL(List<T> list) {
+		SqlEntityMeta meta = entityMeta();
+		if (list == null || list.isEmpty() || list.contains(null) || isPropertyValueOverridden() || primaryId() == null
+				|| !primaryId().equals(meta.getPrimaryId()) || meta.getIdIndex() < 0) {
+			return super.updateAllByIdBatchSQL(list);
+		}
+		int[] indexes = new int[meta.size()];
+		int index = 0;
+		for (int i = 0; i < meta.size(); i++) {
+			if (i != meta.getIdIndex()) {
+				indexes[index++] = i;
+			}
+		}
+		indexes[index] = meta.getIdIndex();
+		for (T obj : list) {
+			if (obj.getClass() == meta.getEntityClass() && meta.getIdValue(obj) == null) {
+				return new SqlAndParams(false, "there is no primary key in your SQL statement");
+			}
+		}
+		SqlAndParams qp = unnestUpdateSQL(meta, indexes, list);
+		if (qp == null) {
+			return super.updateAllByIdBatchSQL(list);
+		}
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("updateAllByIdBatchSQL : " + qp.getSql() + " rows: " + list.size());
+		}
+		return qp;
+	}
+
+	/**
+	 * 每组不为null的属性相同的对象使用unnest一次更新
+	 */
+	@Override
+	protected <T> SqlAndParams updateByIdBatchSQL(SqlEntityMeta meta, int[] indexes, List<T> list) {
+		SqlAndParams qp = null;
+		if (meta == entityMeta() && primaryId().equals(meta.getPrimaryId())) {
+			qp = unnestUpdateSQL(meta, indexes, list);
+		}
+		return qp == null ? super.updateByIdBatchSQL(meta, indexes, list) : qp;
+	}
+
+	/**
+	 * 生成unnest的批量更新语句:update 表名 set 列 = v.列,... from unnest(?::类型[],...) as v(列,...) where 表名.主键 = v.主键
+	 *
+	 * @param meta
+	 *          实体类的元数据
+	 * @param indexes
+	 *          需要更新的列的下标,最后一个为主键
+	 * @param list
+	 *          对象
+	 * @return 属性的类型不支持转换为数组时返回null
+	 */
+	private <T> SqlAndParams unnestUpdateSQL(SqlEntityMeta meta, int[] indexes, List<T> list) {
+		if (indexes.length < 2) {
+			return null;
+		}
+		SqlAndParams qp = unnestSQL(meta, list, indexes);
+		if (qp == null) {
+			return null;
+		}
+		StringBuilder tempSet = new StringBuilder();
+		StringBuilder tempAlias = new StringBuilder();
+		for (int i = 0; i < indexes.length; i++) {
+			String column = meta.getColumn(indexes[i]);
+			tempAlias.append(i == 0 ? "" : ",").append(column);
+			if (i < indexes.length - 1) {
+				tempSet.append(i == 0 ? "" : ", ").append(column).append(" = v.").append(column);
+			}
+		}
+		return qp.setSql(String.format("update %s set %s from %s as v(%s) where %s.%s = v.%s ", tableName(), tempSet, qp.getSql(),
+				tempAlias, tableName(), primaryId(), primaryId()));
+	}
+
+	@Override
+	protected String upsertSQL(List<String> columns) {
+		return onConflictUpsertSQL(columns);
+	}
+
+	/**
+	 * 使用unnest一次新增或更新所有数据,格式:<br>
+	 * insert into 表名 (列) select * from unnest(?::类型[],...) on conflict (主键) do update set 列 = excluded.列,...<br>
+	 * 属性的类型不支持转换为数组时使用批量执行
+	 */
+	@Override
+	public <T> SqlAndParams upsertBatchSQL(List<T> list) {
+		SqlEntityMeta meta = entityMeta();
+		if (list == null || list.isEmpty() || list.contains(null) || isPropertyValueOverridden() || primaryId() == null
+				|| !primaryId().equals(meta.getPrimaryId()) || meta.getIdIndex() < 0) {
+			return super.upsertBatchSQL(list);
+		}
+		int[] indexes = new int[meta.size()];
+		List<String> columns = new ArrayList<>(meta.size());
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = i;
+			columns.add(meta.getColumn(i));
+		}
+		for (T obj : list) {
+			if (obj.getClass() == meta.getEntityClass() && meta.getIdValue(obj) == null) {
+				return new SqlAndParams(false, "there is no primary key in your SQL statement");
+			}
+		}
+		SqlAndParams qp = unnestSQL(meta, list, indexes);
+		if (qp == null) {
+			return super.upsertBatchSQL(list);
+		}
+		qp.setSql(String.format("insert into %s (%s) select * from %s %s", tableName(), String.join(",", columns), qp.getSql(),
+				onConflictClause(columns)));
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("upsertBatchSQL : " + qp.getSql() + " rows: " + list.size());
+		}
+		return qp;
+	}
+
+	/**
+	 * 将对象的属性值按列转换为数组参数
+	 *
+	 * @param meta
+	 *          实体类的元数据
+	 * @param list
+	 *          对象
+	 * @param indexes
+	 *          列的下标,数组参数按该顺序排列
+	 * @return sql为unnest(?::类型[],...),对象的类型与实体类不一致或属性的类型不支持时返回null
+	 */
+	private <T> SqlAndParams unnestSQL(SqlEntityMeta meta, List<T> list, int[] indexes) {
+		for (T obj : list) {
+			if (obj.getClass() != meta.getEntityClass()) {
+				return null;
+			}
+		}
+		Tuple tuple = Tuple.tuple();
+		StringBuilder unnest = new StringBuilder("unnest(");
+		for (int i = 0; i < indexes.length; i++) {
+			Class<?> type = RowMapper.wrapperType(meta.getType(indexes[i]));
+			String arrayType = ARRAY_TYPES.get(type);
+			if (arrayType == null) {
+				return null;
+			}
+			Object[] array = (Object[]) Array.newInstance(type, list.size());
+			for (int j = 0; j < list.size(); j++) {
+				array[j] = meta.getValue(list.get(j), indexes[i]);
+			}
+			tuple.addValue(array);
+			unnest.append(i == 0 ? "?::" : ", ?::").append(arrayType).append("[]");
+		}
+		return new SqlAndParams(unnest.append(")").toString(), tuple);
+	}
+
 }
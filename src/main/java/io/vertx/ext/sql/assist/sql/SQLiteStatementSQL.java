@@ -1,5 +1,9 @@
 package io.vertx.ext.sql.assist.sql;
 
+import java.util.List;
+
+import io.vertx.ext.sql.assist.SqlEntityMeta;
+
 /**
  * SQLite通用SQL操作
  * 
@@ -12,4 +16,20 @@ public class SQLiteStatementSQL extends AbstractStatementSQL {
 		super(entity);
 	}
 
+	public SQLiteStatementSQL(SqlEntityMeta meta) {
+		super(meta);
+	}
+
+	/** SQLite 3.32.0之前的版本单个语句最多999个参数,新版本可以重写为32766 */
+	@Override
+	protected int maxParameters() {
+		return 999;
+	}
+
+	/** SQLite 3.24.0及以上版本支持on conflict do update */
+	@Override
+	protected String upsertSQL(List<String> columns) {
+		return onConflictUpsertSQL(columns);
+	}
+
 }
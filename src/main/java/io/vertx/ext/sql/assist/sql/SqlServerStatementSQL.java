@@ -6,7 +6,7 @@ import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.ext.sql.assist.SqlAndParams;
 import io.vertx.ext.sql.assist.SqlAssist;
-import io.vertx.ext.sql.assist.SqlPropertyValue;
+import io.vertx.ext.sql.assist.SqlEntityMeta;
 import io.vertx.ext.sql.assist.SqlWhereCondition;
 import io.vertx.sqlclient.Tuple;
 
@@ -22,6 +22,10 @@ public class SqlServerStatementSQL extends AbstractStatementSQL {
 		super(entity);
 	}
 
+	public SqlServerStatementSQL(SqlEntityMeta meta) {
+		super(meta);
+	}
+
 	/** 日志工具 */
 	private final Logger LOG = LoggerFactory.getLogger(AbstractStatementSQL.class);
 	/**
@@ -42,10 +46,10 @@ public class SqlServerStatementSQL extends AbstractStatementSQL {
 	}
 
 	@Override
-	public SqlAndParams selectAllSQL(SqlAssist assist) {
+	protected SqlAndParams selectAllSQL(SqlAssist assist, String resultColumn) {
 		if (assist != null && assist.getRowSize() != null) {
 			String distinct = assist.getDistinct() == null ? "" : assist.getDistinct();// 去重语句
-			String column = assist.getResultColumn() == null ? resultColumns() : assist.getResultColumn();// 表的列名
+			String column = resultColumn == null ? resultColumns() : resultColumn;// 表的列名
 			StringBuilder sql = new StringBuilder();
 			// SQL语句添加分页
 			sql.append("select * from ( ");
@@ -106,7 +110,7 @@ public class SqlServerStatementSQL extends AbstractStatementSQL {
 			}
 			return result;
 		} else {
-			return super.selectAllSQL(assist);
+			return super.selectAllSQL(assist, resultColumn);
 		}
 	}
 
@@ -118,22 +122,22 @@ public class SqlServerStatementSQL extends AbstractStatementSQL {
 																									(joinOrReference == null ? "" : joinOrReference)));
 		Tuple params = Tuple.tuple();
 		boolean isFrist = true;
-		List<SqlPropertyValue<?>> propertyValue;
+		SqlEntityMeta meta;
 		try {
-			propertyValue = getPropertyValue(obj);
+			meta = entityMeta(obj);
 		} catch (Exception e) {
 			return new SqlAndParams(false, " Get SqlPropertyValue failed: " + e.getMessage());
 		}
-		for (int i = propertyValue.size() - 1; i >= 0; i--) {
-			SqlPropertyValue<?> pv = propertyValue.get(i);
-			if (pv.getValue() != null) {
+		for (int i = meta.size() - 1; i >= 0; i--) {
+			Object value = meta.getValue(obj, i);
+			if (value != null) {
 				if (isFrist) {
-					sql.append(String.format("where %s = ? ",  (tableAlias == null ? "" : (tableAlias+"."))+pv.getName()));
+					sql.append(String.format("where %s = ? ",  (tableAlias == null ? "" : (tableAlias+"."))+meta.getColumn(i)));
 					isFrist = false;
 				} else {
-					sql.append(String.format("and %s = ? ",  (tableAlias == null ? "" : (tableAlias+"."))+pv.getName()));
+					sql.append(String.format("and %s = ? ",  (tableAlias == null ? "" : (tableAlias+"."))+meta.getColumn(i)));
 				}
-				params.addValue(pv.getValue());
+				params.addValue(value);
 			}
 		}
 		SqlAndParams result = new SqlAndParams(sql.toString(), (params.size() <= 0 ? null : params));
@@ -143,4 +147,34 @@ public class SqlServerStatementSQL extends AbstractStatementSQL {
 		return result;
 	}
 
+	/** SQL Server不支持行值比较 */
+	@Override
+	protected String seekPredicateSQL(List<String> columns, boolean asc, List<Object> values, Tuple params) {
+		return expandedSeekPredicateSQL(columns, asc, values, params);
+	}
+
+	@Override
+	protected String seekLimitSQL(String sql, int rowSize, Tuple params) {
+		params.addValue(rowSize);
+		return sql + "offset 0 rows fetch next ? rows only ";
+	}
+
+	/** SQL Server单个语句最多2100个参数 */
+	@Override
+	protected int maxParameters() {
+		return 2100;
+	}
+
+	/** SQL Server的VALUES最多1000行 */
+	@Override
+	protected int maxBulkRows() {
+		return 1000;
+	}
+
+	/** SQL Server的merge语句必须以分号结束 */
+	@Override
+	protected String upsertSQL(List<String> columns) {
+		return mergeUpsertSQL(columns, mergeValuesSource(columns)).trim() + ";";
+	}
+
 }
@@ -6,6 +6,7 @@ import java.util.List;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.sql.assist.entity.Student;
+import io.vertx.ext.sql.assist.sql.SQLiteStatementSQL;
 import io.vertx.ext.sql.assist.sql.StudentSQL;
 import io.vertx.jdbcclient.JDBCPool;
 
@@ -20,6 +21,7 @@ public class JdbcPoolTest extends TestSuite<Student, JDBCPool> {
 		config.put("url", String.format("jdbc:sqlite:%s/data/sqlite.db", System.getProperty("user.dir"))).put("driver_class",
 				"org.sqlite.JDBC");
 		JDBCPool jdbcPool = JDBCPool.pool(vertx, config);
+		SQLStatement.register(SQLiteStatementSQL.class);
 		StudentSQL sql = new StudentSQL(SQLExecute.createJDBC(jdbcPool));
 		JdbcPoolTest test = new JdbcPoolTest(sql, config);
 		test.runTest(res -> System.exit(0));
@@ -1,8 +1,22 @@
 package io.vertx.ext.sql.assist;
 
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collector;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
 
 import org.mirrentools.sd.ScrewDriver;
 import org.mirrentools.sd.ScrewDriverDbUtil;
@@ -13,14 +27,27 @@ import org.mirrentools.sd.models.db.update.SdBasicTableContent;
 import org.mirrentools.sd.options.ScrewDriverOptions;
 import org.mirrentools.sd.options.SdDatabaseOptions;
 
+import io.vertx.core.AbstractVerticle;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.sql.assist.processor.SQLStatementProcessor;
+import io.vertx.ext.sql.assist.sql.JsonObjectSQL;
+import io.vertx.ext.sql.assist.sql.MySQLStatementSQL;
 import io.vertx.jdbcclient.JDBCPool;
 import io.vertx.mysqlclient.MySQLClient;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.PropertyKind;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.Tuple;
 /**
  * 测试方法合集
@@ -285,7 +312,7 @@ public abstract class TestSuite<E, C> {
 				getCountAndEquals(assist, 2, test -> {
 					if (Objects.equals(true, test.result())) {
 						LOG.info("insertBatchCulumns 测试通过!");
-						replace(handler);
+						insertBulk(handler);
 					} else {
 						LOG.info("insertBatchCulumns 结果不匹配!");
 						failed("insertBatchCulumns 结果不匹配!" + test.cause().getMessage(), handler);
@@ -299,6 +326,211 @@ public abstract class TestSuite<E, C> {
 		}).onFailure(err -> failed(err, handler));
 	}
 
+	public void insertBulk(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		List<Tuple> params = Arrays.asList(Tuple.of(1, "bulk"), Tuple.of(1, "bulk"), Tuple.of(1, "bulk"));
+		sql.insertBulk(Arrays.asList("cid", "pwd"), params).onSuccess(res -> {
+			LOG.info("insertBulk 执行结果:" + res);
+			if (res == 3) {
+				SqlAssist assist = new SqlAssist();
+				assist.and(COLUMN_NICKNAME + " IS NULL").andEq(COLUMN_PWD, "bulk");
+				getCountAndEquals(assist, 3, test -> {
+					if (Objects.equals(true, test.result())) {
+						LOG.info("insertBulk 测试通过!");
+						insertBulkRollback(handler);
+					} else {
+						LOG.info("insertBulk 结果不匹配!");
+						failed("insertBulk 结果不匹配!" + test.cause().getMessage(), handler);
+					}
+				});
+			} else {
+				LOG.info("insertBulk 结果不匹配!");
+				String format = String.format("insertBulk 结果不匹配!\n期望结果:[%d]\n实际结果:[%d]", 3, res);
+				failed(format, handler);
+			}
+		}).onFailure(err -> failed(err, handler));
+	}
+
+	public void insertBulkRollback(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		// 超过一个分块的数据,最后一行的主键已经存在,后面的分块失败时前面的分块也需要回滚
+		List<Tuple> params = new ArrayList<>();
+		for (int i = 1; i < 2000; i++) {
+			params.add(Tuple.of(10000 + i, 1, "rollback"));
+		}
+		params.add(Tuple.of(1, 1, "rollback"));
+		List<String> columns = Arrays.asList(COLUMN_ID, COLUMN_CID, COLUMN_PWD);
+		SqlAssist assist = new SqlAssist().andEq(COLUMN_PWD, "rollback");
+		sql.insertBulk(columns, params, false).compose(v -> Future.<Long>failedFuture("sequential did not fail"), err -> {
+			return sql.getCount(assist);
+		}).compose(sequential -> sql.insertBulk(columns, params, true).compose(v -> {
+			return Future.<List<Long>>failedFuture("pipelined did not fail");
+		}, err -> sql.getCount(assist).map(pipelined -> Arrays.asList(sequential, pipelined)))).onComplete(res -> {
+			LOG.info("insertBulkRollback 执行结果:" + res.result());
+			if (res.failed()) {
+				failed(res.cause(), handler);
+			} else if (res.result().get(0) == 0 && res.result().get(1) == 0) {
+				LOG.info("insertBulkRollback 测试通过!");
+				propertyValue(handler);
+			} else {
+				LOG.info("insertBulkRollback 结果不匹配!");
+				failed("insertBulkRollback 结果不匹配!\n期望结果:[0, 0]\n实际结果:" + res.result(), handler);
+			}
+		});
+	}
+
+	public void propertyValue(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		SQLStatement statement = JsonObjectSQL.statement();
+		JsonObject first = new JsonObject().put(COLUMN_ID, 9).put(COLUMN_CID, 1).put(COLUMN_NICKNAME, "json").putNull(COLUMN_PWD);
+		JsonObject second = new JsonObject().put(COLUMN_ID, 10).put(COLUMN_CID, 2);
+		SqlAndParams insertAll = statement.insertAllSQL(first);
+		SqlAndParams insertNonEmpty = statement.insertNonEmptySQL(first);
+		SqlAndParams insertBatch = statement.insertBatchSQL(Arrays.asList(first, second));
+		SqlAndParams selectByObj = statement.selectByObjSQL(first, null, null, null, false);
+		List<Object> result = Arrays.asList(insertAll.getSql(), insertNonEmpty.getSql(), selectByObj.getSql(),
+				insertBatch.getBatchParams().get(1).getValue(3), statement.primaryValue(first));
+		LOG.info("propertyValue 执行结果:" + result);
+		if ("insert into student (pwd,nickname,cid,id) values (?,?,?,?) ".equals(insertAll.getSql()) && insertAll.getParams().size() == 4
+				&& "insert into student (nickname,cid,id) values (?,?,?) ".equals(insertNonEmpty.getSql())
+				&& selectByObj.getSql().endsWith("where id = ? and cid = ? and nickname = ? ")
+				&& selectByObj.getParams().size() == 3 && Objects.equals(10, insertBatch.getBatchParams().get(1).getValue(3))
+				&& Objects.equals(9, statement.primaryValue(first))) {
+			LOG.info("propertyValue 测试通过!");
+			statementConstructor(handler);
+		} else {
+			LOG.info("propertyValue 结果不匹配!");
+			failed("propertyValue 结果不匹配!\n期望结果:[使用重写的getPropertyValue生成的列与参数]\n实际结果:" + result, handler);
+		}
+	}
+
+	public void statementConstructor(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		Pool pool = (Pool) sql.getDbClient();
+		CommonSQL<JsonObject, Pool> custom = new CommonSQL<JsonObject, Pool>(new PoolExecute(pool), JsonObjectSQL.statement()) {
+		};
+		Future<RowSet<Row>> future;
+		try {
+			future = custom.execute(new SqlAndParams("select count(*) from student"));
+		} catch (Exception e) {
+			future = Future.failedFuture(e);
+		}
+		future.onComplete(res -> {
+			LOG.info("statementConstructor 执行结果:" + (res.succeeded() ? res.result().size() : res.cause()));
+			if (res.failed()) {
+				failed(res.cause(), handler);
+			} else if (custom.getDbClient() == pool && res.result().size() == 1) {
+				LOG.info("statementConstructor 测试通过!");
+				statementProcessor(handler);
+			} else {
+				LOG.info("statementConstructor 结果不匹配!");
+				failed("statementConstructor 结果不匹配!\n期望结果:[使用自定义语句创建的CommonSQL可以直接执行]\n实际结果:" + res.result().size(), handler);
+			}
+		});
+	}
+
+	/** 用于测试注解处理器的实体类 */
+	private final static String PROCESSOR_ENTITY = "package io.vertx.ext.sql.assist.entity;\n"
+			+ "import io.vertx.ext.sql.assist.*;\n"
+			+ "@Table(\"student\")\n"
+			+ "public class ProcessorStudent {\n"
+			+ "	@TableId(\"id\") private Integer id;\n"
+			+ "	@TableColumn(\"cid\") private Integer cid;\n"
+			+ "	@TableColumn(\"nickname\") private String nickname;\n"
+			+ "	@TableColumn(value = \"pwd\", alias = \"possword\") private String pwd;\n"
+			+ "	public Integer getId() { return id; }\n"
+			+ "	public void setId(Integer id) { this.id = id; }\n"
+			+ "	public Integer getCid() { return cid; }\n"
+			+ "	public void setCid(Integer cid) { this.cid = cid; }\n"
+			+ "	public String getNickname() { return nickname; }\n"
+			+ "	public void setNickname(String nickname) { this.nickname = nickname; }\n"
+			+ "	public String getPwd() { return pwd; }\n"
+			+ "	public void setPwd(String pwd) { this.pwd = pwd; }\n"
+			+ "}\n";
+
+	@SuppressWarnings("unchecked")
+	public void statementProcessor(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		String entityName = "io.vertx.ext.sql.assist.entity.ProcessorStudent";
+		SqlEntityMeta meta;
+		SQLStatement generated;
+		RowMapper<Object> mapper;
+		Object obj;
+		try {
+			ClassLoader loader = compileWithProcessor(entityName, PROCESSOR_ENTITY);
+			Class<?> entity = loader.loadClass(entityName);
+			// 先通过反射解析,生成的类加载时会注册自己的元数据
+			meta = SqlEntityMeta.of(entity);
+			generated = (SQLStatement) loader.loadClass(entityName + "StatementSQL$MySQL").getConstructor().newInstance();
+			mapper = (RowMapper<Object>) loader.loadClass(entityName + "RowMapper").getField("INSTANCE").get(null);
+			obj = entity.getConstructor().newInstance();
+			entity.getMethod("setId", Integer.class).invoke(obj, 1);
+			entity.getMethod("setCid", Integer.class).invoke(obj, 1);
+			entity.getMethod("setNickname", String.class).invoke(obj, "processor");
+		} catch (Exception e) {
+			failed(e, handler);
+			return;
+		}
+		SQLStatement reflective = new MySQLStatementSQL(meta);
+		List<String> expect = Arrays.asList(reflective.insertAllSQL(obj).toString(), reflective.insertNonEmptySQL(obj).toString(),
+				reflective.updateAllByIdSQL(obj).toString(), reflective.updateNonEmptyByIdSQL(obj).toString(),
+				reflective.selectByObjSQL(obj, null, null, null, false).toString(),
+				reflective.selectByIdSQL(1, null, null, null).toString());
+		List<String> actual = Arrays.asList(generated.insertAllSQL(obj).toString(), generated.insertNonEmptySQL(obj).toString(),
+				generated.updateAllByIdSQL(obj).toString(), generated.updateNonEmptyByIdSQL(obj).toString(),
+				generated.selectByObjSQL(obj, null, null, null, false).toString(),
+				generated.selectByIdSQL(1, null, null, null).toString());
+		SqlAndParams select = new SqlAndParams("select " + meta.getResultColumns() + " from student where id = ?", Tuple.of(1));
+		sql.execute(select).compose(rows -> sql.selectById(1).map(json -> {
+			Object row = mapper.map(rows.iterator().next());
+			boolean same = true;
+			for (int i = 0; i < meta.size(); i++) {
+				same = same && Objects.equals(String.valueOf(json.getValue(meta.getLabel(i))), String.valueOf(meta.getValue(row, i)));
+			}
+			return same;
+		})).onComplete(res -> {
+			LOG.info("statementProcessor 执行结果:" + actual + " RowMapper:" + res.result());
+			if (res.failed()) {
+				failed(res.cause(), handler);
+			} else if (expect.equals(actual) && res.result()) {
+				LOG.info("statementProcessor 测试通过!");
+				replace(handler);
+			} else {
+				LOG.info("statementProcessor 结果不匹配!");
+				failed("statementProcessor 结果不匹配!\n期望结果:" + expect + "\n实际结果:" + actual + " RowMapper:" + res.result(), handler);
+			}
+		});
+	}
+
+	/**
+	 * 使用{@link SQLStatementProcessor}编译实体类,返回加载编译结果的ClassLoader
+	 * 
+	 * @param className
+	 * @param source
+	 * @return
+	 * @throws Exception
+	 */
+	private ClassLoader compileWithProcessor(String className, String source) throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			throw new IllegalStateException("The JavaCompiler is not available, run the test with JDK");
+		}
+		Path output = Files.createTempDirectory("sql-assist-processor");
+		JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+				JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return source;
+			}
+		};
+		List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", output.toString(), "-s",
+				output.toString(), "-processor", SQLStatementProcessor.class.getName());
+		if (!compiler.getTask(null, null, null, options, null, Arrays.asList(file)).call()) {
+			throw new IllegalStateException("Compile " + className + " with SQLStatementProcessor failed");
+		}
+		return new URLClassLoader(new URL[] { output.toUri().toURL() }, getClass().getClassLoader());
+	}
+
 	/** 测试replace要求:id=1,cid=1,nickname=replace,pwd=replace */
 	public abstract E replaceData();
 	public void replace(Handler<AsyncResult<Integer>> handler) {
@@ -309,7 +541,7 @@ public abstract class TestSuite<E, C> {
 				getByIdAndEquals(1, "replace", "replace", test -> {
 					if (Objects.equals(true, test.result())) {
 						LOG.info("replace 测试通过!");
-						updateAllById(handler);
+						upsertBatch(handler);
 					} else {
 						LOG.info("replace 结果不匹配!");
 						failed("replace 结果不匹配!" + test.cause().getMessage(), handler);
@@ -323,6 +555,28 @@ public abstract class TestSuite<E, C> {
 		}).onFailure(err -> failed(err, handler));
 	}
 
+	public void upsertBatch(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		sql.upsertBatch(Arrays.asList(replaceData())).onSuccess(res -> {
+			LOG.info("upsertBatch 执行结果:" + res);
+			if (res >= 1) {
+				getByIdAndEquals(1, "replace", "replace", test -> {
+					if (Objects.equals(true, test.result())) {
+						LOG.info("upsertBatch 测试通过!");
+						updateAllById(handler);
+					} else {
+						LOG.info("upsertBatch 结果不匹配!");
+						failed("upsertBatch 结果不匹配!" + test.cause().getMessage(), handler);
+					}
+				});
+			} else {
+				LOG.info("upsertBatch 结果不匹配!");
+				String format = String.format("upsertBatch 结果不匹配!\n期望结果:[>=%d]\n实际结果:[%d]", 1, res);
+				failed(format, handler);
+			}
+		}).onFailure(err -> failed(err, handler));
+	}
+
 	/** 测试根据id修改所有,要求:id=1,cid=1,nickname=update,pwd=null */
 	public abstract E updateAllByIdData();
 	public void updateAllById(Handler<AsyncResult<Integer>> handler) {
@@ -333,7 +587,7 @@ public abstract class TestSuite<E, C> {
 				getByIdAndEquals(1, "update", null, test -> {
 					if (Objects.equals(true, test.result())) {
 						LOG.info("updateAllById 测试通过!");
-						updateAllByAssist(handler);
+						updateAllByIdBatch(handler);
 					} else {
 						LOG.info("updateAllById 结果不匹配!");
 						failed("updateAllById 结果不匹配!" + test.cause().getMessage(), handler);
@@ -347,6 +601,28 @@ public abstract class TestSuite<E, C> {
 		}).onFailure(err -> failed(err, handler));
 	}
 
+	public void updateAllByIdBatch(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		sql.updateAllByIdBatch(Arrays.asList(updateAllByIdData())).onSuccess(res -> {
+			LOG.info("updateAllByIdBatch 执行结果:" + res);
+			if (res == 1) {
+				getByIdAndEquals(1, "update", null, test -> {
+					if (Objects.equals(true, test.result())) {
+						LOG.info("updateAllByIdBatch 测试通过!");
+						updateAllByAssist(handler);
+					} else {
+						LOG.info("updateAllByIdBatch 结果不匹配!");
+						failed("updateAllByIdBatch 结果不匹配!" + test.cause().getMessage(), handler);
+					}
+				});
+			} else {
+				LOG.info("updateAllByIdBatch 结果不匹配!");
+				String format = String.format("updateAllByIdBatch 结果不匹配!\n期望结果:[%d]\n实际结果:[%d]", 1, res);
+				failed(format, handler);
+			}
+		}).onFailure(err -> failed(err, handler));
+	}
+
 	/** 测试根据assist修改所有,要求:id=1,cid=1,nickname=null,pwd=updatebyAssist */
 	public abstract E updateAllByAssistData();
 	public void updateAllByAssist(Handler<AsyncResult<Integer>> handler) {
@@ -381,7 +657,7 @@ public abstract class TestSuite<E, C> {
 				getByIdAndEquals(1, "nickname", "updatebyAssist", test -> {
 					if (Objects.equals(true, test.result())) {
 						LOG.info("updateNonEmptyById 测试通过!");
-						updateNonEmptyByAssist(handler);
+						updateNonEmptyByIdBatch(handler);
 					} else {
 						LOG.info("updateNonEmptyById 结果不匹配!");
 						failed("updateNonEmptyById 结果不匹配!" + test.cause().getMessage(), handler);
@@ -395,6 +671,28 @@ public abstract class TestSuite<E, C> {
 		}).onFailure(err -> failed(err, handler));
 	}
 
+	public void updateNonEmptyByIdBatch(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		sql.updateNonEmptyByIdBatch(Arrays.asList(updateNonEmptyByIdData(), updateNonEmptyByIdData())).onSuccess(res -> {
+			LOG.info("updateNonEmptyByIdBatch 执行结果:" + res);
+			if (res.getTotal() == 2 && res.size() == 1) {
+				getByIdAndEquals(1, "nickname", "updatebyAssist", test -> {
+					if (Objects.equals(true, test.result())) {
+						LOG.info("updateNonEmptyByIdBatch 测试通过!");
+						updateNonEmptyByAssist(handler);
+					} else {
+						LOG.info("updateNonEmptyByIdBatch 结果不匹配!");
+						failed("updateNonEmptyByIdBatch 结果不匹配!" + test.cause().getMessage(), handler);
+					}
+				});
+			} else {
+				LOG.info("updateNonEmptyByIdBatch 结果不匹配!");
+				String format = String.format("updateNonEmptyByIdBatch 结果不匹配!\n期望结果:[total=%d,size=%d]\n实际结果:[%s]", 2, 1, res);
+				failed(format, handler);
+			}
+		}).onFailure(err -> failed(err, handler));
+	}
+
 	/** 测试根据assist修改不为空,要求:pwd=updateNonEmptyByAssist */
 	public abstract E updateNonEmptyByAssistData();
 	public void updateNonEmptyByAssist(Handler<AsyncResult<Integer>> handler) {
@@ -501,7 +799,7 @@ public abstract class TestSuite<E, C> {
 			Object value = res.getValue("result");
 			if (value != null) {
 				LOG.info("limitAllNewName 测试通过!");
-				selectById(handler);
+				limitAllSeek(handler);
 			} else {
 				LOG.info("limitAllNewName 结果不匹配!");
 				failed("limitAllNewName 结果不匹配!\n期望结果:[non null]\n实际结果:[null]", handler);
@@ -509,6 +807,778 @@ public abstract class TestSuite<E, C> {
 		}).onFailure(err -> failed(err, handler));
 	}
 
+	public void limitAllSeek(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		SqlAssist assist = new SqlAssist().setSeek(COLUMN_ID).setRowSize(2);
+		sql.limitAll(assist).onSuccess(first -> {
+			LOG.info("limitAllSeek 第一页执行结果:" + first);
+			String cursor = first.getString(SqlLimitResult.CURSOR);
+			JsonArray firstData = first.getJsonArray("result");
+			if (cursor == null || firstData == null || firstData.size() != 2) {
+				failed("limitAllSeek 结果不匹配!\n期望结果:[cursor non null]\n实际结果:" + first, handler);
+				return;
+			}
+			sql.limitAll(assist.setSeekCursor(cursor)).onSuccess(next -> {
+				LOG.info("limitAllSeek 第二页执行结果:" + next);
+				JsonArray data = next.getJsonArray("result");
+				long lastId = firstData.getJsonObject(1).getLong(COLUMN_ID);
+				if (data != null && data.size() > 0 && data.getJsonObject(0).getLong(COLUMN_ID) > lastId) {
+					LOG.info("limitAllSeek 测试通过!");
+					seekCursorTypes(handler);
+				} else {
+					LOG.info("limitAllSeek 结果不匹配!");
+					failed("limitAllSeek 结果不匹配!\n期望结果:[id > " + lastId + "]\n实际结果:" + next, handler);
+				}
+			}).onFailure(err -> failed(err, handler));
+		}).onFailure(err -> failed(err, handler));
+	}
+
+	public void seekCursorTypes(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		// 游标保存数据行中值的类型,时间与numeric的列绑定的参数与数据库返回的类型一致
+		LocalDateTime createdAt = LocalDateTime.of(2021, 9, 1, 10, 30, 15, 123456000);
+		BigDecimal amount = new BigDecimal("12345678901234567.10");
+		Row row = new ListRow(Arrays.asList("ID", "created_at", "amount"), Arrays.asList(7, createdAt, amount));
+		SqlAssist assist = new SqlAssist().setSeek("t.created_at", "amount", COLUMN_ID).setRowSize(2);
+		String cursor = assist.createSeekCursor(row);
+		List<Object> values = assist.setSeekCursor(cursor).getSeekValues();
+		SqlAndParams qp = JsonObjectSQL.statement().selectSeekSQL(assist);
+		List<Object> params = new ArrayList<>();
+		for (int i = 0; i < qp.getParams().size(); i++) {
+			params.add(qp.getParams().getValue(i));
+		}
+		List<Object> expect = Arrays.asList(createdAt, amount, 7);
+		LOG.info("seekCursorTypes 执行结果:" + values + " " + qp);
+		if (values.equals(expect) && values.get(0) instanceof LocalDateTime && values.get(1) instanceof BigDecimal
+				&& params.subList(0, 3).equals(expect)) {
+			LOG.info("seekCursorTypes 测试通过!");
+			limitAllStrategy(handler);
+		} else {
+			LOG.info("seekCursorTypes 结果不匹配!");
+			failed("seekCursorTypes 结果不匹配!\n期望结果:" + expect + "\n实际结果:" + values + " " + params, handler);
+		}
+	}
+
+	/**
+	 * 用于测试游标的数据行
+	 */
+	private static class ListRow implements Row {
+		private final List<String> columns;
+		private final List<Object> values;
+
+		public ListRow(List<String> columns, List<Object> values) {
+			this.columns = columns;
+			this.values = new ArrayList<>(values);
+		}
+
+		@Override
+		public String getColumnName(int pos) {
+			return columns.get(pos);
+		}
+
+		@Override
+		public int getColumnIndex(String column) {
+			return columns.indexOf(column);
+		}
+
+		@Override
+		public Object getValue(int pos) {
+			return values.get(pos);
+		}
+
+		@Override
+		public Tuple addValue(Object value) {
+			values.add(value);
+			return this;
+		}
+
+		@Override
+		public int size() {
+			return values.size();
+		}
+
+		@Override
+		public void clear() {
+			values.clear();
+		}
+
+		@Override
+		public List<Class<?>> types() {
+			List<Class<?>> types = new ArrayList<>();
+			for (Object value : values) {
+				types.add(value == null ? Object.class : value.getClass());
+			}
+			return types;
+		}
+	}
+
+	public void limitAllStrategy(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		sql.limitAll(new SqlAssist().setRowSize(3)).onSuccess(expect -> {
+			sql.limitAll(new SqlAssist().setRowSize(3), SqlLimitStrategy.WINDOW).onSuccess(window -> {
+				LOG.info("limitAllStrategy WINDOW 执行结果:" + window);
+				sql.limitAll(new SqlAssist().setRowSize(3).setPage(100), SqlLimitStrategy.WINDOW).onSuccess(outOfRange -> {
+					sql.limitAll(new SqlAssist().setRowSize(3), SqlLimitStrategy.CONCURRENT).onSuccess(concurrent -> {
+						LOG.info("limitAllStrategy CONCURRENT 执行结果:" + concurrent);
+						if (expect.equals(window) && expect.equals(concurrent)
+								&& expect.getLong(SqlLimitResult.TOTALS).equals(outOfRange.getLong(SqlLimitResult.TOTALS))) {
+							LOG.info("limitAllStrategy 测试通过!");
+							countCache(handler);
+						} else {
+							LOG.info("limitAllStrategy 结果不匹配!");
+							failed("limitAllStrategy 结果不匹配!\n期望结果:" + expect + "\n实际结果:" + window + "\n" + concurrent, handler);
+						}
+					}).onFailure(err -> failed(err, handler));
+				}).onFailure(err -> failed(err, handler));
+			}).onFailure(err -> failed(err, handler));
+		}).onFailure(err -> failed(err, handler));
+	}
+
+	public void countCache(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		SqlCountCache cache = new SqlCountCache(60000, 16);
+		sql.setCountCache(cache);
+		// WINDOW分页的总行数写入缓存,并且不修改传入的SqlAssist
+		SqlAssist window = new SqlAssist().setRowSize(3);
+		sql.getCount(new SqlAssist()).compose(first -> sql.getCount(new SqlAssist()).map(second -> first.equals(second)))
+				.compose(same -> sql.deleteById(-1).map(same))
+				.compose(same -> sql.getCount(new SqlAssist()).map(same))
+				.compose(same -> sql.deleteById(-1).map(same))
+				.compose(same -> sql.limitAll(window, SqlLimitStrategy.WINDOW).compose(limit -> {
+					return sql.getCount(new SqlAssist()).map(count -> same && count.equals(limit.getLong(SqlLimitResult.TOTALS)));
+				}))
+				.onComplete(res -> {
+					sql.setCountCache(null);
+					LOG.info("countCache 执行结果:" + cache.stats());
+					if (res.failed()) {
+						failed(res.cause(), handler);
+					} else if (res.result() && window.getResultColumn() == null && cache.getHits() == 2 && cache.getMisses() == 2
+							&& cache.getInvalidations() == 2) {
+						LOG.info("countCache 测试通过!");
+						resultCache(handler);
+					} else {
+						LOG.info("countCache 结果不匹配!");
+						failed("countCache 结果不匹配!\n期望结果:[hits=2, misses=2, invalidations=2]\n实际结果:" + cache.stats(), handler);
+					}
+				});
+	}
+
+	public void resultCache(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		SqlResultCache cache = new SqlResultCache(60000, 16, 1024 * 1024);
+		sql.setResultCache(cache);
+		sql.selectAll(new SqlAssist()).compose(first -> {
+			first.get(0).put("id", -1);
+			return sql.selectAll(new SqlAssist()).map(second -> second.get(0).getInteger("id") != -1);
+		}).compose(same -> sql.deleteById(-1).map(same))
+				.compose(same -> sql.selectAll(new SqlAssist()).map(same))
+				.onComplete(res -> {
+					sql.setResultCache(null);
+					LOG.info("resultCache 执行结果:" + cache.stats());
+					boolean tagged = SqlResultCache.tags("student", "inner join `classes` t2 on t1.cid=t2.id").contains("classes");
+					if (res.failed()) {
+						failed(res.cause(), handler);
+					} else if (res.result() && tagged && cache.getHits() == 1 && cache.getMisses() == 2 && cache.getInvalidations() == 1) {
+						LOG.info("resultCache 测试通过!");
+						entityCache(handler);
+					} else {
+						LOG.info("resultCache 结果不匹配!");
+						failed("resultCache 结果不匹配!\n期望结果:[hits=1, misses=2, invalidations=1]\n实际结果:" + cache.stats(), handler);
+					}
+				});
+	}
+
+	public void entityCache(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		SqlEntityCache cache = new SqlEntityCache(60000, 16, true);
+		sql.setEntityCache(cache);
+		sql.selectById(1).compose(first -> {
+			first.put("id", -1);
+			return sql.selectById(1).map(second -> second.getInteger("id") == 1);
+		}).compose(same -> sql.selectByIds(Arrays.asList(1, -1)).map(rows -> same && rows.get(0) != null && rows.get(1) == null))
+				.compose(same -> sql.selectById(-1).map(row -> same && row == null))
+				.compose(same -> sql.deleteById(-1).map(same))
+				.onComplete(res -> {
+					sql.setEntityCache(null);
+					LOG.info("entityCache 执行结果:" + cache.stats());
+					if (res.failed()) {
+						failed(res.cause(), handler);
+					} else if (res.result() && cache.getHits() == 3 && cache.getMisses() == 2 && cache.getInvalidations() == 1) {
+						LOG.info("entityCache 测试通过!");
+						singleFlight(handler);
+					} else {
+						LOG.info("entityCache 结果不匹配!");
+						failed("entityCache 结果不匹配!\n期望结果:[hits=3, misses=2, invalidations=1]\n实际结果:" + cache.stats(), handler);
+					}
+				});
+	}
+
+	public void singleFlight(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		// 查询延迟返回结果,驱动同步完成查询时后面的调用不会合并
+		Pool pool = (Pool) sql.getDbClient();
+		CommonSQL<JsonObject, Pool> slow = new CommonSQL<JsonObject, Pool>(new SlowQueryExecute(pool, 100), JsonObjectSQL.statement()) {
+		};
+		SqlSingleFlight flight = new SqlSingleFlight();
+		slow.setSingleFlight(flight);
+		Future<List<JsonObject>> first = slow.selectAll(new SqlAssist());
+		Future<List<JsonObject>> second = slow.selectAll(new SqlAssist());
+		Future<List<JsonObject>> third = slow.selectAll(new SqlAssist());
+		CompositeFuture.all(first, second, third).onComplete(res -> {
+			LOG.info("singleFlight 执行结果:" + flight.stats());
+			if (res.failed()) {
+				failed(res.cause(), handler);
+			} else if (first.result().equals(second.result()) && first.result() != second.result() && flight.getExecutions() == 1
+					&& flight.getCoalesced() == 2 && flight.inFlight() == 0) {
+				LOG.info("singleFlight 测试通过!");
+				singleFlightContext(handler);
+			} else {
+				LOG.info("singleFlight 结果不匹配!");
+				failed("singleFlight 结果不匹配!\n期望结果:[executions=1, coalesced=2]\n实际结果:" + flight.stats(), handler);
+			}
+		});
+	}
+
+	public void singleFlightContext(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		Vertx vertx = Vertx.currentContext().owner();
+		Context owner = Vertx.currentContext();
+		SqlSingleFlight flight = new SqlSingleFlight();
+		String key = SqlSingleFlight.key("obj", new SqlAndParams("select 1"));
+		Promise<Boolean> first = Promise.promise();
+		Promise<Boolean> second = Promise.promise();
+		flight.<JsonObject>execute(key, h -> vertx.setTimer(100, id -> h.handle(Future.succeededFuture(new JsonObject().put("id", 1)))),
+				SqlSingleFlight::copy, res -> first.complete(res.succeeded() && Vertx.currentContext() == owner));
+		vertx.deployVerticle(new AbstractVerticle() {
+			@Override
+			public void start() {
+				Context waiter = context;
+				flight.<JsonObject>execute(key, h -> h.handle(Future.failedFuture("not coalesced")), SqlSingleFlight::copy,
+						res -> second.complete(res.succeeded() && res.result().getInteger("id") == 1 && Vertx.currentContext() == waiter));
+			}
+		}).compose(id -> CompositeFuture.all(first.future(), second.future()).onComplete(res -> vertx.undeploy(id)))
+				.onComplete(res -> {
+					LOG.info("singleFlightContext 执行结果:" + flight.stats());
+					if (res.failed()) {
+						failed(res.cause(), handler);
+					} else if (first.future().result() && second.future().result() && flight.getCoalesced() == 1) {
+						LOG.info("singleFlightContext 测试通过!");
+						batchLoader(handler);
+					} else {
+						LOG.info("singleFlightContext 结果不匹配!");
+						failed("singleFlightContext 结果不匹配!\n期望结果:[每个调用者在自己的Context中收到结果, coalesced=1]\n实际结果:"
+								+ flight.stats(), handler);
+					}
+				});
+	}
+
+	public void batchLoader(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		SqlBatchLoader loader = new SqlBatchLoader();
+		sql.setBatchLoader(loader);
+		Future<JsonObject> first = sql.selectById(1);
+		Future<JsonObject> second = sql.selectById(-1);
+		Future<JsonObject> third = sql.selectById(1);
+		CompositeFuture.all(first, second, third).onComplete(res -> {
+			sql.setBatchLoader(null);
+			LOG.info("batchLoader 执行结果:" + loader.stats());
+			if (res.failed()) {
+				failed(res.cause(), handler);
+			} else if (first.result() != null && first.result().equals(third.result()) && second.result() == null
+					&& loader.getBatches() == 1 && loader.getDeduplicated() == 1 && loader.getHistogram().get("2") == 1) {
+				LOG.info("batchLoader 测试通过!");
+				insertBuffer(handler);
+			} else {
+				LOG.info("batchLoader 结果不匹配!");
+				failed("batchLoader 结果不匹配!\n期望结果:[batches=1, deduplicated=1, histogram={\"2\":1}]\n实际结果:" + loader.stats(),
+						handler);
+			}
+		});
+	}
+
+	public void insertBuffer(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		List<Integer> batches = new ArrayList<>();
+		SqlInsertBuffer<E> buffer = new SqlInsertBuffer<E>(Vertx.currentContext().owner(), list -> {
+			batches.add(list.size());
+			return Future.succeededFuture(list.size());
+		}, 2, 20, 1).setWriteQueueMaxSize(3);
+		@SuppressWarnings("rawtypes")
+		List<Future> writes = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			writes.add(buffer.write(insertAllData()));
+		}
+		boolean flushed = buffer.size() == 1 && !buffer.writeQueueFull();
+		CompositeFuture.all(writes).compose(v -> buffer.end()).onComplete(res -> {
+			LOG.info("insertBuffer 执行结果:" + buffer.stats() + ", batches:" + batches);
+			boolean ended = buffer.write(insertAllData()).failed();
+			if (res.failed()) {
+				failed(res.cause(), handler);
+			} else if (flushed && ended && batches.equals(Arrays.asList(2, 1)) && buffer.getInserted() == 3) {
+				LOG.info("insertBuffer 测试通过!");
+				withTransaction(handler);
+			} else {
+				LOG.info("insertBuffer 结果不匹配!");
+				failed("insertBuffer 结果不匹配!\n期望结果:[batches=[2, 1], inserted=3]\n实际结果:" + buffer.stats() + batches, handler);
+			}
+		});
+	}
+
+	public void withTransaction(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		sql.withTransaction(tx -> tx.of(sql).deleteById(1).compose(rows -> tx.of(sql).selectById(1)).compose(row -> {
+			return Future.<Long>failedFuture(row == null ? "rollback" : "not deleted");
+		})).recover(err -> {
+			if (!"rollback".equals(err.getMessage())) {
+				return Future.failedFuture(err);
+			}
+			return sql.withTransaction(tx -> tx.of(sql).getCount(new SqlAssist()));
+		}).compose(count -> sql.getCount(new SqlAssist()).map(count::equals)).compose(same -> {
+			return sql.selectById(1).map(row -> same && row != null);
+		}).onComplete(res -> {
+			LOG.info("withTransaction 执行结果:" + res.result());
+			if (res.failed()) {
+				failed(res.cause(), handler);
+			} else if (res.result()) {
+				LOG.info("withTransaction 测试通过!");
+				nestedTransaction(handler);
+			} else {
+				LOG.info("withTransaction 结果不匹配!");
+				failed("withTransaction 结果不匹配!\n期望结果:[回滚后数据仍然存在,事务中的总行数与事务外一致]\n实际结果:" + res.result(), handler);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	public void nestedTransaction(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		// 外层事务只绑定了other,sql只在嵌套的事务中使用,外层事务提交后sql的缓存也需要失效
+		Pool pool = (Pool) sql.getDbClient();
+		CommonSQL<E, Pool> pooled = (CommonSQL<E, Pool>) (CommonSQL<E, ?>) sql;
+		CommonSQL<JsonObject, Pool> other = new CommonSQL<JsonObject, Pool>(new PoolExecute(pool), JsonObjectSQL.statement()) {
+		};
+		SqlCountCache cache = new SqlCountCache(60000, 16);
+		sql.setCountCache(cache);
+		List<String> columns = Arrays.asList(COLUMN_ID, COLUMN_CID, COLUMN_PWD);
+		List<Tuple> params = Arrays.asList(Tuple.of(20001, 1, "nested"));
+		sql.getCount(new SqlAssist()).compose(before -> other.withTransaction(tx -> {
+			return tx.of(other).withTransaction(inner -> inner.of(pooled).insertBulk(columns, params).map(rows -> inner == tx));
+		}).compose(same -> sql.getCount(new SqlAssist()).map(after -> Arrays.asList(same, after - before)))).onComplete(res -> {
+			sql.setCountCache(null);
+			LOG.info("nestedTransaction 执行结果:" + res.result() + " " + cache.stats());
+			sql.deleteById(20001).onComplete(deleted -> {
+				if (res.failed()) {
+					failed(res.cause(), handler);
+				} else if (Objects.equals(true, res.result().get(0)) && Objects.equals(1L, res.result().get(1))) {
+					LOG.info("nestedTransaction 测试通过!");
+					executeAll(handler);
+				} else {
+					LOG.info("nestedTransaction 结果不匹配!");
+					failed("nestedTransaction 结果不匹配!\n期望结果:[true, 1]\n实际结果:" + res.result(), handler);
+				}
+			});
+		});
+	}
+
+	public void executeAll(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		List<SqlAndParams> qps = Arrays.asList(new SqlAndParams("select count(*) from student"),
+				new SqlAndParams("select * from student where id = ?", Tuple.of(1)), new SqlAndParams("select * from not_exists_table"));
+		sql.executeAll(qps, true).compose(v -> Future.<CompositeFuture>failedFuture("fail-fast did not fail"), err -> {
+			return sql.executeAll(qps, false);
+		}).map(all -> {
+			LOG.info("executeAll 执行结果:" + Arrays.asList(all.succeeded(0), all.succeeded(1), all.succeeded(2)));
+			RowSet<Row> count = all.resultAt(0);
+			RowSet<Row> row = all.resultAt(1);
+			return all.succeeded(0) && all.succeeded(1) && all.failed(2) && count.iterator().next().getLong(0) > 0 && row.size() == 1;
+		}).onComplete(res -> {
+			if (res.failed()) {
+				failed(res.cause(), handler);
+			} else if (res.result()) {
+				LOG.info("executeAll 测试通过!");
+				routing(handler);
+			} else {
+				LOG.info("executeAll 结果不匹配!");
+				failed("executeAll 结果不匹配!\n期望结果:[前两个语句成功,第三个语句失败]\n实际结果:" + res.result(), handler);
+			}
+		});
+	}
+
+	public void routing(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		Pool pool = (Pool) sql.getDbClient();
+		SQLExecuteImplRouting<Pool> routing = SQLExecute.createRouting(new PoolExecute(pool),
+				Arrays.asList(new PoolExecute(pool), new PoolExecute(pool), new CustomExecute(new PoolExecute(pool))),
+				SqlReplicaStrategy.ROUND_ROBIN);
+		routing.setReadYourWritesWindow(60000);
+		// 主库与每个只读库使用各自的合并查询,不支持合并的自定义执行器忽略设置
+		SqlSingleFlight flight = new SqlSingleFlight();
+		routing.setSingleFlight(flight);
+		SqlSingleFlight replicaFlight = routing.getReplicas().get(0).getSingleFlight();
+		boolean separate = routing.getSingleFlight() == flight && replicaFlight != null && replicaFlight != flight
+				&& routing.getReplicas().get(1).getSingleFlight() != replicaFlight
+				&& routing.getReplicas().get(2).getSingleFlight() == null;
+		// 加锁的查询与修改数据的CTE使用主库
+		List<Boolean> reads = new ArrayList<>();
+		for (String read : Arrays.asList("select * from student", " /* hint */ (select id from student)",
+				"with t as (select id from student) select * from t", "select * from student where id = ? for update",
+				"select * from student for share", "select * from student lock in share mode",
+				"with t as (delete from student where id = ? returning *) select * from t",
+				"with t as (update student set cid = 1 returning id) select * from t", "select * into backup from student",
+				"update student set cid = 1")) {
+			reads.add(SQLExecuteImplRouting.isRead(new SqlAndParams(read)));
+		}
+		boolean classified = reads.equals(Arrays.asList(true, true, true, false, false, false, false, false, false, false));
+		SqlAndParams select = new SqlAndParams("select * from student where id = ?", Tuple.of(1));
+		Promise<List<JsonObject>> first = Promise.promise();
+		Promise<List<JsonObject>> second = Promise.promise();
+		routing.queryAsList(select, first);
+		routing.queryAsList(select, second);
+		CompositeFuture.all(first.future(), second.future()).compose(v -> {
+			Promise<Integer> update = Promise.promise();
+			routing.update(new SqlAndParams("update student set cid = cid where id = ?", Tuple.of(1)), update);
+			return update.future();
+		}).compose(v -> {
+			Promise<JsonObject> row = Promise.promise();
+			routing.queryAsObj(select, row);
+			return row.future();
+		}).onComplete(res -> {
+			JsonObject stats = routing.stats();
+			LOG.info("routing 执行结果:" + stats);
+			JsonArray replicas = stats.getJsonArray("replicas");
+			if (res.failed()) {
+				failed(res.cause(), handler);
+			} else if (separate && classified && res.result() != null && stats.getLong("writes") == 1 && stats.getLong("primaryReads") == 1
+					&& replicas.getJsonObject(0).getLong("routed") == 1 && replicas.getJsonObject(1).getLong("routed") == 1) {
+				LOG.info("routing 测试通过!");
+				readYourWrites(handler);
+			} else {
+				LOG.info("routing 结果不匹配!");
+				failed("routing 结果不匹配!\n期望结果:[separate=true, reads=[true, true, true, false...], writes=1, primaryReads=1, "
+						+ "routed=[1, 1]]\n实际结果:" + separate + " " + reads + " " + stats, handler);
+			}
+		});
+	}
+
+	public void readYourWrites(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		// 写入执行的时间超过设置的时间,写入完成后的查询仍然使用主库,超过设置的时间后使用只读库
+		Pool pool = (Pool) sql.getDbClient();
+		Vertx vertx = Vertx.currentContext().owner();
+		SQLExecuteImplRouting<Pool> routing = SQLExecute.createRouting(new SlowPoolExecute(pool, 300),
+				Arrays.asList(new PoolExecute(pool)), SqlReplicaStrategy.ROUND_ROBIN);
+		routing.setReadYourWritesWindow(100);
+		SqlAndParams select = new SqlAndParams("select * from student where id = ?", Tuple.of(1));
+		Promise<Integer> update = Promise.promise();
+		routing.update(new SqlAndParams("update student set cid = cid where id = ?", Tuple.of(1)), update);
+		update.future().compose(v -> {
+			Promise<JsonObject> row = Promise.promise();
+			routing.queryAsObj(select, row);
+			return row.future();
+		}).compose(v -> {
+			Promise<JsonObject> row = Promise.promise();
+			vertx.setTimer(200, id -> routing.queryAsObj(select, row));
+			return row.future();
+		}).onComplete(res -> {
+			JsonObject stats = routing.stats();
+			LOG.info("readYourWrites 执行结果:" + stats);
+			if (res.failed()) {
+				failed(res.cause(), handler);
+			} else if (stats.getLong("writes") == 1 && stats.getLong("primaryReads") == 1
+					&& stats.getJsonArray("replicas").getJsonObject(0).getLong("routed") == 1) {
+				LOG.info("readYourWrites 测试通过!");
+				routingStream(handler);
+			} else {
+				LOG.info("readYourWrites 结果不匹配!");
+				failed("readYourWrites 结果不匹配!\n期望结果:[writes=1, primaryReads=1, routed=[1]]\n实际结果:" + stats, handler);
+			}
+		});
+	}
+
+	public void routingStream(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		// 流在读取结束或关闭前计入只读库正在执行的数量,最少执行数量的方式将其他查询分配到空闲的只读库
+		Pool pool = (Pool) sql.getDbClient();
+		SQLExecuteImplRouting<Pool> routing = SQLExecute.createRouting(new PoolExecute(pool),
+				Arrays.asList(new PoolExecute(pool), new PoolExecute(pool)), SqlReplicaStrategy.LEAST_OUTSTANDING);
+		SqlAndParams select = new SqlAndParams("select * from student");
+		List<Integer> opened = new ArrayList<>();
+		Promise<SqlReadStream<JsonObject>> first = Promise.promise();
+		routing.stream(select, 2, Row::toJson, first);
+		first.future().compose(stream -> {
+			opened.add(routing.stats().getJsonArray("replicas").getJsonObject(0).getInteger("outstanding"));
+			Promise<SqlReadStream<JsonObject>> second = Promise.promise();
+			routing.stream(select, 2, Row::toJson, second);
+			return second.future().compose(other -> {
+				opened.add(routing.stats().getJsonArray("replicas").getJsonObject(1).getInteger("outstanding"));
+				Promise<Void> ended = Promise.promise();
+				stream.exceptionHandler(ended::tryFail);
+				stream.endHandler(v -> ended.tryComplete());
+				stream.handler(row -> {
+				});
+				return CompositeFuture.all(ended.future(), other.close());
+			});
+		}).onComplete(res -> {
+			JsonObject stats = routing.stats();
+			LOG.info("routingStream 执行结果:" + opened + " " + stats);
+			JsonArray replicas = stats.getJsonArray("replicas");
+			if (res.failed()) {
+				failed(res.cause(), handler);
+			} else if (opened.equals(Arrays.asList(1, 1)) && replicas.getJsonObject(0).getInteger("outstanding") == 0
+					&& replicas.getJsonObject(1).getInteger("outstanding") == 0) {
+				LOG.info("routingStream 测试通过!");
+				selectAllStream(handler);
+			} else {
+				LOG.info("routingStream 结果不匹配!");
+				failed("routingStream 结果不匹配!\n期望结果:[opened=[1, 1], outstanding=[0, 0]]\n实际结果:" + opened + " " + stats, handler);
+			}
+		});
+	}
+
+	/**
+	 * 用于测试读写分离的连接池执行器
+	 */
+	private static class PoolExecute extends SQLExecuteBase implements SQLExecute<Pool> {
+		private final Pool pool;
+
+		public PoolExecute(Pool pool) {
+			super(pool);
+			this.pool = pool;
+		}
+
+		@Override
+		public Pool getClient() {
+			return pool;
+		}
+	}
+
+	/**
+	 * 用于测试读写分离的自定义执行器,只实现必须的方法
+	 */
+	private static class CustomExecute implements SQLExecute<Pool> {
+		private final SQLExecute<Pool> execute;
+
+		public CustomExecute(SQLExecute<Pool> execute) {
+			this.execute = execute;
+		}
+
+		@Override
+		public Pool getClient() {
+			return execute.getClient();
+		}
+
+		@Override
+		public void execute(SqlAndParams qp, Handler<AsyncResult<RowSet<Row>>> handler) {
+			execute.execute(qp, handler);
+		}
+
+		@Override
+		public void queryAsObj(SqlAndParams qp, Handler<AsyncResult<JsonObject>> handler) {
+			execute.queryAsObj(qp, handler);
+		}
+
+		@Override
+		public void queryAsList(SqlAndParams qp, Handler<AsyncResult<List<JsonObject>>> handler) {
+			execute.queryAsList(qp, handler);
+		}
+
+		@Override
+		public void update(SqlAndParams qp, Handler<AsyncResult<Integer>> handler) {
+			execute.update(qp, handler);
+		}
+
+		@Override
+		public <R> void updateResult(SqlAndParams qp, PropertyKind<R> property, Handler<AsyncResult<R>> handler) {
+			execute.updateResult(qp, property, handler);
+		}
+
+		@Override
+		public void batch(SqlAndParams qp, Handler<AsyncResult<Integer>> handler) {
+			execute.batch(qp, handler);
+		}
+	}
+
+	/**
+	 * 用于测试读写分离的连接池执行器,更新完成后延迟返回结果
+	 */
+	private static class SlowPoolExecute extends PoolExecute {
+		private final long delay;
+
+		public SlowPoolExecute(Pool pool, long delay) {
+			super(pool);
+			this.delay = delay;
+		}
+
+		@Override
+		public void update(SqlAndParams qp, Handler<AsyncResult<Integer>> handler) {
+			Vertx vertx = Vertx.currentContext().owner();
+			super.update(qp, res -> vertx.setTimer(delay, id -> handler.handle(res)));
+		}
+	}
+
+	/**
+	 * 用于测试合并查询的连接池执行器,查询完成后延迟返回结果
+	 */
+	private static class SlowQueryExecute extends PoolExecute {
+		private final long delay;
+
+		public SlowQueryExecute(Pool pool, long delay) {
+			super(pool);
+			this.delay = delay;
+		}
+
+		@Override
+		public <A, R> void collect(SqlAndParams qp, Collector<Row, A, R> collector, Handler<AsyncResult<R>> handler) {
+			Vertx vertx = Vertx.currentContext().owner();
+			super.collect(qp, collector, res -> vertx.setTimer(delay, id -> handler.handle(res)));
+		}
+	}
+
+	public void selectAllStream(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		sql.getCount(new SqlAssist()).onSuccess(count -> {
+			sql.selectAllStream(new SqlAssist(), 3).onSuccess(stream -> {
+				List<JsonObject> rows = new ArrayList<>();
+				stream.exceptionHandler(err -> failed(err, handler));
+				stream.endHandler(v -> {
+					LOG.info("selectAllStream 执行结果:" + rows.size());
+					if (rows.size() == count) {
+						LOG.info("selectAllStream 测试通过!");
+						forEachChunk(handler);
+					} else {
+						LOG.info("selectAllStream 结果不匹配!");
+						failed("selectAllStream 结果不匹配!\n期望结果:" + count + "\n实际结果:" + rows.size(), handler);
+					}
+				});
+				stream.handler(rows::add);
+			}).onFailure(err -> failed(err, handler));
+		}).onFailure(err -> failed(err, handler));
+	}
+
+	public void forEachChunk(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		// 遍历使用副本,传入的SqlAssist不变;设置了排序时失败
+		SqlAssist assist = new SqlAssist().setRowSize(20);
+		JsonObject before = assist.toJson();
+		sql.getCount(new SqlAssist()).onSuccess(count -> {
+			List<Long> ids = new ArrayList<>();
+			sql.forEachChunk(assist, 3, true, chunk -> {
+				chunk.forEach(row -> ids.add(row.getLong(COLUMN_ID)));
+				return Future.succeededFuture();
+			}).compose(total -> {
+				return sql.forEachChunk(new SqlAssist().setOrders(SqlAssist.order(COLUMN_ID, false)), 3, chunk -> Future.succeededFuture())
+						.map(v -> -1L).otherwise(total);
+			}).onSuccess(total -> {
+				LOG.info("forEachChunk 执行结果:" + total + " " + ids + " " + assist);
+				boolean sorted = true;
+				for (int i = 1; i < ids.size(); i++) {
+					sorted &= ids.get(i) > ids.get(i - 1);
+				}
+				if (total.equals(count) && ids.size() == count && sorted && before.equals(assist.toJson())) {
+					LOG.info("forEachChunk 测试通过!");
+					selectAllAs(handler);
+				} else {
+					LOG.info("forEachChunk 结果不匹配!");
+					failed("forEachChunk 结果不匹配!\n期望结果:" + count + "\n实际结果:" + total + " " + ids, handler);
+				}
+			}).onFailure(err -> failed(err, handler));
+		}).onFailure(err -> failed(err, handler));
+	}
+
+	public void selectAllAs(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		sql.selectAll(new SqlAssist()).onSuccess(expect -> {
+			sql.selectAllAs(new SqlAssist()).onSuccess(list -> {
+				sql.selectByIdAs(1).onSuccess(one -> {
+					LOG.info("selectAllAs 执行结果:" + list + " selectByIdAs 执行结果:" + one);
+					if (list.size() == expect.size() && one != null) {
+						LOG.info("selectAllAs 测试通过!");
+						selectAllCollect(handler);
+					} else {
+						LOG.info("selectAllAs 结果不匹配!");
+						failed("selectAllAs 结果不匹配!\n期望结果:" + expect + "\n实际结果:" + list + " " + one, handler);
+					}
+				}).onFailure(err -> failed(err, handler));
+			}).onFailure(err -> failed(err, handler));
+		}).onFailure(err -> failed(err, handler));
+	}
+
+	public void selectAllCollect(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		sql.selectAll(new SqlAssist()).onSuccess(expect -> {
+			long expectSum = 0;
+			for (JsonObject row : expect) {
+				expectSum += row.getLong("cid", 0L);
+			}
+			long sum = expectSum;
+			sql.selectAllGroupBy(new SqlAssist(), "cid").onSuccess(groups -> {
+				sql.selectAllToMap(new SqlAssist(), "id").onSuccess(map -> {
+					sql.selectAllSum(new SqlAssist(), "cid").onSuccess(total -> {
+						int grouped = 0;
+						for (List<JsonObject> group : groups.values()) {
+							grouped += group.size();
+						}
+						LOG.info("selectAllCollect 执行结果:" + groups.keySet() + " " + map.keySet() + " " + total);
+						if (grouped == expect.size() && map.size() == expect.size() && total == sum) {
+							LOG.info("selectAllCollect 测试通过!");
+							selectAllColumnar(handler);
+						} else {
+							LOG.info("selectAllCollect 结果不匹配!");
+							failed("selectAllCollect 结果不匹配!\n期望结果:" + expect.size() + " " + sum + "\n实际结果:" + grouped + " "
+									+ map.size() + " " + total, handler);
+						}
+					}).onFailure(err -> failed(err, handler));
+				}).onFailure(err -> failed(err, handler));
+			}).onFailure(err -> failed(err, handler));
+		}).onFailure(err -> failed(err, handler));
+	}
+
+	public void selectAllColumnar(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		sql.selectAll(new SqlAssist()).onSuccess(expect -> {
+			sql.selectAllColumnar(new SqlAssist(), SqlResultFormat.ROWS).onSuccess(rows -> {
+				SqlAssist assist = new SqlAssist().setPage(1).setRowSize(3);
+				sql.limitAllColumnar(assist, SqlResultFormat.COLUMNS).onSuccess(page -> {
+					LOG.info("selectAllColumnar 执行结果:" + rows.toJson() + " limitAllColumnar 执行结果:" + page);
+					JsonObject data = page.getJsonObject(SqlLimitResult.getResultKey(SqlLimitResult.DATA));
+					JsonArray values = data.getJsonArray(SqlColumnarResult.VALUES);
+					if (rows.size() == expect.size() && rows.getRow(0).equals(expect.get(0)) && values.size() == rows.getColumns().size()
+							&& values.getJsonArray(0).size() == 3) {
+						LOG.info("selectAllColumnar 测试通过!");
+						selectAllBuffer(handler);
+					} else {
+						LOG.info("selectAllColumnar 结果不匹配!");
+						failed("selectAllColumnar 结果不匹配!\n期望结果:" + expect + "\n实际结果:" + rows.toJson() + " " + page, handler);
+					}
+				}).onFailure(err -> failed(err, handler));
+			}).onFailure(err -> failed(err, handler));
+		}).onFailure(err -> failed(err, handler));
+	}
+
+	public void selectAllBuffer(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		sql.selectAll(new SqlAssist()).onSuccess(expect -> {
+			sql.selectAllBuffer(new SqlAssist()).onSuccess(json -> {
+				sql.selectAllBuffer(new SqlAssist(), true).onSuccess(ndjson -> {
+					sql.limitAll(new SqlAssist().setPage(2).setRowSize(3)).onSuccess(page -> {
+						sql.limitAllBuffer(new SqlAssist().setPage(2).setRowSize(3)).onSuccess(buffer -> {
+							LOG.info("selectAllBuffer 执行结果:" + json + " limitAllBuffer 执行结果:" + buffer);
+							int lines = ndjson.toString().split("\n").length;
+							if (new JsonArray(json).equals(new JsonArray(expect)) && lines == expect.size()
+									&& new JsonObject(buffer).equals(page)) {
+								LOG.info("selectAllBuffer 测试通过!");
+								selectById(handler);
+							} else {
+								LOG.info("selectAllBuffer 结果不匹配!");
+								failed("selectAllBuffer 结果不匹配!\n期望结果:" + expect + " " + page + "\n实际结果:" + json + " " + buffer, handler);
+							}
+						}).onFailure(err -> failed(err, handler));
+					}).onFailure(err -> failed(err, handler));
+				}).onFailure(err -> failed(err, handler));
+			}).onFailure(err -> failed(err, handler));
+		}).onFailure(err -> failed(err, handler));
+	}
+
 	public void selectById(Handler<AsyncResult<Integer>> handler) {
 		System.out.println("=================================================");
 		String cols = "t1.id,t2.classanme";
@@ -517,13 +1587,30 @@ public abstract class TestSuite<E, C> {
 			LOG.info("selectById 执行结果:" + res);
 			if (res.getString("classanme") != null) {
 				LOG.info("selectById 测试通过!");
-				selectSingleByObj(handler);
+				selectByIds(handler);
 			} else {
 				LOG.info("selectById 结果不匹配!");
 				failed("selectById 结果不匹配!\n期望结果:[non null]\n实际结果:[null]", handler);
 			}
 		}).onFailure(err -> failed(err, handler));
 	}
+
+	public void selectByIds(Handler<AsyncResult<Integer>> handler) {
+		System.out.println("=================================================");
+		String cols = "t1.id,t2.classanme";
+		String join = "inner join classes t2 on t1.cid=t2.id";
+		sql.selectByIds(Arrays.asList(-1, 1, -1), cols, "t1", join).onSuccess(res -> {
+			LOG.info("selectByIds 执行结果:" + res);
+			if (res.size() == 3 && res.get(0) == null && res.get(1) != null && res.get(1).getString("classanme") != null
+					&& res.get(2) == null) {
+				LOG.info("selectByIds 测试通过!");
+				selectSingleByObj(handler);
+			} else {
+				LOG.info("selectByIds 结果不匹配!");
+				failed("selectByIds 结果不匹配!\n期望结果:[null, non null, null]\n实际结果:" + res, handler);
+			}
+		}).onFailure(err -> failed(err, handler));
+	}
 	/** 通过obj查询的数据,要求:cid=1 */
 	public abstract E selectByObjData();
 	public void selectSingleByObj(Handler<AsyncResult<Integer>> handler) {